@@ -19,10 +19,13 @@ import ai.djl.ndarray.NDManager;
 import ai.djl.ndarray.types.DataType;
 import ai.djl.ndarray.types.Shape;
 import ai.djl.nn.Block;
+import ai.djl.nn.ParameterInputStream;
+import ai.djl.nn.ParameterOutputStream;
 import ai.djl.nn.SymbolBlock;
 import ai.djl.training.ParameterStore;
 import ai.djl.training.Trainer;
 import ai.djl.training.TrainingConfig;
+import ai.djl.translate.ArgumentsUtil;
 import ai.djl.translate.Translator;
 import ai.djl.util.Pair;
 import ai.djl.util.PairList;
@@ -33,28 +36,37 @@ import org.slf4j.LoggerFactory;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Function;
+import java.util.function.Predicate;
 
 /** {@code BaseModel} is the basic implementation of {@link Model}. */
 public abstract class BaseModel implements Model {
 
     private static final Logger logger = LoggerFactory.getLogger(BaseModel.class);
     private static final int MODEL_VERSION = 1;
+    private static final int INDEXED_VERSION = 2;
 
     protected Path modelDir;
     protected Block block;
@@ -258,31 +270,97 @@ public abstract class BaseModel implements Model {
         Path paramFile = modelPath.resolve(fileName);
         try (DataOutputStream dos =
                 new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(paramFile)))) {
-            dos.writeBytes("DJL@");
-            dos.writeInt(MODEL_VERSION);
-            dos.writeUTF(newModelName);
-            dos.writeUTF(dataType.name());
-            inputData = block.describeInput();
-            dos.writeInt(inputData.size());
-            for (Pair<String, Shape> desc : inputData) {
-                String name = desc.getKey();
-                if (name == null) {
-                    dos.writeUTF("");
-                } else {
-                    dos.writeUTF(name);
-                }
-                dos.write(desc.getValue().getEncoded());
-            }
+            writeParameters(dos, newModelName);
+        }
+        modelDir = modelPath.toAbsolutePath();
+    }
 
-            dos.writeInt(properties.size());
-            for (Map.Entry<String, String> entry : properties.entrySet()) {
-                dos.writeUTF(entry.getKey());
-                dos.writeUTF(entry.getValue());
-            }
+    /**
+     * Saves the model to the output stream in the format of the {@code .params} file written by
+     * {@link #save(Path, String)}.
+     *
+     * <p>This allows to write the model to a temporary file that is renamed once complete.
+     *
+     * @param os the output stream to save the model to
+     * @param newModelName the new model name to be saved, use null to keep original model name
+     * @throws IOException failed to save the model
+     */
+    public void save(OutputStream os, String newModelName) throws IOException {
+        if (newModelName == null || newModelName.isEmpty()) {
+            newModelName = modelName;
+        }
+        if (block == null || !block.isInitialized()) {
+            throw new IllegalStateException("Model has not be trained or loaded yet.");
+        }
+        DataOutputStream dos = new DataOutputStream(os);
+        writeParameters(dos, newModelName);
+        dos.flush();
+    }
 
+    /**
+     * Takes a snapshot of the model, to save it later in the format of the {@code .params} file
+     * written by {@link #save(Path, String)}.
+     *
+     * <p>The parameter arrays are copied on their device into the manager, which is fast compared
+     * to their serialization. The training can then continue while the snapshot is written, for
+     * example by another thread. The manager must stay open until the snapshot is written.
+     *
+     * @param newModelName the new model name to be saved, use null to keep original model name
+     * @param manager the manager of the copies of the parameter arrays
+     * @return the snapshot of the model
+     * @throws IOException failed to write the metadata of the model
+     */
+    public Snapshot snapshot(String newModelName, NDManager manager) throws IOException {
+        if (newModelName == null || newModelName.isEmpty()) {
+            newModelName = modelName;
+        }
+        if (block == null || !block.isInitialized()) {
+            throw new IllegalStateException("Model has not be trained or loaded yet.");
+        }
+        boolean indexed = Boolean.getBoolean("ai.djl.indexed_params");
+        ByteArrayOutputStream header = new ByteArrayOutputStream();
+        DataOutputStream dos = new DataOutputStream(header);
+        writeHeader(dos, newModelName, indexed);
+        dos.flush();
+        ParameterOutputStream parameters = ParameterOutputStream.collect(block, indexed);
+        parameters.snapshot(manager);
+        return new Snapshot(header.toByteArray(), parameters);
+    }
+
+    private void writeParameters(DataOutputStream dos, String newModelName) throws IOException {
+        // the indexed format can't be loaded by older versions of DJL, it must be asked for
+        boolean indexed = Boolean.getBoolean("ai.djl.indexed_params");
+        writeHeader(dos, newModelName, indexed);
+        if (indexed) {
+            ParameterOutputStream.write(block, dos);
+        } else {
             block.saveParameters(dos);
         }
-        modelDir = modelPath.toAbsolutePath();
+    }
+
+    private void writeHeader(DataOutputStream dos, String newModelName, boolean indexed)
+            throws IOException {
+        dos.writeBytes("DJL@");
+        dos.writeInt(indexed ? INDEXED_VERSION : MODEL_VERSION);
+        dos.writeUTF(newModelName);
+        dos.writeUTF(dataType.name());
+        inputData = block.describeInput();
+        dos.writeInt(inputData.size());
+        for (Pair<String, Shape> desc : inputData) {
+            String name = desc.getKey();
+            if (name == null) {
+                dos.writeUTF("");
+            } else {
+                dos.writeUTF(name);
+            }
+            dos.write(desc.getValue().getEncoded());
+        }
+
+        dos.writeInt(properties.size());
+        for (Map.Entry<String, String> entry : properties.entrySet()) {
+            dos.writeUTF(entry.getKey());
+            dos.writeUTF(entry.getValue());
+        }
     }
 
     /** {@inheritDoc} */
@@ -336,11 +414,39 @@ public abstract class BaseModel implements Model {
         return modelDir.resolve(String.format(Locale.ROOT, "%s-%04d.params", prefix, epoch));
     }
 
+    /**
+     * Loads the parameters of the block from a DJL {@code .params} file.
+     *
+     * <p>The following options are supported:
+     *
+     * <ul>
+     *   <li>loadThreads: the number of threads to read the arrays, defaults to the number of
+     *       processors
+     *   <li>mmap: "true" to memory-map the arrays instead of reading them, the file must not be
+     *       overwritten while the model is open
+     *   <li>parameters: the comma separated prefixes of the names of the parameters to load, or a
+     *       {@code Predicate<String>} of the names. The names are the keys of {@link
+     *       Block#getParameters()}, the other parameters are left uninitialized.
+     * </ul>
+     *
+     * <p>The arrays can only be read in parallel or memory-mapped from the indexed format. {@link
+     * #save(Path, String)} writes the indexed format when the {@code ai.djl.indexed_params} system
+     * property is {@code true}, otherwise it writes the sequential format that all versions of DJL
+     * can load.
+     *
+     * @param paramFile the parameter file
+     * @param options the load options
+     * @return {@code false} if the file is not a DJL {@code .params} file
+     * @throws IOException if failed to read the file
+     * @throws MalformedModelException if the file doesn't match the block
+     */
     protected boolean readParameters(Path paramFile, Map<String, ?> options)
             throws IOException, MalformedModelException {
         logger.debug("Try to load model from {}", paramFile);
-        try (DataInputStream dis =
-                new DataInputStream(new BufferedInputStream(Files.newInputStream(paramFile)))) {
+        try (FileChannel channel = FileChannel.open(paramFile, StandardOpenOption.READ);
+                DataInputStream dis =
+                        new DataInputStream(
+                                new BufferedInputStream(Channels.newInputStream(channel)))) {
             byte[] buf = new byte[4];
             dis.readFully(buf);
             if (!"DJL@".equals(new String(buf, StandardCharsets.US_ASCII))) {
@@ -348,7 +454,7 @@ public abstract class BaseModel implements Model {
             }
 
             int version = dis.readInt();
-            if (version != MODEL_VERSION) {
+            if (version != MODEL_VERSION && version != INDEXED_VERSION) {
                 throw new IOException("Unsupported model version: " + version);
             }
 
@@ -372,9 +478,88 @@ public abstract class BaseModel implements Model {
                 properties.put(key, value);
             }
 
-            block.loadParameters(manager, dis);
+            Predicate<String> filter = getParameterFilter(options);
+            if (version == MODEL_VERSION) {
+                if (filter == null) {
+                    block.loadParameters(manager, dis);
+                } else {
+                    ParameterInputStream pis = new ParameterInputStream(dis);
+                    pis.setFilter(filter);
+                    block.loadParameters(manager, pis);
+                }
+                logger.debug("DJL model loaded successfully");
+                return true;
+            }
+
+            int threads = Runtime.getRuntime().availableProcessors();
+            boolean mmap = false;
+            if (options != null) {
+                threads = ArgumentsUtil.intValue(options, "loadThreads", threads);
+                mmap = ArgumentsUtil.booleanValue(options, "mmap");
+            }
+            ExecutorService executor = threads > 1 ? Executors.newFixedThreadPool(threads) : null;
+            try {
+                ParameterInputStream pis =
+                        ParameterInputStream.newIndexedStream(dis, channel, executor);
+                pis.setFilter(filter);
+                pis.setMmap(mmap);
+                try {
+                    block.loadParameters(manager, pis);
+                } finally {
+                    // the channel is closed after all arrays are read
+                    pis.await();
+                }
+            } finally {
+                if (executor != null) {
+                    executor.shutdown();
+                }
+            }
             logger.debug("DJL model loaded successfully");
         }
         return true;
     }
+
+    @SuppressWarnings("unchecked")
+    private static Predicate<String> getParameterFilter(Map<String, ?> options) {
+        Object value = options == null ? null : options.get("parameters");
+        if (value == null) {
+            return null;
+        } else if (value instanceof Predicate) {
+            return (Predicate<String>) value;
+        }
+        String[] prefixes = value.toString().split(",");
+        return name -> {
+            for (String prefix : prefixes) {
+                if (name.startsWith(prefix.trim())) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    /** A snapshot of a model taken by {@link #snapshot(String, NDManager)}. */
+    public static final class Snapshot {
+
+        private byte[] header;
+        private ParameterOutputStream parameters;
+
+        Snapshot(byte[] header, ParameterOutputStream parameters) {
+            this.header = header;
+            this.parameters = parameters;
+        }
+
+        /**
+         * Writes the snapshot in the format of the {@code .params} file.
+         *
+         * @param os the output stream to write to
+         * @throws IOException failed to write the snapshot
+         */
+        public void write(OutputStream os) throws IOException {
+            DataOutputStream dos = new DataOutputStream(os);
+            dos.write(header);
+            parameters.writeTo(dos);
+            dos.flush();
+        }
+    }
 }
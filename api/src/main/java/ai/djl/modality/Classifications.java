@@ -13,6 +13,7 @@
 package ai.djl.modality;
 
 import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.types.DataType;
 import ai.djl.translate.Ensembleable;
 import ai.djl.util.JsonSerializable;
@@ -22,21 +23,32 @@ import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonSerializationContext;
 import com.google.gson.JsonSerializer;
+import com.google.gson.stream.JsonWriter;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Serializable;
 import java.lang.reflect.Type;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
 import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.function.Function;
+import java.util.function.IntToDoubleFunction;
 
 /**
  * {@code Classifications} is the container that stores the classification results for
  * classification on a single input.
+ *
+ * <p>The probabilities created from an {@link NDArray} or an array are kept in a primitive array,
+ * and the {@link Classification} items are only created for the classes that are returned. {@link
+ * #topK(int)} selects the best classes with a bounded heap instead of sorting all of them. When
+ * only the best classes are needed, {@link #ofTopK(List, NDArray, int)} selects them on the engine
+ * and keeps only those classes.
  */
 public class Classifications implements JsonSerializable, Ensembleable<Classifications> {
 
@@ -88,13 +100,89 @@ public class Classifications implements JsonSerializable, Ensembleable<Classific
      */
     public Classifications(List<String> classNames, NDArray probabilities, int topK) {
         this.classNames = classNames;
-        NDArray array = probabilities.toType(DataType.FLOAT64, false);
-        this.probabilities =
-                Arrays.stream(array.toDoubleArray()).boxed().collect(Collectors.toList());
-        array.close();
+        if (probabilities.getDataType() == DataType.FLOAT32) {
+            this.probabilities = new FloatList(probabilities.toFloatArray());
+        } else {
+            NDArray array = probabilities.toType(DataType.FLOAT64, false);
+            this.probabilities = new DoubleList(array.toDoubleArray());
+            array.close();
+        }
+        this.topK = topK;
+    }
+
+    /**
+     * Constructs a {@code Classifications} using list of classNames parallel to an array of
+     * probabilities.
+     *
+     * @param classNames the names of the classes
+     * @param probabilities the probabilities for each class for the input
+     * @param topK the number of top classes to return
+     */
+    public Classifications(List<String> classNames, float[] probabilities, int topK) {
+        this.classNames = classNames;
+        this.probabilities = new FloatList(probabilities);
         this.topK = topK;
     }
 
+    /**
+     * Creates a {@code Classifications} with only the top {@code k} classes of the probabilities.
+     *
+     * @param classNames the names of the classes
+     * @param probabilities the 1-D probabilities for each class for the input
+     * @param k the number of classes to keep
+     * @return the {@code Classifications} of the best classes in order of best to worst
+     * @see #ofTopK(NDArray, int, Function)
+     */
+    public static Classifications ofTopK(List<String> classNames, NDArray probabilities, int k) {
+        return ofTopK(
+                probabilities,
+                k,
+                indices -> {
+                    List<String> names = new ArrayList<>(indices.length);
+                    for (long index : indices) {
+                        names.add(classNames.get(Math.toIntExact(index)));
+                    }
+                    return names;
+                });
+    }
+
+    /**
+     * Creates a {@code Classifications} with only the top {@code k} classes of the probabilities.
+     *
+     * <p>The classes are selected on the engine with {@link NDArray#topK(int, int, boolean,
+     * boolean)} if the engine supports it, and with a bounded heap on the probabilities otherwise.
+     * Only the probabilities and the names of the selected classes are copied.
+     *
+     * @param probabilities the 1-D probabilities for each class for the input
+     * @param k the number of classes to keep
+     * @param classNames a function that returns the names of the given class indices
+     * @return the {@code Classifications} of the best classes in order of best to worst
+     */
+    public static Classifications ofTopK(
+            NDArray probabilities, int k, Function<long[], List<String>> classNames) {
+        int count = Math.min(k, Math.toIntExact(probabilities.size()));
+        long[] indices;
+        float[] values;
+        try {
+            NDList top = probabilities.topK(count, -1, true, true);
+            NDArray array = top.get(0).toType(DataType.FLOAT32, false);
+            values = array.toFloatArray();
+            indices = top.get(1).toLongArray();
+            array.close();
+            top.close();
+        } catch (UnsupportedOperationException e) {
+            Classifications all = new Classifications(null, probabilities, count);
+            int[] top = all.topIndices(count);
+            indices = new long[top.length];
+            values = new float[top.length];
+            for (int i = 0; i < top.length; ++i) {
+                indices[i] = top[i];
+                values[i] = (float) all.probability(top[i]);
+            }
+        }
+        return new Classifications(classNames.apply(indices), values, count);
+    }
+
     /**
      * Returns the classes that were classified into.
      *
@@ -167,10 +255,12 @@ public class Classifications implements JsonSerializable, Ensembleable<Classific
      * @return the list of classification items for the best classes in order of best to worst
      */
     public <T extends Classification> List<T> topK(int k) {
-        List<T> items = items();
-        items.sort(Comparator.comparingDouble(Classification::getProbability).reversed());
-        int count = Math.min(items.size(), k);
-        return items.subList(0, count);
+        int[] indices = topIndices(k);
+        List<T> list = new ArrayList<>(indices.length);
+        for (int index : indices) {
+            list.add(item(index));
+        }
+        return list;
     }
 
     /**
@@ -180,7 +270,17 @@ public class Classifications implements JsonSerializable, Ensembleable<Classific
      * @return the classification item
      */
     public <T extends Classification> T best() {
-        return item(probabilities.indexOf(Collections.max(probabilities)));
+        int size = probabilities.size();
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        int best = 0;
+        for (int i = 1; i < size; ++i) {
+            if (Double.compare(probability(i), probability(best)) > 0) {
+                best = i;
+            }
+        }
+        return item(best);
     }
 
     /**
@@ -206,6 +306,30 @@ public class Classifications implements JsonSerializable, Ensembleable<Classific
         return GSON.toJson(this) + '\n';
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The top classes are written one by one in compact form, without building the json tree.
+     */
+    @Override
+    public void writeJson(OutputStream os) throws IOException {
+        JsonWriter writer = JsonUtils.newJsonWriter(os);
+        writer.beginArray();
+        for (Classification item : topK()) {
+            if (item.getClass() == Classification.class) {
+                writer.beginObject();
+                writer.name("className").value(item.getClassName());
+                writer.name("probability").value(item.getProbability());
+                writer.endObject();
+            } else {
+                GSON.toJson(item, item.getClass(), writer);
+            }
+        }
+        writer.endArray();
+        writer.flush();
+        os.write('\n');
+    }
+
     /** {@inheritDoc} */
     @Override
     public String getAsString() {
@@ -234,14 +358,16 @@ public class Classifications implements JsonSerializable, Ensembleable<Classific
     @Override
     public Classifications ensembleWith(Iterator<Classifications> it) {
         int size = probabilities.size();
-        List<Double> newProbabilities = new ArrayList<>(size);
-        newProbabilities.addAll(probabilities);
+        double[] newProbabilities = new double[size];
+        for (int i = 0; i < size; ++i) {
+            newProbabilities[i] = probability(i);
+        }
         int count = 1;
         while (it.hasNext()) {
             ++count;
             Classifications c = it.next();
             for (int i = 0; i < size; ++i) {
-                newProbabilities.set(i, newProbabilities.get(i) + c.probabilities.get(i));
+                newProbabilities[i] += c.probability(i);
             }
             if (!c.classNames.equals(classNames)) {
                 throw new IllegalArgumentException(
@@ -249,9 +375,88 @@ public class Classifications implements JsonSerializable, Ensembleable<Classific
                                 + " should have the same classNames, but some were different");
             }
         }
-        final int total = count;
-        newProbabilities.replaceAll(p -> p / total);
-        return new Classifications(classNames, newProbabilities);
+        for (int i = 0; i < size; ++i) {
+            newProbabilities[i] /= count;
+        }
+        return new Classifications(classNames, new DoubleList(newProbabilities));
+    }
+
+    private double probability(int index) {
+        if (probabilities instanceof ProbabilityList) {
+            return ((ProbabilityList) probabilities).getDouble(index);
+        }
+        return probabilities.get(index);
+    }
+
+    /**
+     * Returns the indices of the top {@code k} classes, in order of best to worst.
+     *
+     * <p>The classes are selected with a min-heap of size {@code k}, the worst selected class at
+     * the root, and equal probabilities are ordered by index like a stable sort.
+     */
+    private int[] topIndices(int k) {
+        int size = probabilities.size();
+        int count = Math.max(0, Math.min(size, k));
+        int[] heap = new int[count];
+        if (count == 0) {
+            return heap;
+        }
+        IntToDoubleFunction prob = this::probability;
+        for (int i = 0; i < size; ++i) {
+            if (i < count) {
+                heap[i] = i;
+                siftUp(heap, i, prob);
+            } else if (isBetter(i, heap[0], prob)) {
+                heap[0] = i;
+                siftDown(heap, count, prob);
+            }
+        }
+        // pop the worst class to the end until the heap is sorted from best to worst
+        for (int n = count - 1; n > 0; --n) {
+            int worst = heap[0];
+            heap[0] = heap[n];
+            heap[n] = worst;
+            siftDown(heap, n, prob);
+        }
+        return heap;
+    }
+
+    private static boolean isBetter(int a, int b, IntToDoubleFunction prob) {
+        int cmp = Double.compare(prob.applyAsDouble(a), prob.applyAsDouble(b));
+        return cmp > 0 || (cmp == 0 && a < b);
+    }
+
+    private static void siftUp(int[] heap, int pos, IntToDoubleFunction prob) {
+        int value = heap[pos];
+        while (pos > 0) {
+            int parent = (pos - 1) >>> 1;
+            if (!isBetter(heap[parent], value, prob)) {
+                break;
+            }
+            heap[pos] = heap[parent];
+            pos = parent;
+        }
+        heap[pos] = value;
+    }
+
+    private static void siftDown(int[] heap, int size, IntToDoubleFunction prob) {
+        int pos = 0;
+        int value = heap[0];
+        while (true) {
+            int child = pos * 2 + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && isBetter(heap[child], heap[child + 1], prob)) {
+                ++child;
+            }
+            if (!isBetter(value, heap[child], prob)) {
+                break;
+            }
+            heap[pos] = heap[child];
+            pos = child;
+        }
+        heap[pos] = value;
     }
 
     /**
@@ -310,6 +515,67 @@ public class Classifications implements JsonSerializable, Ensembleable<Classific
         }
     }
 
+    /** A read-only list of probabilities backed by a primitive array. */
+    private abstract static class ProbabilityList extends AbstractList<Double>
+            implements RandomAccess, Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        abstract double getDouble(int index);
+
+        /** {@inheritDoc} */
+        @Override
+        public Double get(int index) {
+            return getDouble(index);
+        }
+    }
+
+    private static final class FloatList extends ProbabilityList {
+
+        private static final long serialVersionUID = 1L;
+
+        private float[] values;
+
+        FloatList(float[] values) {
+            this.values = values;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        double getDouble(int index) {
+            return values[index];
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int size() {
+            return values.length;
+        }
+    }
+
+    private static final class DoubleList extends ProbabilityList {
+
+        private static final long serialVersionUID = 1L;
+
+        private double[] values;
+
+        DoubleList(double[] values) {
+            this.values = values;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        double getDouble(int index) {
+            return values[index];
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int size() {
+            return values.length;
+        }
+    }
+
     /** A customized Gson serializer to serialize the {@code Classifications} object. */
     public static final class ClassificationsSerializer implements JsonSerializer<Classifications> {
 
@@ -25,6 +25,8 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -367,6 +369,21 @@ public class Input {
         }
     }
 
+    /**
+     * Encodes all data in the input to a channel without buffering the whole input.
+     *
+     * <p>The content is written straight from the {@code ByteBuffer} of each {@link BytesSupplier},
+     * an {@link NDList} from the buffers of its arrays, and a {@link
+     * ai.djl.inference.streaming.ChunkedBytesSupplier} is written chunk by chunk. The result can be
+     * read with {@link #decode(ReadableByteChannel)}.
+     *
+     * @param channel the channel to write to
+     * @throws IOException if it fails to encode part of the data
+     */
+    public void encode(WritableByteChannel channel) throws IOException {
+        InputSerializer.encode(this, channel);
+    }
+
     protected void encodeInputBase(DataOutputStream os) throws IOException {
         os.writeInt(properties.size());
         for (Entry<String, String> property : properties.entrySet()) {
@@ -409,6 +426,21 @@ public class Input {
         }
     }
 
+    /**
+     * Decodes the input from {@link #encode(WritableByteChannel)}.
+     *
+     * <p>Content of known length, including an {@link NDList} that can be read back with {@link
+     * #getAsNDList(NDManager, int)}, is read into direct buffers, and chunked content is decoded as
+     * a {@link ai.djl.inference.streaming.ChunkedBytesSupplier}.
+     *
+     * @param channel the channel to decode from
+     * @return the decoded input
+     * @throws IOException if it fails to decode part of the input
+     */
+    public static Input decode(ReadableByteChannel channel) throws IOException {
+        return InputSerializer.decode(channel);
+    }
+
     protected static void decodeInputBase(DataInputStream dis, Input input) throws IOException {
         int numProperties = dis.readInt();
         for (int i = 0; i < numProperties; i++) {
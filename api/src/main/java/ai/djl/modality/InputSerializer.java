@@ -0,0 +1,266 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality;
+
+import ai.djl.inference.streaming.ChunkedBytesSupplier;
+import ai.djl.ndarray.BytesSupplier;
+import ai.djl.ndarray.NDList;
+import ai.djl.util.JsonSerializable;
+import ai.djl.util.Pair;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A class contains the streaming encoding and decoding logic for {@link Input} and {@link Output}.
+ *
+ * <p>The streaming form writes the headers first and then every content entry straight from its
+ * {@code ByteBuffer}, so an {@link ai.djl.ndarray.NDArray} is written from its native buffer. An
+ * {@link NDList} is written as a single entry from the buffers of its arrays. Entries of unknown
+ * length, like {@link ChunkedBytesSupplier}, are written as a sequence of length-prefixed chunks
+ * terminated by an empty chunk. {@link JsonSerializable} entries are serialized lazily with {@link
+ * JsonSerializable#writeJson(OutputStream)} into chunks, without building the json string.
+ */
+final class InputSerializer {
+
+    /** The version of the streaming form, {@link Input#encode()} uses version 1. */
+    static final long STREAMING_VERSION = 2L;
+
+    private static final long CHUNKED = -1;
+    private static final int CHUNK_SIZE = 65536;
+
+    private InputSerializer() {}
+
+    static void encode(Input input, WritableByteChannel channel) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        DataOutputStream os = new DataOutputStream(baos);
+        os.writeLong(STREAMING_VERSION);
+        if (input instanceof Output) {
+            Output output = (Output) input;
+            os.writeBoolean(true);
+            os.writeInt(output.getCode());
+            os.writeUTF(output.getMessage());
+        } else {
+            os.writeBoolean(false);
+        }
+
+        Map<String, String> properties = input.getProperties();
+        os.writeInt(properties.size());
+        for (Map.Entry<String, String> property : properties.entrySet()) {
+            os.writeUTF(property.getKey());
+            os.writeUTF(property.getValue());
+        }
+
+        os.writeInt(input.getContent().size());
+        for (Pair<String, BytesSupplier> c : input.getContent()) {
+            if (c.getKey() != null) {
+                os.writeBoolean(true);
+                os.writeUTF(c.getKey());
+            } else {
+                os.writeBoolean(false);
+            }
+
+            BytesSupplier value = c.getValue();
+            if (value instanceof NDList) {
+                // written as a single entry, so it decodes as the bytes of the NDList
+                ByteBuffer[] buffers = ((NDList) value).getEncodedBuffers();
+                long length = 0;
+                for (ByteBuffer bb : buffers) {
+                    length += bb.remaining();
+                }
+                os.writeLong(length);
+                flush(baos, channel);
+                for (ByteBuffer bb : buffers) {
+                    writeFully(channel, bb);
+                }
+            } else if (value instanceof ChunkedBytesSupplier || value instanceof JsonSerializable) {
+                os.writeLong(CHUNKED);
+                flush(baos, channel);
+                ChunkWriter writer = new ChunkWriter(channel);
+                if (value instanceof JsonSerializable) {
+                    // don't close the stream, it would close the channel
+                    OutputStream out =
+                            new BufferedOutputStream(Channels.newOutputStream(writer), CHUNK_SIZE);
+                    ((JsonSerializable) value).writeJson(out);
+                    out.flush();
+                } else {
+                    writeChunks((ChunkedBytesSupplier) value, writer);
+                }
+                writer.finish();
+            } else {
+                ByteBuffer bb = value.toByteBuffer();
+                os.writeLong(bb.remaining());
+                flush(baos, channel);
+                writeFully(channel, bb);
+            }
+        }
+        flush(baos, channel);
+    }
+
+    static Input decode(ReadableByteChannel channel) throws IOException {
+        // DataInputStream doesn't buffer, the content can be read from the channel directly
+        DataInputStream dis = new DataInputStream(Channels.newInputStream(channel));
+        if (dis.readLong() != STREAMING_VERSION) {
+            throw new IllegalArgumentException("Invalid Input version");
+        }
+        return decodeBody(dis, channel);
+    }
+
+    private static Input decodeBody(DataInputStream dis, ReadableByteChannel channel)
+            throws IOException {
+        Input input;
+        if (dis.readBoolean()) {
+            int code = dis.readInt();
+            String message = dis.readUTF();
+            input = new Output(code, message);
+        } else {
+            input = new Input();
+        }
+
+        int numProperties = dis.readInt();
+        for (int i = 0; i < numProperties; i++) {
+            String key = dis.readUTF();
+            String val = dis.readUTF();
+            input.addProperty(key, val);
+        }
+
+        int numContent = dis.readInt();
+        for (int i = 0; i < numContent; i++) {
+            String key = null;
+            if (dis.readBoolean()) {
+                key = dis.readUTF();
+            }
+            long length = dis.readLong();
+            if (length == CHUNKED) {
+                input.add(key, readChunks(dis, channel));
+            } else {
+                ByteBuffer bb = ByteBuffer.allocateDirect(Math.toIntExact(length));
+                readFully(channel, bb);
+                bb.flip();
+                input.add(key, BytesSupplier.wrap(bb));
+            }
+        }
+        return input;
+    }
+
+    private static void writeChunks(ChunkedBytesSupplier supplier, WritableByteChannel channel)
+            throws IOException {
+        try {
+            while (supplier.hasNext()) {
+                channel.write(supplier.next(1, TimeUnit.MINUTES).toByteBuffer());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while reading chunks", e);
+        }
+    }
+
+    private static ChunkedBytesSupplier readChunks(DataInputStream dis, ReadableByteChannel channel)
+            throws IOException {
+        ChunkedBytesSupplier supplier = new ChunkedBytesSupplier();
+        ByteBuffer pending = null;
+        int length;
+        while ((length = dis.readInt()) > 0) {
+            if (pending != null) {
+                supplier.appendContent(BytesSupplier.wrap(pending), false);
+            }
+            pending = ByteBuffer.allocateDirect(length);
+            readFully(channel, pending);
+            pending.flip();
+        }
+        if (pending == null) {
+            pending = ByteBuffer.allocate(0);
+        }
+        supplier.appendContent(BytesSupplier.wrap(pending), true);
+        return supplier;
+    }
+
+    private static void flush(ByteArrayOutputStream baos, WritableByteChannel channel)
+            throws IOException {
+        if (baos.size() > 0) {
+            writeFully(channel, ByteBuffer.wrap(baos.toByteArray()));
+            baos.reset();
+        }
+    }
+
+    private static void writeFully(WritableByteChannel channel, ByteBuffer bb) throws IOException {
+        while (bb.hasRemaining()) {
+            channel.write(bb);
+        }
+    }
+
+    private static void readFully(ReadableByteChannel channel, ByteBuffer bb) throws IOException {
+        while (bb.hasRemaining()) {
+            if (channel.read(bb) < 0) {
+                throw new EOFException("Failed to read Input or Output content");
+            }
+        }
+    }
+
+    /** A {@link WritableByteChannel} that writes every buffer as a length-prefixed chunk. */
+    private static final class ChunkWriter implements WritableByteChannel {
+
+        private WritableByteChannel channel;
+        private ByteBuffer header;
+
+        ChunkWriter(WritableByteChannel channel) {
+            this.channel = channel;
+            header = ByteBuffer.allocate(4);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            int length = src.remaining();
+            if (length > 0) {
+                writeHeader(length);
+                writeFully(channel, src);
+            }
+            return length;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean isOpen() {
+            return channel.isOpen();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void close() {
+            // the underlying channel is owned by the caller
+        }
+
+        void finish() throws IOException {
+            writeHeader(0);
+        }
+
+        private void writeHeader(int length) throws IOException {
+            header.clear();
+            header.putInt(length);
+            header.flip();
+            writeFully(channel, header);
+        }
+    }
+}
@@ -17,6 +17,7 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.channels.ReadableByteChannel;
 import java.util.Objects;
 
 /** A class stores the generic inference results. */
@@ -123,6 +124,21 @@ public class Output extends Input {
         }
     }
 
+    /**
+     * Decodes the output from {@link #encode(java.nio.channels.WritableByteChannel)}.
+     *
+     * @param channel the channel to decode from
+     * @return the decoded output
+     * @throws IOException if it fails to decode part of the output
+     */
+    public static Output decode(ReadableByteChannel channel) throws IOException {
+        Input input = InputSerializer.decode(channel);
+        if (!(input instanceof Output)) {
+            throw new IllegalArgumentException("The encoded data is not an Output");
+        }
+        return (Output) input;
+    }
+
     /**
      * Checks for deep equality with another output.
      *
@@ -22,7 +22,12 @@ import com.google.gson.Gson;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonSerializationContext;
 import com.google.gson.JsonSerializer;
+import com.google.gson.stream.JsonWriter;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.lang.reflect.Type;
 import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
@@ -31,6 +36,16 @@ import java.util.List;
 /**
  * A class representing the segmentation result of an image in an {@link
  * ai.djl.Application.CV#SEMANTIC_SEGMENTATION} case.
+ *
+ * <p>The mask is serialized as a json array of rows by default. With {@link
+ * #setRunLengthEncoding(boolean)}, it is serialized as the runs of the mask in row-major order:
+ *
+ * <pre>
+ * {"height": 2, "width": 3, "rle": [0, 4, 1, 2]}
+ * </pre>
+ *
+ * <p>where {@code rle} is a list of class id and run length pairs, here 4 pixels of class 0
+ * followed by 2 pixels of class 1.
  */
 public class CategoryMask implements JsonSerializable {
 
@@ -45,6 +60,7 @@ public class CategoryMask implements JsonSerializable {
 
     private List<String> classes;
     private int[][] mask;
+    private boolean runLengthEncoding;
 
     /**
      * Constructs a Mask with the given data.
@@ -75,18 +91,94 @@ public class CategoryMask implements JsonSerializable {
         return mask;
     }
 
+    /**
+     * Sets whether to serialize the mask with run-length encoding.
+     *
+     * @param runLengthEncoding whether to serialize the mask with run-length encoding
+     */
+    public void setRunLengthEncoding(boolean runLengthEncoding) {
+        this.runLengthEncoding = runLengthEncoding;
+    }
+
     /** {@inheritDoc} */
     @Override
     public ByteBuffer toByteBuffer() {
+        if (runLengthEncoding) {
+            return ByteBuffer.wrap(toRunLengthJson().toByteArray());
+        }
         return ByteBuffer.wrap(toJson().getBytes(StandardCharsets.UTF_8));
     }
 
     /** {@inheritDoc} */
     @Override
     public String toJson() {
+        if (runLengthEncoding) {
+            return new String(toRunLengthJson().toByteArray(), StandardCharsets.UTF_8);
+        }
         return GSON.toJson(this) + '\n';
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The mask is written row by row in compact form, without building the json tree.
+     */
+    @Override
+    public void writeJson(OutputStream os) throws IOException {
+        JsonWriter writer = JsonUtils.newJsonWriter(os);
+        if (runLengthEncoding) {
+            writeRunLength(writer);
+        } else {
+            writer.beginArray();
+            for (int[] row : mask) {
+                writer.beginArray();
+                for (int value : row) {
+                    writer.value(value);
+                }
+                writer.endArray();
+            }
+            writer.endArray();
+        }
+        writer.flush();
+        os.write('\n');
+    }
+
+    private ByteArrayOutputStream toRunLengthJson() {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try {
+            writeJson(bos);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bos;
+    }
+
+    private void writeRunLength(JsonWriter writer) throws IOException {
+        int height = mask.length;
+        int width = height == 0 ? 0 : mask[0].length;
+        writer.beginObject();
+        writer.name("height").value(height);
+        writer.name("width").value(width);
+        writer.name("rle").beginArray();
+        int current = 0;
+        long count = 0;
+        for (int[] row : mask) {
+            for (int value : row) {
+                if (count > 0 && value != current) {
+                    writer.value(current).value(count);
+                    count = 0;
+                }
+                current = value;
+                ++count;
+            }
+        }
+        if (count > 0) {
+            writer.value(current).value(count);
+        }
+        writer.endArray();
+        writer.endObject();
+    }
+
     /**
      * Extracts the detected objects from the image.
      *
@@ -36,6 +36,7 @@ public class SemanticSegmentationTranslator extends BaseImageTranslator<Category
     private SynsetLoader synsetLoader;
     private final int shortEdge;
     private final int maxEdge;
+    private final boolean runLengthEncoding;
 
     private List<String> classes;
 
@@ -49,6 +50,7 @@ public class SemanticSegmentationTranslator extends BaseImageTranslator<Category
         this.synsetLoader = builder.synsetLoader;
         this.shortEdge = builder.shortEdge;
         this.maxEdge = builder.maxEdge;
+        this.runLengthEncoding = builder.runLengthEncoding;
 
         pipeline.insert(0, null, new ResizeShort());
     }
@@ -97,7 +99,9 @@ public class SemanticSegmentationTranslator extends BaseImageTranslator<Category
                 mask[h][w] = maxi;
             }
         }
-        return new CategoryMask(classes, mask);
+        CategoryMask categoryMask = new CategoryMask(classes, mask);
+        categoryMask.setRunLengthEncoding(runLengthEncoding);
+        return categoryMask;
     }
 
     /**
@@ -149,9 +153,21 @@ public class SemanticSegmentationTranslator extends BaseImageTranslator<Category
     public static class Builder extends ClassificationBuilder<Builder> {
         int shortEdge = 600;
         int maxEdge = 1000;
+        boolean runLengthEncoding;
 
         Builder() {}
 
+        /**
+         * Sets whether to serialize the output masks with run-length encoding.
+         *
+         * @param runLengthEncoding whether to serialize the masks with run-length encoding
+         * @return this builder
+         */
+        public Builder optRunLengthEncoding(boolean runLengthEncoding) {
+            this.runLengthEncoding = runLengthEncoding;
+            return this;
+        }
+
         /** {@inheritDoc} */
         @Override
         protected Builder self() {
@@ -164,6 +180,7 @@ public class SemanticSegmentationTranslator extends BaseImageTranslator<Category
             super.configPostProcess(arguments);
             shortEdge = ArgumentsUtil.intValue(arguments, "shortEdge", 600);
             maxEdge = ArgumentsUtil.intValue(arguments, "maxEdge", 1000);
+            runLengthEncoding = ArgumentsUtil.booleanValue(arguments, "runLengthEncoding");
         }
 
         /**
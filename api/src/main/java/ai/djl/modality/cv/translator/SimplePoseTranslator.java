@@ -31,6 +31,9 @@ import java.util.Map;
  */
 public class SimplePoseTranslator extends BaseImageTranslator<Joints> {
 
+    private static final NDIndex X_AXIS = NDIndex.compile(":, :, 0");
+    private static final NDIndex Y_AXIS = NDIndex.compile(":, :, 1");
+
     private float threshold;
 
     /**
@@ -60,8 +63,8 @@ public class SimplePoseTranslator extends BaseImageTranslator<Joints> {
 
         NDArray result = maxIndices.tile(2, 2);
 
-        result.set(new NDIndex(":, :, 0"), result.get(":, :, 0").mod(width));
-        result.set(new NDIndex(":, :, 1"), result.get(":, :, 1").div(width).floor());
+        result.set(X_AXIS, result.get(X_AXIS).mod(width));
+        result.set(Y_AXIS, result.get(Y_AXIS).div(width).floor());
         // TODO remove asType
         NDArray predMask =
                 maxValues
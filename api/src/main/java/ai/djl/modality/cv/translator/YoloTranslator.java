@@ -17,6 +17,7 @@ import ai.djl.modality.cv.output.DetectedObjects;
 import ai.djl.modality.cv.output.Rectangle;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.index.NDIndex;
 import ai.djl.ndarray.types.DataType;
 import ai.djl.translate.TranslatorContext;
 
@@ -27,6 +28,11 @@ import java.util.Map;
 /** A translator for yolo models. */
 public class YoloTranslator extends ObjectDetectionTranslator {
 
+    private static final NDIndex X_MIN = NDIndex.compile(":, 0");
+    private static final NDIndex Y_MIN = NDIndex.compile(":, 1");
+    private static final NDIndex X_MAX = NDIndex.compile(":, 2");
+    private static final NDIndex Y_MAX = NDIndex.compile(":, 3");
+
     /**
      * Constructs an ImageTranslator with the provided builder.
      *
@@ -44,10 +50,10 @@ public class YoloTranslator extends ObjectDetectionTranslator {
         NDArray boundingBoxes = list.get(2);
         int detected = Math.toIntExact(probs.length);
 
-        NDArray xMin = boundingBoxes.get(":, 0").clip(0, imageWidth).div(imageWidth);
-        NDArray yMin = boundingBoxes.get(":, 1").clip(0, imageHeight).div(imageHeight);
-        NDArray xMax = boundingBoxes.get(":, 2").clip(0, imageWidth).div(imageWidth);
-        NDArray yMax = boundingBoxes.get(":, 3").clip(0, imageHeight).div(imageHeight);
+        NDArray xMin = boundingBoxes.get(X_MIN).clip(0, imageWidth).div(imageWidth);
+        NDArray yMin = boundingBoxes.get(Y_MIN).clip(0, imageHeight).div(imageHeight);
+        NDArray xMax = boundingBoxes.get(X_MAX).clip(0, imageWidth).div(imageWidth);
+        NDArray yMax = boundingBoxes.get(Y_MAX).clip(0, imageHeight).div(imageHeight);
 
         float[] boxX = xMin.toFloatArray();
         float[] boxY = yMin.toFloatArray();
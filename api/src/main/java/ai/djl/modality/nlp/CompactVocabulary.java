@@ -0,0 +1,353 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality.nlp;
+
+import ai.djl.util.Utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code CompactVocabulary} is a read-only {@link Vocabulary} for large vocabularies.
+ *
+ * <p>All the tokens are stored as UTF-8 in a single byte arena, and looked up with an open
+ * addressing hash table of int indices. A lookup compares the characters of the token with the
+ * arena directly, so {@link #getIndex(String)} doesn't allocate, even for unknown tokens. The
+ * vocabulary is held in a single buffer that can be saved with {@link #save(Path)} and loaded back
+ * with {@link #load(Path)} as a memory-mapped file, without parsing or creating any object per
+ * token.
+ *
+ * <p>Like a {@link DefaultVocabulary} built from a list of tokens, the tokens get the index of
+ * their first occurrence, and the unknown token is added at the end if it is not in the list.
+ */
+public final class CompactVocabulary implements Vocabulary {
+
+    private static final int MAGIC = 0x564F4344; // DCOV
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 20;
+
+    private ByteBuffer buffer;
+    private int size;
+    private int unknownIndex;
+    private IntBuffer offsets;
+    private IntBuffer hashes;
+    private IntBuffer table;
+    private int mask;
+    private ByteBuffer arena;
+
+    private CompactVocabulary(ByteBuffer buffer) {
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.capacity() < HEADER_SIZE
+                || buffer.getInt(0) != MAGIC
+                || buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Invalid vocabulary file.");
+        }
+        size = buffer.getInt(8);
+        int capacity = buffer.getInt(12);
+        unknownIndex = buffer.getInt(16);
+        mask = capacity - 1;
+        int position = HEADER_SIZE;
+        offsets = view(position, size + 1);
+        position += (size + 1) * 4;
+        hashes = view(position, size);
+        position += size * 4;
+        table = view(position, capacity);
+        position += capacity * 4;
+        ByteBuffer bb = buffer.duplicate();
+        bb.position(position);
+        arena = bb.slice();
+    }
+
+    /**
+     * Creates a {@code CompactVocabulary} from a list of tokens.
+     *
+     * @param tokens the tokens, the index of a token is its first position in the list
+     * @param unknownToken the token returned for the unknown tokens, or {@code null} to throw an
+     *     exception for the unknown tokens
+     * @return a new {@code CompactVocabulary}
+     */
+    public static CompactVocabulary of(List<String> tokens, String unknownToken) {
+        Map<String, Integer> unique = new HashMap<>();
+        List<byte[]> encoded = new ArrayList<>(tokens.size());
+        List<String> ordered = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            if (unique.putIfAbsent(token, ordered.size()) == null) {
+                ordered.add(token);
+                encoded.add(token.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        int unknownIndex = -1;
+        if (unknownToken != null) {
+            Integer index = unique.get(unknownToken);
+            if (index == null) {
+                index = ordered.size();
+                ordered.add(unknownToken);
+                encoded.add(unknownToken.getBytes(StandardCharsets.UTF_8));
+            }
+            unknownIndex = index;
+        }
+
+        int size = ordered.size();
+        int capacity = Integer.highestOneBit(Math.max(size, 1) * 2 - 1) << 1;
+        long arenaSize = 0;
+        for (byte[] bytes : encoded) {
+            arenaSize += bytes.length;
+        }
+        long total = HEADER_SIZE + (size * 2L + 1 + capacity) * 4 + arenaSize;
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("The vocabulary is too large.");
+        }
+
+        ByteBuffer bb = ByteBuffer.allocate((int) total).order(ByteOrder.LITTLE_ENDIAN);
+        bb.putInt(MAGIC).putInt(VERSION).putInt(size).putInt(capacity).putInt(unknownIndex);
+        int offset = 0;
+        for (byte[] bytes : encoded) {
+            bb.putInt(offset);
+            offset += bytes.length;
+        }
+        bb.putInt(offset);
+        int[] slots = new int[capacity];
+        for (int i = 0; i < size; ++i) {
+            int hash = hash(ordered.get(i));
+            bb.putInt(hash);
+            int slot = hash & (capacity - 1);
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            slots[slot] = i + 1;
+        }
+        for (int slot : slots) {
+            bb.putInt(slot);
+        }
+        for (byte[] bytes : encoded) {
+            bb.put(bytes);
+        }
+        bb.rewind();
+        return new CompactVocabulary(bb);
+    }
+
+    /**
+     * Creates a {@code CompactVocabulary} with the tokens of another {@link Vocabulary}.
+     *
+     * @param vocabulary the vocabulary to copy
+     * @param unknownToken the token returned for the unknown tokens, or {@code null} to throw an
+     *     exception for the unknown tokens
+     * @return a new {@code CompactVocabulary}
+     */
+    public static CompactVocabulary of(Vocabulary vocabulary, String unknownToken) {
+        int size = Math.toIntExact(vocabulary.size());
+        List<String> tokens = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            tokens.add(vocabulary.getToken(i));
+        }
+        return of(tokens, unknownToken);
+    }
+
+    /**
+     * Creates a {@code CompactVocabulary} from a text file with one token per line.
+     *
+     * @param path the path to the text file
+     * @param unknownToken the token returned for the unknown tokens, or {@code null} to throw an
+     *     exception for the unknown tokens
+     * @return a new {@code CompactVocabulary}
+     * @throws IOException if failed to read the vocabulary file
+     */
+    public static CompactVocabulary fromTextFile(Path path, String unknownToken)
+            throws IOException {
+        return of(Utils.readLines(path, true), unknownToken);
+    }
+
+    /**
+     * Creates a {@code CompactVocabulary} from a text file with one token per line.
+     *
+     * @param url the text file url
+     * @param unknownToken the token returned for the unknown tokens, or {@code null} to throw an
+     *     exception for the unknown tokens
+     * @return a new {@code CompactVocabulary}
+     * @throws IOException if failed to read the vocabulary file
+     */
+    public static CompactVocabulary fromTextFile(URL url, String unknownToken) throws IOException {
+        try (InputStream is = url.openStream()) {
+            return of(Utils.readLines(is, true), unknownToken);
+        }
+    }
+
+    /**
+     * Loads a {@code CompactVocabulary} saved with {@link #save(Path)} as a memory-mapped file.
+     *
+     * @param path the path to the vocabulary file
+     * @return the {@code CompactVocabulary}
+     * @throws IOException if failed to read the vocabulary file
+     */
+    public static CompactVocabulary load(Path path) throws IOException {
+        try (FileChannel fc = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new CompactVocabulary(fc.map(FileChannel.MapMode.READ_ONLY, 0, fc.size()));
+        }
+    }
+
+    /**
+     * Saves the vocabulary to a file that can be loaded with {@link #load(Path)}.
+     *
+     * @param path the path to the vocabulary file
+     * @throws IOException if failed to write the vocabulary file
+     */
+    public void save(Path path) throws IOException {
+        try (FileChannel fc =
+                FileChannel.open(
+                        path,
+                        StandardOpenOption.CREATE,
+                        StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer bb = buffer.duplicate();
+            bb.rewind();
+            while (bb.hasRemaining()) {
+                fc.write(bb);
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String getToken(long index) {
+        if (index < 0 || index >= size) {
+            return unknownIndex < 0 ? null : getToken(unknownIndex);
+        }
+        int start = offsets.get((int) index);
+        byte[] bytes = new byte[offsets.get((int) index + 1) - start];
+        for (int i = 0; i < bytes.length; ++i) {
+            bytes[i] = arena.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean contains(String token) {
+        return find(token) >= 0;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long getIndex(String token) {
+        int index = find(token);
+        if (index >= 0) {
+            return index;
+        }
+        if (unknownIndex >= 0) {
+            return unknownIndex;
+        }
+        throw new IllegalStateException(
+                "Unexpected token in getIndex. Define an unknownToken for the vocabulary to enable"
+                        + " support for unknown tokens.");
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long[] getIndices(List<String> tokens) {
+        long[] indices = new long[tokens.size()];
+        int i = 0;
+        for (String token : tokens) {
+            indices[i++] = getIndex(token);
+        }
+        return indices;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public long size() {
+        return size;
+    }
+
+    private IntBuffer view(int position, int length) {
+        ByteBuffer bb = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        bb.position(position);
+        bb.limit(position + length * 4);
+        return bb.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+    }
+
+    private int find(String token) {
+        int hash = hash(token);
+        int slot = hash & mask;
+        while (true) {
+            int value = table.get(slot);
+            if (value == 0) {
+                return -1;
+            }
+            int index = value - 1;
+            if (hashes.get(index) == hash && matches(index, token)) {
+                return index;
+            }
+            slot = (slot + 1) & mask;
+        }
+    }
+
+    /** Compares the UTF-8 bytes of a token in the arena with the UTF-16 chars of a string. */
+    private boolean matches(int index, String token) {
+        int pos = offsets.get(index);
+        int end = offsets.get(index + 1);
+        int length = token.length();
+        int i = 0;
+        while (pos < end) {
+            if (i >= length) {
+                return false;
+            }
+            int b = arena.get(pos++) & 0xFF;
+            int cp;
+            if (b < 0x80) {
+                cp = b;
+            } else if (b < 0xE0) {
+                cp = (b & 0x1F) << 6 | (arena.get(pos++) & 0x3F);
+            } else if (b < 0xF0) {
+                cp = (b & 0x0F) << 12 | (arena.get(pos++) & 0x3F) << 6 | (arena.get(pos++) & 0x3F);
+            } else {
+                cp =
+                        (b & 0x07) << 18
+                                | (arena.get(pos++) & 0x3F) << 12
+                                | (arena.get(pos++) & 0x3F) << 6
+                                | (arena.get(pos++) & 0x3F);
+                if (i + 1 >= length
+                        || token.charAt(i++) != Character.highSurrogate(cp)
+                        || token.charAt(i++) != Character.lowSurrogate(cp)) {
+                    return false;
+                }
+                continue;
+            }
+            if (token.charAt(i++) != cp) {
+                return false;
+            }
+        }
+        return i == length;
+    }
+
+    private static int hash(String token) {
+        // FNV-1a over the chars, so a lookup doesn't need to encode the token
+        int hash = 0x811C9DC5;
+        for (int i = 0; i < token.length(); ++i) {
+            hash ^= token.charAt(i);
+            hash *= 0x01000193;
+        }
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -12,6 +12,8 @@
  */
 package ai.djl.modality.nlp;
 
+import java.util.List;
+
 /**
  * {@code Vocabulary} is a collection of tokens. The primary purpose of a vocabulary is the map a
  * token to an index.
@@ -42,6 +44,16 @@ public interface Vocabulary {
      */
     long getIndex(String token);
 
+    /**
+     * Returns the indices of the given tokens.
+     *
+     * @param tokens the tokens
+     * @return the indices of the given tokens
+     */
+    default long[] getIndices(List<String> tokens) {
+        return tokens.stream().mapToLong(this::getIndex).toArray();
+    }
+
     /**
      * Returns the size of the {@link Vocabulary}.
      *
@@ -24,14 +24,13 @@ import ai.djl.modality.nlp.preprocess.UnicodeNormalizer;
 
 import java.text.Normalizer;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 /**
  * BertFullTokenizer runs end to end tokenization of input text
  *
- * <p>It will run basic preprocessors to clean the input text and then run {@link
- * WordpieceTokenizer} to split into word pieces.
+ * <p>It will run {@link BertNormalizer} to clean the input text and split it into words, and then
+ * run {@link WordpieceTokenizer} to split into word pieces.
  *
  * <p>Reference implementation: <a
  * href="https://github.com/google-research/bert/blob/master/tokenization.py#L161">Google Research
@@ -40,7 +39,7 @@ import java.util.List;
 public class BertFullTokenizer extends BertTokenizer {
 
     private Vocabulary vocabulary;
-    private List<TextProcessor> basicBertPreprocessors;
+    private BertNormalizer normalizer;
     private WordpieceTokenizer wordpieceTokenizer;
 
     /**
@@ -51,7 +50,7 @@ public class BertFullTokenizer extends BertTokenizer {
      */
     public BertFullTokenizer(Vocabulary vocabulary, boolean lowerCase) {
         this.vocabulary = vocabulary;
-        basicBertPreprocessors = getPreprocessors(lowerCase);
+        normalizer = new BertNormalizer(lowerCase);
         wordpieceTokenizer = new WordpieceTokenizer(vocabulary, "[UNK]", 200);
     }
 
@@ -67,11 +66,11 @@ public class BertFullTokenizer extends BertTokenizer {
     /** {@inheritDoc} */
     @Override
     public List<String> tokenize(String input) {
-        List<String> tokens = new ArrayList<>(Collections.singletonList(input));
-        for (TextProcessor processor : basicBertPreprocessors) {
-            tokens = processor.preprocess(tokens);
-        }
-        return wordpieceTokenizer.preprocess(tokens);
+        List<String> words = new ArrayList<>();
+        normalizer.normalize(input, words);
+        List<String> tokens = new ArrayList<>(words.size());
+        wordpieceTokenizer.tokenizeWords(words, tokens, null);
+        return tokens;
     }
 
     /** {@inheritDoc} */
@@ -83,6 +82,8 @@ public class BertFullTokenizer extends BertTokenizer {
     /**
      * Get a list of {@link TextProcessor}s to process input text for Bert models.
      *
+     * <p>{@link BertNormalizer} produces the same words in a single pass.
+     *
      * @param lowerCase whether to convert input to lowercase
      * @return List of {@code TextProcessor}s
      */
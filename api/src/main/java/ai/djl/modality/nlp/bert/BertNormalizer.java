@@ -0,0 +1,178 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality.nlp.bert;
+
+import ai.djl.modality.nlp.NlpUtils;
+import ai.djl.modality.nlp.preprocess.TextProcessor;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * {@code BertNormalizer} cleans, normalizes and splits text into words in a single pass.
+ *
+ * <p>It produces the same words as the {@link TextProcessor}s of {@link
+ * BertFullTokenizer#getPreprocessors(boolean)}: control characters are removed, the text is split
+ * on whitespace, each word is optionally lowercased, decomposed with NFD, stripped of its accents
+ * and split around punctuation. ASCII words are processed char by char without creating
+ * intermediate strings, and the buffer is reused per thread.
+ */
+public class BertNormalizer implements TextProcessor {
+
+    private static final ThreadLocal<StringBuilder> BUFFER =
+            ThreadLocal.withInitial(StringBuilder::new);
+
+    private static final boolean[] ASCII_PUNCTUATION = new boolean[128];
+
+    static {
+        for (char c : "!\"#$%&'()*+,-./:;<=>?@[\\]^_`{|}~".toCharArray()) {
+            ASCII_PUNCTUATION[c] = true;
+        }
+    }
+
+    private boolean lowerCase;
+
+    /**
+     * Creates an instance of {@code BertNormalizer}.
+     *
+     * @param lowerCase whether to convert the words to lowercase
+     */
+    public BertNormalizer(boolean lowerCase) {
+        this.lowerCase = lowerCase;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public List<String> preprocess(List<String> tokens) {
+        List<String> words = new ArrayList<>();
+        for (String token : tokens) {
+            normalize(token, words);
+        }
+        return words;
+    }
+
+    /**
+     * Normalizes a text and adds its words to a list.
+     *
+     * @param text the text to normalize
+     * @param words the list to add the words to
+     */
+    public void normalize(String text, List<String> words) {
+        StringBuilder sb = BUFFER.get();
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            // find the next word, skipping removed characters and whitespaces
+            sb.setLength(0);
+            boolean ascii = true;
+            for (; i < length; ++i) {
+                char c = text.charAt(i);
+                if (c == 0 || c == 0xfffd || NlpUtils.isControl(c)) {
+                    continue;
+                }
+                if (NlpUtils.isWhiteSpace(c)) {
+                    if (sb.length() > 0) {
+                        break;
+                    }
+                    continue;
+                }
+                ascii &= c < 0x80;
+                sb.append(c);
+            }
+            if (sb.length() == 0) {
+                continue;
+            }
+            if (ascii) {
+                splitAscii(sb, words);
+            } else {
+                split(sb.toString(), words);
+            }
+        }
+    }
+
+    private void splitAscii(StringBuilder sb, List<String> words) {
+        int start = 0;
+        int length = sb.length();
+        for (int i = 0; i < length; ++i) {
+            char c = sb.charAt(i);
+            if (ASCII_PUNCTUATION[c]) {
+                if (start < i) {
+                    words.add(sb.substring(start, i));
+                }
+                words.add(String.valueOf(c));
+                start = i + 1;
+            } else if (lowerCase && c >= 'A' && c <= 'Z') {
+                sb.setCharAt(i, (char) (c + ('a' - 'A')));
+            }
+        }
+        if (start < length) {
+            words.add(sb.substring(start, length));
+        }
+    }
+
+    private void split(String word, List<String> words) {
+        if (lowerCase) {
+            word = word.toLowerCase(Locale.ENGLISH);
+        }
+        word = Normalizer.normalize(word, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(word.length());
+        for (int i = 0; i < word.length(); ++i) {
+            char c = word.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                sb.append(c);
+            }
+        }
+        int start = 0;
+        int length = sb.length();
+        for (int i = 0; i < length; ) {
+            int cp = sb.codePointAt(i);
+            int next = i + Character.charCount(cp);
+            if (isPunctuation(cp)) {
+                if (start < i) {
+                    words.add(sb.substring(start, i));
+                }
+                start = i;
+                // like the regex lookbehind of PunctuationSeparator, which only sees the low
+                // surrogate, the word is not split after a supplementary punctuation
+                if (next - i == 1) {
+                    words.add(sb.substring(i, next));
+                    start = next;
+                }
+            }
+            i = next;
+        }
+        if (start < length) {
+            words.add(sb.substring(start, length));
+        }
+    }
+
+    private static boolean isPunctuation(int cp) {
+        if (cp < 128) {
+            return ASCII_PUNCTUATION[cp];
+        }
+        switch (Character.getType(cp)) {
+            case Character.CONNECTOR_PUNCTUATION:
+            case Character.DASH_PUNCTUATION:
+            case Character.START_PUNCTUATION:
+            case Character.END_PUNCTUATION:
+            case Character.INITIAL_QUOTE_PUNCTUATION:
+            case Character.FINAL_QUOTE_PUNCTUATION:
+            case Character.OTHER_PUNCTUATION:
+                return true;
+            default:
+                return false;
+        }
+    }
+}
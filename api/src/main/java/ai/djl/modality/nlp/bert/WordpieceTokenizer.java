@@ -24,6 +24,11 @@ import java.util.List;
  * <p>This uses a greedy longest-match-first algorithm to perform tokenization using the given
  * vocabulary. The input text should already be cleaned and preprocessed.
  *
+ * <p>The vocabulary is compiled into a trie with failure links, shared by the tokenizers of the
+ * same vocabulary, so a word is tokenized in linear time without creating substrings. The indices
+ * of the word pieces can be returned directly with {@link #encode(String, List)}. Vocabularies that
+ * can't list their tokens fall back to looking up the substrings of each word.
+ *
  * <pre>
  * jshell&gt; String input = "unaffable";
  * jshell&gt; wordpieceTokenizer.tokenize(intput);
@@ -39,6 +44,8 @@ public class WordpieceTokenizer extends SimpleTokenizer {
     private String unknown;
     private int maxInputChars;
     private Vocabulary vocabulary;
+    private WordpieceTrie trie;
+    private int unknownId = -1;
 
     /**
      * Creates an instance of {@code WordpieceTokenizer}.
@@ -51,57 +58,132 @@ public class WordpieceTokenizer extends SimpleTokenizer {
         this.unknown = unknown;
         this.maxInputChars = maxInputChars;
         this.vocabulary = vocabulary;
+        try {
+            trie = WordpieceTrie.of(vocabulary);
+        } catch (UnsupportedOperationException e) {
+            // the tokens can't be listed, look up the substrings of the words in the vocabulary
+            trie = null;
+        }
     }
 
     /** {@inheritDoc} */
     @Override
     public List<String> tokenize(String sentence) {
-        StringBuilder sb = new StringBuilder();
-        List<String> subTokens = new ArrayList<>();
         List<String> outputTokens = new ArrayList<>();
-        for (String token : super.tokenize(sentence.trim())) {
-            char[] chars = token.toCharArray();
-            if (chars.length > maxInputChars) {
-                outputTokens.add(unknown);
+        tokenize(sentence, outputTokens, null);
+        return outputTokens;
+    }
+
+    /**
+     * Tokenizes a piece of text into its word pieces and returns their indices in the vocabulary.
+     *
+     * @param sentence the text to tokenize
+     * @param tokens the list to add the word pieces to, or {@code null} if only the indices are
+     *     needed
+     * @return the indices of the word pieces in the vocabulary
+     */
+    public long[] encode(String sentence, List<String> tokens) {
+        WordpieceTrie.IdList ids = new WordpieceTrie.IdList();
+        tokenize(sentence, tokens, ids);
+        long[] indices = new long[ids.size];
+        for (int i = 0; i < ids.size; ++i) {
+            indices[i] = ids.data[i];
+        }
+        return indices;
+    }
+
+    private void tokenize(String sentence, List<String> tokens, WordpieceTrie.IdList ids) {
+        tokenizeWords(super.tokenize(sentence.trim()), tokens, ids);
+    }
+
+    /**
+     * Tokenizes words that are already split into their word pieces.
+     *
+     * @param words the words to tokenize
+     * @param tokens the list to add the word pieces to, or {@code null}
+     * @param ids the list to add the indices of the word pieces to, or {@code null}
+     */
+    void tokenizeWords(List<String> words, List<String> tokens, WordpieceTrie.IdList ids) {
+        WordpieceTrie.IdList pieces = new WordpieceTrie.IdList();
+        List<String> subTokens = new ArrayList<>();
+        for (String token : words) {
+            if (token.isEmpty()) {
                 continue;
             }
-            boolean isBad = false;
-            int start = 0;
-            subTokens.clear();
-            String currentSubString = null;
-            while (start < chars.length) {
-                int end = chars.length;
-                while (start < end) {
-                    sb.setLength(0);
-                    sb.append(token, start, end);
-                    if (start > 0) {
-                        sb.insert(0, "##");
+            if (token.length() > maxInputChars) {
+                addUnknown(tokens, ids);
+                continue;
+            }
+            if (trie != null && !token.startsWith("##")) {
+                pieces.size = 0;
+                if (!trie.match(token, pieces)) {
+                    addUnknown(tokens, ids);
+                    continue;
+                }
+                for (int i = 0; i < pieces.size; ++i) {
+                    if (tokens != null) {
+                        tokens.add(vocabulary.getToken(pieces.data[i]));
                     }
-                    String subString = sb.toString();
-                    if (vocabulary.contains(subString)) {
-                        currentSubString = subString;
-                        break;
-                    } else {
-                        currentSubString = null;
+                    if (ids != null) {
+                        ids.add(pieces.data[i]);
                     }
-                    end--;
                 }
-                if (currentSubString == null) {
-                    isBad = true;
-                    break;
+            } else {
+                subTokens.clear();
+                if (!matchGreedy(token, subTokens)) {
+                    addUnknown(tokens, ids);
+                    continue;
                 }
-                subTokens.add(currentSubString);
-                if (subTokens.size() > maxInputChars) {
-                    throw new IllegalStateException("Too many subTokens for: '" + sentence + '\'');
+                for (String subToken : subTokens) {
+                    if (tokens != null) {
+                        tokens.add(subToken);
+                    }
+                    if (ids != null) {
+                        ids.add(Math.toIntExact(vocabulary.getIndex(subToken)));
+                    }
                 }
-                start = end;
             }
-            if (isBad) {
-                outputTokens.add(unknown);
-            } else {
-                outputTokens.addAll(subTokens);
+        }
+    }
+
+    private void addUnknown(List<String> tokens, WordpieceTrie.IdList ids) {
+        if (tokens != null) {
+            tokens.add(unknown);
+        }
+        if (ids != null) {
+            if (unknownId < 0) {
+                unknownId = Math.toIntExact(vocabulary.getIndex(unknown));
             }
+            ids.add(unknownId);
         }
-        return outputTokens;
+    }
+
+    /** Tokenizes a word by looking up its substrings in the vocabulary, from the longest one. */
+    private boolean matchGreedy(String token, List<String> subTokens) {
+        StringBuilder sb = new StringBuilder();
+        int start = 0;
+        while (start < token.length()) {
+            int end = token.length();
+            String currentSubString = null;
+            while (start < end) {
+                sb.setLength(0);
+                if (start > 0) {
+                    sb.append("##");
+                }
+                sb.append(token, start, end);
+                String subString = sb.toString();
+                if (vocabulary.contains(subString)) {
+                    currentSubString = subString;
+                    break;
+                }
+                end--;
+            }
+            if (currentSubString == null) {
+                return false;
+            }
+            subTokens.add(currentSubString);
+            start = end;
+        }
+        return true;
     }
 }
@@ -0,0 +1,282 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality.nlp.bert;
+
+import ai.djl.modality.nlp.Vocabulary;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * A character trie of a wordpiece vocabulary with precomputed failure links.
+ *
+ * <p>The word-start tokens are inserted from the root and the continuation tokens, prefixed with
+ * {@code ##}, from the {@code ##} node. Each node has a failure link and a list of failure pops:
+ * the tokens greedy longest-match-first produces for the string of the node, and the node of the
+ * remaining suffix. When a character has no transition, the matcher emits the failure pops and
+ * follows the failure link instead of backtracking, so a word is tokenized in linear time
+ * (LinMaxMatch from "Fast WordPiece Tokenization", Song et al., 2021).
+ *
+ * <p>The trie only keeps the ids of the tokens, the strings stay in the vocabulary.
+ */
+final class WordpieceTrie {
+
+    private static final Map<Vocabulary, WordpieceTrie> TRIES =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static final int ROOT = 0;
+
+    private int suffixRoot;
+
+    private int nodes;
+    private int[] tokenIds;
+    private int[] failures;
+    private int[] popStarts;
+    private int[] popEnds;
+    private int[] pops;
+
+    // open addressing map from (node, char) to child node
+    private long[] edgeKeys;
+    private int[] edgeValues;
+    private int edges;
+
+    // the children of each node, only used to compute the failure links
+    private int[] firstChildren;
+    private int[] nextSiblings;
+    private char[] labels;
+
+    private WordpieceTrie(Vocabulary vocabulary) {
+        int size = Math.toIntExact(vocabulary.size());
+        int capacity = 1024;
+        tokenIds = new int[capacity];
+        firstChildren = new int[capacity];
+        nextSiblings = new int[capacity];
+        labels = new char[capacity];
+        edgeKeys = new long[capacity * 2];
+        edgeValues = new int[capacity * 2];
+        newNode(-1, '\0');
+        suffixRoot = insert("##");
+        for (int i = 0; i < size; ++i) {
+            String token = vocabulary.getToken(i);
+            if (token == null || token.isEmpty()) {
+                continue;
+            }
+            int node = insert(token);
+            if (tokenIds[node] < 0) {
+                tokenIds[node] = i;
+            }
+        }
+        computeFailures();
+        firstChildren = null;
+        nextSiblings = null;
+        labels = null;
+    }
+
+    /**
+     * Returns the trie of a vocabulary, the trie is built once and shared by the tokenizers of the
+     * same vocabulary.
+     *
+     * @param vocabulary the vocabulary
+     * @return the trie of the vocabulary
+     * @throws UnsupportedOperationException if the tokens of the vocabulary can't be listed
+     */
+    static WordpieceTrie of(Vocabulary vocabulary) {
+        return TRIES.computeIfAbsent(vocabulary, WordpieceTrie::new);
+    }
+
+    /**
+     * Tokenizes a word with greedy longest-match-first.
+     *
+     * <p>Words starting with {@code ##} are not supported, because their first token can't be told
+     * apart from a continuation token in the trie.
+     *
+     * @param word the word to tokenize
+     * @param ids the list to add the token ids to
+     * @return false if the word can't be tokenized, nothing is added to {@code ids} then
+     */
+    boolean match(String word, IdList ids) {
+        int mark = ids.size;
+        int node = ROOT;
+        for (int i = 0; i < word.length(); ++i) {
+            char c = word.charAt(i);
+            int child;
+            while ((child = child(node, c)) < 0) {
+                if (failures[node] < 0) {
+                    ids.size = mark;
+                    return false;
+                }
+                ids.add(pops, popStarts[node], popEnds[node]);
+                node = failures[node];
+            }
+            node = child;
+        }
+        while (node != suffixRoot) {
+            if (failures[node] < 0) {
+                ids.size = mark;
+                return false;
+            }
+            ids.add(pops, popStarts[node], popEnds[node]);
+            node = failures[node];
+        }
+        return true;
+    }
+
+    private int insert(String token) {
+        int node = ROOT;
+        for (int i = 0; i < token.length(); ++i) {
+            char c = token.charAt(i);
+            int child = child(node, c);
+            if (child < 0) {
+                child = newNode(node, c);
+            }
+            node = child;
+        }
+        return node;
+    }
+
+    private int newNode(int parent, char c) {
+        if (nodes == tokenIds.length) {
+            int capacity = nodes * 2;
+            tokenIds = Arrays.copyOf(tokenIds, capacity);
+            firstChildren = Arrays.copyOf(firstChildren, capacity);
+            nextSiblings = Arrays.copyOf(nextSiblings, capacity);
+            labels = Arrays.copyOf(labels, capacity);
+        }
+        int node = nodes++;
+        tokenIds[node] = -1;
+        firstChildren[node] = -1;
+        nextSiblings[node] = -1;
+        labels[node] = c;
+        if (parent >= 0) {
+            nextSiblings[node] = firstChildren[parent];
+            firstChildren[parent] = node;
+            putEdge(parent, c, node);
+        }
+        return node;
+    }
+
+    private int child(int node, char c) {
+        long key = edgeKey(node, c);
+        int mask = edgeKeys.length - 1;
+        for (int slot = slot(key, mask); ; slot = (slot + 1) & mask) {
+            long k = edgeKeys[slot];
+            if (k == key) {
+                return edgeValues[slot];
+            } else if (k == 0) {
+                return -1;
+            }
+        }
+    }
+
+    private void putEdge(int node, char c, int child) {
+        if (edges * 2 >= edgeKeys.length) {
+            long[] oldKeys = edgeKeys;
+            int[] oldValues = edgeValues;
+            edgeKeys = new long[oldKeys.length * 2];
+            edgeValues = new int[oldKeys.length * 2];
+            for (int i = 0; i < oldKeys.length; ++i) {
+                if (oldKeys[i] != 0) {
+                    putEdge(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+        putEdge(edgeKey(node, c), child);
+        ++edges;
+    }
+
+    private void putEdge(long key, int child) {
+        int mask = edgeKeys.length - 1;
+        int slot = slot(key, mask);
+        while (edgeKeys[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        edgeKeys[slot] = key;
+        edgeValues[slot] = child;
+    }
+
+    private void computeFailures() {
+        failures = new int[nodes];
+        popStarts = new int[nodes];
+        popEnds = new int[nodes];
+        Arrays.fill(failures, -1);
+        IdList list = new IdList();
+        int[] queue = new int[nodes];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = ROOT;
+        queue[tail++] = suffixRoot;
+        while (head < tail) {
+            int parent = queue[head++];
+            for (int node = firstChildren[parent]; node >= 0; node = nextSiblings[node]) {
+                if (node == suffixRoot) {
+                    continue;
+                }
+                popStarts[node] = list.size;
+                if (tokenIds[node] >= 0) {
+                    list.add(tokenIds[node]);
+                    failures[node] = suffixRoot;
+                } else {
+                    char c = labels[node];
+                    list.add(list.data, popStarts[parent], popEnds[parent]);
+                    int failure = failures[parent];
+                    int child;
+                    while (failure >= 0 && (child = child(failure, c)) < 0) {
+                        list.add(list.data, popStarts[failure], popEnds[failure]);
+                        failure = failures[failure];
+                    }
+                    if (failure >= 0) {
+                        failures[node] = child(failure, c);
+                    }
+                }
+                popEnds[node] = list.size;
+                queue[tail++] = node;
+            }
+        }
+        pops = Arrays.copyOf(list.data, list.size);
+    }
+
+    private static long edgeKey(int node, char c) {
+        // never 0, which marks an empty slot
+        return ((long) node << 16 | c) + 1;
+    }
+
+    private static int slot(long key, int mask) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    /** A growable list of token ids. */
+    static final class IdList {
+
+        int[] data = new int[16];
+        int size;
+
+        void add(int id) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = id;
+        }
+
+        void add(int[] ids, int start, int end) {
+            int length = end - start;
+            if (size + length > data.length) {
+                data = Arrays.copyOf(data, Math.max(size * 2, size + length));
+            }
+            System.arraycopy(ids, start, data, size, length);
+            size += length;
+        }
+    }
+}
@@ -18,6 +18,7 @@ import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.types.SparseFormat;
 import ai.djl.nn.Block;
 import ai.djl.nn.core.Embedding;
+import ai.djl.nn.core.SharedEmbeddingStore;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
@@ -73,6 +74,12 @@ public class TrainableWordEmbedding extends Embedding<String> implements WordEmb
         this.vocabulary = new DefaultVocabulary(items);
     }
 
+    private TrainableWordEmbedding(SharedEmbeddingStore store, List<String> items) {
+        super(store);
+        this.fallthroughEmbedding = new DefaultItem(DEFAULT_UNKNOWN_TOKEN);
+        this.vocabulary = new DefaultVocabulary(items);
+    }
+
     /**
      * Constructs a pretrained embedding.
      *
@@ -103,6 +110,21 @@ public class TrainableWordEmbedding extends Embedding<String> implements WordEmb
         return new TrainableWordEmbedding(embedding, items, sparseFormat);
     }
 
+    /**
+     * Constructs a pretrained embedding that looks up the rows of a {@link SharedEmbeddingStore}.
+     *
+     * <p>The blocks created from the same store share its matrix, which is not saved with the
+     * models. The store must stay open while the embedding is used.
+     *
+     * @param store the shared embedding store
+     * @param items the items in the embedding (in matching order to the rows of the store)
+     * @return the created embedding
+     */
+    public static TrainableWordEmbedding fromPretrained(
+            SharedEmbeddingStore store, List<String> items) {
+        return new TrainableWordEmbedding(store, items);
+    }
+
     /** {@inheritDoc} */
     @Override
     public boolean vocabularyContains(String word) {
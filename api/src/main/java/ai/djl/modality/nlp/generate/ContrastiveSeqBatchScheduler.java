@@ -31,6 +31,8 @@ import java.util.stream.Collectors;
  */
 public class ContrastiveSeqBatchScheduler extends SeqBatchScheduler {
 
+    private static final NDIndex LAST_TOKEN = NDIndex.compile(":, -1, :");
+
     /**
      * Constructs a new {@code ContrastiveSeqBatchScheduler} instance.
      *
@@ -54,7 +56,7 @@ public class ContrastiveSeqBatchScheduler extends SeqBatchScheduler {
 
             CausalLMOutput output =
                     predictor.predict(new NDList(inputIds, positionIds, attentionMask));
-            NDArray lastLogits = output.getLogits().get(":, -1, :");
+            NDArray lastLogits = output.getLogits().get(LAST_TOKEN);
 
             // Used to mark the sequence dimension's ordinal number for each tensor in the
             // serialized
@@ -24,6 +24,8 @@ import ai.djl.ndarray.types.Shape;
  */
 public final class StepGeneration {
 
+    private static final NDIndex LAST_TOKEN = NDIndex.compile(":, -1, :");
+
     private StepGeneration() {}
 
     /**
@@ -104,7 +106,7 @@ public final class StepGeneration {
     public static NDArray greedyStepGen(NDArray logits) {
         // logits:  [batch, seq, probDim]
         assert logits.getShape().getShape().length == 3 : "unexpected input";
-        logits = logits.get(":, -1, :");
+        logits = logits.get(LAST_TOKEN);
         return logits.argMax(-1).expandDims(1); // [batch, vacDim]
     }
 
@@ -120,7 +122,7 @@ public final class StepGeneration {
     public static NDList beamStepGeneration(
             NDArray lastProbs, NDArray logits, long numBatch, long numBeam) {
         // [batch * beamSource, seq, probDim] -> [batch, beamSource, probDim]
-        NDArray allProbs = logits.get(":, -1, :").softmax(1).reshape(numBatch, numBeam, -1);
+        NDArray allProbs = logits.get(LAST_TOKEN).softmax(1).reshape(numBatch, numBeam, -1);
 
         // Argmax over the probs in the prob dimension.
         // [batch, beamSource, probDim] -> [batch, beamSource, beamChild]
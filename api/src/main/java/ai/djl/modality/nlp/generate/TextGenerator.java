@@ -34,6 +34,8 @@ import java.util.stream.Collectors;
  */
 public class TextGenerator {
 
+    private static final NDIndex LAST_TOKEN = NDIndex.compile(":, -1, :");
+
     private String searchName;
     private SearchConfig config;
     private Predictor<NDList, CausalLMOutput> predictor;
@@ -143,7 +145,7 @@ public class TextGenerator {
                 CausalLMOutput modelOutput = predictor.predict(modelInput);
 
                 // [batch, probDim]
-                NDArray allProbs = modelOutput.getLogits().get(":, -1, :").softmax(1);
+                NDArray allProbs = modelOutput.getLogits().get(LAST_TOKEN).softmax(1);
 
                 // [batch, beam]
                 NDList topK = allProbs.topK(Math.toIntExact(numBeam), -1, true, false);
@@ -256,7 +258,7 @@ public class TextGenerator {
             if (searchState.getPastKeyValues() == null) {
                 NDList modelInput = prepareInput(inputIds, attentionMask, 0, 1);
                 CausalLMOutput output = predictor.predict(modelInput);
-                NDArray lastLogits = output.getLogits().get(":, -1, :");
+                NDArray lastLogits = output.getLogits().get(LAST_TOKEN);
                 searchState =
                         new ContrastiveBatchTensorList(
                                 inputIds,
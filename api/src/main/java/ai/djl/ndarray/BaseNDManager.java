@@ -35,6 +35,7 @@ import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -43,6 +44,8 @@ public abstract class BaseNDManager implements NDManager {
 
     private static final Logger logger = LoggerFactory.getLogger(BaseNDManager.class);
 
+    private static final boolean TRACK_MEMORY = Boolean.getBoolean("collect-memory");
+
     protected NDManager parent;
     protected NDManager alternativeManager;
     protected String uid;
@@ -52,12 +55,17 @@ public abstract class BaseNDManager implements NDManager {
     protected ConcurrentHashMap<String, TempResource> tempResources;
     protected AtomicBoolean closed = new AtomicBoolean(false);
     protected AtomicBoolean capped = new AtomicBoolean(false);
+    private ConcurrentHashMap<String, Long> arrayBytes;
+    private AtomicLong liveBytes = new AtomicLong();
 
     protected BaseNDManager(NDManager parent, Device device) {
         this.parent = parent;
         this.device = device == null ? defaultDevice() : device;
         resources = new ConcurrentHashMap<>();
         tempResources = new ConcurrentHashMap<>();
+        if (TRACK_MEMORY) {
+            arrayBytes = new ConcurrentHashMap<>();
+        }
         uid = UUID.randomUUID().toString();
         Engine engine = getEngine().getAlternativeEngine();
         if (engine != null) {
@@ -332,6 +340,9 @@ public abstract class BaseNDManager implements NDManager {
                         tempResource.detached = false;
                     } else {
                         resources.put(resourceId, resource);
+                        if (TRACK_MEMORY && resource instanceof NDArray) {
+                            trackBytes(resourceId, (NDArray) resource);
+                        }
                     }
                     return tempResource;
                 });
@@ -365,6 +376,38 @@ public abstract class BaseNDManager implements NDManager {
                     return tempResource;
                 });
         resources.remove(resourceId);
+        if (TRACK_MEMORY) {
+            Long bytes = arrayBytes.remove(resourceId);
+            if (bytes != null) {
+                liveBytes.addAndGet(-bytes);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of bytes of the live {@link NDArray}s attached to this manager and its
+     * sub-managers.
+     *
+     * <p>The bytes are only tracked when the memory collection is enabled with the following flag
+     * in the command line arguments: -Dcollect-memory=true. Otherwise this returns 0. This can be
+     * called from any thread, and never accesses the native memory of the arrays.
+     *
+     * @return the number of bytes of the live {@link NDArray}s
+     */
+    public long getLiveBytes() {
+        long total = liveBytes.get();
+        for (AutoCloseable resource : resources.values()) {
+            if (resource instanceof BaseNDManager) {
+                total += ((BaseNDManager) resource).getLiveBytes();
+            }
+        }
+        return total;
+    }
+
+    private void trackBytes(String resourceId, NDArray array) {
+        long bytes = array.size() * array.getDataType().getNumOfBytes();
+        Long previous = arrayBytes.put(resourceId, bytes);
+        liveBytes.addAndGet(previous == null ? bytes : bytes - previous);
     }
 
     /** {@inheritDoc} */
@@ -402,6 +445,10 @@ public abstract class BaseNDManager implements NDManager {
             parent.detachInternal(uid);
             resources.clear();
             tempResources.clear();
+            if (TRACK_MEMORY) {
+                arrayBytes.clear();
+                liveBytes.set(0);
+            }
         }
     }
 
@@ -68,6 +68,19 @@ public interface BytesSupplier {
         return new BytesSupplierImpl(buf);
     }
 
+    /**
+     * Wraps a {@code ByteBuffer} into a {code BytesSupplier}.
+     *
+     * <p>The buffer is not copied, a direct buffer stays off heap until {@link #getAsBytes()} is
+     * called.
+     *
+     * @param buf the {@code ByteBuffer} that will back this {code BytesSupplier}
+     * @return a {@code BytesSupplier}
+     */
+    static BytesSupplier wrap(ByteBuffer buf) {
+        return new BytesSupplierImpl(buf);
+    }
+
     /**
      * Wraps a string into a {code BytesSupplier}.
      *
@@ -20,6 +20,7 @@ import java.nio.charset.StandardCharsets;
 class BytesSupplierImpl implements BytesSupplier {
 
     private byte[] buf;
+    private ByteBuffer bb;
     private String value;
     private Object obj;
 
@@ -27,6 +28,10 @@ class BytesSupplierImpl implements BytesSupplier {
         this.buf = buf;
     }
 
+    BytesSupplierImpl(ByteBuffer bb) {
+        this.bb = bb;
+    }
+
     BytesSupplierImpl(String value) {
         this.value = value;
     }
@@ -39,6 +44,12 @@ class BytesSupplierImpl implements BytesSupplier {
     @Override
     public byte[] getAsBytes() {
         if (buf == null) {
+            if (bb != null) {
+                ByteBuffer data = bb.duplicate();
+                buf = new byte[data.remaining()];
+                data.get(buf);
+                return buf;
+            }
             if (value == null) {
                 value = JsonUtils.GSON_PRETTY.toJson(obj) + '\n';
             }
@@ -54,7 +65,7 @@ class BytesSupplierImpl implements BytesSupplier {
             if (obj != null) {
                 value = JsonUtils.GSON_PRETTY.toJson(obj) + '\n';
             } else {
-                value = new String(buf, StandardCharsets.UTF_8);
+                value = new String(getAsBytes(), StandardCharsets.UTF_8);
             }
         }
         return value;
@@ -67,6 +78,8 @@ class BytesSupplierImpl implements BytesSupplier {
             return obj;
         } else if (value != null) {
             return value;
+        } else if (bb != null) {
+            return bb;
         }
         return buf;
     }
@@ -74,6 +87,9 @@ class BytesSupplierImpl implements BytesSupplier {
     /** {@inheritDoc} */
     @Override
     public ByteBuffer toByteBuffer() {
+        if (bb != null) {
+            return bb.duplicate();
+        }
         return ByteBuffer.wrap(getAsBytes());
     }
 }
@@ -25,6 +25,7 @@ import java.io.OutputStream;
 import java.io.PushbackInputStream;
 import java.nio.BufferUnderflowException;
 import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -402,6 +403,44 @@ public class NDList extends ArrayList<NDArray> implements NDResource, BytesSuppl
         dos.flush();
     }
 
+    /**
+     * Writes the encoded NDList to a {@code WritableByteChannel}.
+     *
+     * <p>Unlike {@link #encode(OutputStream)}, the data of each {@link NDArray} is written directly
+     * from its buffer, the encoding is never materialized as a whole.
+     *
+     * @param channel the {@code WritableByteChannel} to be written to
+     * @throws IOException if failed on IO operation
+     */
+    public void encode(WritableByteChannel channel) throws IOException {
+        for (ByteBuffer bb : getEncodedBuffers()) {
+            NDSerializer.writeFully(channel, bb);
+        }
+    }
+
+    /**
+     * Returns the encoded NDList as a sequence of {@code ByteBuffer}s.
+     *
+     * <p>The buffers hold the bytes of {@link #encode(OutputStream)}, the data of each {@link
+     * NDArray} is its own buffer and is not copied. The total remaining bytes of the buffers is the
+     * length of the encoding.
+     *
+     * @return the encoded NDList as a sequence of {@code ByteBuffer}s
+     * @throws IOException if failed on IO operation
+     */
+    public ByteBuffer[] getEncodedBuffers() throws IOException {
+        ByteBuffer[] buffers = new ByteBuffer[size() * 2 + 1];
+        buffers[0] = ByteBuffer.allocate(4);
+        buffers[0].putInt(size());
+        buffers[0].flip();
+        for (int i = 0; i < size(); ++i) {
+            ByteBuffer[] array = NDSerializer.encodeBuffers(get(i));
+            buffers[i * 2 + 1] = array[0];
+            buffers[i * 2 + 2] = array[1];
+        }
+        return buffers;
+    }
+
     /** {@inheritDoc} */
     @Override
     public byte[] getAsBytes() {
@@ -24,6 +24,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.regex.Matcher;
@@ -67,26 +68,9 @@ final class NDSerializer {
         } else {
             dos = new DataOutputStream(os);
         }
-        // magic string for version identification
-        dos.writeUTF(MAGIC_NUMBER);
-        dos.writeInt(VERSION);
-        String name = array.getName();
-        if (name == null) {
-            dos.write(0);
-        } else {
-            dos.write(1);
-            dos.writeUTF(name);
-        }
-        dos.writeUTF(array.getSparseFormat().name());
-        dos.writeUTF(array.getDataType().name());
-
-        Shape shape = array.getShape();
-        dos.write(shape.getEncoded());
-
         ByteBuffer bb = array.toByteBuffer();
-        dos.write(bb.order() == ByteOrder.BIG_ENDIAN ? '>' : '<');
+        writeHeader(array, bb, dos);
         int length = bb.remaining();
-        dos.writeInt(length);
 
         if (length > 0) {
             if (bb.hasArray() && bb.remaining() == bb.array().length) {
@@ -109,6 +93,51 @@ final class NDSerializer {
         dos.flush();
     }
 
+    /**
+     * Returns the encoded {@link NDArray} as a header buffer followed by the data buffer.
+     *
+     * <p>The data buffer is the buffer of the {@link NDArray}, it is not copied.
+     *
+     * @param array the input {@link NDArray}
+     * @return the header and the data buffers
+     * @throws IOException if failed on IO operation
+     */
+    static ByteBuffer[] encodeBuffers(NDArray array) throws IOException {
+        ByteBuffer bb = array.toByteBuffer();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(64);
+        writeHeader(array, bb, new DataOutputStream(baos));
+        return new ByteBuffer[] {ByteBuffer.wrap(baos.toByteArray()), bb};
+    }
+
+    private static void writeHeader(NDArray array, ByteBuffer bb, DataOutputStream dos)
+            throws IOException {
+        // magic string for version identification
+        dos.writeUTF(MAGIC_NUMBER);
+        dos.writeInt(VERSION);
+        String name = array.getName();
+        if (name == null) {
+            dos.write(0);
+        } else {
+            dos.write(1);
+            dos.writeUTF(name);
+        }
+        dos.writeUTF(array.getSparseFormat().name());
+        dos.writeUTF(array.getDataType().name());
+
+        Shape shape = array.getShape();
+        dos.write(shape.getEncoded());
+
+        dos.write(bb.order() == ByteOrder.BIG_ENDIAN ? '>' : '<');
+        dos.writeInt(bb.remaining());
+        dos.flush();
+    }
+
+    static void writeFully(WritableByteChannel channel, ByteBuffer bb) throws IOException {
+        while (bb.hasRemaining()) {
+            channel.write(bb);
+        }
+    }
+
     static void encodeAsNumpy(NDArray array, OutputStream os) throws IOException {
         StringBuilder sb = new StringBuilder(80);
         sb.append("{'descr': '")
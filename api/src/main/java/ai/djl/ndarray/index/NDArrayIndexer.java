@@ -65,6 +65,14 @@ public abstract class NDArrayIndexer {
             return array.duplicate();
         }
 
+        if (index.isSliceOnly()) {
+            Optional<NDIndexFullSlice> fullSlice =
+                    NDIndexFullSlice.fromIndex(index, array.getShape());
+            if (fullSlice.isPresent()) {
+                return get(array, fullSlice.get());
+            }
+        }
+
         // use booleanMask for NDIndexBooleans case
         List<NDIndexElement> indices = index.getIndices();
         if (!indices.isEmpty() && indices.get(0) instanceof NDIndexBooleans) {
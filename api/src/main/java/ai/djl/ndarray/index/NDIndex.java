@@ -23,6 +23,7 @@ import ai.djl.ndarray.index.dim.NDIndexSlice;
 import ai.djl.ndarray.index.dim.NDIndexTake;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -42,7 +43,9 @@ import java.util.stream.Stream;
  *   <li>A range of values - Use addSliceDim
  * </ul>
  *
- * <p>We recommend creating the NDIndex using {@link #NDIndex(String, Object...)}.
+ * <p>We recommend creating the NDIndex using {@link #NDIndex(String, Object...)}. An index string
+ * that is used repeatedly, for example in a loop, can be parsed only once with {@link
+ * #compile(String)} into a constant.
  *
  * @see #NDIndex(String, Object...)
  */
@@ -56,6 +59,8 @@ public class NDIndex {
     private int rank;
     private List<NDIndexElement> indices;
     private int ellipsisIndex;
+    private boolean compiled;
+    private boolean sliceOnly;
 
     /** Creates an empty {@link NDIndex} to append values to. */
     public NDIndex() {
@@ -157,6 +162,58 @@ public class NDIndex {
         return ind;
     }
 
+    /**
+     * Returns an immutable {@link NDIndex} parsed from an index string without variables.
+     *
+     * <p>The returned {@code NDIndex} can't be updated with the {@code add} methods, so it can be
+     * shared between threads. An index used in a hot loop should be compiled once into a constant,
+     * for example {@code private static final NDIndex LAST = NDIndex.compile(":, -1")}, so the
+     * string isn't parsed again on each call.
+     *
+     * @param indices a comma separated list of indices similar to {@link #NDIndex(String,
+     *     Object...)} without any "{}" variable
+     * @return the immutable {@link NDIndex}
+     * @throws IllegalArgumentException if the indices string is invalid or contains variables
+     * @see #NDIndex(String, Object...)
+     */
+    public static NDIndex compile(String indices) {
+        if (indices.contains("{}")) {
+            throw new IllegalArgumentException(
+                    "A compiled index can't have variables, use new NDIndex(String, Object...)");
+        }
+        NDIndex index = new NDIndex();
+        index.parseIndices(indices);
+        index.indices = Collections.unmodifiableList(index.indices);
+        index.sliceOnly = index.stream().allMatch(NDIndex::isSliceElement);
+        index.compiled = true;
+        return index;
+    }
+
+    /**
+     * Returns whether the {@link NDIndex} is immutable because it was created by {@link
+     * #compile(String)}.
+     *
+     * @return whether the {@link NDIndex} is immutable
+     */
+    public boolean isCompiled() {
+        return compiled;
+    }
+
+    /**
+     * Returns whether the {@link NDIndex} only contains all, fixed, and slice indices.
+     *
+     * <p>Such an index can be converted to a {@link ai.djl.ndarray.index.full.NDIndexFullSlice},
+     * which the engines can get with a single slice operation.
+     *
+     * @return whether the {@link NDIndex} only contains all, fixed, and slice indices
+     */
+    public boolean isSliceOnly() {
+        if (compiled) {
+            return sliceOnly;
+        }
+        return stream().allMatch(NDIndex::isSliceElement);
+    }
+
     /**
      * Returns the number of dimensions specified in the Index.
      *
@@ -188,6 +245,8 @@ public class NDIndex {
     /**
      * Returns the indices.
      *
+     * <p>The list can't be modified if the {@code NDIndex} is compiled.
+     *
      * @return the indices
      */
     public List<NDIndexElement> getIndices() {
@@ -204,6 +263,12 @@ public class NDIndex {
      * @see #NDIndex(String, Object...)
      */
     public final NDIndex addIndices(String indices, Object... args) {
+        checkMutable();
+        parseIndices(indices, args);
+        return this;
+    }
+
+    private void parseIndices(String indices, Object... args) {
         String[] indexItems = indices.split(",");
         rank += indexItems.length;
         int argIndex = 0;
@@ -225,7 +290,6 @@ public class NDIndex {
         if (argIndex != args.length) {
             throw new IllegalArgumentException("Incorrect number of index arguments");
         }
-        return this;
     }
 
     /**
@@ -236,6 +300,7 @@ public class NDIndex {
      * @return the updated {@link NDIndex}
      */
     public final NDIndex addIndices(long... indices) {
+        checkMutable();
         rank += indices.length;
         for (long i : indices) {
             this.indices.add(new NDIndexFixed(i));
@@ -253,6 +318,7 @@ public class NDIndex {
      * @return the updated {@link NDIndex}
      */
     public NDIndex addBooleanIndex(NDArray index) {
+        checkMutable();
         rank += index.getShape().dimension();
         indices.add(new NDIndexBooleans(index));
         return this;
@@ -264,6 +330,7 @@ public class NDIndex {
      * @return the updated {@link NDIndex}
      */
     public NDIndex addEllipseDim() {
+        checkMutable();
         ellipsisIndex = indices.size();
         return this;
     }
@@ -274,6 +341,7 @@ public class NDIndex {
      * @return the updated {@link NDIndex}
      */
     public NDIndex addAllDim() {
+        checkMutable();
         rank++;
         indices.add(new NDIndexAll());
         return this;
@@ -287,6 +355,7 @@ public class NDIndex {
      * @throws IllegalArgumentException if count is negative
      */
     public NDIndex addAllDim(int count) {
+        checkMutable();
         if (count < 0) {
             throw new IllegalArgumentException(
                     "The number of index dimensions to add can't be negative");
@@ -306,6 +375,7 @@ public class NDIndex {
      * @return the updated {@link NDIndex}
      */
     public NDIndex addSliceDim(long min, long max) {
+        checkMutable();
         rank++;
         indices.add(new NDIndexSlice(min, max, null));
         return this;
@@ -320,6 +390,7 @@ public class NDIndex {
      * @return the updated {@link NDIndex}
      */
     public NDIndex addSliceDim(long min, long max, long step) {
+        checkMutable();
         rank++;
         indices.add(new NDIndexSlice(min, max, step));
         return this;
@@ -335,6 +406,7 @@ public class NDIndex {
      * @return the updated {@link NDIndex}
      */
     public NDIndex addPickDim(NDArray index) {
+        checkMutable();
         rank++;
         indices.add(new NDIndexPick(index));
         return this;
@@ -349,6 +421,18 @@ public class NDIndex {
         return indices.stream();
     }
 
+    private void checkMutable() {
+        if (compiled) {
+            throw new IllegalStateException("A compiled NDIndex can't be updated");
+        }
+    }
+
+    private static boolean isSliceElement(NDIndexElement element) {
+        return element instanceof NDIndexAll
+                || element instanceof NDIndexFixed
+                || element instanceof NDIndexSlice;
+    }
+
     private int addIndexItem(String indexItem, int argIndex, Object[] args) {
         indexItem = indexItem.trim();
         Matcher m = ITEM_PATTERN.matcher(indexItem);
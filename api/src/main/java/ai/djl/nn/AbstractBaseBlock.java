@@ -76,6 +76,11 @@ public abstract class AbstractBaseBlock implements Block {
             NDManager paramsManager = parameterStore.getManager();
             initialize(paramsManager, DataType.FLOAT32, inputs.getShapes());
         }
+        BlockProfiler profiler = BlockProfiler.getActive();
+        if (profiler != null) {
+            return profiler.profile(
+                    this, () -> forwardInternal(parameterStore, inputs, training, params));
+        }
         return forwardInternal(parameterStore, inputs, training, params);
     }
 
@@ -90,6 +95,11 @@ public abstract class AbstractBaseBlock implements Block {
         if (!isInitialized()) {
             initialize(paramsManager, DataType.FLOAT32, data.getShapes());
         }
+        BlockProfiler profiler = BlockProfiler.getActive();
+        if (profiler != null) {
+            return profiler.profile(
+                    this, () -> forwardInternal(parameterStore, data, labels, params));
+        }
         return forwardInternal(parameterStore, data, labels, params);
     }
 
@@ -292,6 +302,16 @@ public abstract class AbstractBaseBlock implements Block {
         for (Parameter parameter : getDirectParameters().values()) {
             parameter.load(manager, is);
         }
+        if (is instanceof ParameterInputStream) {
+            // keep track of the block names to filter the parameters
+            ParameterInputStream pis = (ParameterInputStream) is;
+            for (Pair<String, Block> child : getChildren()) {
+                pis.enterBlock(child.getKey());
+                child.getValue().loadParameters(manager, is);
+                pis.exitBlock();
+            }
+            return;
+        }
         for (Block child : getChildren().values()) {
             child.loadParameters(manager, is);
         }
@@ -0,0 +1,327 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.nn;
+
+import ai.djl.metric.Dimension;
+import ai.djl.metric.Metric;
+import ai.djl.metric.Metrics;
+import ai.djl.metric.Unit;
+import ai.djl.ndarray.LazyNDArray;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.util.Pair;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * {@code BlockProfiler} measures the forward pass of each {@link Block} of a block tree.
+ *
+ * <p>While a profiler is started, every forward call of an {@link AbstractBaseBlock} is timed and
+ * aggregated into a tree of {@link Node}s, one node per block path: the children of a {@link
+ * SequentialBlock} or {@link ParallelBlock} are nested under the node of their parent and named
+ * after their child name. Each node holds the number of calls, the total time and the bytes of the
+ * outputs. When no profiler is started, the forward pass only checks a static field.
+ *
+ * <p>The engines may run operators asynchronously, the time of an operator is then accounted to the
+ * block that waits for its result. With {@code waitToRead}, each block waits for its outputs to be
+ * computed, which gives accurate timings at the cost of the asynchronous execution.
+ *
+ * <pre>
+ * try (BlockProfiler profiler = BlockProfiler.start(true)) {
+ *     predictor.predict(input);
+ *     profiler.stop();
+ *     profiler.writeFlameGraph(Paths.get("forward.folded"));
+ * }
+ * </pre>
+ */
+public final class BlockProfiler implements AutoCloseable {
+
+    private static volatile BlockProfiler active;
+
+    private boolean waitToRead;
+    private Node root;
+    private ThreadLocal<Node> current;
+
+    private BlockProfiler(boolean waitToRead) {
+        this.waitToRead = waitToRead;
+        root = new Node(null, "", null);
+        current = new ThreadLocal<>();
+    }
+
+    /**
+     * Starts profiling the forward passes of all the blocks.
+     *
+     * @param waitToRead whether each block waits for its outputs to be computed
+     * @return the started profiler
+     * @throws IllegalStateException if a profiler is already started
+     */
+    public static BlockProfiler start(boolean waitToRead) {
+        synchronized (BlockProfiler.class) {
+            if (active != null) {
+                throw new IllegalStateException("A BlockProfiler is already started.");
+            }
+            active = new BlockProfiler(waitToRead);
+            return active;
+        }
+    }
+
+    /**
+     * Returns the started profiler.
+     *
+     * @return the started profiler, or {@code null} if no profiler is started
+     */
+    static BlockProfiler getActive() {
+        return active;
+    }
+
+    /** Stops profiling, the results of the profiler are kept. */
+    public void stop() {
+        synchronized (BlockProfiler.class) {
+            if (active == this) {
+                active = null;
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void close() {
+        stop();
+    }
+
+    /**
+     * Returns the root of the profiling tree, the blocks called from outside a block are its
+     * children.
+     *
+     * @return the root of the profiling tree
+     */
+    public Node getRoot() {
+        return root;
+    }
+
+    /**
+     * Adds the total time, number of calls and output bytes of each block path to the {@link
+     * Metrics}, as the {@code BlockForward}, {@code BlockCalls} and {@code BlockOutputBytes}
+     * metrics with a {@code Block} dimension.
+     *
+     * @param metrics the metrics to add to
+     */
+    public void addMetrics(Metrics metrics) {
+        for (Node node : root.getChildren()) {
+            addMetrics(metrics, node);
+        }
+    }
+
+    /**
+     * Writes the profiling tree in the collapsed stack format of flame graph tools, one line per
+     * block path with its self time in microseconds.
+     *
+     * @param path the file to write to
+     * @throws IOException if failed to write the file
+     */
+    public void writeFlameGraph(Path path) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writeFlameGraph(writer);
+        }
+    }
+
+    /**
+     * Writes the profiling tree in the collapsed stack format of flame graph tools, one line per
+     * block path with its self time in microseconds.
+     *
+     * @param writer the writer to write to
+     * @throws IOException if failed to write
+     */
+    public void writeFlameGraph(Writer writer) throws IOException {
+        for (Node node : root.getChildren()) {
+            writeFlameGraph(writer, node);
+        }
+        writer.flush();
+    }
+
+    NDList profile(Block block, Supplier<NDList> forward) {
+        Node parent = current.get();
+        Node node = (parent == null ? root : parent).child(block);
+        current.set(node);
+        long begin = System.nanoTime();
+        try {
+            NDList outputs = forward.get();
+            long bytes = 0;
+            for (NDArray array : outputs) {
+                if (waitToRead && array instanceof LazyNDArray) {
+                    ((LazyNDArray) array).waitToRead();
+                }
+                bytes += array.size() * array.getDataType().getNumOfBytes();
+            }
+            node.record(System.nanoTime() - begin, bytes);
+            return outputs;
+        } finally {
+            current.set(parent);
+        }
+    }
+
+    private static void addMetrics(Metrics metrics, Node node) {
+        Dimension dimension = new Dimension("Block", node.getPath());
+        metrics.addMetric(
+                new Metric(
+                        "BlockForward", node.getTotalTime() / 1000, Unit.MICROSECONDS, dimension));
+        metrics.addMetric(new Metric("BlockCalls", node.getCalls(), Unit.COUNT, dimension));
+        metrics.addMetric(
+                new Metric("BlockOutputBytes", node.getOutputBytes(), Unit.BYTES, dimension));
+        for (Node child : node.getChildren()) {
+            addMetrics(metrics, child);
+        }
+    }
+
+    private static void writeFlameGraph(Writer writer, Node node) throws IOException {
+        long self = node.getSelfTime() / 1000;
+        if (self > 0) {
+            writer.write(node.getPath());
+            writer.write(' ');
+            writer.write(String.valueOf(self));
+            writer.write('\n');
+        }
+        for (Node child : node.getChildren()) {
+            writeFlameGraph(writer, child);
+        }
+    }
+
+    /** The aggregated forward passes of a block path. */
+    public static final class Node {
+
+        private Node parent;
+        private String name;
+        private Block block;
+        private Map<Block, Node> children;
+        private List<Node> childList;
+        private long calls;
+        private long totalTime;
+        private long outputBytes;
+
+        Node(Node parent, String name, Block block) {
+            this.parent = parent;
+            this.name = name;
+            this.block = block;
+            children = new IdentityHashMap<>();
+            childList = new ArrayList<>();
+        }
+
+        /**
+         * Returns the name of the block, its child name in the parent block, or its class name.
+         *
+         * @return the name of the block
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Returns the path of the block, the names of the blocks from the root separated by {@code
+         * ;}.
+         *
+         * @return the path of the block
+         */
+        public String getPath() {
+            if (parent == null || parent.parent == null) {
+                return name;
+            }
+            return parent.getPath() + ';' + name;
+        }
+
+        /**
+         * Returns the number of forward calls.
+         *
+         * @return the number of forward calls
+         */
+        public synchronized long getCalls() {
+            return calls;
+        }
+
+        /**
+         * Returns the total time of the forward calls in nanoseconds.
+         *
+         * @return the total time of the forward calls in nanoseconds
+         */
+        public synchronized long getTotalTime() {
+            return totalTime;
+        }
+
+        /**
+         * Returns the time of the forward calls in nanoseconds, excluding the time of the children.
+         *
+         * @return the time of the forward calls, excluding the time of the children
+         */
+        public long getSelfTime() {
+            long self = getTotalTime();
+            for (Node child : getChildren()) {
+                self -= child.getTotalTime();
+            }
+            return Math.max(self, 0);
+        }
+
+        /**
+         * Returns the total bytes of the outputs of the forward calls.
+         *
+         * @return the total bytes of the outputs of the forward calls
+         */
+        public synchronized long getOutputBytes() {
+            return outputBytes;
+        }
+
+        /**
+         * Returns the nodes of the child blocks, in the order of their first call.
+         *
+         * @return the nodes of the child blocks
+         */
+        public synchronized List<Node> getChildren() {
+            return new ArrayList<>(childList);
+        }
+
+        synchronized Node child(Block child) {
+            Node node = children.get(child);
+            if (node == null) {
+                node = new Node(this, childName(child), child);
+                children.put(child, node);
+                childList.add(node);
+            }
+            return node;
+        }
+
+        synchronized void record(long time, long bytes) {
+            ++calls;
+            totalTime += time;
+            outputBytes += bytes;
+        }
+
+        private String childName(Block child) {
+            if (block != null) {
+                for (Pair<String, Block> pair : block.getChildren()) {
+                    if (pair.getValue() == child) {
+                        return pair.getKey();
+                    }
+                }
+            }
+            String className = child.getClass().getSimpleName();
+            return className.isEmpty() ? "Block" : className;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.nn;
+
+import ai.djl.Model;
+import ai.djl.metric.Metrics;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.nn.convolutional.Conv1d;
+import ai.djl.nn.convolutional.Conv2d;
+import ai.djl.nn.convolutional.Conv3d;
+import ai.djl.nn.convolutional.Convolution;
+import ai.djl.nn.core.Linear;
+import ai.djl.nn.norm.BatchNorm;
+import ai.djl.nn.norm.Dropout;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * {@code InferenceOptimizer} rewrites a {@link Block} tree for inference.
+ *
+ * <p>The children of each {@link SequentialBlock} of the tree are rewritten in place:
+ *
+ * <ul>
+ *   <li>a {@link BatchNorm} following a {@link Conv1d}, {@link Conv2d}, {@link Conv3d} or {@link
+ *       Linear} block is folded into the weight and bias of that block, adding a bias if needed
+ *   <li>{@link Dropout} blocks, which do nothing at inference, are removed
+ *   <li>consecutive {@link LambdaBlock}s are fused into a single {@link LambdaBlock}
+ * </ul>
+ *
+ * <p>The optimized block must only be used for inference: the folded weights can't be trained
+ * anymore. It can be saved with {@link Model#save(java.nio.file.Path, String)}. Since the structure
+ * of the block changes, a saved optimized model must be loaded into an optimized block: call {@link
+ * #optimize(Block)} on the new, uninitialized, block before loading the parameters, only the
+ * structure is rewritten then.
+ *
+ * <p>The parameters are updated in place, so the block should be optimized before creating the
+ * predictors of the model.
+ *
+ * <p>{@link #releaseIntermediates(Block)} additionally lowers the peak memory of the inference by
+ * closing the intermediate results as soon as they are consumed, {@link
+ * #releaseIntermediates(Block, Metrics)} also records the memory saved.
+ */
+public final class InferenceOptimizer {
+
+    private InferenceOptimizer() {}
+
+    /**
+     * Optimizes the block of a model for inference.
+     *
+     * @param model the model to optimize
+     */
+    public static void optimize(Model model) {
+        optimize(model.getBlock());
+    }
+
+    /**
+     * Optimizes a {@link Block} tree for inference in place.
+     *
+     * @param block the block to optimize
+     */
+    public static void optimize(Block block) {
+        for (Block child : block.getChildren().values()) {
+            optimize(child);
+        }
+        if (block instanceof SequentialBlock) {
+            optimizeSequence((SequentialBlock) block);
+        }
+    }
+
+    /**
+     * Enables the eager release of the intermediate results of all the {@link SequentialBlock}s of
+     * a {@link Block} tree during inference.
+     *
+     * @param block the block tree
+     * @see SequentialBlock#setReleaseIntermediate(boolean)
+     */
+    public static void releaseIntermediates(Block block) {
+        releaseIntermediates(block, null);
+    }
+
+    /**
+     * Enables the eager release of the intermediate results of all the {@link SequentialBlock}s of
+     * a {@link Block} tree during inference, and records their memory to the {@link Metrics}.
+     *
+     * @param block the block tree
+     * @param metrics the {@link Metrics} to record the memory of the intermediate results, or
+     *     {@code null}
+     * @see SequentialBlock#setMetrics(Metrics)
+     */
+    public static void releaseIntermediates(Block block, Metrics metrics) {
+        for (Block child : block.getChildren().values()) {
+            releaseIntermediates(child, metrics);
+        }
+        if (block instanceof SequentialBlock) {
+            SequentialBlock sequence = (SequentialBlock) block;
+            sequence.setReleaseIntermediate(true);
+            sequence.setMetrics(metrics);
+        }
+    }
+
+    private static void optimizeSequence(SequentialBlock sequence) {
+        if (sequence.isReturnIntermediate()) {
+            // the output of every child is returned
+            return;
+        }
+        List<Block> blocks = new ArrayList<>(sequence.children.size());
+        boolean changed = false;
+        for (Block block : sequence.children.values()) {
+            Block last = blocks.isEmpty() ? null : blocks.get(blocks.size() - 1);
+            Block merged = null;
+            if (block instanceof Dropout) {
+                changed = true;
+                continue;
+            } else if (block.getClass() == BatchNorm.class) {
+                merged = fold(last, (BatchNorm) block);
+            } else if (block.getClass() == LambdaBlock.class && last != null) {
+                merged = fuse(last, (LambdaBlock) block);
+            }
+            if (merged == null) {
+                blocks.add(block);
+            } else {
+                blocks.set(blocks.size() - 1, merged);
+                changed = true;
+            }
+        }
+        if (changed && !blocks.isEmpty()) {
+            sequence.children.clear();
+            sequence.addAll(blocks);
+        }
+    }
+
+    private static Block fold(Block block, BatchNorm batchNorm) {
+        if (block == null || batchNorm.getAxis() != 1 && batchNorm.getAxis() != -1) {
+            return null;
+        }
+        boolean includeBias;
+        Block folded;
+        if (isConvolution(block) && batchNorm.getAxis() == 1) {
+            Convolution conv = (Convolution) block;
+            includeBias = conv.isIncludeBias();
+            folded = includeBias ? conv : withBias(conv);
+        } else if (block.getClass() == Linear.class && isLastAxis(block, batchNorm)) {
+            Linear linear = (Linear) block;
+            includeBias = linear.isIncludeBias();
+            folded = includeBias ? linear : Linear.builder().setUnits(linear.getUnits()).build();
+        } else {
+            return null;
+        }
+        if (!block.isInitialized() || !batchNorm.isInitialized()) {
+            // rewrites the structure only, the parameters are loaded later
+            return folded;
+        }
+
+        ParameterList params = block.getParameters();
+        if (params.get("weight").isQuantized()) {
+            return null;
+        }
+        ParameterList bnParams = batchNorm.getParameters();
+        NDArray weight = params.get("weight").getArray();
+        NDManager manager = weight.getManager();
+        NDArray gamma = bnParams.get("gamma").getArray();
+        NDArray beta = bnParams.get("beta").getArray();
+        NDArray mean = bnParams.get("runningMean").getArray();
+        NDArray var = bnParams.get("runningVar").getArray();
+        NDArray scale;
+        try (NDArray variance = var.add(batchNorm.getEpsilon());
+                NDArray std = variance.sqrt()) {
+            scale = gamma.div(std);
+        }
+        NDArray shift = mean.mul(scale).negi().addi(beta);
+
+        // y = scale * (w x + b) + shift
+        long[] dims = new long[weight.getShape().dimension()];
+        dims[0] = -1;
+        for (int i = 1; i < dims.length; ++i) {
+            dims[i] = 1;
+        }
+        NDArray channelScale = scale.reshape(dims);
+        if (includeBias) {
+            NDArray bias = params.get("bias").getArray();
+            weight.muli(channelScale);
+            bias.muli(scale).addi(shift);
+            shift.close();
+        } else {
+            NDArray foldedWeight = weight.mul(channelScale);
+            foldedWeight.attach(manager);
+            shift.attach(manager);
+            params = folded.getParameters();
+            params.get("weight").setArray(foldedWeight);
+            params.get("bias").setArray(shift);
+            folded.initialize(manager, weight.getDataType(), block.getInputShapes());
+            block.clear();
+        }
+        channelScale.close();
+        scale.close();
+        batchNorm.clear();
+        return folded;
+    }
+
+    private static boolean isLastAxis(Block linear, BatchNorm batchNorm) {
+        if (batchNorm.getAxis() == -1) {
+            return true;
+        }
+        // the input shapes are unknown before loading, axis 1 is assumed to be the last one then
+        Shape[] inputShapes = linear.isInitialized() ? linear.getInputShapes() : null;
+        return inputShapes == null || inputShapes[0].dimension() == 2;
+    }
+
+    private static boolean isConvolution(Block block) {
+        // the weight of the transposed convolutions has the input channels first
+        Class<?> type = block.getClass();
+        return type == Conv1d.class || type == Conv2d.class || type == Conv3d.class;
+    }
+
+    private static Convolution withBias(Convolution conv) {
+        if (conv instanceof Conv1d) {
+            return configure(Conv1d.builder(), conv).build();
+        } else if (conv instanceof Conv2d) {
+            return configure(Conv2d.builder(), conv).build();
+        }
+        return configure(Conv3d.builder(), conv).build();
+    }
+
+    private static <T extends Convolution.ConvolutionBuilder<T>> T configure(
+            T builder, Convolution conv) {
+        return builder.setKernelShape(conv.getKernelShape())
+                .optStride(conv.getStride())
+                .optPadding(conv.getPadding())
+                .optDilation(conv.getDilation())
+                .setFilters(conv.getFilters())
+                .optGroups(conv.getGroups());
+    }
+
+    private static LambdaBlock fuse(Block block, LambdaBlock next) {
+        if (block.getClass() != LambdaBlock.class) {
+            return null;
+        }
+        LambdaBlock first = (LambdaBlock) block;
+        Function<NDList, NDList> lambda = first.getLambda().andThen(next.getLambda());
+        LambdaBlock fused = new LambdaBlock(lambda, first.getName() + '+' + next.getName());
+        if (first.isInitialized()) {
+            fused.inputShapes = first.getInputShapes();
+            fused.inputNames = first.inputNames;
+            fused.outputDataTypes = next.getOutputDataTypes();
+        }
+        return fused;
+    }
+}
@@ -72,6 +72,15 @@ public class LambdaBlock extends AbstractBlock {
         return name;
     }
 
+    /**
+     * Returns the lambda function.
+     *
+     * @return the lambda function
+     */
+    public Function<NDList, NDList> getLambda() {
+        return lambda;
+    }
+
     /**
      * Creates a {@link LambdaBlock} for a singleton function.
      *
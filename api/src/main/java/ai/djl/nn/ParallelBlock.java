@@ -192,7 +192,7 @@ public class ParallelBlock extends AbstractBlock {
         try (NDManager manager = NDManager.newBaseManager()) {
             List<NDList> inputs = new ArrayList<>();
             for (Block block : children.values()) {
-                Shape[] shapes = block.getOutputShapes(inputShapes);
+                Shape[] shapes = ShapeCache.infer(block, inputShapes, null).getKey();
                 NDList output = new NDList(shapes.length);
                 for (Shape shape : shapes) {
                     output.add(manager.create(shape));
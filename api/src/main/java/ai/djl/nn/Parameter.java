@@ -40,6 +40,8 @@ import java.util.UUID;
 public class Parameter implements AutoCloseable {
 
     private static final byte VERSION = 1;
+    // only the quantized parameters are written with this version, for compatibility
+    private static final byte QUANTIZED_VERSION = 2;
 
     private String id;
     private String name;
@@ -47,6 +49,7 @@ public class Parameter implements AutoCloseable {
     private Type type;
     private Initializer initializer;
     private NDArray array;
+    private NDArray scale;
     private boolean requiresGrad;
 
     Parameter(Builder builder) {
@@ -156,7 +159,8 @@ public class Parameter implements AutoCloseable {
      * @param freeze true if the parameter should be frozen ({@code freeze == !requiresGradient()})
      */
     public void freeze(boolean freeze) {
-        requiresGrad = !freeze;
+        // a quantized parameter can't be trained
+        requiresGrad = !freeze && !isQuantized();
         if (array != null) {
             // array can be null if block is loaded and then cleared
             array.setRequiresGradient(requiresGrad);
@@ -172,6 +176,97 @@ public class Parameter implements AutoCloseable {
         return array != null;
     }
 
+    /**
+     * Quantizes the values of this {@code Parameter} to int8, with a scale per channel of the first
+     * axis.
+     *
+     * <p>The scale of a channel maps its largest absolute value to 127, and the values are stored
+     * as {@code round(value / scale)}. After quantization, {@link #getArray()} returns the {@link
+     * DataType#INT8} values, and {@link #getScale()} the scales in the original data type. The
+     * quantized parameter is frozen, it can only be used for inference.
+     *
+     * @throws IllegalStateException if the parameter has less than 2 dimensions
+     */
+    public void quantize() {
+        NDArray values = getArray();
+        if (isQuantized()) {
+            return;
+        }
+        Shape arrayShape = values.getShape();
+        if (arrayShape.dimension() < 2) {
+            throw new IllegalStateException(
+                    "Only parameters of 2 or more dimensions are quantized");
+        }
+        int[] axes = new int[arrayShape.dimension() - 1];
+        for (int i = 0; i < axes.length; ++i) {
+            axes[i] = i + 1;
+        }
+        DataType dataType = values.getDataType();
+        NDArray quantized;
+        NDArray channelScale;
+        try (NDArray floats = values.toType(DataType.FLOAT32, true);
+                NDArray abs = floats.abs();
+                NDArray absMax = abs.max(axes, true);
+                NDArray ratio = absMax.div(127f);
+                // all zero channels are quantized to zeros
+                NDArray divisor = ratio.maximum(Float.MIN_NORMAL);
+                NDArray scaled = floats.div(divisor);
+                NDArray rounded = scaled.round();
+                NDArray clipped = rounded.clip(-127, 127);
+                NDArray flat = divisor.reshape(arrayShape.get(0))) {
+            quantized = clipped.toType(DataType.INT8, true);
+            channelScale = flat.toType(dataType, true);
+        }
+        values.close();
+        array = quantized;
+        array.setName(name);
+        scale = channelScale;
+        scale.setName(name + "Scale");
+        requiresGrad = false;
+    }
+
+    /**
+     * Returns whether the values of this {@code Parameter} are quantized.
+     *
+     * @return whether the values of this {@code Parameter} are quantized
+     * @see #quantize()
+     */
+    public boolean isQuantized() {
+        return scale != null;
+    }
+
+    /**
+     * Returns the scale of each channel of a quantized {@code Parameter}.
+     *
+     * @return the scale of each channel, or {@code null} if the parameter is not quantized
+     * @see #quantize()
+     */
+    public NDArray getScale() {
+        return scale;
+    }
+
+    /**
+     * Dequantizes the values of a quantized parameter.
+     *
+     * @param values the {@link DataType#INT8} values, with the channels on the first axis
+     * @param scale the scale of each channel
+     * @param manager the manager to attach the dequantized array to
+     * @return the dequantized values, in the data type of the scale
+     */
+    public static NDArray dequantize(NDArray values, NDArray scale, NDManager manager) {
+        long[] dims = new long[values.getShape().dimension()];
+        dims[0] = -1;
+        for (int i = 1; i < dims.length; ++i) {
+            dims[i] = 1;
+        }
+        try (NDArray floats = values.toType(scale.getDataType(), true);
+                NDArray channelScale = scale.reshape(dims)) {
+            NDArray dequantized = floats.mul(channelScale);
+            dequantized.attach(manager);
+            return dequantized;
+        }
+    }
+
     /**
      * Sets the {@link Initializer} for this {@code Parameter}, if not already set. If overwrite
      * flag is true, sets the initializer regardless.
@@ -229,10 +324,38 @@ public class Parameter implements AutoCloseable {
             return;
         }
 
+        byte version = isQuantized() ? QUANTIZED_VERSION : VERSION;
+        if (dos instanceof ParameterOutputStream) {
+            ParameterOutputStream pos = (ParameterOutputStream) dos;
+            if (pos.isIndexed()) {
+                // the array is written to the data section of the indexed format
+                dos.writeChar('R');
+                dos.writeByte(version);
+                dos.writeUTF(getName());
+                dos.writeInt(pos.addArray(array));
+                if (isQuantized()) {
+                    dos.writeInt(pos.addArray(scale));
+                }
+            } else {
+                // the array is encoded when the collected parameters are written
+                dos.writeChar('P');
+                dos.writeByte(version);
+                dos.writeUTF(getName());
+                pos.addInlineArray(array);
+                if (isQuantized()) {
+                    pos.addInlineArray(scale);
+                }
+            }
+            return;
+        }
+
         dos.writeChar('P');
-        dos.writeByte(VERSION);
+        dos.writeByte(version);
         dos.writeUTF(getName());
         dos.write(array.encode());
+        if (isQuantized()) {
+            dos.write(scale.encode());
+        }
     }
 
     /**
@@ -252,13 +375,13 @@ public class Parameter implements AutoCloseable {
         char magic = dis.readChar();
         if (magic == 'N') {
             return;
-        } else if (magic != 'P') {
+        } else if (magic != 'P' && magic != 'R') {
             throw new MalformedModelException("Invalid input data.");
         }
 
         // Version
         byte version = dis.readByte();
-        if (version != VERSION) {
+        if (version != VERSION && version != QUANTIZED_VERSION) {
             throw new MalformedModelException("Unsupported encoding version: " + version);
         }
 
@@ -268,9 +391,56 @@ public class Parameter implements AutoCloseable {
                     "Unexpected parameter name: " + parameterName + ", expected: " + name);
         }
 
-        array = manager.decode(dis);
+        ParameterInputStream pis = null;
+        if (dis instanceof ParameterInputStream) {
+            pis = (ParameterInputStream) dis;
+        }
+        if (magic == 'R') {
+            if (pis == null) {
+                throw new MalformedModelException("Parameter reference requires an index.");
+            }
+            int index = dis.readInt();
+            int scaleIndex = version == QUANTIZED_VERSION ? dis.readInt() : -1;
+            shape = pis.getShape(index);
+            if (pis.accept(name)) {
+                // the array is read later, possibly in another thread
+                pis.readArray(
+                        manager,
+                        index,
+                        a -> {
+                            a.setName(name);
+                            array = a;
+                        });
+                if (scaleIndex >= 0) {
+                    requiresGrad = false;
+                    pis.readArray(
+                            manager,
+                            scaleIndex,
+                            a -> {
+                                a.setName(name + "Scale");
+                                scale = a;
+                            });
+                }
+            }
+            return;
+        }
+
+        NDArray decoded = manager.decode(dis);
+        NDArray decodedScale = version == QUANTIZED_VERSION ? manager.decode(dis) : null;
         // set the shape of the parameter and prepare() can be skipped
-        shape = array.getShape();
+        shape = decoded.getShape();
+        if (pis != null && !pis.accept(name)) {
+            decoded.close();
+            if (decodedScale != null) {
+                decodedScale.close();
+            }
+            return;
+        }
+        array = decoded;
+        if (decodedScale != null) {
+            requiresGrad = false;
+            scale = decodedScale;
+        }
     }
 
     /** {@inheritDoc} */
@@ -280,6 +450,10 @@ public class Parameter implements AutoCloseable {
             array.close();
             array = null;
         }
+        if (scale != null) {
+            scale.close();
+            scale = null;
+        }
     }
 
     /**
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.nn;
+
+import ai.djl.MalformedModelException;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A {@code ParameterInputStream} reads the parameters of a {@link Block} from either the indexed
+ * container format written by {@link ParameterOutputStream} or the sequential format.
+ *
+ * <p>With the indexed format, the arrays are not read when {@link Block#loadParameters(NDManager,
+ * DataInputStream)} walks the block tree. Each {@link Parameter} only gets its shape, and its array
+ * is read from the data section by the given executor, so the arrays are read in parallel with
+ * positional reads. The arrays can also be memory-mapped, in which case an engine that creates
+ * arrays from a direct buffer without a copy, like PyTorch on CPU, shares the pages of the file.
+ * The file is mapped privately, the parameters can be updated, but the file must not be truncated
+ * or overwritten while the model is open.
+ *
+ * <p>A filter on the parameter names can be set to load a subset of the parameters. The name of a
+ * parameter is the names of its parent blocks and its own name joined with "_", the same as the
+ * keys of {@link Block#getParameters()}. The parameters that are filtered out only get their shape,
+ * and are initialized by the initializer of the block like a new parameter.
+ */
+public class ParameterInputStream extends DataInputStream {
+
+    private FileChannel channel;
+    private ExecutorService executor;
+    private boolean mmap;
+    private Predicate<String> filter;
+    private Deque<String> blocks;
+    private List<Entry> entries;
+    private List<CompletableFuture<Void>> futures;
+
+    /**
+     * Constructs a {@code ParameterInputStream} for the sequential format.
+     *
+     * @param is the stream to read from
+     */
+    public ParameterInputStream(InputStream is) {
+        super(is);
+        blocks = new ArrayDeque<>();
+        futures = new ArrayList<>();
+    }
+
+    private ParameterInputStream(
+            byte[] metadata, List<Entry> entries, FileChannel channel, ExecutorService executor) {
+        this(new ByteArrayInputStream(metadata));
+        this.entries = entries;
+        this.channel = channel;
+        this.executor = executor;
+    }
+
+    /**
+     * Creates a {@code ParameterInputStream} for the indexed format.
+     *
+     * <p>The stream must be positioned after the container header, and the channel must be open
+     * until {@link #await()} returns.
+     *
+     * @param dis the stream to read the metadata and the index from
+     * @param channel the file to read the arrays from
+     * @param executor the executor to read the arrays, or {@code null} to read them in the caller
+     *     thread
+     * @return a new {@code ParameterInputStream}
+     * @throws IOException if failed to read
+     */
+    public static ParameterInputStream newIndexedStream(
+            DataInputStream dis, FileChannel channel, ExecutorService executor) throws IOException {
+        byte[] metadata = new byte[dis.readInt()];
+        dis.readFully(metadata);
+        long dataOffset = dis.readLong();
+        int size = dis.readInt();
+        List<Entry> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            DataType dataType = DataType.valueOf(dis.readUTF());
+            Shape shape = Shape.decode(dis);
+            ByteOrder order =
+                    dis.readByte() == '>' ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+            long offset = dataOffset + dis.readLong();
+            long length = dis.readLong();
+            entries.add(new Entry(dataType, shape, order, offset, length));
+        }
+        return new ParameterInputStream(metadata, entries, channel, executor);
+    }
+
+    /**
+     * Sets whether to memory-map the arrays instead of reading them.
+     *
+     * @param mmap whether to memory-map the arrays
+     */
+    public void setMmap(boolean mmap) {
+        this.mmap = mmap;
+    }
+
+    /**
+     * Sets the filter of the parameters to load.
+     *
+     * @param filter the filter on the parameter names, or {@code null} to load all parameters
+     */
+    public void setFilter(Predicate<String> filter) {
+        this.filter = filter;
+    }
+
+    /**
+     * Enters a child block, the parameters read until {@link #exitBlock()} belong to the block.
+     *
+     * @param name the name of the child block
+     */
+    public void enterBlock(String name) {
+        blocks.addLast(name);
+    }
+
+    /** Exits the current child block. */
+    public void exitBlock() {
+        blocks.removeLast();
+    }
+
+    /**
+     * Waits until all arrays are read.
+     *
+     * @throws IOException if failed to read an array
+     */
+    public void await() throws IOException {
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        } finally {
+            futures.clear();
+        }
+    }
+
+    /**
+     * Returns whether the parameter with the given name in the current block is loaded.
+     *
+     * @param name the name of the parameter
+     * @return whether the parameter is loaded
+     */
+    boolean accept(String name) {
+        if (filter == null) {
+            return true;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (String block : blocks) {
+            sb.append(block).append('_');
+        }
+        return filter.test(sb.append(name).toString());
+    }
+
+    /**
+     * Returns the shape of an array in the index.
+     *
+     * @param index the index of the array
+     * @return the shape of the array
+     * @throws MalformedModelException if the stream doesn't have the array
+     */
+    Shape getShape(int index) throws MalformedModelException {
+        return getEntry(index).shape;
+    }
+
+    /**
+     * Reads an array of the index, the consumer is called in the executor thread.
+     *
+     * @param manager the manager of the array
+     * @param index the index of the array
+     * @param consumer the consumer of the array
+     * @throws MalformedModelException if the stream doesn't have the array
+     */
+    void readArray(NDManager manager, int index, Consumer<NDArray> consumer)
+            throws MalformedModelException {
+        Entry entry = getEntry(index);
+        if (executor == null) {
+            consumer.accept(entry.read(manager, channel, mmap));
+            return;
+        }
+        futures.add(
+                CompletableFuture.runAsync(
+                        () -> consumer.accept(entry.read(manager, channel, mmap)), executor));
+    }
+
+    private Entry getEntry(int index) throws MalformedModelException {
+        if (entries == null || index < 0 || index >= entries.size()) {
+            throw new MalformedModelException("Invalid parameter reference: " + index);
+        }
+        return entries.get(index);
+    }
+
+    private static final class Entry {
+
+        DataType dataType;
+        Shape shape;
+        ByteOrder order;
+        long offset;
+        long length;
+
+        Entry(DataType dataType, Shape shape, ByteOrder order, long offset, long length) {
+            this.dataType = dataType;
+            this.shape = shape;
+            this.order = order;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        NDArray read(NDManager manager, FileChannel channel, boolean mmap) {
+            try {
+                ByteBuffer bb;
+                if (mmap) {
+                    bb = channel.map(FileChannel.MapMode.PRIVATE, offset, length);
+                } else {
+                    bb = manager.allocateDirect(Math.toIntExact(length));
+                    long position = offset;
+                    while (bb.hasRemaining()) {
+                        int read = channel.read(bb, position);
+                        if (read < 0) {
+                            throw new EOFException("Unexpected end of the parameter file");
+                        }
+                        position += read;
+                    }
+                    bb.rewind();
+                }
+                bb.order(order);
+                return manager.create(bb, shape, dataType);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.nn;
+
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@code ParameterOutputStream} writes the parameters of a {@link Block} in the indexed container
+ * format.
+ *
+ * <p>The {@link Block#saveParameters(DataOutputStream)} output only contains the block metadata and
+ * a reference for each {@link Parameter}. The arrays are written after the metadata, in a data
+ * section preceded by an index of their data type, shape and offset, so they can be read in
+ * parallel or memory-mapped by {@link ParameterInputStream}. The layout is:
+ *
+ * <pre>
+ *     int        metadata length
+ *     byte[]     block metadata
+ *     long       data section offset
+ *     int        number of arrays
+ *     (UTF data type, shape, byte order, long offset, long length) for each array
+ *     padding and the arrays, each aligned to 64 bytes
+ * </pre>
+ *
+ * <p>The parameters can also be collected by {@link #collect(Block, boolean)} and written later by
+ * {@link #writeTo(DataOutputStream)}, in the indexed format or in the format of {@link
+ * Block#saveParameters(DataOutputStream)}. In between, {@link #snapshot(NDManager)} copies the
+ * arrays, so the parameters can keep changing while the copies are written by another thread.
+ */
+public class ParameterOutputStream extends DataOutputStream {
+
+    static final int ALIGNMENT = 64;
+
+    private ByteArrayOutputStream metadata;
+    private boolean indexed;
+    private List<NDArray> arrays;
+    private List<Integer> positions;
+
+    /**
+     * Constructs a {@code ParameterOutputStream} that collects the block metadata into the given
+     * stream.
+     *
+     * @param out the stream for the block metadata
+     * @param indexed whether the arrays are written in the indexed format
+     */
+    ParameterOutputStream(ByteArrayOutputStream out, boolean indexed) {
+        super(out);
+        metadata = out;
+        this.indexed = indexed;
+        arrays = new ArrayList<>();
+        positions = new ArrayList<>();
+    }
+
+    /**
+     * Writes the parameters of the block in the indexed container format.
+     *
+     * <p>The offsets are relative to the beginning of the given stream, the stream must not have
+     * been written to before the container header.
+     *
+     * @param block the block to save
+     * @param dos the stream to write to
+     * @throws IOException if failed to write
+     */
+    public static void write(Block block, DataOutputStream dos) throws IOException {
+        collect(block, true).writeTo(dos);
+    }
+
+    /**
+     * Collects the metadata and the parameter arrays of a block, to write them later with {@link
+     * #writeTo(DataOutputStream)}.
+     *
+     * @param block the block to save
+     * @param indexed whether to write the indexed container format, or the format of {@link
+     *     Block#saveParameters(DataOutputStream)}
+     * @return the collected parameters
+     * @throws IOException if failed to write the metadata
+     */
+    public static ParameterOutputStream collect(Block block, boolean indexed) throws IOException {
+        ParameterOutputStream pos = new ParameterOutputStream(new ByteArrayOutputStream(), indexed);
+        block.saveParameters(pos);
+        pos.flush();
+        return pos;
+    }
+
+    /**
+     * Replaces the collected arrays with copies attached to the manager.
+     *
+     * <p>The arrays are copied on their device, the copies are written by {@link
+     * #writeTo(DataOutputStream)} regardless of later updates of the parameters.
+     *
+     * @param manager the manager of the copies
+     */
+    public void snapshot(NDManager manager) {
+        for (int i = 0; i < arrays.size(); ++i) {
+            NDArray copy = arrays.get(i).duplicate();
+            copy.attach(manager);
+            arrays.set(i, copy);
+        }
+    }
+
+    /**
+     * Writes the collected parameters.
+     *
+     * <p>In the indexed format, the offsets are relative to the beginning of the given stream.
+     *
+     * @param dos the stream to write to
+     * @throws IOException if failed to write
+     */
+    public void writeTo(DataOutputStream dos) throws IOException {
+        if (!indexed) {
+            // the encoded arrays are inserted into the metadata
+            byte[] bytes = metadata.toByteArray();
+            int start = 0;
+            for (int i = 0; i < arrays.size(); ++i) {
+                int position = positions.get(i);
+                dos.write(bytes, start, position - start);
+                dos.write(arrays.get(i).encode());
+                start = position;
+            }
+            dos.write(bytes, start, bytes.length - start);
+            return;
+        }
+        dos.writeInt(metadata.size());
+        metadata.writeTo(dos);
+
+        // the index is computed from the shapes, the arrays are copied out one at a time
+        ByteOrder order = ByteOrder.nativeOrder();
+        ByteArrayOutputStream index = new ByteArrayOutputStream();
+        DataOutputStream ios = new DataOutputStream(index);
+        ios.writeInt(arrays.size());
+        long offset = 0;
+        for (NDArray array : arrays) {
+            long length = byteLength(array);
+            ios.writeUTF(array.getDataType().name());
+            ios.write(array.getShape().getEncoded());
+            ios.write(order == ByteOrder.BIG_ENDIAN ? '>' : '<');
+            ios.writeLong(offset);
+            ios.writeLong(length);
+            offset = align(offset + length);
+        }
+        ios.flush();
+
+        // the index is small, the size of the stream is accurate up to here
+        long dataOffset = align(dos.size() + 8L + index.size());
+        dos.writeLong(dataOffset);
+        index.writeTo(dos);
+        writePadding(dos, dataOffset - dos.size());
+
+        WritableByteChannel channel = Channels.newChannel(dos);
+        for (NDArray array : arrays) {
+            long length = byteLength(array);
+            ByteBuffer bb = toOrder(array.toByteBuffer(), order, array.getDataType());
+            if (bb.remaining() != length) {
+                throw new IllegalStateException(
+                        "Unexpected size of the array data: "
+                                + bb.remaining()
+                                + ", expected: "
+                                + length);
+            }
+            while (bb.hasRemaining()) {
+                channel.write(bb);
+            }
+            writePadding(dos, align(length) - length);
+        }
+    }
+
+    /**
+     * Adds an array to the data section and returns its index.
+     *
+     * @param array the array of a {@link Parameter}
+     * @return the index of the array
+     */
+    int addArray(NDArray array) {
+        arrays.add(array);
+        return arrays.size() - 1;
+    }
+
+    /**
+     * Adds an array to encode at the current position of the metadata.
+     *
+     * @param array the array of a {@link Parameter}
+     */
+    void addInlineArray(NDArray array) {
+        positions.add(size());
+        arrays.add(array);
+    }
+
+    /**
+     * Returns whether the arrays are written in the indexed format.
+     *
+     * @return whether the arrays are written in the indexed format
+     */
+    boolean isIndexed() {
+        return indexed;
+    }
+
+    private static long byteLength(NDArray array) {
+        return array.getShape().size() * array.getDataType().getNumOfBytes();
+    }
+
+    private static ByteBuffer toOrder(ByteBuffer bb, ByteOrder order, DataType dataType) {
+        int size = dataType.getNumOfBytes();
+        if (bb.order() == order || size == 1) {
+            return bb;
+        }
+        // swaps the bytes of each element
+        ByteBuffer swapped = ByteBuffer.allocate(bb.remaining()).order(order);
+        byte[] element = new byte[size];
+        while (bb.remaining() >= size) {
+            bb.get(element);
+            for (int i = size - 1; i >= 0; --i) {
+                swapped.put(element[i]);
+            }
+        }
+        swapped.flip();
+        return swapped;
+    }
+
+    static long align(long position) {
+        return (position + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+
+    private static void writePadding(DataOutputStream dos, long size) throws IOException {
+        for (long i = 0; i < size; ++i) {
+            dos.write(0);
+        }
+    }
+}
@@ -14,12 +14,15 @@ package ai.djl.nn;
 
 import ai.djl.MalformedModelException;
 import ai.djl.inference.streaming.StreamingBlock;
+import ai.djl.metric.Metrics;
+import ai.djl.metric.Unit;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.NDManager;
 import ai.djl.ndarray.types.DataType;
 import ai.djl.ndarray.types.Shape;
 import ai.djl.training.ParameterStore;
+import ai.djl.util.Pair;
 import ai.djl.util.PairList;
 
 import java.io.DataInputStream;
@@ -28,8 +31,12 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -44,6 +51,10 @@ public class SequentialBlock extends AbstractBlock implements StreamingBlock {
 
     private static final byte VERSION = 3;
     private boolean returnIntermediate;
+    private boolean releaseIntermediate;
+    private AtomicLong intermediatePeakMemory = new AtomicLong();
+    private AtomicLong intermediateMemorySaved = new AtomicLong();
+    private Metrics metrics;
 
     /**
      * Creates an empty sequential block. Use {@code add} and {@code addAll} to add blocks to be
@@ -178,6 +189,69 @@ public class SequentialBlock extends AbstractBlock implements StreamingBlock {
         return this;
     }
 
+    /**
+     * Returns whether the block closes the intermediate results during inference.
+     *
+     * @return whether the block closes the intermediate results during inference
+     */
+    public boolean isReleaseIntermediate() {
+        return releaseIntermediate;
+    }
+
+    /**
+     * Sets whether the block closes each intermediate result during inference, once the next child
+     * block has consumed it.
+     *
+     * <p>The peak memory of the forward pass is then the largest pair of adjacent results, instead
+     * of the sum of all the results. The intermediate results are never closed during training or
+     * when {@link #setReturnIntermediate(boolean)} is set.
+     *
+     * <p>Each child runs in a sub-manager owned by the block, and only the arrays created there are
+     * closed: the inputs, the parameters and the arrays attached to another manager are kept. To
+     * hold on to an intermediate result, attach it to another manager. The output is attached to
+     * the manager of the first input.
+     *
+     * @param releaseIntermediate true to close the intermediate results during inference
+     * @return this {@link SequentialBlock}
+     */
+    public SequentialBlock setReleaseIntermediate(boolean releaseIntermediate) {
+        this.releaseIntermediate = releaseIntermediate;
+        return this;
+    }
+
+    /**
+     * Returns the largest peak memory of the intermediate results of a forward pass releasing them,
+     * in bytes.
+     *
+     * @return the largest peak memory of the intermediate results in bytes
+     */
+    public long getIntermediatePeakMemory() {
+        return intermediatePeakMemory.get();
+    }
+
+    /**
+     * Returns the total memory saved by releasing the intermediate results, compared to keeping all
+     * of them until the end of each forward pass, in bytes.
+     *
+     * @return the total memory saved in bytes
+     */
+    public long getIntermediateMemorySaved() {
+        return intermediateMemorySaved.get();
+    }
+
+    /**
+     * Sets the {@link Metrics} to record the memory of the intermediate results of each forward
+     * pass releasing them.
+     *
+     * <p>Each forward pass adds an {@code IntermediatePeakMemory} and an {@code
+     * IntermediateMemorySaved} metric in bytes.
+     *
+     * @param metrics the {@link Metrics} to record the memory to, or {@code null}
+     */
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
     /** {@inheritDoc} */
     @Override
     protected NDList forwardInternal(
@@ -185,6 +259,9 @@ public class SequentialBlock extends AbstractBlock implements StreamingBlock {
             NDList inputs,
             boolean training,
             PairList<String, Object> params) {
+        if (releaseIntermediate && !training && !returnIntermediate && !inputs.isEmpty()) {
+            return forwardRelease(parameterStore, inputs);
+        }
         List<NDList> past = new ArrayList<>(children.size());
         NDList current = inputs;
         for (Block block : children.values()) {
@@ -235,8 +312,9 @@ public class SequentialBlock extends AbstractBlock implements StreamingBlock {
         DataType[] lastDataTypes = null;
         for (Block child : getChildren().values()) {
             child.initialize(manager, dataType, shapes);
-            shapes = child.getOutputShapes(shapes, lastDataTypes);
-            lastDataTypes = child.getOutputDataTypes();
+            Pair<Shape[], DataType[]> outputs = ShapeCache.infer(child, shapes, lastDataTypes);
+            shapes = outputs.getKey();
+            lastDataTypes = outputs.getValue();
         }
     }
 
@@ -249,7 +327,7 @@ public class SequentialBlock extends AbstractBlock implements StreamingBlock {
         List<Shape[]> past = new ArrayList<>(children.size());
         Shape[] current = inputs;
         for (Block block : children.values()) {
-            current = block.getOutputShapes(current);
+            current = ShapeCache.infer(block, current, null).getKey();
             past.add(current);
         }
         if (returnIntermediate) {
@@ -279,6 +357,80 @@ public class SequentialBlock extends AbstractBlock implements StreamingBlock {
         }
     }
 
+    private NDList forwardRelease(ParameterStore parameterStore, NDList inputs) {
+        NDManager manager = inputs.head().getManager();
+        // the manager of the intermediate results created by the children
+        NDManager owner = manager.newSubManager();
+        Set<NDArray> owned = Collections.newSetFromMap(new IdentityHashMap<>());
+        long peak = 0;
+        long total = 0;
+        long previousSize = 0;
+        NDList current = inputs;
+        try {
+            for (Block block : children.values()) {
+                NDManager nextOwner = manager.newSubManager();
+                Set<NDArray> nextOwned = Collections.newSetFromMap(new IdentityHashMap<>());
+                long allocated = 0;
+                long size = 0;
+                NDList next;
+                try (NDManager scope = manager.newSubManager()) {
+                    // the arrays created by the child are attached to the scope
+                    for (NDArray array : current) {
+                        if (array.getManager() != scope) {
+                            array.tempAttach(scope);
+                        }
+                    }
+                    next = block.forward(parameterStore, current, false);
+                    for (NDArray array : next) {
+                        if (array.getManager() != scope || nextOwned.contains(array)) {
+                            continue;
+                        }
+                        boolean created = !contains(current, array);
+                        if (created || owned.contains(array)) {
+                            long bytes = array.size() * array.getDataType().getNumOfBytes();
+                            allocated += created ? bytes : 0;
+                            size += bytes;
+                            array.attach(nextOwner);
+                            nextOwned.add(array);
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    nextOwner.close();
+                    throw e;
+                }
+                // the scope returned the consumed intermediate results to their owner
+                owner.close();
+                owner = nextOwner;
+                owned = nextOwned;
+                current = next;
+                peak = Math.max(peak, previousSize + allocated);
+                total += allocated;
+                previousSize = size;
+            }
+            for (NDArray array : owned) {
+                array.attach(manager);
+            }
+        } finally {
+            owner.close();
+        }
+        intermediatePeakMemory.accumulateAndGet(peak, Math::max);
+        intermediateMemorySaved.addAndGet(total - peak);
+        if (metrics != null) {
+            metrics.addMetric("IntermediatePeakMemory", peak, Unit.BYTES);
+            metrics.addMetric("IntermediateMemorySaved", total - peak, Unit.BYTES);
+        }
+        return current;
+    }
+
+    private static boolean contains(NDList list, NDArray array) {
+        for (NDArray element : list) {
+            if (element == array) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private final class StreamIterator implements Iterator<NDList> {
 
         private int childIndex;
@@ -0,0 +1,350 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.nn;
+
+import ai.djl.Model;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.util.JsonUtils;
+import ai.djl.util.Pair;
+import ai.djl.util.Utils;
+
+import com.google.gson.reflect.TypeToken;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code ShapeCache} caches the output shapes of the blocks of a block tree, by input shapes and
+ * data types.
+ *
+ * <p>{@link SequentialBlock} and {@link ParallelBlock} compute the output shapes of each child
+ * block in {@link Block#initialize} and {@link Block#getOutputShapes(Shape[])}, and a nested or
+ * {@link LambdaBlock} child computes them again by running its children or its function. Once a
+ * cache is attached to a block tree, the output shapes of each block without children, like a
+ * {@link LambdaBlock}, are computed once per input signature, and later initializations for a known
+ * signature only look them up.
+ *
+ * <p>The cache can be stored in the properties of a {@link Model} with {@link #save(Model)}, which
+ * are written by {@link Model#save(java.nio.file.Path, String)}, and is read back by {@link
+ * #attach(Model)} after the model is loaded. The entries are keyed by the path of the block in the
+ * tree, so the cache must be attached again if the block tree changes. The stored entries of a
+ * block also record a fingerprint of its subtree: the classes and versions of the blocks, the names
+ * of the {@link LambdaBlock}s, and the names and shapes of the parameters. The entries of a block
+ * whose fingerprint changed are discarded when the cache is read back. The output shapes of a block
+ * are assumed to only depend on this configuration and its input shapes and data types, a change of
+ * a lambda function or of a configuration without parameters requires a new block version or name.
+ *
+ * <p>Only the output shapes of the blocks without children are cached, a block with children always
+ * computes its output shapes from the cached output shapes of its children. The output data types
+ * of a block found in the cache are restored with the output shapes, so the blocks that compute
+ * them in {@link Block#getOutputShapes(Shape[], DataType[])}, like the {@link LambdaBlock}, report
+ * the data types of the last lookup.
+ *
+ * <p>Output shapes with unknown dimensions are never cached, the blocks that introduce them are
+ * reported by {@link #getDynamicBlocks()}.
+ */
+public final class ShapeCache {
+
+    /** The {@link Model} property the cache is stored in. */
+    public static final String PROPERTY = "ShapeCache";
+
+    private static final Map<Block, Record> RECORDS =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private Block root;
+    private Map<String, Record> records;
+    private AtomicLong hits;
+    private AtomicLong misses;
+
+    private ShapeCache(Block root) {
+        this.root = root;
+        records = new LinkedHashMap<>();
+        hits = new AtomicLong();
+        misses = new AtomicLong();
+        register("", root);
+    }
+
+    /**
+     * Attaches a new {@code ShapeCache} to a block tree.
+     *
+     * @param block the root of the block tree
+     * @return the attached {@code ShapeCache}
+     */
+    public static ShapeCache attach(Block block) {
+        return new ShapeCache(block);
+    }
+
+    /**
+     * Attaches a new {@code ShapeCache} to the block of a model, with the entries stored in the
+     * model properties, if any.
+     *
+     * @param model the model
+     * @return the attached {@code ShapeCache}
+     */
+    public static ShapeCache attach(Model model) {
+        ShapeCache cache = new ShapeCache(model.getBlock());
+        String json = model.getProperty(PROPERTY);
+        if (json != null) {
+            cache.fromJson(json);
+        }
+        return cache;
+    }
+
+    /** Detaches the cache from its block tree, the output shapes are computed every time again. */
+    public void detach() {
+        synchronized (RECORDS) {
+            RECORDS.values().removeIf(records::containsValue);
+        }
+    }
+
+    /**
+     * Stores the entries of the cache in the properties of a model.
+     *
+     * @param model the model
+     */
+    public void save(Model model) {
+        model.setProperty(PROPERTY, toJson());
+    }
+
+    /**
+     * Returns the output shapes of the root block for the given input shapes.
+     *
+     * @param inputShapes the input shapes
+     * @return the output shapes
+     */
+    public Shape[] getOutputShapes(Shape... inputShapes) {
+        return infer(root, inputShapes, null).getKey();
+    }
+
+    /**
+     * Returns the paths of the blocks that introduce unknown output dimensions.
+     *
+     * <p>The output shapes of these blocks and of their parents are not cached.
+     *
+     * @return the paths of the blocks with dynamic output shapes
+     */
+    public List<String> getDynamicBlocks() {
+        List<String> list = new ArrayList<>();
+        for (Map.Entry<String, Record> entry : records.entrySet()) {
+            Record record = entry.getValue();
+            if (record.dynamic && record.children.stream().noneMatch(r -> r.dynamic)) {
+                list.add(entry.getKey());
+            }
+        }
+        return list;
+    }
+
+    /**
+     * Returns the number of output shapes found in the cache.
+     *
+     * @return the number of output shapes found in the cache
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * Returns the number of output shapes computed and added to the cache.
+     *
+     * @return the number of output shapes computed and added to the cache
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * Returns the output shapes and data types of a block, from the cache if the block is in an
+     * attached block tree.
+     *
+     * @param block the block
+     * @param inputShapes the input shapes
+     * @param dataTypes the input data types, can be {@code null}
+     * @return the output shapes and data types
+     */
+    static Pair<Shape[], DataType[]> infer(Block block, Shape[] inputShapes, DataType[] dataTypes) {
+        Record record = RECORDS.get(block);
+        if (record == null) {
+            Shape[] shapes = block.getOutputShapes(inputShapes, dataTypes);
+            return new Pair<>(shapes, block.getOutputDataTypes());
+        }
+        return record.infer(block, inputShapes, dataTypes);
+    }
+
+    private Record register(String path, Block block) {
+        Record record = new Record(hits, misses);
+        records.put(path, record);
+        RECORDS.put(block, record);
+        for (Pair<String, Block> child : block.getChildren()) {
+            String name = path.isEmpty() ? child.getKey() : path + '/' + child.getKey();
+            record.children.add(register(name, child.getValue()));
+        }
+        return record;
+    }
+
+    String toJson() {
+        Map<String, String> fingerprints = new HashMap<>();
+        fingerprint("", root, fingerprints);
+        Map<String, Node> map = new LinkedHashMap<>();
+        for (Map.Entry<String, Record> entry : records.entrySet()) {
+            Node node = new Node(fingerprints.get(entry.getKey()));
+            for (Map.Entry<String, Pair<Shape[], DataType[]>> e :
+                    entry.getValue().entries.entrySet()) {
+                node.entries.put(e.getKey(), new Entry(e.getValue()));
+            }
+            if (!node.entries.isEmpty()) {
+                map.put(entry.getKey(), node);
+            }
+        }
+        return JsonUtils.GSON.toJson(map);
+    }
+
+    void fromJson(String json) {
+        Map<String, String> fingerprints = new HashMap<>();
+        fingerprint("", root, fingerprints);
+        Type type = new TypeToken<Map<String, Node>>() {}.getType();
+        Map<String, Node> map = JsonUtils.GSON.fromJson(json, type);
+        for (Map.Entry<String, Node> entry : map.entrySet()) {
+            Record record = records.get(entry.getKey());
+            Node node = entry.getValue();
+            if (record == null
+                    || node.block == null
+                    || !node.block.equals(fingerprints.get(entry.getKey()))) {
+                // the block changed, its output shapes are computed again
+                continue;
+            }
+            for (Map.Entry<String, Entry> e : node.entries.entrySet()) {
+                record.entries.put(e.getKey(), e.getValue().toPair());
+            }
+        }
+    }
+
+    private static String fingerprint(String path, Block block, Map<String, String> fingerprints) {
+        StringBuilder sb = new StringBuilder(block.getClass().getName());
+        if (block instanceof AbstractBaseBlock) {
+            sb.append(" v").append(((AbstractBaseBlock) block).version);
+        }
+        if (block instanceof LambdaBlock) {
+            sb.append(' ').append(((LambdaBlock) block).getName());
+        }
+        for (Pair<String, Parameter> pair : block.getDirectParameters()) {
+            Shape shape = pair.getValue().getShape();
+            sb.append(' ').append(pair.getKey()).append(shape == null ? "" : shape);
+        }
+        for (Pair<String, Block> child : block.getChildren()) {
+            String name = path.isEmpty() ? child.getKey() : path + '/' + child.getKey();
+            sb.append(' ').append(fingerprint(name, child.getValue(), fingerprints));
+        }
+        String fingerprint = Utils.hash(sb.toString());
+        fingerprints.put(path, fingerprint);
+        return fingerprint;
+    }
+
+    private static String signature(Shape[] inputShapes, DataType[] dataTypes) {
+        StringBuilder sb = new StringBuilder();
+        for (Shape shape : inputShapes) {
+            sb.append(Arrays.toString(shape.getShape()));
+        }
+        if (dataTypes != null) {
+            sb.append(Arrays.toString(dataTypes));
+        }
+        return sb.toString();
+    }
+
+    /** The cached output shapes of a block, it must not reference the block. */
+    private static final class Record {
+
+        Map<String, Pair<Shape[], DataType[]>> entries;
+        List<Record> children;
+        volatile boolean dynamic;
+        AtomicLong hits;
+        AtomicLong misses;
+
+        Record(AtomicLong hits, AtomicLong misses) {
+            this.hits = hits;
+            this.misses = misses;
+            entries = new ConcurrentHashMap<>();
+            children = new ArrayList<>();
+        }
+
+        Pair<Shape[], DataType[]> infer(Block block, Shape[] inputShapes, DataType[] dataTypes) {
+            String key = signature(inputShapes, dataTypes);
+            // a block with children looks up the output shapes of its children instead
+            Pair<Shape[], DataType[]> cached = children.isEmpty() ? entries.get(key) : null;
+            if (cached != null) {
+                hits.incrementAndGet();
+                if (cached.getValue() != null && block instanceof AbstractBaseBlock) {
+                    // restores the state of the blocks that compute the data types with the shapes
+                    ((AbstractBaseBlock) block).outputDataTypes = cached.getValue();
+                }
+                return new Pair<>(cached.getKey().clone(), cached.getValue());
+            }
+            Shape[] shapes = block.getOutputShapes(inputShapes, dataTypes);
+            DataType[] outputDataTypes = block.getOutputDataTypes();
+            for (Shape shape : shapes) {
+                if (Arrays.stream(shape.getShape()).anyMatch(d -> d < 0)) {
+                    dynamic = true;
+                    return new Pair<>(shapes, outputDataTypes);
+                }
+            }
+            if (children.isEmpty()) {
+                misses.incrementAndGet();
+                entries.put(key, new Pair<>(shapes.clone(), outputDataTypes));
+            }
+            return new Pair<>(shapes, outputDataTypes);
+        }
+    }
+
+    private static final class Node {
+
+        String block;
+        Map<String, Entry> entries;
+
+        Node(String block) {
+            this.block = block;
+            entries = new LinkedHashMap<>();
+        }
+    }
+
+    private static final class Entry {
+
+        long[][] shapes;
+        DataType[] dataTypes;
+
+        Entry(Pair<Shape[], DataType[]> pair) {
+            Shape[] array = pair.getKey();
+            shapes = new long[array.length][];
+            for (int i = 0; i < array.length; ++i) {
+                shapes[i] = array[i].getShape();
+            }
+            dataTypes = pair.getValue();
+        }
+
+        Pair<Shape[], DataType[]> toPair() {
+            Shape[] array = new Shape[shapes.length];
+            for (int i = 0; i < shapes.length; ++i) {
+                array[i] = new Shape(shapes[i]);
+            }
+            return new Pair<>(array, dataTypes);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.nn;
+
+import ai.djl.Model;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.nn.convolutional.Convolution;
+import ai.djl.nn.core.Embedding;
+import ai.djl.nn.core.Linear;
+import ai.djl.nn.transformer.IdEmbedding;
+import ai.djl.training.ParameterStore;
+import ai.djl.training.dataset.Batch;
+import ai.djl.training.dataset.Dataset;
+import ai.djl.training.evaluator.Evaluator;
+import ai.djl.translate.TranslateException;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code WeightQuantizer} quantizes the weights of a {@link Block} tree to int8 after training.
+ *
+ * <p>The weight of each {@link Linear} and {@link Convolution} block, and the table of each {@link
+ * Embedding} and {@link IdEmbedding} block, are quantized with a scale per output channel or per
+ * embedding, see {@link Parameter#quantize()}. This also quantizes the projections and the
+ * embeddings of composite blocks like the {@link ai.djl.nn.transformer.BertBlock}. The quantized
+ * weights take a quarter of the memory of float32 weights, and are dequantized on the fly during
+ * the forward pass: the embeddings only dequantize the rows that are looked up.
+ *
+ * <p>Only the weights are quantized, the activations are computed in the data type of the scales,
+ * so no calibration of the activation ranges is needed. {@link #quantize(Block, Dataset, NDManager,
+ * Evaluator...)} evaluates a dataset before and after the quantization to report the accuracy
+ * drift.
+ *
+ * <p>The quantized model can be saved with {@link Model#save(java.nio.file.Path, String)}, and is
+ * loaded quantized into the original, not quantized, block. A quantized block can only be used for
+ * inference, and should be quantized before creating the predictors of the model.
+ */
+public final class WeightQuantizer {
+
+    private static final String ACCUMULATOR = "quantization";
+
+    private WeightQuantizer() {}
+
+    /**
+     * Quantizes the weights of the block of a model.
+     *
+     * @param model the model to quantize
+     */
+    public static void quantize(Model model) {
+        quantize(model.getBlock());
+    }
+
+    /**
+     * Quantizes the weights of a {@link Block} tree in place.
+     *
+     * @param block the block to quantize
+     */
+    public static void quantize(Block block) {
+        for (Block child : block.getChildren().values()) {
+            quantize(child);
+        }
+        Parameter weight = getWeight(block);
+        if (weight != null && weight.isInitialized()) {
+            weight.quantize();
+        }
+    }
+
+    /**
+     * Quantizes the weights of a {@link Block} tree in place, and returns the change of each
+     * evaluator over a dataset.
+     *
+     * @param block the block to quantize
+     * @param dataset the dataset to evaluate
+     * @param manager the manager to load the dataset with
+     * @param evaluators the evaluators
+     * @return the change of the value of each evaluator by name, quantized minus original
+     * @throws IOException if failed to read the dataset
+     * @throws TranslateException if failed to process the dataset
+     */
+    public static Map<String, Float> quantize(
+            Block block, Dataset dataset, NDManager manager, Evaluator... evaluators)
+            throws IOException, TranslateException {
+        Map<String, Float> original = evaluate(block, dataset, manager, evaluators);
+        quantize(block);
+        Map<String, Float> drift = evaluate(block, dataset, manager, evaluators);
+        for (Map.Entry<String, Float> entry : original.entrySet()) {
+            drift.compute(entry.getKey(), (k, v) -> v - entry.getValue());
+        }
+        return drift;
+    }
+
+    /**
+     * Evaluates a {@link Block} over a dataset for inference.
+     *
+     * @param block the block to evaluate
+     * @param dataset the dataset to evaluate
+     * @param manager the manager to load the dataset with
+     * @param evaluators the evaluators
+     * @return the value of each evaluator by name
+     * @throws IOException if failed to read the dataset
+     * @throws TranslateException if failed to process the dataset
+     */
+    public static Map<String, Float> evaluate(
+            Block block, Dataset dataset, NDManager manager, Evaluator... evaluators)
+            throws IOException, TranslateException {
+        for (Evaluator evaluator : evaluators) {
+            evaluator.addAccumulator(ACCUMULATOR);
+        }
+        ParameterStore parameterStore = new ParameterStore(manager, false);
+        for (Batch batch : dataset.getData(manager)) {
+            NDList predictions = block.forward(parameterStore, batch.getData(), false);
+            for (Evaluator evaluator : evaluators) {
+                evaluator.updateAccumulator(ACCUMULATOR, batch.getLabels(), predictions);
+            }
+            batch.close();
+        }
+        Map<String, Float> values = new LinkedHashMap<>();
+        for (Evaluator evaluator : evaluators) {
+            values.put(evaluator.getName(), evaluator.getAccumulator(ACCUMULATOR));
+            evaluator.resetAccumulator(ACCUMULATOR);
+        }
+        return values;
+    }
+
+    private static Parameter getWeight(Block block) {
+        if (block instanceof Linear || block instanceof Convolution) {
+            return block.getParameters().get("weight");
+        } else if (block instanceof Embedding || block instanceof IdEmbedding) {
+            return block.getParameters().get("embedding");
+        }
+        return null;
+    }
+}
@@ -145,7 +145,7 @@ public abstract class Convolution extends AbstractBlock {
             PairList<String, Object> params) {
         NDArray input = inputs.singletonOrThrow();
         Device device = input.getDevice();
-        NDArray weightArr = parameterStore.getValue(weight, device, training);
+        NDArray weightArr = parameterStore.getValue(weight, input, training);
         NDArray biasArr = parameterStore.getValue(bias, device, training);
         return convolution(input, weightArr, biasArr, stride, padding, dilation, groups);
     }
@@ -39,7 +39,7 @@ import java.util.Optional;
  */
 public abstract class Embedding<T> extends AbstractBlock implements AbstractIndexedEmbedding<T> {
 
-    private static final byte VERSION = 6;
+    private static final byte VERSION = 7;
 
     protected int numEmbeddings;
     protected int embeddingSize;
@@ -48,6 +48,7 @@ public abstract class Embedding<T> extends AbstractBlock implements AbstractInde
     protected AbstractIndexedEmbedding<T> fallthroughEmbedding;
 
     protected Parameter embedding;
+    protected SharedEmbeddingStore store;
 
     protected Embedding(BaseBuilder<T, ?> baseBuilder) {
         super(VERSION);
@@ -107,6 +108,29 @@ public abstract class Embedding<T> extends AbstractBlock implements AbstractInde
         freezeParameters(true);
     }
 
+    /**
+     * Constructs a pretrained embedding that looks up the rows of a {@link SharedEmbeddingStore}.
+     *
+     * <p>The embedding parameter is not part of the block: the matrix is neither copied into the
+     * model nor saved with it. The store must stay open while the block is used.
+     *
+     * @param store the shared embedding store
+     */
+    protected Embedding(SharedEmbeddingStore store) {
+        super(VERSION);
+        this.store = store;
+        numEmbeddings = store.getNumEmbeddings();
+        embeddingSize = store.getEmbeddingSize();
+        sparseFormat = SparseFormat.DENSE;
+        embedding =
+                Parameter.builder()
+                        .setName("embedding")
+                        .setType(Parameter.Type.WEIGHT)
+                        .optShape(new Shape(numEmbeddings, embeddingSize))
+                        .build();
+        inputShapes = new Shape[] {new Shape(-1)};
+    }
+
     /** {@inheritDoc} */
     @Override
     public void prepare(Shape[] inputShapes) {
@@ -128,8 +152,14 @@ public abstract class Embedding<T> extends AbstractBlock implements AbstractInde
             boolean training,
             PairList<String, Object> params) {
         NDArray input = inputs.head();
+        if (store != null) {
+            return new NDList(store.gather(input));
+        }
         Device device = input.getDevice();
         NDArray weightArr = parameterStore.getValue(embedding, device, training);
+        if (embedding.isQuantized()) {
+            return embedding(input, weightArr, parameterStore.getScale(embedding, device));
+        }
         return embedding(input, weightArr, sparseFormat);
     }
 
@@ -139,6 +169,13 @@ public abstract class Embedding<T> extends AbstractBlock implements AbstractInde
         os.writeByte(VERSION);
         saveInputShapes(os);
         os.writeInt(sparseFormat.getValue());
+        // the matrix of a store-backed embedding is not saved, only its shape
+        os.writeBoolean(store != null);
+        if (store != null) {
+            os.writeInt(numEmbeddings);
+            os.writeInt(embeddingSize);
+            return;
+        }
         embedding.save(os);
     }
 
@@ -158,7 +195,7 @@ public abstract class Embedding<T> extends AbstractBlock implements AbstractInde
             if (version == 3) {
                 addMissingZero = !is.readBoolean();
             }
-            if (version == 6) {
+            if (version >= 6) {
                 sparseFormat = SparseFormat.fromValue(is.readInt());
             } else {
                 sparseFormat = is.readBoolean() ? SparseFormat.ROW_SPARSE : SparseFormat.DENSE;
@@ -184,9 +221,24 @@ public abstract class Embedding<T> extends AbstractBlock implements AbstractInde
         } else if (version != 1) {
             throw new MalformedModelException("Unsupported encoding version: " + version);
         }
+        if (version >= 7 && is.readBoolean()) {
+            loadExternal(is);
+            return;
+        }
+        if (store != null) {
+            throw new MalformedModelException(
+                    "The embedding was saved with its matrix, it can't be loaded into an"
+                            + " embedding backed by a SharedEmbeddingStore");
+        }
         embedding.load(manager, is);
-        numEmbeddings = (int) embedding.getArray().getShape().get(0);
-        embeddingSize = (int) embedding.getArray().getShape().get(1);
+        if (embedding.getShape() == null) {
+            throw new MalformedModelException(
+                    "The embedding was saved without its matrix, it must be loaded with the"
+                            + " SharedEmbeddingStore it was created with");
+        }
+        // the array of the indexed format is read later, only the shape is available
+        numEmbeddings = (int) embedding.getShape().get(0);
+        embeddingSize = (int) embedding.getShape().get(1);
         if (addMissingZero) {
             numEmbeddings++;
             embedding.setArray(
@@ -197,6 +249,28 @@ public abstract class Embedding<T> extends AbstractBlock implements AbstractInde
         }
     }
 
+    private void loadExternal(DataInputStream is) throws IOException, MalformedModelException {
+        int savedNumEmbeddings = is.readInt();
+        int savedEmbeddingSize = is.readInt();
+        if (store == null) {
+            throw new MalformedModelException(
+                    "The embedding was saved with a SharedEmbeddingStore, it must be loaded into"
+                            + " an embedding created with the store");
+        }
+        if (savedNumEmbeddings != numEmbeddings || savedEmbeddingSize != embeddingSize) {
+            throw new MalformedModelException(
+                    "The SharedEmbeddingStore has the shape ("
+                            + numEmbeddings
+                            + ", "
+                            + embeddingSize
+                            + "), but the embedding was saved with ("
+                            + savedNumEmbeddings
+                            + ", "
+                            + savedEmbeddingSize
+                            + ")");
+        }
+    }
+
     /** {@inheritDoc} */
     @Override
     public NDArray embed(NDManager manager, T[] items) {
@@ -216,6 +290,25 @@ public abstract class Embedding<T> extends AbstractBlock implements AbstractInde
         return input.getNDArrayInternal().embedding(input, weight, sparse);
     }
 
+    /**
+     * A lookup table that looks up embeddings in a quantized embedding matrix, only the rows that
+     * are looked up are dequantized.
+     *
+     * @param input NDArray containing indices into the embedding matrix
+     * @param weight the quantized embedding matrix
+     * @param scale the scale of each row of the embedding matrix
+     * @return output NDArray
+     * @see Parameter#quantize()
+     */
+    public static NDList embedding(NDArray input, NDArray weight, NDArray scale) {
+        NDArray ids = input.flatten().reshape(1, input.size());
+        try (NDArray rows = weight.gatherNd(ids);
+                NDArray rowScale = scale.gatherNd(ids)) {
+            NDArray result = Parameter.dequantize(rows, rowScale, input.getManager());
+            return new NDList(result.reshape(input.getShape().add(weight.getShape().get(1))));
+        }
+    }
+
     /**
      * The Builder to construct a {@link Embedding} type of {@link Block}.
      *
@@ -353,8 +446,13 @@ public abstract class Embedding<T> extends AbstractBlock implements AbstractInde
         @Override
         public NDArray embed(NDManager manager, T[] items) {
             int length = items.length;
-            NDArray base = embedding.getArray().get(0);
-            base.attach(manager);
+            NDArray base;
+            if (store != null) {
+                base = store.gather(manager, 0).reshape(embeddingSize);
+            } else {
+                base = embedding.getArray().get(0);
+                base.attach(manager);
+            }
             return base.repeat(new Shape(length, embeddingSize));
         }
 
@@ -90,7 +90,7 @@ public class Linear extends AbstractBlock {
             PairList<String, Object> params) {
         NDArray input = inputs.singletonOrThrow();
         Device device = input.getDevice();
-        NDArray weightArr = parameterStore.getValue(weight, device, training);
+        NDArray weightArr = parameterStore.getValue(weight, input, training);
         NDArray biasArr = parameterStore.getValue(bias, device, training);
         return linear(input, weightArr, biasArr);
     }
@@ -128,6 +128,24 @@ public class Linear extends AbstractBlock {
         }
     }
 
+    /**
+     * Returns the number of output channels.
+     *
+     * @return the number of output channels
+     */
+    public long getUnits() {
+        return units;
+    }
+
+    /**
+     * Returns whether to include a bias vector.
+     *
+     * @return whether to include a bias vector
+     */
+    public boolean isIncludeBias() {
+        return bias != null;
+    }
+
     /** {@inheritDoc} */
     @Override
     protected void saveMetadata(DataOutputStream os) throws IOException {
@@ -0,0 +1,423 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.nn.core;
+
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@code SharedEmbeddingStore} is a read-only embedding matrix in a file, shared by the {@link
+ * Embedding} blocks of a process.
+ *
+ * <p>A file is opened once per process: opening the same file again returns a new store sharing the
+ * open file, and the file is closed when all the stores of the file are closed. A store can't be
+ * used once it is closed, and closing it again has no effect. The {@link Embedding} blocks created
+ * with a store don't have an embedding parameter, they look up the rows of the store instead, so
+ * the matrix is neither copied into the {@link NDManager} of each model nor saved with the models.
+ *
+ * <p>The matrix is either memory-mapped in full, its pages are then shared by all the processes
+ * mapping the file, or, if it is too big to be mapped, its rows are read on demand into an off-heap
+ * LRU cache of the most recently looked up rows.
+ *
+ * <p>The file is written by {@link #write(Path, NDArray)}: a header with the data type and the
+ * shape of the matrix, followed by the rows aligned to 64 bytes.
+ */
+public final class SharedEmbeddingStore implements AutoCloseable {
+
+    private static final String MAGIC = "DJLEmbedding";
+    private static final byte VERSION = 1;
+    private static final int ALIGNMENT = 64;
+
+    private static final Map<Path, Storage> STORES = new ConcurrentHashMap<>();
+
+    private Storage storage;
+    private AtomicBoolean closed;
+
+    private SharedEmbeddingStore(Storage storage) {
+        this.storage = storage;
+        closed = new AtomicBoolean();
+    }
+
+    /**
+     * Opens the store of a file, the matrix is memory-mapped in full.
+     *
+     * @param path the file of the matrix
+     * @return the store of the file
+     * @throws IOException if failed to read the file
+     */
+    public static SharedEmbeddingStore open(Path path) throws IOException {
+        return open(path, 0);
+    }
+
+    /**
+     * Opens the store of a file.
+     *
+     * <p>If the file is already open, the new store shares it, regardless of the {@code cacheRows}.
+     *
+     * @param path the file of the matrix
+     * @param cacheRows the number of rows to cache, or 0 to memory-map the matrix in full
+     * @return the store of the file
+     * @throws IOException if failed to read the file
+     */
+    public static SharedEmbeddingStore open(Path path, int cacheRows) throws IOException {
+        Path key = path.toAbsolutePath().normalize();
+        synchronized (STORES) {
+            Storage storage = STORES.get(key);
+            if (storage == null) {
+                storage = new Storage(key, cacheRows);
+                STORES.put(key, storage);
+            }
+            storage.references++;
+            return new SharedEmbeddingStore(storage);
+        }
+    }
+
+    /**
+     * Writes an embedding matrix to a file in the format of the store.
+     *
+     * @param path the file to write
+     * @param matrix the embedding matrix of shape (numEmbeddings, embeddingSize)
+     * @throws IOException if failed to write the file
+     */
+    public static void write(Path path, NDArray matrix) throws IOException {
+        write(path, matrix.toByteBuffer(), matrix.getDataType(), matrix.getShape());
+    }
+
+    static void write(Path path, ByteBuffer data, DataType dataType, Shape shape)
+            throws IOException {
+        if (shape.dimension() != 2) {
+            throw new IllegalArgumentException("The embedding matrix must have 2 dimensions");
+        }
+        try (OutputStream os = Files.newOutputStream(path)) {
+            DataOutputStream dos = new DataOutputStream(os);
+            dos.writeUTF(MAGIC);
+            dos.writeByte(VERSION);
+            dos.writeUTF(dataType.name());
+            dos.writeUTF(data.order().toString());
+            dos.writeLong(shape.get(0));
+            dos.writeLong(shape.get(1));
+            dos.write(new byte[padding(dos.size())]);
+            dos.flush();
+            WritableByteChannel out = Channels.newChannel(os);
+            ByteBuffer bb = data.duplicate();
+            while (bb.hasRemaining()) {
+                out.write(bb);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of rows of the matrix.
+     *
+     * @return the number of rows of the matrix
+     */
+    public int getNumEmbeddings() {
+        return storage().numEmbeddings;
+    }
+
+    /**
+     * Returns the number of columns of the matrix.
+     *
+     * @return the number of columns of the matrix
+     */
+    public int getEmbeddingSize() {
+        return storage().embeddingSize;
+    }
+
+    /**
+     * Returns the data type of the matrix.
+     *
+     * @return the data type of the matrix
+     */
+    public DataType getDataType() {
+        return storage().dataType;
+    }
+
+    /**
+     * Returns whether the rows are read into a cache, instead of the matrix being memory-mapped.
+     *
+     * @return whether the rows are read into a cache
+     */
+    public boolean isCached() {
+        return storage().cache != null;
+    }
+
+    /**
+     * Returns the number of rows found in the cache.
+     *
+     * @return the number of rows found in the cache
+     */
+    public long getHitCount() {
+        RowCache cache = storage().cache;
+        return cache == null ? 0 : cache.hits.get();
+    }
+
+    /**
+     * Returns the number of rows read from the file into the cache.
+     *
+     * @return the number of rows read from the file into the cache
+     */
+    public long getMissCount() {
+        RowCache cache = storage().cache;
+        return cache == null ? 0 : cache.misses.get();
+    }
+
+    /**
+     * Looks up the rows of the indices.
+     *
+     * @param indices the indices of the rows
+     * @return the rows of shape (indices..., embeddingSize), attached to the manager of the indices
+     */
+    public NDArray gather(NDArray indices) {
+        Storage storage = storage();
+        NDArray array = indices.toType(DataType.INT64, false);
+        long[] ids = array.toLongArray();
+        if (array != indices) {
+            array.close();
+        }
+        Shape shape = indices.getShape().add(storage.embeddingSize);
+        return gather(indices.getManager(), ids, shape);
+    }
+
+    /**
+     * Looks up rows of the matrix.
+     *
+     * @param manager the manager to create the rows with
+     * @param indices the indices of the rows
+     * @return the rows of shape (indices, embeddingSize)
+     */
+    public NDArray gather(NDManager manager, long... indices) {
+        return gather(manager, indices, new Shape(indices.length, storage().embeddingSize));
+    }
+
+    private NDArray gather(NDManager manager, long[] indices, Shape shape) {
+        Storage storage = storage();
+        ByteBuffer bb =
+                manager.allocateDirect(Math.multiplyExact(indices.length, storage.rowBytes));
+        for (long index : indices) {
+            storage.copyRow(index, bb);
+        }
+        bb.rewind();
+        bb.order(storage.order);
+        return manager.create(bb, shape, storage.dataType);
+    }
+
+    void copyRow(long index, ByteBuffer out) {
+        storage().copyRow(index, out);
+    }
+
+    /**
+     * Closes the store, the file is closed when all the stores of the file are closed.
+     *
+     * @throws IOException if failed to close the file
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed.getAndSet(true)) {
+            return;
+        }
+        synchronized (STORES) {
+            if (--storage.references > 0) {
+                return;
+            }
+            STORES.remove(storage.path);
+        }
+        storage.close();
+    }
+
+    private Storage storage() {
+        if (closed.get()) {
+            throw new IllegalStateException("The embedding store is closed.");
+        }
+        return storage;
+    }
+
+    private static int padding(long position) {
+        return (int) ((ALIGNMENT - position % ALIGNMENT) % ALIGNMENT);
+    }
+
+    /** The open file of a matrix, shared by the stores of the file. */
+    private static final class Storage {
+
+        Path path;
+        FileChannel channel;
+        DataType dataType;
+        ByteOrder order;
+        int numEmbeddings;
+        int embeddingSize;
+        int rowBytes;
+        long offset;
+        ByteBuffer[] chunks;
+        int chunkRows;
+        RowCache cache;
+        int references;
+
+        Storage(Path path, int cacheRows) throws IOException {
+            this.path = path;
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            try {
+                readHeader();
+                if (cacheRows > 0) {
+                    cache = new RowCache(this, Math.min(cacheRows, numEmbeddings));
+                } else {
+                    map();
+                }
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        void copyRow(long index, ByteBuffer out) {
+            if (index < 0 || index >= numEmbeddings) {
+                throw new IllegalArgumentException("Invalid embedding index: " + index);
+            }
+            int row = (int) index;
+            if (cache != null) {
+                cache.copyRow(row, out);
+                return;
+            }
+            ByteBuffer src = chunks[row / chunkRows].duplicate();
+            int position = row % chunkRows * rowBytes;
+            src.limit(position + rowBytes);
+            src.position(position);
+            out.put(src);
+        }
+
+        void close() throws IOException {
+            // the mapped buffers are released when garbage collected
+            chunks = null;
+            channel.close();
+        }
+
+        private void readHeader() throws IOException {
+            DataInputStream dis = new DataInputStream(Channels.newInputStream(channel));
+            if (!MAGIC.equals(dis.readUTF())) {
+                throw new IOException("Not an embedding store file: " + path);
+            }
+            byte version = dis.readByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported encoding version: " + version);
+            }
+            dataType = DataType.valueOf(dis.readUTF());
+            order =
+                    ByteOrder.BIG_ENDIAN.toString().equals(dis.readUTF())
+                            ? ByteOrder.BIG_ENDIAN
+                            : ByteOrder.LITTLE_ENDIAN;
+            numEmbeddings = Math.toIntExact(dis.readLong());
+            embeddingSize = Math.toIntExact(dis.readLong());
+            rowBytes = Math.multiplyExact(embeddingSize, dataType.getNumOfBytes());
+            long position = channel.position();
+            offset = position + padding(position);
+            if (channel.size() < offset + (long) numEmbeddings * rowBytes) {
+                throw new EOFException("Unexpected end of the embedding file: " + path);
+            }
+        }
+
+        private void map() throws IOException {
+            // a mapped buffer is limited to 2GB
+            chunkRows = Math.max(1, Integer.MAX_VALUE / Math.max(rowBytes, 1));
+            int count = numEmbeddings == 0 ? 0 : (numEmbeddings - 1) / chunkRows + 1;
+            chunks = new ByteBuffer[count];
+            for (int i = 0; i < count; ++i) {
+                long rows = Math.min(chunkRows, numEmbeddings - (long) i * chunkRows);
+                long position = offset + (long) i * chunkRows * rowBytes;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, rows * rowBytes);
+            }
+        }
+    }
+
+    /** An off-heap cache of the most recently used rows. */
+    private static final class RowCache {
+
+        Storage storage;
+        ByteBuffer slots;
+        Map<Integer, Integer> rows;
+        AtomicLong hits;
+        AtomicLong misses;
+
+        RowCache(Storage storage, int capacity) {
+            this.storage = storage;
+            slots = ByteBuffer.allocateDirect(Math.multiplyExact(capacity, storage.rowBytes));
+            rows = new LinkedHashMap<>(capacity, 0.75f, true);
+            hits = new AtomicLong();
+            misses = new AtomicLong();
+        }
+
+        synchronized void copyRow(int row, ByteBuffer out) {
+            Integer slot = rows.get(row);
+            if (slot == null) {
+                misses.incrementAndGet();
+                slot = rows.size();
+                if (slot * storage.rowBytes == slots.capacity()) {
+                    // evicts the least recently used row
+                    Iterator<Integer> it = rows.values().iterator();
+                    slot = it.next();
+                    it.remove();
+                }
+                read(row, slice(slot));
+                rows.put(row, slot);
+            } else {
+                hits.incrementAndGet();
+            }
+            out.put(slice(slot));
+        }
+
+        private ByteBuffer slice(int slot) {
+            int rowBytes = storage.rowBytes;
+            ByteBuffer bb = slots.duplicate();
+            bb.limit(slot * rowBytes + rowBytes);
+            bb.position(slot * rowBytes);
+            return bb;
+        }
+
+        private void read(int row, ByteBuffer bb) {
+            long position = storage.offset + (long) row * storage.rowBytes;
+            try {
+                while (bb.hasRemaining()) {
+                    int read = storage.channel.read(bb, position);
+                    if (read < 0) {
+                        throw new EOFException(
+                                "Unexpected end of the embedding file: " + storage.path);
+                    }
+                    position += read;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
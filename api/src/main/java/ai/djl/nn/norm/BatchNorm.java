@@ -166,6 +166,24 @@ public class BatchNorm extends AbstractBlock {
         runningVar.setShape(new Shape(inChannels));
     }
 
+    /**
+     * Returns the axis of the channels.
+     *
+     * @return the axis of the channels
+     */
+    public int getAxis() {
+        return axis;
+    }
+
+    /**
+     * Returns the epsilon added to the variance.
+     *
+     * @return the epsilon added to the variance
+     */
+    public float getEpsilon() {
+        return epsilon;
+    }
+
     /** {@inheritDoc} */
     @Override
     protected void saveMetadata(DataOutputStream os) throws IOException {
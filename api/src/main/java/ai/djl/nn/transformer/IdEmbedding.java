@@ -21,6 +21,7 @@ import ai.djl.ndarray.types.Shape;
 import ai.djl.nn.AbstractBlock;
 import ai.djl.nn.Block;
 import ai.djl.nn.Parameter;
+import ai.djl.nn.core.Embedding;
 import ai.djl.training.ParameterStore;
 import ai.djl.util.PairList;
 
@@ -67,6 +68,11 @@ public final class IdEmbedding extends AbstractBlock {
         NDArray ids = input.flatten().reshape(1, input.getShape().size());
         // create the embedding Table
         NDArray embeddingTable = ps.getValue(embedding, ids.getDevice(), training);
+        if (embedding.isQuantized()) {
+            // only dequantize the rows that are looked up
+            NDArray scale = ps.getScale(embedding, ids.getDevice());
+            return Embedding.embedding(input, embeddingTable, scale);
+        }
         // We do not perform a sparse lookup, instead we just project into the table
         NDArray result = embeddingTable.gatherNd(ids);
         // we want the original shape of the input + the last dimension of the embedding
@@ -89,7 +95,7 @@ public final class IdEmbedding extends AbstractBlock {
         NDArray asMatrix = input.reshape(-1, embeddingSize);
         // get embedding table
         NDArray embeddingTableTransposed =
-                parameterStore.getValue(embedding, input.getDevice(), training).transpose();
+                parameterStore.getValue(embedding, input, training).transpose();
         embeddingTableTransposed.attach(input.getManager());
         // Create raw logits by taking the scalar product of the tokens and the embedding table
         NDArray logitsFlat = asMatrix.dot(embeddingTableTransposed);
@@ -107,13 +113,20 @@ public final class IdEmbedding extends AbstractBlock {
      * Quick hack for bert model to acces embedding table, replace by a proper function to calculate
      * raw logits from embeddings. TODO: replace by function to get logits
      *
+     * <p>A quantized table is dequantized into an array attached to the manager of the parameter
+     * store.
+     *
      * @param ps the parameter store
      * @param device device to get internal table for
      * @param training true for a training forward pass
      * @return this embedding table as an array on the given device
      */
     public NDArray getValue(ParameterStore ps, Device device, boolean training) {
-        return ps.getValue(embedding, device, training);
+        NDArray table = ps.getValue(embedding, device, training);
+        if (embedding.isQuantized()) {
+            return Parameter.dequantize(table, ps.getScale(embedding, device), ps.getManager());
+        }
+        return table;
     }
 
     /** {@inheritDoc} */
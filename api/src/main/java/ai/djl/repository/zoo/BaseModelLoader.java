@@ -17,10 +17,14 @@ import ai.djl.Device;
 import ai.djl.MalformedModelException;
 import ai.djl.Model;
 import ai.djl.engine.Engine;
+import ai.djl.metric.Metrics;
+import ai.djl.modality.Input;
+import ai.djl.ndarray.types.DataType;
 import ai.djl.nn.Block;
 import ai.djl.nn.BlockFactory;
 import ai.djl.repository.Artifact;
 import ai.djl.repository.MRL;
+import ai.djl.translate.ArgumentsUtil;
 import ai.djl.translate.DefaultTranslatorFactory;
 import ai.djl.translate.TranslateException;
 import ai.djl.translate.Translator;
@@ -30,12 +34,17 @@ import ai.djl.util.Pair;
 import ai.djl.util.Progress;
 import ai.djl.util.Utils;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import java.io.IOException;
 import java.io.Reader;
 import java.lang.reflect.Type;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
 import java.util.stream.Collectors;
@@ -43,6 +52,8 @@ import java.util.stream.Collectors;
 /** Shared code for the {@link ModelLoader} implementations. */
 public class BaseModelLoader implements ModelLoader {
 
+    private static final Logger logger = LoggerFactory.getLogger(BaseModelLoader.class);
+
     protected MRL mrl;
     protected TranslatorFactory defaultFactory;
 
@@ -150,6 +161,11 @@ public class BaseModelLoader implements ModelLoader {
                 }
             }
 
+            // the warm up options are validated before the model is loaded
+            int warmupIterations = parseWarmupIterations(arguments);
+            int[] warmupBatchSizes = parseWarmupBatchSizes(arguments);
+            DataType[] warmupDataTypes = parseWarmupDataTypes(arguments);
+
             Model model =
                     createModel(
                             modelDir,
@@ -160,7 +176,12 @@ public class BaseModelLoader implements ModelLoader {
                             engine);
             model.load(modelPath, null, options);
             Translator<I, O> translator = factory.newInstance(input, output, model, arguments);
-            return new ZooModel<>(model, translator);
+            ZooModel<I, O> zooModel = new ZooModel<>(model, translator);
+            if (warmupIterations > 0) {
+                I sample = getWarmupSample(input, arguments);
+                warmUp(zooModel, sample, warmupDataTypes, warmupIterations, warmupBatchSizes);
+            }
+            return zooModel;
         } catch (TranslateException e) {
             throw new ModelNotFoundException("No matching translator found", e);
         } finally {
@@ -242,6 +263,91 @@ public class BaseModelLoader implements ModelLoader {
         return factory;
     }
 
+    private static int parseWarmupIterations(Map<String, Object> arguments)
+            throws MalformedModelException {
+        try {
+            return ArgumentsUtil.intValue(arguments, "warmupIterations");
+        } catch (NumberFormatException e) {
+            throw new MalformedModelException(
+                    "Invalid warmupIterations: " + arguments.get("warmupIterations"), e);
+        }
+    }
+
+    private static int[] parseWarmupBatchSizes(Map<String, Object> arguments)
+            throws MalformedModelException {
+        String value = ArgumentsUtil.stringValue(arguments, "warmupBatchSizes", "1");
+        try {
+            return Arrays.stream(value.split(","))
+                    .map(String::trim)
+                    .mapToInt(Integer::parseInt)
+                    .toArray();
+        } catch (NumberFormatException e) {
+            throw new MalformedModelException("Invalid warmupBatchSizes: " + value, e);
+        }
+    }
+
+    private static DataType[] parseWarmupDataTypes(Map<String, Object> arguments)
+            throws MalformedModelException {
+        String value = ArgumentsUtil.stringValue(arguments, "warmupDataTypes");
+        if (value == null) {
+            return null; // NOPMD
+        }
+        try {
+            return Arrays.stream(value.split(","))
+                    .map(s -> DataType.valueOf(s.trim().toUpperCase(Locale.ROOT)))
+                    .toArray(DataType[]::new);
+        } catch (IllegalArgumentException e) {
+            throw new MalformedModelException("Invalid warmupDataTypes: " + value, e);
+        }
+    }
+
+    private static <I> I getWarmupSample(Class<I> input, Map<String, Object> arguments) {
+        String sample = ArgumentsUtil.stringValue(arguments, "warmupSample");
+        if (sample == null) {
+            return null;
+        } else if (input == String.class) {
+            return input.cast(sample);
+        } else if (input == Input.class) {
+            Input in = new Input();
+            in.add(sample);
+            return input.cast(in);
+        }
+        logger.warn("warmupSample is not supported for the input type: {}", input.getName());
+        return null;
+    }
+
+    private <I> void warmUp(
+            ZooModel<I, ?> model, I sample, DataType[] dataTypes, int iterations, int[] batchSizes)
+            throws MalformedModelException {
+        if (sample == null && !model.hasInputShapes()) {
+            logger.warn(
+                    "Model {} doesn't describe the shapes of its inputs, skip the warm up. Set the"
+                            + " warmupSample argument to warm it up.",
+                    model.getName());
+            return;
+        }
+        try {
+            Metrics metrics;
+            if (sample != null) {
+                metrics = model.warmUp(sample, iterations, batchSizes);
+            } else if (dataTypes != null) {
+                metrics = model.warmUp(dataTypes, iterations, batchSizes);
+            } else {
+                metrics = model.warmUp(iterations, batchSizes);
+            }
+            if (logger.isDebugEnabled()) {
+                logger.debug(
+                        "Model {} warmed up in {} iterations, p50: {} us",
+                        model.getName(),
+                        metrics.getMetric("WarmUp").size(),
+                        metrics.percentile("WarmUp", 50).getValue().longValue());
+            }
+        } catch (TranslateException | RuntimeException e) {
+            model.close();
+            throw new MalformedModelException("Failed to warm up the model", e);
+        }
+    }
+
     private String getFactoryLookupErrorMessage(TranslatorFactory factory) {
         StringBuilder sb = new StringBuilder(200);
         sb.append(
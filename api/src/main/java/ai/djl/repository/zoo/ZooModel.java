@@ -15,19 +15,30 @@ package ai.djl.repository.zoo;
 import ai.djl.Device;
 import ai.djl.Model;
 import ai.djl.inference.Predictor;
+import ai.djl.metric.Dimension;
+import ai.djl.metric.Metric;
+import ai.djl.metric.Metrics;
+import ai.djl.metric.Unit;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.NDManager;
 import ai.djl.ndarray.types.DataType;
 import ai.djl.ndarray.types.Shape;
 import ai.djl.nn.Block;
 import ai.djl.training.Trainer;
 import ai.djl.training.TrainingConfig;
+import ai.djl.translate.NoopTranslator;
+import ai.djl.translate.TranslateException;
 import ai.djl.translate.Translator;
+import ai.djl.util.Pair;
 import ai.djl.util.PairList;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
@@ -155,6 +166,136 @@ public class ZooModel<I, O> implements Model {
         return model.newPredictor(translator, device);
     }
 
+    /**
+     * Warms up the model with dummy inputs created from the shapes of {@link #describeInput()}.
+     *
+     * <p>The first predictions of a model are much slower than the steady state because of the
+     * engine graph optimization, lazy initialization of the model and the Java JIT compilation.
+     * This runs the given number of iterations for each batch size before the model takes traffic.
+     * The first dimension of each input shape is replaced with the batch size, other unknown
+     * dimensions are replaced with 1, and the inputs are filled with ones of the model data type.
+     *
+     * <p>The model is warmed up automatically when it is loaded if the {@code warmupIterations}
+     * argument is set in the {@link Criteria} or the {@code serving.properties}, with the comma
+     * separated batch sizes of the {@code warmupBatchSizes} argument. A {@code warmupSample}
+     * argument is used as the sample input of a model with a {@code String} or {@link
+     * ai.djl.modality.Input} input, otherwise the dummy inputs have the comma separated data types
+     * of the {@code warmupDataTypes} argument, if any. The warm-up is skipped with a warning if the
+     * model doesn't describe the shapes of its inputs.
+     *
+     * @param iterations the number of iterations for each batch size
+     * @param batchSizes the expected batch sizes
+     * @return the {@link Metrics} with the timings of the warm-up
+     * @throws TranslateException if the model fails to run the inputs
+     * @throws IllegalStateException if the model doesn't describe the shapes of its inputs
+     */
+    public Metrics warmUp(int iterations, int... batchSizes) throws TranslateException {
+        return warmUpInputs(null, iterations, batchSizes);
+    }
+
+    /**
+     * Warms up the model with dummy inputs of the given data types, created from the shapes of
+     * {@link #describeInput()}.
+     *
+     * <p>This is the same as {@link #warmUp(int, int...)}, for models whose inputs don't all have
+     * the model data type, like the token ids of a language model.
+     *
+     * @param dataTypes the data type of each input
+     * @param iterations the number of iterations for each batch size
+     * @param batchSizes the expected batch sizes
+     * @return the {@link Metrics} with the timings of the warm-up
+     * @throws TranslateException if the model fails to run the inputs
+     * @throws IllegalStateException if the model doesn't describe the shapes of its inputs
+     */
+    public Metrics warmUp(DataType[] dataTypes, int iterations, int... batchSizes)
+            throws TranslateException {
+        return warmUpInputs(dataTypes, iterations, batchSizes);
+    }
+
+    /**
+     * Returns whether the model describes the shapes of its inputs, which are required by {@link
+     * #warmUp(int, int...)}.
+     *
+     * @return whether the model describes the shapes of its inputs
+     */
+    public boolean hasInputShapes() {
+        PairList<String, Shape> inputs = describeInput();
+        if (inputs == null || inputs.isEmpty()) {
+            return false;
+        }
+        for (Pair<String, Shape> pair : inputs) {
+            if (pair.getValue() == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Metrics warmUpInputs(DataType[] dataTypes, int iterations, int... batchSizes)
+            throws TranslateException {
+        if (!hasInputShapes()) {
+            throw new IllegalStateException(
+                    "The model doesn't describe the shapes of its inputs, warm up with a sample"
+                            + " input instead.");
+        }
+        PairList<String, Shape> inputs = describeInput();
+        if (dataTypes != null && dataTypes.length != inputs.size()) {
+            throw new IllegalArgumentException(
+                    "Expected " + inputs.size() + " warm up data types, got " + dataTypes.length);
+        }
+        Metrics metrics = new Metrics();
+        try (Predictor<NDList, NDList> predictor = newPredictor(new NoopTranslator())) {
+            predictor.setMetrics(metrics);
+            for (int batchSize : checkBatchSizes(batchSizes)) {
+                try (NDManager manager = getNDManager().newSubManager()) {
+                    NDList list = new NDList(inputs.size());
+                    for (int i = 0; i < inputs.size(); ++i) {
+                        Shape shape = getWarmUpShape(inputs.get(i).getValue(), batchSize);
+                        DataType dataType = dataTypes == null ? getDataType() : dataTypes[i];
+                        NDArray array = manager.ones(shape, dataType);
+                        array.setName(inputs.get(i).getKey());
+                        list.add(array);
+                    }
+                    for (int i = 0; i < iterations; ++i) {
+                        long begin = System.nanoTime();
+                        predictor.predict(list);
+                        addWarmUpMetric(metrics, begin, batchSize);
+                    }
+                }
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * Warms up the model with a sample input processed by the default translator.
+     *
+     * <p>For each batch size, the sample is repeated to fill the batch and the batch is predicted
+     * for the given number of iterations, which also warms up the pre-processing and
+     * post-processing of the translator.
+     *
+     * @param sample the sample input
+     * @param iterations the number of iterations for each batch size
+     * @param batchSizes the expected batch sizes
+     * @return the {@link Metrics} with the timings of the warm-up
+     * @throws TranslateException if the model fails to run the input
+     */
+    public Metrics warmUp(I sample, int iterations, int... batchSizes) throws TranslateException {
+        Metrics metrics = new Metrics();
+        try (Predictor<I, O> predictor = newPredictor()) {
+            predictor.setMetrics(metrics);
+            for (int batchSize : checkBatchSizes(batchSizes)) {
+                List<I> batch = Collections.nCopies(batchSize, sample);
+                for (int i = 0; i < iterations; ++i) {
+                    long begin = System.nanoTime();
+                    predictor.batchPredict(batch);
+                    addWarmUpMetric(metrics, begin, batchSize);
+                }
+            }
+        }
+        return metrics;
+    }
+
     /**
      * Returns the default translator.
      *
@@ -229,4 +370,36 @@ public class ZooModel<I, O> implements Model {
     public void close() {
         model.close();
     }
+
+    private static int[] checkBatchSizes(int[] batchSizes) {
+        if (batchSizes.length == 0) {
+            return new int[] {1};
+        }
+        for (int batchSize : batchSizes) {
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("Invalid warm up batch size: " + batchSize);
+            }
+        }
+        return batchSizes;
+    }
+
+    private static Shape getWarmUpShape(Shape shape, int batchSize) {
+        if (shape.isScalar()) {
+            return shape;
+        }
+        long[] dims = shape.getShape().clone();
+        dims[0] = batchSize;
+        for (int i = 1; i < dims.length; ++i) {
+            if (dims[i] < 0) {
+                dims[i] = 1;
+            }
+        }
+        return new Shape(dims);
+    }
+
+    private static void addWarmUpMetric(Metrics metrics, long begin, int batchSize) {
+        long duration = (System.nanoTime() - begin) / 1000;
+        Dimension dimension = new Dimension("BatchSize", String.valueOf(batchSize));
+        metrics.addMetric(new Metric("WarmUp", duration, Unit.MICROSECONDS, dimension));
+    }
 }
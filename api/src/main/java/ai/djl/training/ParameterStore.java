@@ -32,6 +32,7 @@ public class ParameterStore {
     private NDManager manager;
     private Map<String, ParameterData> parameterMap;
     private Map<Device, Integer> deviceMap;
+    private Map<String, NDArray> scaleMap;
     private boolean copy;
     private ParameterServer parameterServer;
 
@@ -51,6 +52,7 @@ public class ParameterStore {
         this.copy = copy;
         parameterMap = new ConcurrentHashMap<>();
         deviceMap = new ConcurrentHashMap<>();
+        scaleMap = new ConcurrentHashMap<>();
         deviceMap.put(manager.getDevice(), 0);
     }
 
@@ -85,6 +87,9 @@ public class ParameterStore {
     /**
      * Returns the value of a mirrored parameter on a device.
      *
+     * <p>The values of a quantized parameter are returned as they are stored, see {@link
+     * #getValue(Parameter, NDArray, boolean)} for the dequantized values.
+     *
      * @param parameter the parameter to get the value for
      * @param device the device to get the mirror from
      * @param training true for a training forward pass
@@ -140,6 +145,50 @@ public class ParameterStore {
         return data.get(index);
     }
 
+    /**
+     * Returns the value of a mirrored parameter on the device of an input.
+     *
+     * <p>The values of a quantized parameter are dequantized on the fly into an array attached to
+     * the manager of the input, so that only the quantized values are kept in memory.
+     *
+     * @param parameter the parameter to get the value for
+     * @param input the input the value is used with
+     * @param training true for a training forward pass
+     * @return the value of the mirrored parameter on the device of the input
+     * @see Parameter#quantize()
+     */
+    public NDArray getValue(Parameter parameter, NDArray input, boolean training) {
+        Device device = input.getDevice();
+        NDArray value = getValue(parameter, device, training);
+        if (parameter == null || !parameter.isQuantized()) {
+            return value;
+        }
+        return Parameter.dequantize(value, getScale(parameter, device), input.getManager());
+    }
+
+    /**
+     * Returns the scale of a quantized parameter on a device.
+     *
+     * @param parameter the quantized parameter to get the scale for
+     * @param device the device to get the scale on
+     * @return the scale of the parameter on the device, or {@code null} if the parameter is not
+     *     quantized
+     * @see Parameter#quantize()
+     */
+    public NDArray getScale(Parameter parameter, Device device) {
+        NDArray scale = parameter.getScale();
+        if (scale == null || scale.getDevice().equals(device)) {
+            return scale;
+        }
+        return scaleMap.computeIfAbsent(
+                parameter.getId() + device,
+                k -> {
+                    NDArray array = scale.toDevice(device, true);
+                    array.attach(manager);
+                    return array;
+                });
+    }
+
     /**
      * Get the {@link NDManager} associated with {@code ParameterStore}.
      *
@@ -29,6 +29,7 @@ import ai.djl.training.listener.EpochTrainingListener;
 import ai.djl.training.listener.EvaluatorTrainingListener;
 import ai.djl.training.listener.TrainingListener;
 import ai.djl.training.loss.Loss;
+import ai.djl.training.optimizer.Optimizer;
 import ai.djl.translate.TranslateException;
 
 import org.slf4j.Logger;
@@ -77,6 +78,7 @@ public class Trainer implements AutoCloseable {
     private ParameterStore parameterStore;
     private List<Evaluator> evaluators;
     private Loss loss;
+    private Optimizer optimizer;
     private ExecutorService executorService;
 
     private boolean gradientsChecked;
@@ -99,8 +101,8 @@ public class Trainer implements AutoCloseable {
         evaluators.add(loss); // track loss as an evaluator by default
         executorService = trainingConfig.getExecutorService();
 
-        ParameterServer parameterServer =
-                manager.getEngine().newParameterServer(trainingConfig.getOptimizer());
+        optimizer = trainingConfig.getOptimizer();
+        ParameterServer parameterServer = manager.getEngine().newParameterServer(optimizer);
 
         parameterStore = new ParameterStore(manager, false);
         parameterStore.setParameterServer(parameterServer, devices);
@@ -249,6 +251,15 @@ public class Trainer implements AutoCloseable {
         return loss;
     }
 
+    /**
+     * Returns the {@link Optimizer} that updates the parameters of the model.
+     *
+     * @return the {@link Optimizer}
+     */
+    public Optimizer getOptimizer() {
+        return optimizer;
+    }
+
     /**
      * Returns the model used to create this trainer.
      *
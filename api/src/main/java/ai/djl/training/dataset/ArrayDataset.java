@@ -175,7 +175,9 @@ public class ArrayDataset extends RandomAccessDataset {
             NDManager manager, Sampler sampler, ExecutorService executorService)
             throws IOException, TranslateException {
         prepare();
-        if (dataBatchifier == Batchifier.STACK && labelBatchifier == Batchifier.STACK) {
+        if (workerPool == null
+                && dataBatchifier == Batchifier.STACK
+                && labelBatchifier == Batchifier.STACK) {
             return new BulkDataIterable(
                     this,
                     manager,
@@ -188,17 +190,7 @@ public class ArrayDataset extends RandomAccessDataset {
                     prefetchNumber,
                     device);
         }
-        return new DataIterable(
-                this,
-                manager,
-                sampler,
-                dataBatchifier,
-                labelBatchifier,
-                pipeline,
-                targetPipeline,
-                executorService,
-                prefetchNumber,
-                device);
+        return super.getData(manager, sampler, executorService);
     }
 
     /** {@inheritDoc} */
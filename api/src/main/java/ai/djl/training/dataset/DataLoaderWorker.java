@@ -0,0 +1,199 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training.dataset;
+
+import ai.djl.engine.Engine;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.translate.TranslateException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Supplier;
+
+/**
+ * The main class of the data loading worker processes started by {@link ProcessWorkerPool}.
+ *
+ * <p>A worker creates the dataset with the dataset factory, then reads the batch requests from its
+ * standard input. For each request, it seeds the engine with the seed of the batch, gets the
+ * records, applies the pipelines and batchifies them like {@link DataIterable}, and writes the
+ * arrays into the requested slot of the shared memory file. The slot is reported back on the
+ * original standard output, the output of the dataset is redirected to the standard error.
+ */
+public final class DataLoaderWorker {
+
+    private DataLoaderWorker() {}
+
+    /**
+     * Runs a data loading worker.
+     *
+     * @param args the dataset factory class, the shared memory file, the number of slots and the
+     *     slot size
+     * @throws ReflectiveOperationException if failed to create the dataset factory
+     * @throws IOException if failed to read the requests
+     * @throws TranslateException if failed to prepare the dataset
+     */
+    public static void main(String[] args)
+            throws ReflectiveOperationException, IOException, TranslateException {
+        DataOutputStream out =
+                new DataOutputStream(
+                        new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+        System.setOut(System.err);
+
+        String factoryName = args[0];
+        Path file = Paths.get(args[1]);
+        int slots = Integer.parseInt(args[2]);
+        int slotSize = Integer.parseInt(args[3]);
+
+        Engine engine = Engine.getInstance();
+        Supplier<?> factory =
+                (Supplier<?>) Class.forName(factoryName).getConstructor().newInstance();
+        RandomAccessDataset dataset = (RandomAccessDataset) factory.get();
+        dataset.prepare();
+
+        MappedByteBuffer[] buffers = new MappedByteBuffer[slots];
+        try (FileChannel fc =
+                FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            for (int i = 0; i < slots; ++i) {
+                buffers[i] = fc.map(FileChannel.MapMode.READ_WRITE, (long) i * slotSize, slotSize);
+            }
+        }
+
+        DataInputStream in = new DataInputStream(new BufferedInputStream(System.in));
+        try (NDManager manager = NDManager.newBaseManager()) {
+            while (true) {
+                int slot;
+                try {
+                    slot = in.readInt();
+                } catch (EOFException e) {
+                    // the trainer is gone
+                    break;
+                }
+                if (slot < 0) {
+                    break;
+                }
+                int seed = in.readInt();
+                long[] indices = new long[in.readInt()];
+                for (int i = 0; i < indices.length; ++i) {
+                    indices[i] = in.readLong();
+                }
+                String error = null;
+                try (NDManager subManager = manager.newSubManager()) {
+                    // the batch is loaded the same way by any worker, even after a restart
+                    engine.setRandomSeed(seed);
+                    writeBatch(dataset, subManager, indices, buffers[slot].duplicate());
+                } catch (BufferOverflowException e) {
+                    error = "The batch is larger than the slot size";
+                } catch (Exception e) {
+                    error = e.toString();
+                }
+                out.writeInt(slot);
+                out.writeBoolean(error == null);
+                if (error != null) {
+                    out.writeUTF(error);
+                }
+                out.flush();
+            }
+        }
+    }
+
+    private static void writeBatch(
+            RandomAccessDataset dataset, NDManager manager, long[] indices, ByteBuffer bb)
+            throws IOException {
+        NDList[] data = new NDList[indices.length];
+        NDList[] labels = new NDList[indices.length];
+        for (int i = 0; i < indices.length; ++i) {
+            Record record = dataset.get(manager, indices[i]);
+            data[i] = record.getData();
+            if (dataset.pipeline != null) {
+                data[i] = dataset.pipeline.transform(data[i]);
+            }
+            labels[i] = record.getLabels();
+        }
+        NDList batchData = dataset.dataBatchifier.batchify(data);
+        NDList batchLabels = dataset.labelBatchifier.batchify(labels);
+        if (dataset.targetPipeline != null) {
+            batchLabels = dataset.targetPipeline.transform(batchLabels);
+        }
+
+        writeList(batchData, bb);
+        writeList(batchLabels, bb);
+    }
+
+    private static void writeList(NDList list, ByteBuffer bb) {
+        bb.putInt(list.size());
+        for (NDArray array : list) {
+            ByteBuffer data = array.toByteBuffer();
+            bb.putInt(array.getDataType().ordinal());
+            bb.put(array.getShape().getEncoded());
+            bb.put(data.order() == ByteOrder.BIG_ENDIAN ? (byte) '>' : (byte) '<');
+            bb.putInt(data.remaining());
+            bb.position(align(bb.position()));
+            bb.put(data);
+        }
+    }
+
+    /**
+     * Reads the data and the labels of a batch from a slot.
+     *
+     * @param manager the manager of the arrays
+     * @param bb the slot, the arrays share its memory
+     * @return the data and the labels
+     */
+    static NDList[] readBatch(NDManager manager, ByteBuffer bb) {
+        NDList data = readList(manager, bb);
+        NDList labels = readList(manager, bb);
+        return new NDList[] {data, labels};
+    }
+
+    private static NDList readList(NDManager manager, ByteBuffer bb) {
+        int count = bb.getInt();
+        NDList list = new NDList(count);
+        for (int i = 0; i < count; ++i) {
+            DataType dataType = DataType.values()[bb.getInt()];
+            Shape shape = Shape.decode(bb);
+            ByteOrder order = bb.get() == '>' ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+            int length = bb.getInt();
+            bb.position(align(bb.position()));
+            ByteBuffer slice = bb.slice();
+            slice.limit(length);
+            slice.order(order);
+            bb.position(bb.position() + length);
+            list.add(manager.create(slice, shape, dataType));
+        }
+        return list;
+    }
+
+    private static int align(int position) {
+        return (position + ProcessWorkerPool.ALIGNMENT - 1)
+                / ProcessWorkerPool.ALIGNMENT
+                * ProcessWorkerPool.ALIGNMENT;
+    }
+}
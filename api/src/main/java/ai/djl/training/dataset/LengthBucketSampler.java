@@ -0,0 +1,250 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training.dataset;
+
+import ai.djl.util.RandomUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.LongToIntFunction;
+
+/**
+ * {@code LengthBucketSampler} is a {@link Sampler} that groups items of similar length into batches
+ * under a token budget, to be used with {@link ai.djl.translate.PaddingStackBatchifier}.
+ *
+ * <p>Each epoch, the items are shuffled and split into windows of a large number of items. The
+ * items of each window are sorted by length and cut into batches, so that the batch size times the
+ * longest length of the batch, the number of tokens after padding, stays under the token budget.
+ * Batches of short items are larger than batches of long items, which keeps the padding small while
+ * the compute of every batch stays about the same. The batches are shuffled again before they are
+ * returned.
+ *
+ * <p>The lengths of the items are computed with the length function only once for a dataset, and
+ * reused in the next epochs.
+ */
+public class LengthBucketSampler implements Sampler {
+
+    private LongToIntFunction lengthFunction;
+    private int maxTokens;
+    private int maxBatchSize;
+    private int windowSize;
+    private int padToMultipleOf;
+    private boolean shuffle;
+
+    private RandomAccessDataset cachedDataset;
+    private int[] lengths;
+
+    LengthBucketSampler(Builder builder) {
+        lengthFunction = builder.lengthFunction;
+        maxTokens = builder.maxTokens;
+        maxBatchSize = builder.maxBatchSize;
+        windowSize = builder.windowSize;
+        padToMultipleOf = builder.padToMultipleOf;
+        shuffle = builder.shuffle;
+    }
+
+    /**
+     * Creates a builder to build a {@code LengthBucketSampler}.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Iterator<List<Long>> sample(RandomAccessDataset dataset) {
+        int[] itemLengths = getLengths(dataset);
+        int size = itemLengths.length;
+        int[] indices = new int[size];
+        for (int i = 0; i < size; ++i) {
+            indices[i] = i;
+        }
+        if (shuffle) {
+            for (int i = size - 1; i > 0; --i) {
+                int j = RandomUtils.nextInt(i + 1);
+                int tmp = indices[i];
+                indices[i] = indices[j];
+                indices[j] = tmp;
+            }
+        }
+
+        List<List<Long>> batches = new ArrayList<>();
+        for (int start = 0; start < size; start += windowSize) {
+            int end = Math.min(size, start + windowSize);
+            // sort by length with the index in the low bits, a primitive sort of the window
+            long[] keys = new long[end - start];
+            for (int i = start; i < end; ++i) {
+                keys[i - start] = (long) itemLengths[indices[i]] << 32 | indices[i];
+            }
+            Arrays.sort(keys);
+            addBatches(keys, batches);
+        }
+        if (shuffle) {
+            Collections.shuffle(batches, RandomUtils.RANDOM);
+        }
+        return batches.iterator();
+    }
+
+    /**
+     * Returns -1 because the batch size depends on the lengths of the items.
+     *
+     * @return -1
+     */
+    @Override
+    public int getBatchSize() {
+        return -1;
+    }
+
+    private void addBatches(long[] keys, List<List<Long>> batches) {
+        List<Long> batch = new ArrayList<>();
+        for (long key : keys) {
+            int length = padLength((int) (key >>> 32));
+            // the window is sorted, the new item is the longest of the batch
+            long tokens = (long) length * (batch.size() + 1);
+            if (!batch.isEmpty() && (tokens > maxTokens || batch.size() == maxBatchSize)) {
+                batches.add(batch);
+                batch = new ArrayList<>();
+            }
+            batch.add(key & 0xFFFFFFFFL);
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+    }
+
+    private int padLength(int length) {
+        return (length + padToMultipleOf - 1) / padToMultipleOf * padToMultipleOf;
+    }
+
+    private synchronized int[] getLengths(RandomAccessDataset dataset) {
+        int size = Math.toIntExact(dataset.size());
+        if (dataset != cachedDataset || lengths.length != size) {
+            int[] values = new int[size];
+            for (int i = 0; i < size; ++i) {
+                values[i] = lengthFunction.applyAsInt(i);
+                if (values[i] < 0) {
+                    throw new IllegalArgumentException(
+                            "Invalid length " + values[i] + " of item " + i);
+                }
+            }
+            lengths = values;
+            cachedDataset = dataset;
+        }
+        return lengths;
+    }
+
+    /** A builder to construct a {@link LengthBucketSampler}. */
+    public static final class Builder {
+
+        LongToIntFunction lengthFunction;
+        int maxTokens;
+        int maxBatchSize = Integer.MAX_VALUE;
+        int windowSize = 10000;
+        int padToMultipleOf = 1;
+        boolean shuffle = true;
+
+        Builder() {}
+
+        /**
+         * Sets the function that returns the length of the item at an index of the dataset.
+         *
+         * @param lengthFunction the function that returns the length of the item at an index
+         * @return this builder
+         */
+        public Builder setLengthFunction(LongToIntFunction lengthFunction) {
+            this.lengthFunction = lengthFunction;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of tokens of a batch after padding.
+         *
+         * <p>An item longer than the budget is returned as a batch of one item.
+         *
+         * @param maxTokens the maximum batch size times the longest length of the batch
+         * @return this builder
+         */
+        public Builder setMaxTokens(int maxTokens) {
+            this.maxTokens = maxTokens;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of items of a batch, defaults to no limit.
+         *
+         * @param maxBatchSize the maximum number of items of a batch
+         * @return this builder
+         */
+        public Builder optMaxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * Sets the number of items sorted together, defaults to 10000.
+         *
+         * <p>A larger window reduces the padding, a smaller window keeps more randomness in the
+         * batches.
+         *
+         * @param windowSize the number of items sorted together
+         * @return this builder
+         */
+        public Builder optWindowSize(int windowSize) {
+            this.windowSize = windowSize;
+            return this;
+        }
+
+        /**
+         * Sets the multiple the batches are padded to, to count the tokens the same way as the
+         * {@link ai.djl.translate.PaddingStackBatchifier}, defaults to 1.
+         *
+         * @param padToMultipleOf the multiple the batches are padded to
+         * @return this builder
+         */
+        public Builder optPadToMultipleOf(int padToMultipleOf) {
+            this.padToMultipleOf = padToMultipleOf;
+            return this;
+        }
+
+        /**
+         * Sets whether to shuffle the items and the batches, defaults to true.
+         *
+         * @param shuffle whether to shuffle the items and the batches
+         * @return this builder
+         */
+        public Builder optShuffle(boolean shuffle) {
+            this.shuffle = shuffle;
+            return this;
+        }
+
+        /**
+         * Builds a {@link LengthBucketSampler}.
+         *
+         * @return the {@link LengthBucketSampler}
+         */
+        public LengthBucketSampler build() {
+            if (lengthFunction == null) {
+                throw new IllegalArgumentException("The length function is required.");
+            }
+            if (maxTokens <= 0 || maxBatchSize <= 0 || windowSize <= 0 || padToMultipleOf <= 0) {
+                throw new IllegalArgumentException("The sampler limits must be positive.");
+            }
+            return new LengthBucketSampler(this);
+        }
+    }
+}
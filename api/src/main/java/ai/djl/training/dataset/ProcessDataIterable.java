@@ -0,0 +1,184 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training.dataset;
+
+import ai.djl.Device;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.translate.Batchifier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * ProcessDataIterable is a data loader that loads the batches of a {@link RandomAccessDataset} in
+ * the worker processes of a {@link ProcessWorkerPool}.
+ *
+ * <p>The indices are sampled in the trainer, and the batches are requested from the workers in turn
+ * and returned in order. Each {@code ProcessDataIterable} is a new epoch of the pool, the seed of a
+ * batch is derived from the epoch and the position of the batch.
+ *
+ * <p>The arrays of a {@link Batch} share the memory of a slot of the pool, each batch must be
+ * closed to make its slot available to the workers again. The iteration waits for a free slot if
+ * the caller holds more than one batch.
+ */
+public class ProcessDataIterable implements Iterable<Batch>, Iterator<Batch> {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessDataIterable.class);
+
+    private RandomAccessDataset dataset;
+    private NDManager manager;
+    private ProcessWorkerPool pool;
+    private Batchifier dataBatchifier;
+    private Batchifier labelBatchifier;
+    private Device device;
+    private int prefetchNumber;
+
+    private Iterator<List<Long>> sample;
+    private Queue<Request> queue;
+    private int epoch;
+    private int requested;
+    private long progress;
+
+    /**
+     * Creates a new instance of {@code ProcessDataIterable} with the given parameters.
+     *
+     * @param dataset the dataset to iterate on
+     * @param manager the manager to create the arrays
+     * @param sampler a sampler to sample data with
+     * @param pool the worker processes to load the batches
+     * @param dataBatchifier the batchifier the workers used for data
+     * @param labelBatchifier the batchifier the workers used for labels
+     * @param prefetchNumber the number of batches to request ahead
+     * @param device the {@link Device}
+     */
+    public ProcessDataIterable(
+            RandomAccessDataset dataset,
+            NDManager manager,
+            Sampler sampler,
+            ProcessWorkerPool pool,
+            Batchifier dataBatchifier,
+            Batchifier labelBatchifier,
+            int prefetchNumber,
+            Device device) {
+        this.dataset = dataset;
+        this.manager = manager;
+        this.pool = pool;
+        this.dataBatchifier = dataBatchifier;
+        this.labelBatchifier = labelBatchifier;
+        // keep a slot for the batch being returned and one for the batch the caller still holds
+        int capacity = pool.getNumWorkers() * pool.getSlots() - 2;
+        if (prefetchNumber > capacity) {
+            logger.warn(
+                    "The worker pool can only prefetch {} batches, set its prefetch number to {}",
+                    Math.max(capacity, 0),
+                    prefetchNumber);
+        }
+        this.prefetchNumber = Math.max(Math.min(prefetchNumber, capacity), 0);
+        this.device = device;
+        sample = sampler.sample(dataset);
+        queue = new ArrayDeque<>();
+        epoch = pool.nextEpoch();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Iterator<Batch> iterator() {
+        return this;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean hasNext() {
+        return !queue.isEmpty() || sample.hasNext();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Batch next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            if (queue.isEmpty()) {
+                request();
+            }
+            Request request = queue.poll();
+            // request ahead before waiting, a worker waits for a free slot here if needed
+            while (queue.size() < prefetchNumber && sample.hasNext()) {
+                request();
+            }
+            NDManager subManager = manager.newSubManager();
+            subManager.setName("dataIter fetch");
+            NDList[] batch;
+            try {
+                // the slot is released when the batch is closed
+                batch = request.future.get().read(subManager);
+            } catch (InterruptedException | ExecutionException | RuntimeException e) {
+                subManager.close();
+                throw e;
+            }
+            NDList batchData = batch[0];
+            NDList batchLabels = batch[1];
+            // pin to a specific device
+            if (device != null) {
+                batchData = batchData.toDevice(device, false);
+                batchLabels = batchLabels.toDevice(device, false);
+            }
+            progress += request.indices.size();
+            return new Batch(
+                    subManager,
+                    batchData,
+                    batchLabels,
+                    request.indices.size(),
+                    dataBatchifier,
+                    labelBatchifier,
+                    progress,
+                    dataset.size(),
+                    request.indices);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Data loading interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Data loading failed", e.getCause());
+        }
+    }
+
+    private void request() throws InterruptedException {
+        List<Long> indices = sample.next();
+        long[] indicesArr = indices.stream().mapToLong(Long::longValue).toArray();
+        int position = requested++;
+        int worker = position % pool.getNumWorkers();
+        int batchSeed = pool.getSeed(epoch, position);
+        queue.add(new Request(indices, pool.submit(worker, indicesArr, batchSeed)));
+    }
+
+    private static final class Request {
+
+        List<Long> indices;
+        CompletableFuture<ProcessWorkerPool.Slot> future;
+
+        Request(List<Long> indices, CompletableFuture<ProcessWorkerPool.Slot> future) {
+            this.indices = indices;
+            this.future = future;
+        }
+    }
+}
@@ -0,0 +1,572 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training.dataset;
+
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * A {@code ProcessWorkerPool} loads the batches of a {@link RandomAccessDataset} in child JVM
+ * processes, so the heap, the garbage collection and the native threads of the data loading don't
+ * compete with the training.
+ *
+ * <p>The workers create their own copy of the dataset with a {@link Supplier} class that has a
+ * public no-argument constructor, and must be on the class path of the trainer. Each worker gets
+ * the records, applies the pipelines and batchifies them, then writes the arrays into a slot of a
+ * memory-mapped file, in {@code /dev/shm} if available. The trainer creates the arrays of the
+ * {@link Batch} directly on the mapped slot without copying them, and the slot is handed back to
+ * the worker when the batch is closed, so the batches must be closed. The batches are assigned to
+ * the workers in turn, so each worker needs a slot for its share of the batches in flight: the
+ * prefetched batches, the batch being returned and the batch the caller still holds. By default,
+ * the number of slots is derived from the prefetch number set with {@link
+ * Builder#optPrefetchNumber(int)}. Before loading a batch, the worker seeds the engine with a seed
+ * derived from the seed of the pool, the epoch and the position of the batch in the epoch, so the
+ * data loading is deterministic for a given seed, regardless of the number of workers and of the
+ * restarts. A worker that exits is restarted and its pending batches are requested again.
+ *
+ * <p>To use the pool, set it to the dataset with {@link
+ * RandomAccessDataset.BaseBuilder#optWorkerPool(ProcessWorkerPool)}.
+ */
+public class ProcessWorkerPool implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcessWorkerPool.class);
+
+    static final int ALIGNMENT = 64;
+
+    private String factory;
+    private int slots;
+    private int slotSize;
+    private int seed;
+    private int maxRestarts;
+    private List<String> jvmArgs;
+    private Path directory;
+    private Worker[] workers;
+    private int epochs;
+
+    ProcessWorkerPool(Builder builder) throws IOException {
+        factory = builder.factory.getName();
+        slots = builder.slots;
+        if (slots == -1) {
+            slots = getRequiredSlots(builder.numWorkers, builder.prefetchNumber);
+        }
+        slotSize = (builder.slotSize + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+        seed = builder.seed;
+        maxRestarts = builder.maxRestarts;
+        jvmArgs = builder.jvmArgs;
+        directory = Paths.get("/dev/shm");
+        if (!Files.isDirectory(directory) || !Files.isWritable(directory)) {
+            directory = Paths.get(System.getProperty("java.io.tmpdir"));
+        }
+        workers = new Worker[builder.numWorkers];
+        try {
+            for (int i = 0; i < workers.length; ++i) {
+                workers[i] = new Worker(i);
+            }
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates a builder to build a {@code ProcessWorkerPool}.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the number of worker processes.
+     *
+     * @return the number of worker processes
+     */
+    public int getNumWorkers() {
+        return workers.length;
+    }
+
+    /**
+     * Returns the number of batches each worker can hold at once.
+     *
+     * @return the number of batches each worker can hold at once
+     */
+    public int getSlots() {
+        return slots;
+    }
+
+    /**
+     * Returns the number of slots each worker needs to prefetch batches.
+     *
+     * @param numWorkers the number of worker processes
+     * @param prefetchNumber the number of batches to prefetch
+     * @return the number of slots each worker needs
+     */
+    static int getRequiredSlots(int numWorkers, int prefetchNumber) {
+        // the batch being returned and the batch the caller still holds are in flight too
+        return (prefetchNumber + 2 + numWorkers - 1) / numWorkers;
+    }
+
+    /**
+     * Starts a new epoch and returns its number, starting from 0.
+     *
+     * @return the number of the epoch
+     */
+    synchronized int nextEpoch() {
+        return epochs++;
+    }
+
+    /**
+     * Returns the random seed of a batch.
+     *
+     * @param epoch the number of the epoch
+     * @param position the position of the batch in the epoch
+     * @return the random seed of the batch
+     */
+    int getSeed(int epoch, int position) {
+        return 31 * (31 * seed + epoch) + position;
+    }
+
+    /**
+     * Requests a batch from a worker, waits if all the slots of the worker are in use.
+     *
+     * @param worker the id of the worker
+     * @param indices the indices of the records of the batch
+     * @param batchSeed the random seed to load the batch with
+     * @return the future of the slot with the batch
+     * @throws InterruptedException if interrupted while waiting for a slot
+     */
+    CompletableFuture<Slot> submit(int worker, long[] indices, int batchSeed)
+            throws InterruptedException {
+        return workers[worker].submit(indices, batchSeed);
+    }
+
+    /**
+     * Returns the current process of a worker.
+     *
+     * @param worker the id of the worker
+     * @return the current process of the worker
+     */
+    Process getProcess(int worker) {
+        return workers[worker].getProcess();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void close() {
+        for (Worker worker : workers) {
+            if (worker != null) {
+                worker.close();
+            }
+        }
+    }
+
+    /** A slot of a worker that holds a batch, closing the slot makes it available again. */
+    static final class Slot implements AutoCloseable {
+
+        private Worker worker;
+        private int index;
+        private AtomicBoolean closed = new AtomicBoolean();
+
+        Slot(Worker worker, int index) {
+            this.worker = worker;
+            this.index = index;
+        }
+
+        /**
+         * Reads the data and the labels of the batch, the arrays share the memory of the slot.
+         *
+         * <p>The slot is attached to the manager, and is made available again when the manager is
+         * closed.
+         *
+         * @param manager the manager of the arrays
+         * @return the data and the labels
+         */
+        NDList[] read(NDManager manager) {
+            manager.attachInternal(UUID.randomUUID().toString(), this);
+            return DataLoaderWorker.readBatch(manager, worker.buffers[index].duplicate());
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void close() {
+            if (closed.compareAndSet(false, true)) {
+                worker.release(index);
+            }
+        }
+    }
+
+    private static final class Request {
+
+        int slot;
+        long[] indices;
+        int seed;
+        CompletableFuture<Slot> future;
+
+        Request(int slot, long[] indices, int seed) {
+            this.slot = slot;
+            this.indices = indices;
+            this.seed = seed;
+            future = new CompletableFuture<>();
+        }
+    }
+
+    private final class Worker {
+
+        int id;
+        Path file;
+        MappedByteBuffer[] buffers;
+        private Deque<Integer> free;
+        private Map<Integer, Request> pending;
+        private Process process;
+        private DataOutputStream input;
+        private int restarts;
+        private boolean closed;
+        private IOException error;
+
+        Worker(int id) throws IOException {
+            this.id = id;
+            file = Files.createTempFile(directory, "djl-worker-" + id + '-', ".shm");
+            buffers = new MappedByteBuffer[slots];
+            try (FileChannel fc =
+                    FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                for (int i = 0; i < slots; ++i) {
+                    buffers[i] =
+                            fc.map(FileChannel.MapMode.READ_WRITE, (long) i * slotSize, slotSize);
+                }
+            }
+            free = new ArrayDeque<>();
+            for (int i = 0; i < slots; ++i) {
+                free.add(i);
+            }
+            pending = new LinkedHashMap<>();
+            start();
+        }
+
+        private synchronized void start() throws IOException {
+            List<String> cmd = new ArrayList<>();
+            cmd.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+            cmd.addAll(jvmArgs);
+            for (String key : System.getProperties().stringPropertyNames()) {
+                if (key.startsWith("ai.djl.")) {
+                    cmd.add("-D" + key + '=' + System.getProperty(key));
+                }
+            }
+            cmd.add("-cp");
+            cmd.add(System.getProperty("java.class.path"));
+            cmd.add(DataLoaderWorker.class.getName());
+            cmd.add(factory);
+            cmd.add(file.toString());
+            cmd.add(String.valueOf(slots));
+            cmd.add(String.valueOf(slotSize));
+            ProcessBuilder pb = new ProcessBuilder(cmd);
+            pb.redirectError(ProcessBuilder.Redirect.INHERIT);
+            Process p = pb.start();
+            process = p;
+            input = new DataOutputStream(new BufferedOutputStream(p.getOutputStream()));
+            Thread thread = new Thread(() -> readResponses(p), "data-loader-" + id);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        synchronized Process getProcess() {
+            return process;
+        }
+
+        synchronized CompletableFuture<Slot> submit(long[] indices, int batchSeed)
+                throws InterruptedException {
+            while (free.isEmpty() && !closed && error == null) {
+                wait();
+            }
+            if (closed) {
+                throw new IllegalStateException("The worker pool is closed.");
+            } else if (error != null) {
+                throw new IllegalStateException("The data loading worker " + id + " failed", error);
+            }
+            Request request = new Request(free.poll(), indices, batchSeed);
+            pending.put(request.slot, request);
+            try {
+                send(request);
+            } catch (IOException e) {
+                failed(process, e);
+            }
+            return request.future;
+        }
+
+        synchronized void release(int slot) {
+            free.add(slot);
+            notifyAll();
+        }
+
+        private void send(Request request) throws IOException {
+            input.writeInt(request.slot);
+            input.writeInt(request.seed);
+            input.writeInt(request.indices.length);
+            for (long index : request.indices) {
+                input.writeLong(index);
+            }
+            input.flush();
+        }
+
+        private void readResponses(Process p) {
+            try (DataInputStream dis =
+                    new DataInputStream(new BufferedInputStream(p.getInputStream()))) {
+                while (true) {
+                    int slot = dis.readInt();
+                    boolean success = dis.readBoolean();
+                    String message = success ? null : dis.readUTF();
+                    Request request;
+                    synchronized (this) {
+                        if (p != process) {
+                            // the responses of a restarted worker are stale
+                            return;
+                        }
+                        request = pending.remove(slot);
+                    }
+                    if (request == null) {
+                        continue;
+                    }
+                    if (success) {
+                        request.future.complete(new Slot(this, slot));
+                    } else {
+                        release(slot);
+                        request.future.completeExceptionally(
+                                new IllegalStateException(
+                                        "Data loading failed in worker " + id + ": " + message));
+                    }
+                }
+            } catch (IOException e) {
+                failed(p, e);
+            }
+        }
+
+        private synchronized void failed(Process p, IOException e) {
+            if (closed || p != process) {
+                return;
+            }
+            p.destroyForcibly();
+            if (restarts < maxRestarts) {
+                ++restarts;
+                logger.warn("Data loading worker {} failed, restarting", id, e);
+                try {
+                    start();
+                    for (Request request : pending.values()) {
+                        send(request);
+                    }
+                    return;
+                } catch (IOException ex) {
+                    e = ex;
+                }
+            }
+            error = e;
+            for (Request request : pending.values()) {
+                free.add(request.slot);
+                request.future.completeExceptionally(
+                        new IllegalStateException("The data loading worker " + id + " failed", e));
+            }
+            pending.clear();
+            notifyAll();
+        }
+
+        synchronized void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            notifyAll();
+            try {
+                input.writeInt(-1);
+                input.flush();
+                input.close();
+            } catch (IOException ignore) {
+                // the worker is gone already
+            }
+            try {
+                if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                logger.warn("Failed to delete the shared memory file: {}", file, e);
+            }
+        }
+    }
+
+    /** A builder to construct a {@link ProcessWorkerPool}. */
+    public static final class Builder {
+
+        Class<? extends Supplier<? extends RandomAccessDataset>> factory;
+        int numWorkers;
+        int slots = -1;
+        int prefetchNumber = 2;
+        int slotSize = 64 * 1024 * 1024;
+        int seed;
+        int maxRestarts = 3;
+        List<String> jvmArgs = Collections.emptyList();
+
+        Builder() {}
+
+        /**
+         * Sets the class that creates the dataset in the workers.
+         *
+         * <p>The class must have a public no-argument constructor, and create the same dataset as
+         * the one the pool is used with.
+         *
+         * @param factory the class that creates the dataset
+         * @return this builder
+         */
+        public Builder setDatasetFactory(
+                Class<? extends Supplier<? extends RandomAccessDataset>> factory) {
+            this.factory = factory;
+            return this;
+        }
+
+        /**
+         * Sets the number of worker processes.
+         *
+         * @param numWorkers the number of worker processes
+         * @return this builder
+         */
+        public Builder setNumWorkers(int numWorkers) {
+            this.numWorkers = numWorkers;
+            return this;
+        }
+
+        /**
+         * Sets the number of batches each worker can hold at once, defaults to the number of slots
+         * needed for the prefetch number.
+         *
+         * @param slots the number of batches each worker can hold
+         * @return this builder
+         * @see #optPrefetchNumber(int)
+         */
+        public Builder optSlots(int slots) {
+            this.slots = slots;
+            return this;
+        }
+
+        /**
+         * Sets the number of batches the datasets prefetch, to size the slots of the workers,
+         * defaults to 2.
+         *
+         * <p>This should match {@link RandomAccessDataset.BaseBuilder#optPrefetchNumber(int)}, a
+         * dataset prefetches at most as many batches as the slots can hold.
+         *
+         * @param prefetchNumber the number of batches the datasets prefetch
+         * @return this builder
+         */
+        public Builder optPrefetchNumber(int prefetchNumber) {
+            this.prefetchNumber = prefetchNumber;
+            return this;
+        }
+
+        /**
+         * Sets the maximum size in bytes of a batch, defaults to 64 MB.
+         *
+         * @param slotSize the maximum size in bytes of a batch
+         * @return this builder
+         */
+        public Builder optSlotSize(int slotSize) {
+            this.slotSize = slotSize;
+            return this;
+        }
+
+        /**
+         * Sets the random seed of the workers, each batch is loaded with a seed derived from this
+         * seed, the epoch and the position of the batch in the epoch.
+         *
+         * @param seed the random seed of the workers
+         * @return this builder
+         */
+        public Builder optSeed(int seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Sets the number of times a worker is restarted before the data loading fails, defaults to
+         * 3.
+         *
+         * @param maxRestarts the number of times a worker is restarted
+         * @return this builder
+         */
+        public Builder optMaxRestarts(int maxRestarts) {
+            this.maxRestarts = maxRestarts;
+            return this;
+        }
+
+        /**
+         * Sets the JVM arguments of the worker processes, for example the heap size.
+         *
+         * @param jvmArgs the JVM arguments of the worker processes
+         * @return this builder
+         */
+        public Builder optJvmArgs(String... jvmArgs) {
+            this.jvmArgs = Arrays.asList(jvmArgs);
+            return this;
+        }
+
+        /**
+         * Builds the {@link ProcessWorkerPool} and starts the workers.
+         *
+         * @return the {@link ProcessWorkerPool}
+         * @throws IOException if failed to start the workers
+         */
+        public ProcessWorkerPool build() throws IOException {
+            if (factory == null) {
+                throw new IllegalArgumentException("The dataset factory is required.");
+            }
+            if (numWorkers <= 0
+                    || (slots <= 0 && slots != -1)
+                    || prefetchNumber < 0
+                    || slotSize <= 0
+                    || maxRestarts < 0) {
+                throw new IllegalArgumentException("Invalid worker pool configuration.");
+            }
+            return new ProcessWorkerPool(this);
+        }
+    }
+}
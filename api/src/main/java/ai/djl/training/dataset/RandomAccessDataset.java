@@ -55,6 +55,7 @@ public abstract class RandomAccessDataset implements Dataset {
     protected int prefetchNumber;
     protected long limit;
     protected Device device;
+    protected ProcessWorkerPool workerPool;
 
     RandomAccessDataset() {}
 
@@ -73,6 +74,7 @@ public abstract class RandomAccessDataset implements Dataset {
         this.prefetchNumber = builder.prefetchNumber;
         this.limit = builder.limit;
         this.device = builder.device;
+        this.workerPool = builder.workerPool;
     }
 
     /**
@@ -127,6 +129,17 @@ public abstract class RandomAccessDataset implements Dataset {
             NDManager manager, Sampler sampler, ExecutorService executorService)
             throws IOException, TranslateException {
         prepare();
+        if (workerPool != null) {
+            return new ProcessDataIterable(
+                    this,
+                    manager,
+                    sampler,
+                    workerPool,
+                    dataBatchifier,
+                    labelBatchifier,
+                    prefetchNumber,
+                    device);
+        }
         return new DataIterable(
                 this,
                 manager,
@@ -344,6 +357,7 @@ public abstract class RandomAccessDataset implements Dataset {
         protected int prefetchNumber = 2;
         protected long limit = Long.MAX_VALUE;
         protected Device device;
+        protected ProcessWorkerPool workerPool;
 
         /**
          * Gets the {@link Sampler} for the dataset.
@@ -492,6 +506,21 @@ public abstract class RandomAccessDataset implements Dataset {
             return self();
         }
 
+        /**
+         * Sets the {@link ProcessWorkerPool} to load the batches in worker processes instead of
+         * threads.
+         *
+         * <p>The executor passed to {@link RandomAccessDataset#getData(NDManager, Sampler,
+         * ExecutorService)} is not used when the dataset has a worker pool.
+         *
+         * @param workerPool the worker processes to load the batches
+         * @return this {@code BaseBuilder}
+         */
+        public T optWorkerPool(ProcessWorkerPool workerPool) {
+            this.workerPool = workerPool;
+            return self();
+        }
+
         /**
          * Sets this dataset's limit.
          *
@@ -0,0 +1,464 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training.dataset;
+
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.translate.Batchifier;
+import ai.djl.translate.Pipeline;
+import ai.djl.translate.Transform;
+import ai.djl.util.Progress;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * {@code ShuffleBufferDataset} shuffles a streaming dataset that can't be accessed randomly, for
+ * example a dataset stored in many files on a remote storage.
+ *
+ * <p>The dataset is a list of {@link Shard}s that are read sequentially. Each epoch, the order of
+ * the shards is shuffled, records are read from several open shards at random, and each record goes
+ * through a shuffle buffer: the buffer is filled with the first records, then each returned record
+ * is drawn at random from the buffer and replaced with the next record of the shards. Only the
+ * buffer is held in memory, a larger buffer gives a more uniform shuffle.
+ *
+ * <p>The shuffle is deterministic: the random generator of an epoch is seeded with the seed and the
+ * epoch number, so the same epoch returns the same batches. The epoch is incremented by each call
+ * to {@link #getData(NDManager)}, and can be set with {@link #setEpoch(int)} to resume a training.
+ *
+ * <p>Like {@link DataIterable}, the pipeline is applied to the data of each record, the records are
+ * batchified, and the target pipeline is applied to the batched labels.
+ *
+ * <p>The iterator of the batches is {@link AutoCloseable}: an iteration stopped before the end
+ * should close it to release the buffered records and the open shards, otherwise they are only
+ * released with the manager given to {@link #getData(NDManager)}.
+ */
+public class ShuffleBufferDataset implements Dataset {
+
+    private List<Shard> shards;
+    private int batchSize;
+    private boolean dropLast;
+    private int bufferSize;
+    private int cycleLength;
+    private boolean shuffleShards;
+    private long seed;
+    private Batchifier dataBatchifier;
+    private Batchifier labelBatchifier;
+    private Pipeline pipeline;
+    private Pipeline targetPipeline;
+
+    private int epoch;
+
+    ShuffleBufferDataset(Builder builder) {
+        shards = builder.shards;
+        batchSize = builder.batchSize;
+        dropLast = builder.dropLast;
+        bufferSize = builder.bufferSize;
+        cycleLength = builder.cycleLength;
+        shuffleShards = builder.shuffleShards;
+        seed = builder.seed;
+        dataBatchifier = builder.dataBatchifier;
+        labelBatchifier = builder.labelBatchifier;
+        pipeline = builder.pipeline;
+        targetPipeline = builder.targetPipeline;
+    }
+
+    /**
+     * Creates a builder to build a {@code ShuffleBufferDataset}.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Sets the epoch of the next {@link #getData(NDManager)} call.
+     *
+     * @param epoch the epoch of the next iteration
+     */
+    public synchronized void setEpoch(int epoch) {
+        this.epoch = epoch;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Iterable<Batch> getData(NDManager manager) {
+        long epochSeed;
+        synchronized (this) {
+            epochSeed = seed * 31 + epoch++;
+        }
+        // each iterator of the iterable replays the same epoch
+        return () -> new BatchIterator(manager, new Random(epochSeed));
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void prepare(Progress progress) {}
+
+    /** A shard of a streaming dataset, for example a file. */
+    @FunctionalInterface
+    public interface Shard {
+
+        /**
+         * Opens the shard and returns its records.
+         *
+         * <p>The iterator is closed when the records are consumed if it is {@link AutoCloseable}.
+         *
+         * @param manager the manager to create the arrays of the records
+         * @return an iterator over the records of the shard
+         * @throws IOException if failed to open the shard
+         */
+        Iterator<Record> open(NDManager manager) throws IOException;
+    }
+
+    private final class BatchIterator implements Iterator<Batch>, AutoCloseable {
+
+        private NDManager manager;
+        private Random random;
+        private List<Shard> order;
+        private int nextShard;
+        private List<Iterator<Record>> open;
+        private List<Record> buffer;
+        private long progress;
+
+        BatchIterator(NDManager manager, Random random) {
+            this.manager = manager.newSubManager();
+            this.manager.setName("shuffleBuffer");
+            this.random = random;
+            order = new ArrayList<>(shards);
+            if (shuffleShards) {
+                Collections.shuffle(order, random);
+            }
+            open = new ArrayList<>(cycleLength);
+            // the buffer holds at least a batch, so that each batch but the last one is full
+            int capacity = Math.max(bufferSize, batchSize);
+            buffer = new ArrayList<>(capacity);
+            while (buffer.size() < capacity) {
+                Record record = readRecord();
+                if (record == null) {
+                    break;
+                }
+                buffer.add(record);
+            }
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean hasNext() {
+            boolean hasNext = dropLast ? buffer.size() >= batchSize : !buffer.isEmpty();
+            if (!hasNext) {
+                close();
+            }
+            return hasNext;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void close() {
+            if (!manager.isOpen()) {
+                return;
+            }
+            for (Record record : buffer) {
+                record.getData().close();
+                record.getLabels().close();
+            }
+            buffer.clear();
+            for (Iterator<Record> it : open) {
+                closeShard(it);
+            }
+            open.clear();
+            nextShard = order.size();
+            manager.close();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Batch next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            NDManager subManager = manager.newSubManager();
+            subManager.setName("dataIter fetch");
+            int size = Math.min(batchSize, buffer.size());
+            NDList[] data = new NDList[size];
+            NDList[] labels = new NDList[size];
+            for (int i = 0; i < size; ++i) {
+                Record record = take();
+                data[i] = record.getData();
+                labels[i] = record.getLabels();
+                data[i].attach(subManager);
+                labels[i].attach(subManager);
+                if (pipeline != null) {
+                    data[i] = pipeline.transform(data[i]);
+                }
+            }
+            NDList batchData = dataBatchifier.batchify(data);
+            NDList batchLabels = labelBatchifier.batchify(labels);
+            Arrays.stream(data).forEach(NDList::close);
+            Arrays.stream(labels).forEach(NDList::close);
+            if (targetPipeline != null) {
+                batchLabels = targetPipeline.transform(batchLabels);
+            }
+            progress += size;
+            return new Batch(
+                    subManager,
+                    batchData,
+                    batchLabels,
+                    size,
+                    dataBatchifier,
+                    labelBatchifier,
+                    progress,
+                    -1);
+        }
+
+        private Record take() {
+            // swap a random record with the last one, and refill the last position
+            int index = random.nextInt(buffer.size());
+            int last = buffer.size() - 1;
+            Record record = buffer.get(index);
+            buffer.set(index, buffer.get(last));
+            Record next = readRecord();
+            if (next == null) {
+                buffer.remove(last);
+            } else {
+                buffer.set(last, next);
+            }
+            return record;
+        }
+
+        private Record readRecord() {
+            while (true) {
+                while (open.size() < cycleLength && nextShard < order.size()) {
+                    try {
+                        open.add(order.get(nextShard++).open(manager));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Failed to open the shard", e);
+                    }
+                }
+                if (open.isEmpty()) {
+                    return null;
+                }
+                int index = random.nextInt(open.size());
+                Iterator<Record> it = open.get(index);
+                if (it.hasNext()) {
+                    return it.next();
+                }
+                open.remove(index);
+                closeShard(it);
+            }
+        }
+
+        private void closeShard(Iterator<Record> it) {
+            if (it instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) it).close();
+                } catch (Exception e) {
+                    throw new IllegalStateException("Failed to close the shard", e);
+                }
+            }
+        }
+    }
+
+    /** A builder to construct a {@link ShuffleBufferDataset}. */
+    public static final class Builder {
+
+        List<Shard> shards = new ArrayList<>();
+        int batchSize;
+        boolean dropLast;
+        int bufferSize = 10000;
+        int cycleLength = 4;
+        boolean shuffleShards = true;
+        long seed;
+        Batchifier dataBatchifier = Batchifier.STACK;
+        Batchifier labelBatchifier = Batchifier.STACK;
+        Pipeline pipeline;
+        Pipeline targetPipeline;
+
+        Builder() {}
+
+        /**
+         * Adds the shards of the dataset.
+         *
+         * @param shards the shards of the dataset
+         * @return this builder
+         */
+        public Builder addShards(List<? extends Shard> shards) {
+            this.shards.addAll(shards);
+            return this;
+        }
+
+        /**
+         * Adds a shard of the dataset.
+         *
+         * @param shard the shard
+         * @return this builder
+         */
+        public Builder addShard(Shard shard) {
+            shards.add(shard);
+            return this;
+        }
+
+        /**
+         * Sets the batch size.
+         *
+         * @param batchSize the batch size
+         * @return this builder
+         */
+        public Builder setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Sets whether to drop the last batch if it is smaller than the batch size, defaults to
+         * false.
+         *
+         * @param dropLast whether to drop the last incomplete batch
+         * @return this builder
+         */
+        public Builder optDropLast(boolean dropLast) {
+            this.dropLast = dropLast;
+            return this;
+        }
+
+        /**
+         * Sets the number of records of the shuffle buffer, defaults to 10000.
+         *
+         * <p>The buffer holds at least the records of a batch, a smaller size is raised to the
+         * batch size.
+         *
+         * @param bufferSize the number of records of the shuffle buffer
+         * @return this builder
+         */
+        public Builder optBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * Sets the number of shards read at the same time, defaults to 4.
+         *
+         * @param cycleLength the number of shards read at the same time
+         * @return this builder
+         */
+        public Builder optCycleLength(int cycleLength) {
+            this.cycleLength = cycleLength;
+            return this;
+        }
+
+        /**
+         * Sets whether to shuffle the order of the shards, defaults to true.
+         *
+         * @param shuffleShards whether to shuffle the order of the shards
+         * @return this builder
+         */
+        public Builder optShuffleShards(boolean shuffleShards) {
+            this.shuffleShards = shuffleShards;
+            return this;
+        }
+
+        /**
+         * Sets the seed of the shuffle, defaults to 0.
+         *
+         * @param seed the seed of the shuffle
+         * @return this builder
+         */
+        public Builder optSeed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Sets the {@link Batchifier} for the data.
+         *
+         * @param dataBatchifier the {@link Batchifier} to be set
+         * @return this builder
+         */
+        public Builder optDataBatchifier(Batchifier dataBatchifier) {
+            this.dataBatchifier = dataBatchifier;
+            return this;
+        }
+
+        /**
+         * Sets the {@link Batchifier} for the labels.
+         *
+         * @param labelBatchifier the {@link Batchifier} to be set
+         * @return this builder
+         */
+        public Builder optLabelBatchifier(Batchifier labelBatchifier) {
+            this.labelBatchifier = labelBatchifier;
+            return this;
+        }
+
+        /**
+         * Sets the {@link Pipeline} of {@link Transform} to be applied on the data.
+         *
+         * @param pipeline the {@link Pipeline} of {@link Transform} to be applied on the data
+         * @return this builder
+         */
+        public Builder optPipeline(Pipeline pipeline) {
+            this.pipeline = pipeline;
+            return this;
+        }
+
+        /**
+         * Adds the {@link Transform} to the {@link Pipeline} to be applied on the data.
+         *
+         * @param transform the {@link Transform} to be added
+         * @return this builder
+         */
+        public Builder addTransform(Transform transform) {
+            if (pipeline == null) {
+                pipeline = new Pipeline();
+            }
+            pipeline.add(transform);
+            return this;
+        }
+
+        /**
+         * Sets the {@link Pipeline} of {@link Transform} to be applied on the labels.
+         *
+         * @param targetPipeline the {@link Pipeline} of {@link Transform} to be applied on the
+         *     labels
+         * @return this builder
+         */
+        public Builder optTargetPipeline(Pipeline targetPipeline) {
+            this.targetPipeline = targetPipeline;
+            return this;
+        }
+
+        /**
+         * Builds the {@link ShuffleBufferDataset}.
+         *
+         * @return the {@link ShuffleBufferDataset}
+         */
+        public ShuffleBufferDataset build() {
+            if (shards.isEmpty()) {
+                throw new IllegalArgumentException("Missing shards.");
+            }
+            if (batchSize <= 0 || bufferSize <= 0 || cycleLength <= 0) {
+                throw new IllegalArgumentException(
+                        "The batch size, buffer size and cycle length must be positive.");
+            }
+            return new ShuffleBufferDataset(this);
+        }
+    }
+}
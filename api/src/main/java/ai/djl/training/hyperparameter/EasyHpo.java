@@ -31,6 +31,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 
 /** Helper for easy training with hyperparameters. */
 public abstract class EasyHpo {
@@ -40,6 +47,12 @@ public abstract class EasyHpo {
     /**
      * Fits the model given the implemented abstract methods.
      *
+     * <p>Up to {@link #numParallelTrials()} hyperparameter tests run concurrently, each with its
+     * own {@link Model} and {@link Trainer}. The next hyperparameters are requested from the {@link
+     * HpOptimizer} when a worker becomes available, so the search can use the results of the
+     * finished tests. If {@link #setupEarlyStopping()} returns a policy, the tests are stopped
+     * early at the end of an epoch when their validation loss is not promising.
+     *
      * @return the best model and training results
      * @throws IOException for various exceptions depending on the dataset
      * @throws TranslateException if there is an error while processing input
@@ -51,22 +64,68 @@ public abstract class EasyHpo {
         RandomAccessDataset validateSet = getDataset(Dataset.Usage.TEST);
 
         HpSet hyperParams = setupHyperParams();
-        HpOptimizer hpOptimizer = new HpORandom(hyperParams);
+        HpOptimizer hpOptimizer = setupOptimizer(hyperParams);
+        SuccessiveHalving earlyStopping = setupEarlyStopping();
 
         final int hyperparameterTests = numHyperParameterTests();
+        int parallelTrials = Math.min(numParallelTrials(), hyperparameterTests);
 
-        for (int i = 0; i < hyperparameterTests; i++) {
-            HpSet hpVals = hpOptimizer.nextConfig();
-            Pair<Model, TrainingResult> trained = train(hpVals, trainingSet, validateSet);
-            trained.getKey().close();
-            float loss = trained.getValue().getValidateLoss();
-            hpOptimizer.update(hpVals, loss);
-            logger.info(
-                    "--------- hp test {}/{} - Loss {} - {}", i, hyperparameterTests, loss, hpVals);
+        if (parallelTrials <= 1) {
+            for (int i = 0; i < hyperparameterTests; i++) {
+                HpSet hpVals = hpOptimizer.nextConfig();
+                runTrial(i, hpVals, hpOptimizer, earlyStopping, trainingSet, validateSet);
+            }
+        } else {
+            ExecutorService executor = Executors.newFixedThreadPool(parallelTrials);
+            Semaphore workers = new Semaphore(parallelTrials);
+            List<CompletableFuture<Void>> futures = new ArrayList<>(hyperparameterTests);
+            try {
+                for (int i = 0; i < hyperparameterTests; i++) {
+                    workers.acquire();
+                    HpSet hpVals;
+                    synchronized (hpOptimizer) {
+                        hpVals = hpOptimizer.nextConfig();
+                    }
+                    int trial = i;
+                    CompletableFuture<Void> future =
+                            CompletableFuture.runAsync(
+                                    () -> {
+                                        try {
+                                            runTrial(
+                                                    trial,
+                                                    hpVals,
+                                                    hpOptimizer,
+                                                    earlyStopping,
+                                                    trainingSet,
+                                                    validateSet);
+                                        } catch (IOException | TranslateException e) {
+                                            throw new CompletionException(e);
+                                        }
+                                    },
+                                    executor);
+                    futures.add(future.whenComplete((v, t) -> workers.release()));
+                }
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for hp tests", e);
+            } catch (CompletionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                } else if (cause instanceof TranslateException) {
+                    throw (TranslateException) cause;
+                } else if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw e;
+            } finally {
+                executor.shutdownNow();
+            }
         }
 
         HpSet bestHpVals = hpOptimizer.getBest().getKey();
-        Pair<Model, TrainingResult> trained = train(bestHpVals, trainingSet, validateSet);
+        Pair<Model, TrainingResult> trained = train(bestHpVals, trainingSet, validateSet, null);
         TrainingResult result = trained.getValue();
 
         Model model = trained.getKey();
@@ -74,8 +133,36 @@ public abstract class EasyHpo {
         return trained;
     }
 
+    private void runTrial(
+            int trial,
+            HpSet hpVals,
+            HpOptimizer hpOptimizer,
+            SuccessiveHalving earlyStopping,
+            RandomAccessDataset trainingSet,
+            RandomAccessDataset validateSet)
+            throws IOException, TranslateException {
+        Pair<Model, TrainingResult> trained =
+                train(hpVals, trainingSet, validateSet, earlyStopping);
+        trained.getKey().close();
+        TrainingResult result = trained.getValue();
+        float loss = result.getValidateLoss();
+        synchronized (hpOptimizer) {
+            hpOptimizer.update(hpVals, loss);
+        }
+        logger.info(
+                "--------- hp test {}/{} - Loss {} - Epoch {} - {}",
+                trial,
+                numHyperParameterTests(),
+                loss,
+                result.getEpoch(),
+                hpVals);
+    }
+
     private Pair<Model, TrainingResult> train(
-            HpSet hpVals, RandomAccessDataset trainingSet, RandomAccessDataset validateSet)
+            HpSet hpVals,
+            RandomAccessDataset trainingSet,
+            RandomAccessDataset validateSet,
+            SuccessiveHalving earlyStopping)
             throws IOException, TranslateException {
 
         // Construct neural network
@@ -90,7 +177,19 @@ public abstract class EasyHpo {
             // initialize trainer with proper input shape
             trainer.initialize(inputShape(hpVals));
 
-            EasyTrain.fit(trainer, numEpochs(hpVals), trainingSet, validateSet);
+            int numEpochs = numEpochs(hpVals);
+            if (earlyStopping == null) {
+                EasyTrain.fit(trainer, numEpochs, trainingSet, validateSet);
+            } else {
+                for (int epoch = 1; epoch <= numEpochs; epoch++) {
+                    EasyTrain.fit(trainer, 1, trainingSet, validateSet);
+                    float loss = trainer.getTrainingResult().getValidateLoss();
+                    if (epoch < numEpochs && earlyStopping.shouldStop(epoch, loss)) {
+                        logger.debug("Stopped hp test at epoch {} - Loss {}", epoch, loss);
+                        break;
+                    }
+                }
+            }
 
             TrainingResult result = trainer.getTrainingResult();
             return new Pair<>(model, result);
@@ -145,6 +244,38 @@ public abstract class EasyHpo {
      */
     protected abstract int numEpochs(HpSet hpVals);
 
+    /**
+     * Returns the {@link HpOptimizer} that chooses the hyperparameters to test.
+     *
+     * <p>The optimizer is only accessed by one thread at a time, even when the tests run in
+     * parallel.
+     *
+     * @param hyperParams the initial hyperparameters
+     * @return the {@link HpOptimizer} that chooses the hyperparameters to test
+     */
+    protected HpOptimizer setupOptimizer(HpSet hyperParams) {
+        return new HpORandom(hyperParams);
+    }
+
+    /**
+     * Returns the policy to stop the hyperparameter tests early, or {@code null} to train every
+     * test for all the epochs.
+     *
+     * @return the policy to stop the hyperparameter tests early
+     */
+    protected SuccessiveHalving setupEarlyStopping() {
+        return null;
+    }
+
+    /**
+     * Returns the number of hyperparameter tests to run concurrently.
+     *
+     * @return the number of hyperparameter tests to run concurrently
+     */
+    protected int numParallelTrials() {
+        return 1;
+    }
+
     /**
      * Returns the number of hyperparameter sets to train with.
      *
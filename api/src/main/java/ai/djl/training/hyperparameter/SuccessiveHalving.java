@@ -0,0 +1,102 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training.hyperparameter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An asynchronous successive halving (ASHA) policy to stop unpromising hyperparameter trials early.
+ *
+ * <p>The policy defines rungs at the epochs {@code minEpochs * reductionFactor^k}. When a trial
+ * reaches a rung, its validation loss is recorded for the rung and the trial only continues if the
+ * loss is within the best {@code 1 / reductionFactor} of the losses recorded at that rung so far.
+ * The decision never waits for other trials, so it works with trials running concurrently.
+ *
+ * <p>This class is thread safe.
+ *
+ * @see EasyHpo
+ */
+public class SuccessiveHalving {
+
+    private int minEpochs;
+    private int reductionFactor;
+    private Map<Integer, List<Float>> rungs;
+
+    /**
+     * Constructs a {@code SuccessiveHalving} with a reduction factor of 3.
+     *
+     * @param minEpochs the number of epochs every trial trains before it can be stopped
+     */
+    public SuccessiveHalving(int minEpochs) {
+        this(minEpochs, 3);
+    }
+
+    /**
+     * Constructs a {@code SuccessiveHalving}.
+     *
+     * @param minEpochs the number of epochs every trial trains before it can be stopped
+     * @param reductionFactor the factor between two rungs, only the best {@code 1 /
+     *     reductionFactor} trials are kept at each rung
+     */
+    public SuccessiveHalving(int minEpochs, int reductionFactor) {
+        if (minEpochs <= 0 || reductionFactor < 2) {
+            throw new IllegalArgumentException(
+                    "Invalid minEpochs: " + minEpochs + ", reductionFactor: " + reductionFactor);
+        }
+        this.minEpochs = minEpochs;
+        this.reductionFactor = reductionFactor;
+        rungs = new HashMap<>();
+    }
+
+    /**
+     * Returns whether a trial should stop after the given epoch.
+     *
+     * @param epoch the number of epochs the trial has completed
+     * @param loss the <b>validation</b> loss of the trial after the epoch
+     * @return {@code true} if the trial should stop
+     */
+    public synchronized boolean shouldStop(int epoch, float loss) {
+        if (!isRung(epoch)) {
+            return false;
+        }
+        List<Float> recorded = rungs.computeIfAbsent(epoch, k -> new ArrayList<>());
+        recorded.add(loss);
+        return loss > getCutoff(recorded);
+    }
+
+    private boolean isRung(int epoch) {
+        if (epoch < minEpochs || epoch % minEpochs != 0) {
+            return false;
+        }
+        int milestone = epoch / minEpochs;
+        while (milestone % reductionFactor == 0) {
+            milestone /= reductionFactor;
+        }
+        return milestone == 1;
+    }
+
+    private float getCutoff(List<Float> recorded) {
+        List<Float> sorted = new ArrayList<>(recorded);
+        Collections.sort(sorted);
+        // the loss at the 1 / reductionFactor quantile, interpolated between the neighbours
+        float pos = (sorted.size() - 1) / (float) reductionFactor;
+        int lower = (int) pos;
+        int upper = Math.min(lower + 1, sorted.size() - 1);
+        float fraction = pos - lower;
+        return sorted.get(lower) + (sorted.get(upper) - sorted.get(lower)) * fraction;
+    }
+}
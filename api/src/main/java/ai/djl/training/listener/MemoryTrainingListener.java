@@ -13,10 +13,13 @@
 package ai.djl.training.listener;
 
 import ai.djl.Device;
+import ai.djl.metric.Dimension;
 import ai.djl.metric.Metric;
 import ai.djl.metric.Metrics;
 import ai.djl.metric.Unit;
+import ai.djl.ndarray.BaseNDManager;
 import ai.djl.training.Trainer;
+import ai.djl.util.ResourceSampler;
 import ai.djl.util.cuda.CudaUtils;
 
 import org.slf4j.Logger;
@@ -37,6 +40,7 @@ import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * {@link TrainingListener} that collects the memory usage information.
@@ -48,7 +52,11 @@ public class MemoryTrainingListener extends TrainingListenerAdapter {
 
     private static final Logger logger = LoggerFactory.getLogger(MemoryTrainingListener.class);
 
+    private static final ResourceSampler PROCESS_SAMPLER = new ResourceSampler(new Metrics());
+
     private String outputDir;
+    private long samplingPeriod;
+    private ResourceSampler sampler;
 
     /** Constructs a {@link MemoryTrainingListener} that does not output data to a file. */
     public MemoryTrainingListener() {}
@@ -66,23 +74,61 @@ public class MemoryTrainingListener extends TrainingListenerAdapter {
         this.outputDir = outputDir;
     }
 
+    /**
+     * Constructs a {@link MemoryTrainingListener} that samples the memory on a background timer.
+     *
+     * <p>Instead of collecting the memory information after each batch, a {@link ResourceSampler}
+     * records it into the trainer {@link Metrics} every {@code samplingPeriod} milliseconds,
+     * including the live bytes of the trainer {@link ai.djl.ndarray.NDManager}.
+     *
+     * @param outputDir the directory to output the tracked memory data in
+     * @param samplingPeriod the period between two samples in milliseconds
+     */
+    public MemoryTrainingListener(String outputDir, long samplingPeriod) {
+        this.outputDir = outputDir;
+        this.samplingPeriod = samplingPeriod;
+    }
+
     /** {@inheritDoc} */
     @Override
-    public void onTrainingBatch(Trainer trainer, BatchData batchData) {
+    public void onTrainingBegin(Trainer trainer) {
         Metrics metrics = trainer.getMetrics();
-        collectMemoryInfo(metrics);
+        if (samplingPeriod > 0 && metrics != null && Boolean.getBoolean("collect-memory")) {
+            sampler = new ResourceSampler(metrics);
+            if (trainer.getManager() instanceof BaseNDManager) {
+                sampler.addManager("Trainer", (BaseNDManager) trainer.getManager());
+            }
+            sampler.start(samplingPeriod, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void onTrainingBatch(Trainer trainer, BatchData batchData) {
+        if (sampler == null) {
+            Metrics metrics = trainer.getMetrics();
+            collectMemoryInfo(metrics);
+            collectManagerInfo(trainer, metrics);
+        }
     }
 
     /** {@inheritDoc} */
     @Override
     public void onValidationBatch(Trainer trainer, BatchData batchData) {
-        Metrics metrics = trainer.getMetrics();
-        collectMemoryInfo(metrics);
+        if (sampler == null) {
+            Metrics metrics = trainer.getMetrics();
+            collectMemoryInfo(metrics);
+            collectManagerInfo(trainer, metrics);
+        }
     }
 
     /** {@inheritDoc} */
     @Override
     public void onTrainingEnd(Trainer trainer) {
+        if (sampler != null) {
+            sampler.close();
+            sampler = null;
+        }
         Metrics metrics = trainer.getMetrics();
         dumpMemoryInfo(metrics, outputDir);
     }
@@ -118,6 +164,16 @@ public class MemoryTrainingListener extends TrainingListenerAdapter {
         }
     }
 
+    private static void collectManagerInfo(Trainer trainer, Metrics metrics) {
+        if (metrics != null
+                && Boolean.getBoolean("collect-memory")
+                && trainer.getManager() instanceof BaseNDManager) {
+            long bytes = ((BaseNDManager) trainer.getManager()).getLiveBytes();
+            Dimension dimension = new Dimension("Name", "Trainer");
+            metrics.addMetric(new Metric("NDManager", bytes, Unit.BYTES, dimension));
+        }
+    }
+
     /**
      * Dump memory metrics into log directory.
      *
@@ -141,6 +197,9 @@ public class MemoryTrainingListener extends TrainingListenerAdapter {
                 list.addAll(metrics.getMetric("NonHeap"));
                 list.addAll(metrics.getMetric("cpu"));
                 list.addAll(metrics.getMetric("rss"));
+                list.addAll(metrics.getMetric("DirectBuffer"));
+                list.addAll(metrics.getMetric("MappedBuffer"));
+                list.addAll(metrics.getMetric("NDManager"));
                 int gpuCount = CudaUtils.getGpuCount();
                 for (int i = 0; i < gpuCount; ++i) {
                     list.addAll(metrics.getMetric("GPU-" + i));
@@ -156,7 +215,11 @@ public class MemoryTrainingListener extends TrainingListenerAdapter {
     }
 
     private static void getProcessInfo(Metrics metrics) {
-        if (System.getProperty("os.name").startsWith("Linux")
+        if (ResourceSampler.isProcSupported()) {
+            // read /proc directly instead of forking a process for each batch
+            PROCESS_SAMPLER.sampleProcess(metrics);
+            ResourceSampler.sampleBufferPools(metrics);
+        } else if (System.getProperty("os.name").startsWith("Linux")
                 || System.getProperty("os.name").startsWith("Mac")) {
             // This solution only work for Linux like system.
             RuntimeMXBean mxBean = ManagementFactory.getRuntimeMXBean();
@@ -12,26 +12,62 @@
  */
 package ai.djl.training.listener;
 
+import ai.djl.BaseModel;
 import ai.djl.Model;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.nn.Parameter;
 import ai.djl.training.Trainer;
+import ai.djl.training.optimizer.Optimizer;
+import ai.djl.util.Pair;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /** A {@link TrainingListener} that saves a model and can save checkpoints. */
 public class SaveModelTrainingListener extends TrainingListenerAdapter {
 
     private static final Logger logger = LoggerFactory.getLogger(SaveModelTrainingListener.class);
 
+    private static final int BUFFER = 1024 * 1024;
+
     private String outputDir;
     private String overrideModelName;
     private Consumer<Trainer> onSaveModel;
     private int checkpoint;
     private int epoch;
+    private boolean asyncCheckpoint;
+    private int keepCheckpoints = -1;
+    private ExecutorService executor;
+    private CompletableFuture<Void> pendingSave;
 
     /**
      * Constructs a {@link SaveModelTrainingListener} using the model's name.
@@ -89,6 +125,12 @@ public class SaveModelTrainingListener extends TrainingListenerAdapter {
         if (checkpoint == -1 || epoch % checkpoint != 0) {
             saveModel(trainer);
         }
+        // make sure the last checkpoint is written before the training returns
+        waitForPendingSave();
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
     }
 
     /**
@@ -128,6 +170,41 @@ public class SaveModelTrainingListener extends TrainingListenerAdapter {
         this.checkpoint = checkpoint;
     }
 
+    /**
+     * Returns whether the checkpoints are written in the background.
+     *
+     * @return whether the checkpoints are written in the background
+     */
+    public boolean isAsyncCheckpoint() {
+        return asyncCheckpoint;
+    }
+
+    /**
+     * Sets whether the checkpoints are written in the background.
+     *
+     * <p>In the asynchronous mode, the training only stops to copy the model parameters and the
+     * optimizer state on their device. The copies are then written to temporary files in the
+     * background, forced to disk and atomically renamed, so an interrupted write never leaves a
+     * partial checkpoint. The optimizer state is saved in a {@code .optimizer} file next to the
+     * {@code .params} file, see {@link #loadOptimizerStates(Trainer, Path)}. Only one checkpoint is
+     * in flight at a time, a new checkpoint waits for the previous one to finish. This mode is only
+     * supported by models extending {@link BaseModel}, other models are saved synchronously.
+     *
+     * @param asyncCheckpoint {@code true} to write the checkpoints in the background
+     */
+    public void setAsyncCheckpoint(boolean asyncCheckpoint) {
+        this.asyncCheckpoint = asyncCheckpoint;
+    }
+
+    /**
+     * Sets the number of most recent checkpoints to keep in the output directory.
+     *
+     * @param keepCheckpoints the number of checkpoints to keep (or -1 to keep all checkpoints)
+     */
+    public void setKeepCheckpoints(int keepCheckpoints) {
+        this.keepCheckpoints = keepCheckpoints;
+    }
+
     /**
      * Sets the callback function on model saving.
      *
@@ -150,9 +227,189 @@ public class SaveModelTrainingListener extends TrainingListenerAdapter {
             if (onSaveModel != null) {
                 onSaveModel.accept(trainer);
             }
-            model.save(Paths.get(outputDir), modelName);
+            if (asyncCheckpoint && model instanceof BaseModel) {
+                saveModelAsync(trainer, (BaseModel) model, modelName);
+            } else {
+                model.save(Paths.get(outputDir), modelName);
+                removeOldCheckpoints(modelName);
+            }
         } catch (IOException e) {
             logger.error("Failed to save checkpoint", e);
         }
     }
+
+    private void saveModelAsync(Trainer trainer, BaseModel model, String modelName)
+            throws IOException {
+        // only keep one checkpoint in flight
+        waitForPendingSave();
+
+        Path dir = Paths.get(outputDir);
+        Files.createDirectories(dir);
+        String prefix = String.format(Locale.ROOT, "%s-%04d", modelName, epoch);
+
+        // the training only waits for the arrays to be copied on their device, they are
+        // serialized, forced to disk and renamed in the background
+        NDManager manager = trainer.getManager().newSubManager();
+        manager.setName("checkpoint");
+        BaseModel.Snapshot snapshot;
+        NDList states;
+        try {
+            snapshot = model.snapshot(modelName, manager);
+            states = getOptimizerStates(trainer, manager);
+        } catch (IOException | RuntimeException e) {
+            manager.close();
+            throw e;
+        }
+
+        if (executor == null) {
+            executor =
+                    Executors.newSingleThreadExecutor(
+                            r -> {
+                                Thread thread = new Thread(r, "checkpoint-writer");
+                                thread.setDaemon(true);
+                                return thread;
+                            });
+        }
+        pendingSave =
+                CompletableFuture.runAsync(
+                        () -> {
+                            try {
+                                writeCheckpoint(dir.resolve(prefix + ".params"), snapshot::write);
+                                if (states != null) {
+                                    writeCheckpoint(
+                                            dir.resolve(prefix + ".optimizer"), states::encode);
+                                }
+                                removeOldCheckpoints(modelName);
+                            } catch (IOException | RuntimeException e) {
+                                logger.error("Failed to save checkpoint", e);
+                            } finally {
+                                manager.close();
+                            }
+                        },
+                        executor);
+    }
+
+    /**
+     * Loads the optimizer state saved with an asynchronous checkpoint into the optimizer of the
+     * trainer.
+     *
+     * <p>The trainer must be created for the model loaded from the same checkpoint, the state is
+     * matched to the parameters of the model by their names.
+     *
+     * @param trainer the trainer to restore the optimizer state of
+     * @param path the {@code .optimizer} file of the checkpoint
+     * @throws IOException failed to read the file
+     */
+    public static void loadOptimizerStates(Trainer trainer, Path path) throws IOException {
+        Map<String, String> ids = new HashMap<>();
+        for (Pair<String, Parameter> pair : trainer.getModel().getBlock().getParameters()) {
+            ids.put(pair.getKey(), pair.getValue().getId());
+        }
+        try (NDManager manager = trainer.getManager().newSubManager();
+                InputStream is = new BufferedInputStream(Files.newInputStream(path), BUFFER)) {
+            NDList states = NDList.decode(manager, is);
+            states = rename(states, ids);
+            trainer.getOptimizer().setStates(states);
+        }
+    }
+
+    private static NDList getOptimizerStates(Trainer trainer, NDManager manager) {
+        Optimizer optimizer = trainer.getOptimizer();
+        if (optimizer == null) {
+            return null;
+        }
+        // parameter ids are random, save the state under the names of the parameters
+        Map<String, String> names = new HashMap<>();
+        for (Pair<String, Parameter> pair : trainer.getModel().getBlock().getParameters()) {
+            names.put(pair.getValue().getId(), pair.getKey());
+        }
+        return rename(optimizer.getStates(manager), names);
+    }
+
+    private static NDList rename(NDList states, Map<String, String> mapping) {
+        NDList list = new NDList(states.size());
+        for (NDArray array : states) {
+            String name = array.getName();
+            int index = name.indexOf('/');
+            String key = mapping.get(name.substring(index + 1));
+            if (key != null) {
+                array.setName(name.substring(0, index + 1) + key);
+                list.add(array);
+            }
+        }
+        return list;
+    }
+
+    private static void writeCheckpoint(Path target, CheckpointWriter writer) throws IOException {
+        Path tmp = target.resolveSibling(target.toFile().getName() + ".tmp");
+        try {
+            try (FileChannel channel =
+                    FileChannel.open(
+                            tmp,
+                            StandardOpenOption.CREATE,
+                            StandardOpenOption.WRITE,
+                            StandardOpenOption.TRUNCATE_EXISTING)) {
+                // don't close the stream, it would close the channel
+                OutputStream os =
+                        new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER);
+                writer.write(os);
+                os.flush();
+                channel.force(false);
+            }
+            try {
+                Files.move(
+                        tmp,
+                        target,
+                        StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private void waitForPendingSave() {
+        if (pendingSave != null) {
+            pendingSave.join();
+            pendingSave = null;
+        }
+    }
+
+    private void removeOldCheckpoints(String modelName) throws IOException {
+        if (keepCheckpoints <= 0) {
+            return;
+        }
+        Path dir = Paths.get(outputDir);
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        Pattern pattern = Pattern.compile(Pattern.quote(modelName) + "-(\\d+)\\.params");
+        List<Path> checkpoints;
+        try (Stream<Path> stream = Files.list(dir)) {
+            checkpoints =
+                    stream.filter(p -> pattern.matcher(p.toFile().getName()).matches())
+                            .sorted(Comparator.comparingInt(p -> getEpoch(pattern, p)))
+                            .collect(Collectors.toList());
+        }
+        for (int i = 0; i < checkpoints.size() - keepCheckpoints; ++i) {
+            Path path = checkpoints.get(i);
+            Files.deleteIfExists(path);
+            String name = path.toFile().getName();
+            name = name.substring(0, name.length() - ".params".length()) + ".optimizer";
+            Files.deleteIfExists(path.resolveSibling(name));
+        }
+    }
+
+    /** Writes the content of a checkpoint file. */
+    private interface CheckpointWriter {
+
+        void write(OutputStream os) throws IOException;
+    }
+
+    private static int getEpoch(Pattern pattern, Path path) {
+        Matcher m = pattern.matcher(path.toFile().getName());
+        return m.matches() ? Integer.parseInt(m.group(1)) : -1;
+    }
 }
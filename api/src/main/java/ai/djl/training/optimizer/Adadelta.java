@@ -44,6 +44,8 @@ public class Adadelta extends Optimizer {
         epsilon = builder.epsilon;
         accumG = new ConcurrentHashMap<>();
         accumDelta = new ConcurrentHashMap<>();
+        registerState("accumG", accumG);
+        registerState("accumDelta", accumDelta);
     }
 
     /** {@inheritDoc} */
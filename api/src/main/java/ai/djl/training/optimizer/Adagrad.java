@@ -56,6 +56,7 @@ public class Adagrad extends Optimizer {
         learningRateTracker = builder.learningRateTracker;
         epsilon = builder.epsilon;
         history = new ConcurrentHashMap<>();
+        registerState("history", history);
     }
 
     /** {@inheritDoc} */
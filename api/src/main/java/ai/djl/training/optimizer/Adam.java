@@ -59,6 +59,8 @@ public class Adam extends Optimizer {
         epsilon = builder.epsilon;
         means = new ConcurrentHashMap<>();
         variances = new ConcurrentHashMap<>();
+        registerState("means", means);
+        registerState("variances", variances);
     }
 
     /** {@inheritDoc} */
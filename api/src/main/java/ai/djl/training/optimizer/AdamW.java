@@ -63,6 +63,8 @@ public class AdamW extends Optimizer {
         epsilon = builder.epsilon;
         means = new ConcurrentHashMap<>();
         variances = new ConcurrentHashMap<>();
+        registerState("means", means);
+        registerState("variances", variances);
     }
 
     /** {@inheritDoc} */
@@ -47,6 +47,7 @@ public class Nag extends Optimizer {
         learningRateTracker = builder.learningRateTracker;
         momentum = builder.momentum;
         momentumStates = new ConcurrentHashMap<>();
+        registerState("momentumStates", momentumStates);
     }
 
     /** {@inheritDoc} */
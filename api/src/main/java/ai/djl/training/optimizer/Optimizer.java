@@ -14,7 +14,10 @@ package ai.djl.training.optimizer;
 
 import ai.djl.Device;
 import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
@@ -34,6 +37,7 @@ public abstract class Optimizer {
     private int beginNumUpdate;
     private int numUpdate;
     private Map<String, Integer> updateCounts = new ConcurrentHashMap<>();
+    private Map<String, Map<String, Map<Device, NDArray>>> states = new LinkedHashMap<>();
 
     /**
      * Creates a new instance of {@code Optimizer}.
@@ -144,6 +148,77 @@ public abstract class Optimizer {
      */
     public abstract void update(String parameterId, NDArray weight, NDArray grad);
 
+    /**
+     * Returns a copy of the state of the optimizer, to save it in a checkpoint.
+     *
+     * <p>The arrays are named {@code <state>/<parameterId>}, with the update counts of the
+     * parameters in the {@code updateCount} state. They are copied on their device into the
+     * manager, so the training can continue while they are written.
+     *
+     * @param manager the manager of the copies of the arrays
+     * @return a copy of the state of the optimizer
+     */
+    public NDList getStates(NDManager manager) {
+        NDList list = new NDList();
+        for (Map.Entry<String, Map<String, Map<Device, NDArray>>> state : states.entrySet()) {
+            for (Map.Entry<String, Map<Device, NDArray>> entry : state.getValue().entrySet()) {
+                NDArray array = entry.getValue().values().iterator().next().duplicate();
+                array.attach(manager);
+                array.setName(state.getKey() + '/' + entry.getKey());
+                list.add(array);
+            }
+        }
+        for (Map.Entry<String, Integer> entry : updateCounts.entrySet()) {
+            NDArray array = manager.create(entry.getValue().intValue());
+            array.setName("updateCount/" + entry.getKey());
+            list.add(array);
+        }
+        return list;
+    }
+
+    /**
+     * Restores the state of the optimizer returned by {@link #getStates(NDManager)}.
+     *
+     * @param list the state of the optimizer
+     * @throws IllegalArgumentException if the state does not belong to this optimizer
+     */
+    public void setStates(NDList list) {
+        for (NDArray array : list) {
+            String name = array.getName();
+            int index = name == null ? -1 : name.indexOf('/');
+            if (index < 0) {
+                throw new IllegalArgumentException("Invalid optimizer state: " + name);
+            }
+            String key = name.substring(0, index);
+            String parameterId = name.substring(index + 1);
+            if ("updateCount".equals(key)) {
+                int count = array.getInt();
+                updateCounts.put(parameterId, count);
+                numUpdate = Math.max(numUpdate, count);
+                continue;
+            }
+            Map<String, Map<Device, NDArray>> state = states.get(key);
+            if (state == null) {
+                throw new IllegalArgumentException("Unknown optimizer state: " + name);
+            }
+            NDArray copy = array.duplicate();
+            copy.detach(); // same lifecycle as the arrays created by withDefaultState
+            Map<Device, NDArray> map = new ConcurrentHashMap<>();
+            map.put(copy.getDevice(), copy);
+            state.put(parameterId, map);
+        }
+    }
+
+    /**
+     * Registers a state of the optimizer, to be included in {@link #getStates(NDManager)}.
+     *
+     * @param name the name of the state
+     * @param state the state, by parameter id and device
+     */
+    protected void registerState(String name, Map<String, Map<Device, NDArray>> state) {
+        states.put(name, state);
+    }
+
     protected NDArray withDefaultState(
             Map<String, Map<Device, NDArray>> state,
             String key,
@@ -81,6 +81,9 @@ public class RmsProp extends Optimizer {
         means = new ConcurrentHashMap<>();
         variances = new ConcurrentHashMap<>();
         momentums = new ConcurrentHashMap<>();
+        registerState("means", means);
+        registerState("variances", variances);
+        registerState("momentums", momentums);
     }
 
     /** {@inheritDoc} */
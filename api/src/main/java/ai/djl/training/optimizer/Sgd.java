@@ -51,6 +51,7 @@ public class Sgd extends Optimizer {
         learningRateTracker = builder.learningRateTracker;
         momentum = builder.momentum;
         momentumStates = new ConcurrentHashMap<>();
+        registerState("momentumStates", momentumStates);
     }
 
     /** {@inheritDoc} */
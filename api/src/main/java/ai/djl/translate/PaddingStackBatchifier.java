@@ -34,6 +34,7 @@ public final class PaddingStackBatchifier implements Batchifier {
     private transient List<NDArraySupplier> paddingSuppliers;
     private List<Integer> paddingSizes;
     private boolean includeValidLengths;
+    private int padToMultipleOf;
 
     private PaddingStackBatchifier(Builder builder) {
         arraysToPad = builder.arraysToPad;
@@ -41,6 +42,7 @@ public final class PaddingStackBatchifier implements Batchifier {
         paddingSuppliers = builder.paddingSuppliers;
         paddingSizes = builder.paddingSizes;
         includeValidLengths = builder.includeValidLengths;
+        padToMultipleOf = builder.padToMultipleOf;
     }
 
     /** {@inheritDoc} */
@@ -59,6 +61,9 @@ public final class PaddingStackBatchifier implements Batchifier {
                         "The batchifier padding size is too small " + maxSize + " " + paddingSize);
             }
             maxSize = Math.max(maxSize, paddingSize);
+            if (padToMultipleOf > 1) {
+                maxSize = (maxSize + padToMultipleOf - 1) / padToMultipleOf * padToMultipleOf;
+            }
             long[] arrayValidLengths = padArrays(inputs, arrayIndex, dimIndex, padding, maxSize);
             validLengths.add(manager.create(arrayValidLengths));
         }
@@ -79,10 +84,15 @@ public final class PaddingStackBatchifier implements Batchifier {
                 new NDList(inputs.subList(inputs.size() - arraysToPad.size(), inputs.size()));
         inputs = new NDList(inputs.subList(0, inputs.size() - arraysToPad.size()));
         NDList[] split = Batchifier.STACK.unbatchify(inputs);
+        // read the valid lengths at once rather than one element of the batch at a time
+        long[][] lengths = new long[arraysToPad.size()][];
+        for (int j = 0; j < arraysToPad.size(); j++) {
+            lengths[j] = validLengths.get(j).toLongArray();
+        }
         for (int i = 0; i < split.length; i++) {
             NDList arrays = split[i];
             for (int j = 0; j < arraysToPad.size(); j++) {
-                long validLength = validLengths.get(j).getLong(i);
+                long validLength = lengths[j][i];
                 int arrayIndex = arraysToPad.get(j);
                 NDArray dePadded =
                         arrays.get(arrayIndex)
@@ -218,6 +228,7 @@ public final class PaddingStackBatchifier implements Batchifier {
         private List<NDArraySupplier> paddingSuppliers;
         private List<Integer> paddingSizes;
         private boolean includeValidLengths;
+        private int padToMultipleOf = 1;
 
         private Builder() {
             arraysToPad = new ArrayList<>();
@@ -237,6 +248,23 @@ public final class PaddingStackBatchifier implements Batchifier {
             return this;
         }
 
+        /**
+         * Sets the multiple the padded dimensions are rounded up to, defaults to 1.
+         *
+         * <p>Tensor cores and many kernels are faster when the sequence length is a multiple of 8
+         * or 64, and the number of distinct shapes a model sees gets smaller.
+         *
+         * @param padToMultipleOf the multiple the padded dimensions are rounded up to
+         * @return this builder
+         */
+        public Builder optPadToMultipleOf(int padToMultipleOf) {
+            if (padToMultipleOf <= 0) {
+                throw new IllegalArgumentException("Invalid padding multiple: " + padToMultipleOf);
+            }
+            this.padToMultipleOf = padToMultipleOf;
+            return this;
+        }
+
         /**
          * Adds a new dimension to be padded in the input {@link NDList}.
          *
@@ -14,7 +14,10 @@ package ai.djl.util;
 
 import ai.djl.ndarray.BytesSupplier;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
 
 /**
  * A class implements {@code JsonSerializable} indicates it can be serialized into a json string.
@@ -27,4 +30,18 @@ public interface JsonSerializable extends Serializable, BytesSupplier {
      * @return a json string
      */
     String toJson();
+
+    /**
+     * Writes the json presentation of the object to an {@code OutputStream}.
+     *
+     * <p>Large outputs can override this method to write the json with a {@link
+     * com.google.gson.stream.JsonWriter} instead of building the json string. The json written has
+     * the same content as {@link #toJson()}, but may be formatted differently.
+     *
+     * @param os the {@code OutputStream} to write to, it is not closed
+     * @throws IOException if failed to write the json
+     */
+    default void writeJson(OutputStream os) throws IOException {
+        os.write(toJson().getBytes(StandardCharsets.UTF_8));
+    }
 }
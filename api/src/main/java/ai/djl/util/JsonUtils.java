@@ -16,6 +16,11 @@ import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonPrimitive;
 import com.google.gson.JsonSerializer;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
 
 /** An interface containing Gson constants. */
 public interface JsonUtils {
@@ -43,4 +48,19 @@ public interface JsonUtils {
                                     return new JsonPrimitive(src);
                                 });
     }
+
+    /**
+     * Returns a compact {@code JsonWriter} that writes UTF-8 to an {@code OutputStream}.
+     *
+     * <p>Like {@link Gson}, the writer escapes html characters. The writer must be flushed, but not
+     * closed if the stream should stay open.
+     *
+     * @param os the {@code OutputStream} to write to
+     * @return a new {@code JsonWriter}
+     */
+    static JsonWriter newJsonWriter(OutputStream os) {
+        JsonWriter writer = new JsonWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8));
+        writer.setHtmlSafe(true);
+        return writer;
+    }
 }
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.util;
+
+import ai.djl.metric.Dimension;
+import ai.djl.metric.Metric;
+import ai.djl.metric.Metrics;
+import ai.djl.metric.Unit;
+import ai.djl.ndarray.BaseNDManager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@code ResourceSampler} samples the memory and CPU usage of the current process into {@link
+ * Metrics}.
+ *
+ * <p>On Linux, the resident memory and the CPU time are read directly from {@code /proc/self/statm}
+ * and {@code /proc/self/stat} without forking a process, so the sampler is cheap enough to run at
+ * batch granularity. Besides the JVM heap and non-heap usage, it records the direct and mapped
+ * buffer pools and the live bytes of the registered {@link BaseNDManager}s, which helps to tell the
+ * engine native allocations apart from the JVM ones.
+ *
+ * <p>The sampler can be called directly with {@link #sample()}, or run on a background timer with
+ * {@link #start(long, TimeUnit)}.
+ */
+public class ResourceSampler implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResourceSampler.class);
+
+    private static final Path STAT = Paths.get("/proc/self/stat");
+    private static final Path STATM = Paths.get("/proc/self/statm");
+    private static final Path STATUS = Paths.get("/proc/self/status");
+    // USER_HZ is fixed to 100 for the user space ABI of Linux
+    private static final int CLOCK_TICKS = 100;
+
+    private Metrics metrics;
+    private Map<String, BaseNDManager> managers;
+    private ScheduledExecutorService timer;
+    private long pageSize;
+    private long lastCpuTicks = -1;
+    private long lastTime;
+
+    /**
+     * Constructs a {@code ResourceSampler} that records into the given {@link Metrics}.
+     *
+     * @param metrics the {@link Metrics} to record into
+     */
+    public ResourceSampler(Metrics metrics) {
+        this.metrics = metrics;
+        managers = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns whether the process information can be read from the {@code /proc} file system.
+     *
+     * @return whether the process information can be read from the {@code /proc} file system
+     */
+    public static boolean isProcSupported() {
+        return Files.isReadable(STAT) && Files.isReadable(STATM);
+    }
+
+    /**
+     * Registers a {@link BaseNDManager} whose live bytes are recorded as the "NDManager" metric.
+     *
+     * @param name the name of the manager in the metric dimension
+     * @param manager the {@link BaseNDManager} to sample
+     */
+    public void addManager(String name, BaseNDManager manager) {
+        managers.put(name, manager);
+    }
+
+    /**
+     * Removes a registered {@link BaseNDManager}.
+     *
+     * @param name the name of the manager
+     */
+    public void removeManager(String name) {
+        managers.remove(name);
+    }
+
+    /**
+     * Starts sampling on a background timer.
+     *
+     * @param period the period between two samples
+     * @param unit the time unit of the period
+     */
+    public synchronized void start(long period, TimeUnit unit) {
+        if (timer != null) {
+            throw new IllegalStateException("The sampler is already started.");
+        }
+        timer =
+                Executors.newSingleThreadScheduledExecutor(
+                        r -> {
+                            Thread thread = new Thread(r, "resource-sampler");
+                            thread.setDaemon(true);
+                            return thread;
+                        });
+        timer.scheduleAtFixedRate(this::sample, 0, period, unit);
+    }
+
+    /** Takes one sample of all the resources. */
+    public void sample() {
+        try {
+            MemoryMXBean memBean = ManagementFactory.getMemoryMXBean();
+            metrics.addMetric("Heap", memBean.getHeapMemoryUsage().getUsed(), Unit.BYTES);
+            metrics.addMetric("NonHeap", memBean.getNonHeapMemoryUsage().getUsed(), Unit.BYTES);
+            sampleProcess(metrics);
+            sampleBufferPools(metrics);
+            for (Map.Entry<String, BaseNDManager> entry : managers.entrySet()) {
+                Dimension dimension = new Dimension("Name", entry.getKey());
+                long bytes = entry.getValue().getLiveBytes();
+                metrics.addMetric(new Metric("NDManager", bytes, Unit.BYTES, dimension));
+            }
+        } catch (RuntimeException e) {
+            // never kill the timer thread
+            logger.warn("Failed to sample resources", e);
+        }
+    }
+
+    /**
+     * Records the "cpu" percentage and the "rss" bytes of the process from the {@code /proc} file
+     * system.
+     *
+     * <p>The CPU percentage is averaged since the previous call, or since the start of the JVM for
+     * the first call. Nothing is recorded if the {@code /proc} file system is not available.
+     *
+     * @param metrics the {@link Metrics} to record into
+     */
+    public synchronized void sampleProcess(Metrics metrics) {
+        if (!isProcSupported()) {
+            return;
+        }
+        try {
+            String[] statm = read(STATM).split(" ");
+            long resident = Long.parseLong(statm[1]);
+            if (pageSize == 0) {
+                pageSize = getPageSize(resident);
+            }
+
+            String stat = read(STAT);
+            // the process name may contain spaces, the fields are after its closing parenthesis
+            String[] fields = stat.substring(stat.lastIndexOf(')') + 2).split(" ");
+            long ticks = Long.parseLong(fields[11]) + Long.parseLong(fields[12]);
+            long now = System.nanoTime();
+            double elapsed;
+            long previous;
+            if (lastCpuTicks < 0) {
+                elapsed = ManagementFactory.getRuntimeMXBean().getUptime() / 1000d;
+                previous = 0;
+            } else {
+                elapsed = (now - lastTime) / 1_000_000_000d;
+                previous = lastCpuTicks;
+            }
+            lastCpuTicks = ticks;
+            lastTime = now;
+            if (elapsed > 0) {
+                double cpu = (ticks - previous) * 100d / CLOCK_TICKS / elapsed;
+                metrics.addMetric("cpu", (float) cpu, Unit.PERCENT);
+            }
+            metrics.addMetric("rss", resident * pageSize, Unit.BYTES);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to read the process information", e);
+        }
+    }
+
+    /**
+     * Records the used bytes of the JVM buffer pools as "DirectBuffer" and "MappedBuffer".
+     *
+     * @param metrics the {@link Metrics} to record into
+     */
+    public static void sampleBufferPools(Metrics metrics) {
+        List<BufferPoolMXBean> pools = ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class);
+        for (BufferPoolMXBean pool : pools) {
+            String name = pool.getName();
+            if ("direct".equals(name)) {
+                metrics.addMetric("DirectBuffer", pool.getMemoryUsed(), Unit.BYTES);
+            } else if ("mapped".equals(name)) {
+                metrics.addMetric("MappedBuffer", pool.getMemoryUsed(), Unit.BYTES);
+            }
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void close() {
+        if (timer != null) {
+            timer.shutdownNow();
+            timer = null;
+        }
+    }
+
+    private static String read(Path path) throws IOException {
+        return new String(Files.readAllBytes(path), StandardCharsets.UTF_8).trim();
+    }
+
+    private static long getPageSize(long resident) throws IOException {
+        // compare the resident pages with VmRSS in kB, 4 KB is the common page size
+        if (Files.isReadable(STATUS) && resident > 0) {
+            for (String line : Files.readAllLines(STATUS, StandardCharsets.UTF_8)) {
+                if (line.startsWith("VmRSS:")) {
+                    String[] tokens = line.split("\\s+");
+                    long rss = Long.parseLong(tokens[1]) * 1024;
+                    long ratio = rss / resident;
+                    // round to the nearest power of two
+                    long size = Long.highestOneBit(ratio + ratio / 2);
+                    if (size >= 4096) {
+                        return size;
+                    }
+                }
+            }
+        }
+        return 4096;
+    }
+}
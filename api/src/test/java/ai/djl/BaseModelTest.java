@@ -0,0 +1,116 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl;
+
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.nn.Block;
+import ai.djl.nn.Parameter;
+import ai.djl.nn.SequentialBlock;
+import ai.djl.nn.core.Linear;
+import ai.djl.util.Pair;
+import ai.djl.util.Utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+public class BaseModelTest {
+
+    @Test
+    public void testSaveLoad() throws IOException, MalformedModelException {
+        Path dir = Files.createTempDirectory("model");
+        try (Model model = Model.newInstance("model")) {
+            Block block = newBlock();
+            NDManager manager = model.getNDManager();
+            block.initialize(manager, DataType.FLOAT32, new Shape(2, 4));
+            for (Parameter param : block.getParameters().values()) {
+                NDArray array = param.getArray();
+                array.addi(manager.arange((float) array.size()).reshape(array.getShape()));
+            }
+            model.setBlock(block);
+
+            // the sequential format is the default
+            model.setProperty("Epoch", "1");
+            model.save(dir, "model");
+            Assert.assertEquals(readVersion(dir.resolve("model-0001.params")), 1);
+
+            System.setProperty("ai.djl.indexed_params", "true");
+            try {
+                model.setProperty("Epoch", "2");
+                model.save(dir, "model");
+            } finally {
+                System.clearProperty("ai.djl.indexed_params");
+            }
+            Assert.assertEquals(readVersion(dir.resolve("model-0002.params")), 2);
+
+            assertLoaded(dir, block, options(1, null, null));
+            assertLoaded(dir, block, options(2, "1", null));
+            assertLoaded(dir, block, options(2, "4", null));
+            assertLoaded(dir, block, options(2, "4", "true"));
+        } finally {
+            Utils.deleteQuietly(dir);
+        }
+    }
+
+    private static void assertLoaded(Path dir, Block expected, Map<String, String> options)
+            throws IOException, MalformedModelException {
+        try (Model loaded = Model.newInstance("model")) {
+            Block block = newBlock();
+            loaded.setBlock(block);
+            loaded.load(dir, "model", options);
+            Assert.assertEquals(loaded.getProperty("Epoch"), options.get("epoch"));
+            for (Pair<String, Parameter> pair : expected.getParameters()) {
+                NDArray array = pair.getValue().getArray();
+                NDArray actual = block.getParameters().get(pair.getKey()).getArray();
+                Assert.assertEquals(actual.getShape(), array.getShape());
+                Assert.assertEquals(actual.toFloatArray(), array.toFloatArray());
+            }
+        }
+    }
+
+    private static Map<String, String> options(int epoch, String loadThreads, String mmap) {
+        Map<String, String> options = new HashMap<>();
+        options.put("epoch", String.valueOf(epoch));
+        if (loadThreads != null) {
+            options.put("loadThreads", loadThreads);
+        }
+        if (mmap != null) {
+            options.put("mmap", mmap);
+        }
+        return options;
+    }
+
+    private static int readVersion(Path file) throws IOException {
+        try (InputStream is = Files.newInputStream(file)) {
+            DataInputStream dis = new DataInputStream(is);
+            dis.readInt(); // DJL@
+            return dis.readInt();
+        }
+    }
+
+    private static Block newBlock() {
+        return new SequentialBlock()
+                .add(Linear.builder().setUnits(3).build())
+                .add(Linear.builder().setUnits(2).build());
+    }
+}
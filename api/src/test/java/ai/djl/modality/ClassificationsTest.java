@@ -0,0 +1,102 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality;
+
+import ai.djl.modality.Classifications.Classification;
+import ai.djl.modality.cv.output.BoundingBox;
+import ai.djl.modality.cv.output.DetectedObjects;
+import ai.djl.modality.cv.output.Rectangle;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.util.JsonSerializable;
+
+import com.google.gson.JsonParser;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+public class ClassificationsTest {
+
+    @Test
+    public void testTopK() {
+        Random random = new Random(1234);
+        int size = 1000;
+        List<String> classNames = new ArrayList<>(size);
+        float[] probabilities = new float[size];
+        for (int i = 0; i < size; ++i) {
+            classNames.add("c" + i);
+            // few distinct values to check the order of equal probabilities
+            probabilities[i] = random.nextInt(50) / 50f;
+        }
+        Classifications classifications = new Classifications(classNames, probabilities, 5);
+
+        List<Classification> expected = classifications.items();
+        expected.sort(Comparator.comparingDouble(Classification::getProbability).reversed());
+        for (int k : new int[] {0, 1, 5, 100, size, size + 1}) {
+            List<Classification> actual = classifications.topK(k);
+            Assert.assertEquals(actual.size(), Math.min(k, size));
+            for (int i = 0; i < actual.size(); ++i) {
+                Assert.assertEquals(actual.get(i).getClassName(), expected.get(i).getClassName());
+            }
+        }
+        Assert.assertEquals(classifications.best().getClassName(), expected.get(0).getClassName());
+        Assert.assertEquals(classifications.getProbabilities().get(3), probabilities[3], 0);
+    }
+
+    @Test
+    public void testOfTopK() {
+        List<String> classNames = Arrays.asList("a", "b", "c", "d");
+        try (NDManager manager = NDManager.newBaseManager()) {
+            NDArray probabilities = manager.create(new float[] {0.1f, 0.4f, 0.3f, 0.2f});
+            Classifications classifications = Classifications.ofTopK(classNames, probabilities, 2);
+            Assert.assertEquals(classifications.getClassNames(), Arrays.asList("b", "c"));
+            Assert.assertEquals(classifications.getProbabilities().get(0).floatValue(), 0.4f, 0);
+            Assert.assertEquals(classifications.best().getClassName(), "b");
+        }
+    }
+
+    @Test
+    public void testWriteJson() throws IOException {
+        List<String> classNames = Arrays.asList("a", "<b>", "c");
+        Classifications classifications =
+                new Classifications(classNames, new float[] {0.2f, 0.5f, 0.3f}, 2);
+        assertSameJson(classifications.toJson(), writeJson(classifications));
+
+        List<BoundingBox> boxes = new ArrayList<>();
+        for (int i = 0; i < 3; ++i) {
+            boxes.add(new Rectangle(0.1 * i, 0.2, 0.3, 0.4));
+        }
+        DetectedObjects detections =
+                new DetectedObjects(classNames, Arrays.asList(0.2, 0.5, 0.3), boxes);
+        assertSameJson(detections.toJson(), writeJson(detections));
+    }
+
+    static String writeJson(JsonSerializable value) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        value.writeJson(bos);
+        return new String(bos.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    static void assertSameJson(String actual, String expected) {
+        Assert.assertEquals(JsonParser.parseString(actual), JsonParser.parseString(expected));
+    }
+}
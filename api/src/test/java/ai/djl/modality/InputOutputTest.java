@@ -12,18 +12,25 @@
  */
 package ai.djl.modality;
 
+import ai.djl.inference.streaming.ChunkedBytesSupplier;
 import ai.djl.ndarray.BytesSupplier;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.NDManager;
 import ai.djl.ndarray.types.Shape;
 
+import com.google.gson.JsonParser;
+
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 public class InputOutputTest {
 
@@ -103,4 +110,96 @@ public class InputOutputTest {
         Output decoded = Output.decode(new ByteArrayInputStream(encoded));
         Assert.assertTrue(decoded.deepEquals(output));
     }
+
+    @Test
+    public void testEncodeDecodeChannel() throws IOException {
+        Output output = new Output(206, "partial");
+        output.addProperty("prop1", "val1");
+        output.add("data");
+        output.add("kw", "data2".getBytes(StandardCharsets.UTF_8));
+        ChunkedBytesSupplier chunks = new ChunkedBytesSupplier();
+        chunks.appendContent("chunk1".getBytes(StandardCharsets.UTF_8), false);
+        chunks.appendContent("chunk2".getBytes(StandardCharsets.UTF_8), true);
+        output.add("stream", chunks);
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        output.encode(Channels.newChannel(bos));
+        byte[] encoded = bos.toByteArray();
+
+        Output decoded = Output.decode(Channels.newChannel(new ByteArrayInputStream(encoded)));
+        Assert.assertEquals(decoded.getCode(), 206);
+        Assert.assertEquals(decoded.getMessage(), "partial");
+        Assert.assertEquals(decoded.getProperties(), output.getProperties());
+        Assert.assertEquals(decoded.getAsString(0), "data");
+        Assert.assertEquals(decoded.getAsString("kw"), "data2");
+        BytesSupplier stream = decoded.get("stream");
+        Assert.assertTrue(stream instanceof ChunkedBytesSupplier);
+        ChunkedBytesSupplier decodedChunks = (ChunkedBytesSupplier) stream;
+        Assert.assertEquals(decodedChunks.pollChunk(), "chunk1".getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals(decodedChunks.pollChunk(), "chunk2".getBytes(StandardCharsets.UTF_8));
+        Assert.assertFalse(decodedChunks.hasNext());
+
+        Input input = Input.decode(Channels.newChannel(new ByteArrayInputStream(encoded)));
+        Assert.assertTrue(input instanceof Output);
+
+        Input plain = new Input();
+        plain.add("data");
+        bos.reset();
+        plain.encode(Channels.newChannel(bos));
+        ReadableByteChannel channel =
+                Channels.newChannel(new ByteArrayInputStream(bos.toByteArray()));
+        Assert.assertThrows(IllegalArgumentException.class, () -> Output.decode(channel));
+    }
+
+    @Test
+    public void testEncodeJsonChannel() throws IOException {
+        Classifications classifications =
+                new Classifications(
+                        Arrays.asList("cat", "dog", "bird"), new float[] {0.1f, 0.7f, 0.2f}, 3);
+        Output output = new Output();
+        output.add("json", classifications);
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        output.encode(Channels.newChannel(bos));
+        Output decoded =
+                Output.decode(Channels.newChannel(new ByteArrayInputStream(bos.toByteArray())));
+        BytesSupplier json = decoded.get("json");
+        Assert.assertTrue(json instanceof ChunkedBytesSupplier);
+        Assert.assertEquals(
+                JsonParser.parseString(json.getAsString()),
+                JsonParser.parseString(classifications.toJson()));
+    }
+
+    @Test
+    public void testEncodeDecodeNDListChannel() throws IOException {
+        try (NDManager manager = NDManager.newBaseManager()) {
+            NDList list =
+                    new NDList(
+                            manager.create(new float[] {0, 1, 2, 3, 4, 5}, new Shape(2, 3)),
+                            manager.create(new int[] {7, 8, 9}),
+                            manager.create(new float[0]));
+            list.get(0).setName("a");
+            byte[] expected = list.encode();
+            Input input = new Input();
+            input.add("list", list);
+            input.add("after", "data");
+
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            input.encode(Channels.newChannel(bos));
+            Input decoded =
+                    Input.decode(Channels.newChannel(new ByteArrayInputStream(bos.toByteArray())));
+
+            BytesSupplier data = decoded.get("list");
+            Assert.assertFalse(data instanceof ChunkedBytesSupplier);
+            Assert.assertEquals(data.getAsBytes(), expected);
+            NDList actual = decoded.getAsNDList(manager, "list");
+            Assert.assertEquals(actual.size(), 3);
+            Assert.assertEquals(actual.get(0).getName(), "a");
+            Assert.assertEquals(actual.get(0).getShape(), new Shape(2, 3));
+            Assert.assertEquals(actual.get(0).toFloatArray(), new float[] {0, 1, 2, 3, 4, 5});
+            Assert.assertEquals(actual.get(1).toIntArray(), new int[] {7, 8, 9});
+            Assert.assertEquals(actual.get(2).size(), 0);
+            Assert.assertEquals(decoded.getAsString("after"), "data");
+        }
+    }
 }
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality.cv.output;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class CategoryMaskTest {
+
+    @Test
+    public void testWriteJson() throws IOException {
+        int[][] mask = {{0, 0, 1}, {1, 1, 2}};
+        CategoryMask categoryMask = new CategoryMask(Arrays.asList("a", "b", "c"), mask);
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        categoryMask.writeJson(bos);
+        String json = new String(bos.toByteArray(), StandardCharsets.UTF_8);
+        Assert.assertEquals(
+                JsonParser.parseString(json), JsonParser.parseString(categoryMask.toJson()));
+    }
+
+    @Test
+    public void testRunLengthEncoding() {
+        int[][] mask = {{0, 0, 1}, {1, 1, 2}, {2, 2, 2}};
+        CategoryMask categoryMask = new CategoryMask(Arrays.asList("a", "b", "c"), mask);
+        categoryMask.setRunLengthEncoding(true);
+        JsonObject json = JsonParser.parseString(categoryMask.toJson()).getAsJsonObject();
+        Assert.assertEquals(json.get("height").getAsInt(), 3);
+        Assert.assertEquals(json.get("width").getAsInt(), 3);
+
+        JsonArray rle = json.getAsJsonArray("rle");
+        Assert.assertEquals(rle.size(), 6);
+        int[][] decoded = new int[3][3];
+        int pos = 0;
+        for (int i = 0; i < rle.size(); i += 2) {
+            int classId = rle.get(i).getAsInt();
+            for (int j = 0; j < rle.get(i + 1).getAsInt(); ++j, ++pos) {
+                decoded[pos / 3][pos % 3] = classId;
+            }
+        }
+        Assert.assertEquals(decoded, mask);
+        Assert.assertEquals(
+                new String(categoryMask.toByteBuffer().array(), StandardCharsets.UTF_8),
+                categoryMask.toJson());
+    }
+}
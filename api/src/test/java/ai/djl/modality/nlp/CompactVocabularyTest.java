@@ -0,0 +1,79 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality.nlp;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+public class CompactVocabularyTest {
+
+    @Test
+    public void testLookup() {
+        List<String> tokens = Arrays.asList("[PAD]", "hello", "world", "hello", "café", "😀");
+        CompactVocabulary vocab = CompactVocabulary.of(tokens, "[UNK]");
+        DefaultVocabulary expected =
+                DefaultVocabulary.builder().add(tokens).optUnknownToken("[UNK]").build();
+
+        Assert.assertEquals(vocab.size(), expected.size());
+        for (int i = 0; i < vocab.size(); ++i) {
+            String token = expected.getToken(i);
+            Assert.assertEquals(vocab.getToken(i), token);
+            Assert.assertEquals(vocab.getIndex(token), i);
+            Assert.assertTrue(vocab.contains(token));
+        }
+        Assert.assertFalse(vocab.contains("caf"));
+        Assert.assertFalse(vocab.contains("\ud83d"));
+        Assert.assertEquals(vocab.getIndex("missing"), 5);
+        Assert.assertEquals(vocab.getToken(100), "[UNK]");
+        Assert.assertEquals(
+                vocab.getIndices(Arrays.asList("world", "missing", "café")), new long[] {2, 5, 3});
+
+        CompactVocabulary noUnknown = CompactVocabulary.of(tokens, null);
+        Assert.assertEquals(noUnknown.size(), 5);
+        Assert.assertThrows(IllegalStateException.class, () -> noUnknown.getIndex("missing"));
+    }
+
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        Path dir = Paths.get("build/tmp/vocab");
+        Files.createDirectories(dir);
+        Path text = dir.resolve("vocab.txt");
+        Files.write(text, Arrays.asList("a", " b ", "", "[UNK]", "c"));
+        CompactVocabulary vocab = CompactVocabulary.fromTextFile(text, "[UNK]");
+        Assert.assertEquals(vocab.size(), 4);
+        Assert.assertEquals(vocab.getIndex("b"), 1);
+        Assert.assertEquals(vocab.getIndex("d"), 2);
+
+        Path file = dir.resolve("vocab.bin");
+        vocab.save(file);
+        CompactVocabulary loaded = CompactVocabulary.load(file);
+        Assert.assertEquals(loaded.size(), vocab.size());
+        for (int i = 0; i < vocab.size(); ++i) {
+            Assert.assertEquals(loaded.getToken(i), vocab.getToken(i));
+        }
+        Assert.assertEquals(loaded.getIndex("c"), 3);
+        Assert.assertEquals(loaded.getIndex("d"), 2);
+
+        Path invalid = dir.resolve("invalid.bin");
+        Files.write(invalid, "invalid".getBytes(StandardCharsets.UTF_8));
+        Assert.assertThrows(IllegalArgumentException.class, () -> CompactVocabulary.load(invalid));
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality.nlp.bert;
+
+import ai.djl.modality.nlp.preprocess.TextProcessor;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class BertNormalizerTest {
+
+    private static final String[] PIECES = {
+        "a", "Z", "hello", "DJL", "9", " ", "  ", "\t", "\n", " ", "　", "\u0000", "\u0007", "�",
+        ".", "'", "$", "-", "¿", "“", "、", "é", "É", "Å", "Σ", "İ", "ß", "中文", "😀", "𐄀", "Ａ"
+    };
+
+    @Test
+    public void testNormalize() {
+        BertNormalizer normalizer = new BertNormalizer(true);
+        List<String> words = new ArrayList<>();
+        normalizer.normalize(" Hello,\tWORLD!\u0000 Café ", words);
+        Assert.assertEquals(words, Arrays.asList("hello", ",", "world", "!", "cafe"));
+    }
+
+    @Test
+    public void testMatchesPreprocessors() {
+        Random random = new Random(1234);
+        for (boolean lowerCase : new boolean[] {true, false}) {
+            BertNormalizer normalizer = new BertNormalizer(lowerCase);
+            List<TextProcessor> processors = BertFullTokenizer.getPreprocessors(lowerCase);
+            for (int i = 0; i < 2000; ++i) {
+                StringBuilder sb = new StringBuilder();
+                int length = random.nextInt(12);
+                for (int j = 0; j < length; ++j) {
+                    sb.append(PIECES[random.nextInt(PIECES.length)]);
+                }
+                String text = sb.toString();
+                List<String> expected = Collections.singletonList(text);
+                for (TextProcessor processor : processors) {
+                    expected = processor.preprocess(expected);
+                }
+                expected.removeIf(String::isEmpty);
+                List<String> words = new ArrayList<>();
+                normalizer.normalize(text, words);
+                Assert.assertEquals(words, expected, text);
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.modality.nlp.bert;
+
+import ai.djl.modality.nlp.DefaultVocabulary;
+import ai.djl.modality.nlp.Vocabulary;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class WordpieceTokenizerTest {
+
+    @Test
+    public void testTokenize() {
+        Vocabulary vocabulary =
+                DefaultVocabulary.builder()
+                        .add(Arrays.asList("un", "##aff", "##able", "a", "##ff", "runn", "##ing"))
+                        .optUnknownToken("[UNK]")
+                        .build();
+        WordpieceTokenizer tokenizer = new WordpieceTokenizer(vocabulary, "[UNK]", 100);
+
+        List<String> tokens = new ArrayList<>();
+        long[] indices = tokenizer.encode(" unaffable  running unx ", tokens);
+        Assert.assertEquals(
+                tokens, Arrays.asList("un", "##aff", "##able", "runn", "##ing", "[UNK]"));
+        Assert.assertEquals(indices, new long[] {0, 1, 2, 5, 6, 7});
+        Assert.assertEquals(
+                tokenizer.tokenize("unaffable"), Arrays.asList("un", "##aff", "##able"));
+        Assert.assertEquals(tokenizer.encode("aff", null), new long[] {3, 4});
+    }
+
+    @Test
+    public void testMatchesGreedyLookup() {
+        Random random = new Random(1234);
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 200; ++i) {
+            String token = randomWord(random, 1 + random.nextInt(4));
+            tokens.add(random.nextBoolean() ? "##" + token : token);
+        }
+        Vocabulary vocabulary =
+                DefaultVocabulary.builder().add(tokens).optUnknownToken("[UNK]").build();
+        WordpieceTokenizer tokenizer = new WordpieceTokenizer(vocabulary, "[UNK]", 20);
+        WordpieceTokenizer expected =
+                new WordpieceTokenizer(new LookupVocabulary(vocabulary), "[UNK]", 20);
+
+        for (int i = 0; i < 2000; ++i) {
+            String word = randomWord(random, 1 + random.nextInt(12));
+            List<String> actualTokens = new ArrayList<>();
+            long[] indices = tokenizer.encode(word, actualTokens);
+            Assert.assertEquals(actualTokens, expected.tokenize(word), word);
+            Assert.assertEquals(indices, expected.encode(word, null), word);
+        }
+    }
+
+    private static String randomWord(Random random, int length) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; ++i) {
+            sb.append("abc#".charAt(random.nextInt(4)));
+        }
+        return sb.toString();
+    }
+
+    /** A vocabulary that can't list its tokens. */
+    private static final class LookupVocabulary implements Vocabulary {
+
+        private Vocabulary vocabulary;
+
+        LookupVocabulary(Vocabulary vocabulary) {
+            this.vocabulary = vocabulary;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String getToken(long index) {
+            return vocabulary.getToken(index);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean contains(String token) {
+            return vocabulary.contains(token);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public long getIndex(String token) {
+            return vocabulary.getIndex(token);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public long size() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.ndarray.index;
+
+import ai.djl.ndarray.index.dim.NDIndexAll;
+import ai.djl.ndarray.index.dim.NDIndexFixed;
+import ai.djl.ndarray.index.dim.NDIndexSlice;
+import ai.djl.ndarray.index.full.NDIndexFullSlice;
+import ai.djl.ndarray.types.Shape;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class NDIndexTest {
+
+    @Test
+    public void testCompile() {
+        NDIndex index = NDIndex.compile("1, :, 2:4, ...");
+        Assert.assertTrue(index.isCompiled());
+        Assert.assertTrue(index.isSliceOnly());
+        Assert.assertEquals(index.getRank(), 3);
+        Assert.assertEquals(index.getEllipsisIndex(), 3);
+        Assert.assertTrue(index.get(0) instanceof NDIndexFixed);
+        Assert.assertTrue(index.get(1) instanceof NDIndexAll);
+        Assert.assertTrue(index.get(2) instanceof NDIndexSlice);
+
+        Assert.assertThrows(IllegalStateException.class, index::addAllDim);
+        Assert.assertThrows(
+                UnsupportedOperationException.class,
+                () -> index.getIndices().add(new NDIndexAll()));
+        Assert.assertThrows(IllegalArgumentException.class, () -> NDIndex.compile("{}, 1"));
+        Assert.assertThrows(IllegalArgumentException.class, () -> NDIndex.compile("1, a"));
+
+        NDIndexFullSlice fullSlice =
+                NDIndexFullSlice.fromIndex(index, new Shape(2, 3, 5, 6)).orElse(null);
+        Assert.assertNotNull(fullSlice);
+        Assert.assertEquals(fullSlice.getSqueezedShape(), new Shape(3, 2, 6));
+
+        Assert.assertFalse(NDIndex.compile("null, 1").isSliceOnly());
+    }
+
+    @Test
+    public void testMutableCopy() {
+        NDIndex index = new NDIndex(":, 1");
+        Assert.assertFalse(index.isCompiled());
+        index.addSliceDim(0, 2).addEllipseDim();
+        Assert.assertEquals(index.getRank(), 3);
+        Assert.assertEquals(index.getEllipsisIndex(), 3);
+        Assert.assertEquals(NDIndex.compile(":, 1").getRank(), 2);
+
+        Assert.assertThrows(
+                IllegalArgumentException.class, () -> new NDIndex("...").addIndices("..., 1"));
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.nn;
+
+import ai.djl.metric.Metrics;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.training.ParameterStore;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+public class BlockProfilerTest {
+
+    @Test
+    public void testProfile() throws IOException {
+        Block block =
+                new SequentialBlock()
+                        .add(sleep(2), "first")
+                        .add(
+                                new ParallelBlock(
+                                        list -> list.get(0),
+                                        Arrays.asList(
+                                                new LambdaBlock(sleep(1)),
+                                                new LambdaBlock(sleep(1)))))
+                        .add(sleep(1), "last");
+        try (NDManager manager = NDManager.newBaseManager()) {
+            ParameterStore parameterStore = new ParameterStore(manager, false);
+
+            BlockProfiler profiler = BlockProfiler.start(false);
+            try {
+                Assert.assertThrows(IllegalStateException.class, () -> BlockProfiler.start(false));
+                block.forward(parameterStore, new NDList(), false);
+                block.forward(parameterStore, new NDList(), false);
+            } finally {
+                profiler.stop();
+            }
+            // not profiled anymore
+            block.forward(parameterStore, new NDList(), false);
+
+            List<BlockProfiler.Node> roots = profiler.getRoot().getChildren();
+            Assert.assertEquals(roots.size(), 1);
+            BlockProfiler.Node root = roots.get(0);
+            Assert.assertEquals(root.getName(), "SequentialBlock");
+            Assert.assertEquals(root.getCalls(), 2);
+
+            List<BlockProfiler.Node> children = root.getChildren();
+            Assert.assertEquals(children.size(), 3);
+            Assert.assertEquals(children.get(0).getPath(), "SequentialBlock;01LambdaBlock");
+            Assert.assertTrue(children.get(0).getTotalTime() >= 4_000_000);
+            BlockProfiler.Node parallel = children.get(1);
+            Assert.assertEquals(parallel.getChildren().size(), 2);
+            Assert.assertEquals(
+                    parallel.getChildren().get(1).getPath(),
+                    "SequentialBlock;02ParallelBlock;02LambdaBlock");
+            Assert.assertTrue(parallel.getTotalTime() >= parallel.getSelfTime());
+            long childTime = 0;
+            for (BlockProfiler.Node child : children) {
+                childTime += child.getTotalTime();
+            }
+            Assert.assertEquals(root.getSelfTime(), root.getTotalTime() - childTime);
+
+            StringWriter writer = new StringWriter();
+            profiler.writeFlameGraph(writer);
+            String[] lines = writer.toString().split("\n");
+            Assert.assertTrue(lines.length >= 4);
+            for (String line : lines) {
+                Assert.assertTrue(line.matches("SequentialBlock(;\\w+)* \\d+"), line);
+            }
+
+            Metrics metrics = new Metrics();
+            profiler.addMetrics(metrics);
+            Assert.assertEquals(metrics.getMetric("BlockCalls").size(), 6);
+            Assert.assertEquals(metrics.latestMetric("BlockCalls").getValue().intValue(), 2);
+        }
+    }
+
+    private static Function<NDList, NDList> sleep(long millis) {
+        return list -> {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return list;
+        };
+    }
+}
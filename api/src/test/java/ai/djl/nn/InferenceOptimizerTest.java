@@ -0,0 +1,188 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.nn;
+
+import ai.djl.MalformedModelException;
+import ai.djl.Model;
+import ai.djl.metric.Metric;
+import ai.djl.metric.Metrics;
+import ai.djl.metric.Unit;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.nn.convolutional.Conv2d;
+import ai.djl.nn.core.Linear;
+import ai.djl.nn.norm.BatchNorm;
+import ai.djl.nn.norm.Dropout;
+import ai.djl.training.ParameterStore;
+import ai.djl.util.Utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class InferenceOptimizerTest {
+
+    @Test
+    public void testOptimize() throws IOException, MalformedModelException {
+        Path dir = Files.createTempDirectory("optimized");
+        try (Model model = Model.newInstance("model");
+                Model loaded = Model.newInstance("model")) {
+            NDManager manager = model.getNDManager();
+            Block block = newBlock();
+            Shape inputShape = new Shape(2, 3, 6, 6);
+            block.initialize(manager, DataType.FLOAT32, inputShape);
+            for (Parameter param : block.getParameters().values()) {
+                // non trivial batch norm statistics
+                NDArray array = param.getArray();
+                array.addi(manager.randomUniform(0.1f, 1f, array.getShape()));
+            }
+            model.setBlock(block);
+
+            NDList input = new NDList(manager.randomUniform(-1f, 1f, inputShape));
+            NDArray expected = forward(block, manager, input);
+
+            InferenceOptimizer.optimize(model);
+            Assert.assertEquals(block.getChildren().size(), 3);
+            Block conv = block.getChildren().valueAt(0);
+            Assert.assertTrue(conv instanceof Conv2d);
+            Assert.assertTrue(((Conv2d) conv).isIncludeBias());
+            Assert.assertTrue(block.getChildren().valueAt(1) instanceof LambdaBlock);
+            Assert.assertTrue(block.getChildren().valueAt(2) instanceof Linear);
+            Assert.assertTrue(forward(block, manager, input).allClose(expected, 1e-4, 1e-5, false));
+
+            model.save(dir, "model");
+            Block optimized = newBlock();
+            InferenceOptimizer.optimize(optimized);
+            loaded.setBlock(optimized);
+            loaded.load(dir, "model");
+            NDArray actual = forward(optimized, loaded.getNDManager(), input);
+            Assert.assertTrue(actual.allClose(expected, 1e-4, 1e-5, false));
+        } finally {
+            Utils.deleteQuietly(dir);
+        }
+    }
+
+    @Test
+    public void testReleaseIntermediates() {
+        try (NDManager manager = NDManager.newBaseManager()) {
+            List<NDArray> intermediates = new ArrayList<>();
+            NDArray constant = manager.ones(new Shape(2));
+            SequentialBlock block = new SequentialBlock();
+            block.addSingleton(a -> record(intermediates, a.add(1)))
+                    .addSingleton(a -> a)
+                    .addSingleton(a -> record(intermediates, a.mul(2)))
+                    .add(list -> new NDList(list.singletonOrThrow(), constant))
+                    .add(list -> new NDList(list.get(0).add(list.get(1))));
+            Metrics metrics = new Metrics();
+            InferenceOptimizer.releaseIntermediates(block, metrics);
+
+            try (NDManager ctx = manager.newSubManager()) {
+                NDArray input = ctx.zeros(new Shape(2));
+                ParameterStore parameterStore = new ParameterStore(manager, false);
+                NDArray output =
+                        block.forward(parameterStore, new NDList(input), false).singletonOrThrow();
+                Assert.assertEquals(output.toFloatArray(), new float[] {3, 3});
+                Assert.assertSame(output.getManager(), ctx);
+                Assert.assertFalse(input.isReleased());
+                Assert.assertFalse(constant.isReleased());
+                Assert.assertTrue(intermediates.get(0).isReleased());
+                Assert.assertTrue(intermediates.get(1).isReleased());
+                Assert.assertEquals(block.getIntermediatePeakMemory(), 16);
+                Assert.assertEquals(block.getIntermediateMemorySaved(), 8);
+
+                // the memory saved is accumulated over the forward passes
+                block.forward(parameterStore, new NDList(input), false);
+                Assert.assertEquals(block.getIntermediatePeakMemory(), 16);
+                Assert.assertEquals(block.getIntermediateMemorySaved(), 16);
+
+                // each forward pass records its own metrics
+                Assert.assertEquals(metrics.getMetric("IntermediatePeakMemory").size(), 2);
+                Metric saved = metrics.latestMetric("IntermediateMemorySaved");
+                Assert.assertEquals(saved.getValue().longValue(), 8);
+                Assert.assertEquals(saved.getUnit(), Unit.BYTES);
+
+                // the intermediate results are kept during training
+                intermediates.clear();
+                block.forward(parameterStore, new NDList(input), true);
+                Assert.assertFalse(intermediates.get(0).isReleased());
+            }
+        }
+    }
+
+    @Test
+    public void testReleaseHeldIntermediate() {
+        try (NDManager manager = NDManager.newBaseManager();
+                NDManager held = manager.newSubManager()) {
+            List<NDArray> intermediates = new ArrayList<>();
+            SequentialBlock block = new SequentialBlock();
+            block.addSingleton(a -> record(intermediates, a.add(1)))
+                    .addSingleton(
+                            a -> {
+                                // the caller holds on to this intermediate result
+                                NDArray array = record(intermediates, a.mul(2));
+                                array.attach(held);
+                                return array;
+                            })
+                    .addSingleton(a -> a.add(1));
+            InferenceOptimizer.releaseIntermediates(block);
+
+            try (NDManager ctx = manager.newSubManager()) {
+                NDArray input = ctx.ones(new Shape(2));
+                ParameterStore parameterStore = new ParameterStore(manager, false);
+                NDArray output =
+                        block.forward(parameterStore, new NDList(input), false).singletonOrThrow();
+                Assert.assertEquals(output.toFloatArray(), new float[] {5, 5});
+                Assert.assertTrue(intermediates.get(0).isReleased());
+                NDArray array = intermediates.get(1);
+                Assert.assertFalse(array.isReleased());
+                Assert.assertSame(array.getManager(), held);
+                Assert.assertEquals(array.toFloatArray(), new float[] {4, 4});
+            }
+        }
+    }
+
+    private static NDArray record(List<NDArray> intermediates, NDArray array) {
+        intermediates.add(array);
+        return array;
+    }
+
+    private static NDArray forward(Block block, NDManager manager, NDList input) {
+        ParameterStore parameterStore = new ParameterStore(manager, false);
+        return block.forward(parameterStore, input, false).singletonOrThrow();
+    }
+
+    private static Block newBlock() {
+        return new SequentialBlock()
+                .add(
+                        Conv2d.builder()
+                                .setKernelShape(new Shape(3, 3))
+                                .setFilters(4)
+                                .optBias(false)
+                                .build())
+                .add(BatchNorm.builder().build())
+                .add(Activation.reluBlock())
+                .add(Dropout.builder().build())
+                .add(Blocks.batchFlattenBlock())
+                .add(Linear.builder().setUnits(5).build())
+                .add(BatchNorm.builder().build())
+                .add(Dropout.builder().build());
+    }
+}
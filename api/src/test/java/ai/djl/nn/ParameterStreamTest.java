@@ -0,0 +1,108 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.nn;
+
+import ai.djl.MalformedModelException;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.nn.core.Linear;
+import ai.djl.util.Pair;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class ParameterStreamTest {
+
+    @Test
+    public void testIndexedFormat() throws IOException, MalformedModelException {
+        Path file = Files.createTempFile("params", ".bin");
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try (NDManager manager = NDManager.newBaseManager()) {
+            Block block = newBlock(manager);
+            try (OutputStream os = Files.newOutputStream(file)) {
+                DataOutputStream dos = new DataOutputStream(os);
+                ParameterOutputStream.write(block, dos);
+                dos.flush();
+            }
+
+            Block loaded = newBlock();
+            readParameters(file, loaded, manager, executor, null);
+            Assert.assertTrue(loaded.isInitialized());
+            for (Pair<String, Parameter> pair : block.getParameters()) {
+                NDArray expected = pair.getValue().getArray();
+                NDArray actual = loaded.getParameters().get(pair.getKey()).getArray();
+                Assert.assertEquals(actual.getShape(), expected.getShape());
+                Assert.assertEquals(actual.toFloatArray(), expected.toFloatArray());
+            }
+
+            // only load the first layer
+            Block subset = newBlock();
+            readParameters(file, subset, manager, null, "01Linear");
+            ParameterList params = subset.getParameters();
+            Assert.assertTrue(params.get("01Linear_weight").isInitialized());
+            Assert.assertFalse(params.get("02Linear_weight").isInitialized());
+            Assert.assertEquals(params.get("02Linear_weight").getShape(), new Shape(2, 3));
+        } finally {
+            executor.shutdown();
+            Files.delete(file);
+        }
+    }
+
+    private static Block newBlock() {
+        return new SequentialBlock()
+                .add(Linear.builder().setUnits(3).build())
+                .add(Linear.builder().setUnits(2).build());
+    }
+
+    private static Block newBlock(NDManager manager) {
+        Block block = newBlock();
+        block.initialize(manager, DataType.FLOAT32, new Shape(2, 4));
+        // random weights, and distinct values for every element of every parameter
+        for (Parameter param : block.getParameters().values()) {
+            NDArray array = param.getArray();
+            array.addi(manager.arange((float) array.size()).reshape(array.getShape()));
+        }
+        return block;
+    }
+
+    private static void readParameters(
+            Path file, Block block, NDManager manager, ExecutorService executor, String prefix)
+            throws IOException, MalformedModelException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            DataInputStream dis =
+                    new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            ParameterInputStream pis =
+                    ParameterInputStream.newIndexedStream(dis, channel, executor);
+            if (prefix != null) {
+                pis.setFilter(name -> name.startsWith(prefix));
+            }
+            block.loadParameters(manager, pis);
+            pis.await();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.nn;
+
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.nn.core.Linear;
+import ai.djl.training.ParameterStore;
+import ai.djl.util.PairList;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+
+public class ShapeCacheTest {
+
+    @Test
+    public void testCache() {
+        CountingBlock counting = new CountingBlock(false);
+        CountingBlock dynamic = new CountingBlock(true);
+        Block block =
+                new SequentialBlock()
+                        .add(Linear.builder().setUnits(4).build())
+                        .add(new SequentialBlock().add(counting).add(dynamic));
+        ShapeCache cache = ShapeCache.attach(block);
+
+        Shape[] shapes = cache.getOutputShapes(new Shape(2, 3));
+        Assert.assertEquals(shapes, new Shape[] {new Shape(-1, 4)});
+        Assert.assertEquals(counting.calls, 1);
+        cache.getOutputShapes(new Shape(2, 3));
+        Assert.assertEquals(counting.calls, 1);
+        Assert.assertEquals(dynamic.calls, 2);
+        Assert.assertTrue(cache.getHitCount() > 0);
+        Assert.assertEquals(
+                cache.getDynamicBlocks(),
+                Collections.singletonList("02SequentialBlock/02CountingBlock"));
+
+        cache.getOutputShapes(new Shape(5, 3));
+        Assert.assertEquals(counting.calls, 2);
+
+        // a new block tree with the stored entries
+        String json = cache.toJson();
+        cache.detach();
+        block.getOutputShapes(new Shape[] {new Shape(2, 3)});
+        Assert.assertEquals(counting.calls, 3);
+
+        CountingBlock reloaded = new CountingBlock(false);
+        Block copy =
+                new SequentialBlock()
+                        .add(Linear.builder().setUnits(4).build())
+                        .add(new SequentialBlock().add(reloaded).add(new CountingBlock(true)));
+        ShapeCache loaded = ShapeCache.attach(copy);
+        loaded.fromJson(json);
+        Assert.assertEquals(
+                loaded.getOutputShapes(new Shape(5, 3)), new Shape[] {new Shape(-1, 4)});
+        Assert.assertEquals(reloaded.calls, 0);
+        Assert.assertEquals(loaded.getMissCount(), 0);
+    }
+
+    @Test
+    public void testChangedBlock() {
+        CountingBlock counting = new CountingBlock(false);
+        ShapeCache cache = ShapeCache.attach(new SequentialBlock().add(counting));
+        cache.getOutputShapes(new Shape(2, 3));
+        String json = cache.toJson();
+
+        // a new version of the block computes its output shapes again
+        CountingBlock changed = new CountingBlock(false, (byte) 2);
+        ShapeCache loaded = ShapeCache.attach(new SequentialBlock().add(changed));
+        loaded.fromJson(json);
+        loaded.getOutputShapes(new Shape(2, 3));
+        Assert.assertEquals(changed.calls, 1);
+        Assert.assertEquals(loaded.getHitCount(), 0);
+
+        CountingBlock same = new CountingBlock(false);
+        loaded = ShapeCache.attach(new SequentialBlock().add(same));
+        loaded.fromJson(json);
+        loaded.getOutputShapes(new Shape(2, 3));
+        Assert.assertEquals(same.calls, 0);
+        Assert.assertEquals(loaded.getMissCount(), 0);
+    }
+
+    @Test
+    public void testOutputDataTypes() {
+        CountingBlock counting = new CountingBlock(false);
+        ShapeCache cache = ShapeCache.attach(new SequentialBlock().add(counting));
+        cache.getOutputShapes(new Shape(2, 3));
+        String json = cache.toJson();
+
+        CountingBlock reloaded = new CountingBlock(false);
+        ShapeCache loaded = ShapeCache.attach(new SequentialBlock().add(reloaded));
+        loaded.fromJson(json);
+        loaded.getOutputShapes(new Shape(2, 3));
+        Assert.assertEquals(reloaded.calls, 0);
+        Assert.assertEquals(reloaded.getOutputDataTypes(), new DataType[] {DataType.FLOAT16});
+    }
+
+    private static final class CountingBlock extends AbstractBlock {
+
+        private boolean dynamic;
+        int calls;
+
+        CountingBlock(boolean dynamic) {
+            this(dynamic, (byte) 1);
+        }
+
+        CountingBlock(boolean dynamic, byte version) {
+            super(version);
+            this.dynamic = dynamic;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected NDList forwardInternal(
+                ParameterStore parameterStore,
+                NDList inputs,
+                boolean training,
+                PairList<String, Object> params) {
+            return inputs;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Shape[] getOutputShapes(Shape[] inputShapes) {
+            ++calls;
+            // like a LambdaBlock, the output data types are computed with the shapes
+            outputDataTypes = new DataType[] {DataType.FLOAT16};
+            if (dynamic) {
+                return new Shape[] {new Shape(-1, inputShapes[0].get(1))};
+            }
+            return inputShapes;
+        }
+    }
+}
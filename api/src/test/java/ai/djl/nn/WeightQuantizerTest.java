@@ -0,0 +1,135 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.nn;
+
+import ai.djl.MalformedModelException;
+import ai.djl.Model;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.nn.convolutional.Conv2d;
+import ai.djl.nn.core.Linear;
+import ai.djl.nn.transformer.IdEmbedding;
+import ai.djl.training.ParameterStore;
+import ai.djl.training.dataset.ArrayDataset;
+import ai.djl.training.loss.Loss;
+import ai.djl.translate.TranslateException;
+import ai.djl.util.Utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+public class WeightQuantizerTest {
+
+    @Test
+    public void testQuantize() throws IOException, MalformedModelException {
+        Path dir = Files.createTempDirectory("quantized");
+        try (Model model = Model.newInstance("model");
+                Model loaded = Model.newInstance("model")) {
+            NDManager manager = model.getNDManager();
+            Block block = newBlock();
+            Shape inputShape = new Shape(2, 3, 6, 6);
+            block.initialize(manager, DataType.FLOAT32, inputShape);
+            model.setBlock(block);
+
+            NDList input = new NDList(manager.randomUniform(-1f, 1f, inputShape));
+            NDArray expected = forward(block, manager, input);
+
+            WeightQuantizer.quantize(model);
+            for (Parameter param : block.getParameters().values()) {
+                if ("weight".equals(param.getName())) {
+                    Assert.assertTrue(param.isQuantized());
+                    Assert.assertEquals(param.getArray().getDataType(), DataType.INT8);
+                    Assert.assertFalse(param.requiresGradient());
+                } else {
+                    Assert.assertFalse(param.isQuantized());
+                }
+            }
+            NDArray actual = forward(block, manager, input);
+            Assert.assertEquals(actual.getDataType(), DataType.FLOAT32);
+            Assert.assertTrue(actual.allClose(expected, 0.05, 0.05, false));
+
+            model.save(dir, "model");
+            Block quantized = newBlock();
+            loaded.setBlock(quantized);
+            loaded.load(dir, "model");
+            Parameter weight = quantized.getParameters().get("01Conv2d_weight");
+            Assert.assertTrue(weight.isQuantized());
+            Assert.assertEquals(forward(quantized, loaded.getNDManager(), input), actual);
+        } finally {
+            Utils.deleteQuietly(dir);
+        }
+    }
+
+    @Test
+    public void testQuantizeEmbedding() {
+        try (NDManager manager = NDManager.newBaseManager()) {
+            IdEmbedding embedding =
+                    new IdEmbedding.Builder().setDictionarySize(5).setEmbeddingSize(4).build();
+            embedding.initialize(manager, DataType.FLOAT32, new Shape(2, 3));
+            Parameter table = embedding.getParameters().get("embedding");
+            NDArray original = table.getArray().duplicate();
+
+            WeightQuantizer.quantize(embedding);
+            Assert.assertTrue(table.isQuantized());
+            Assert.assertEquals(table.getScale().getShape(), new Shape(5));
+
+            NDArray ids = manager.create(new int[] {0, 4, 2, 2, 1, 3}, new Shape(2, 3));
+            NDArray output = forward(embedding, manager, new NDList(ids));
+            Assert.assertEquals(output.getShape(), new Shape(2, 3, 4));
+            NDArray rows = original.get(ids.flatten().toType(DataType.INT64, false));
+            Assert.assertTrue(output.reshape(6, 4).allClose(rows, 0.01, 0.01, false));
+        }
+    }
+
+    @Test
+    public void testDrift() throws IOException, TranslateException {
+        try (NDManager manager = NDManager.newBaseManager()) {
+            Block block = Linear.builder().setUnits(1).build();
+            block.initialize(manager, DataType.FLOAT32, new Shape(4, 8));
+            NDArray data = manager.randomUniform(-1f, 1f, new Shape(16, 8));
+            NDArray labels = forward(block, manager, new NDList(data));
+            ArrayDataset dataset =
+                    new ArrayDataset.Builder()
+                            .setData(data)
+                            .optLabels(labels)
+                            .setSampling(4, false)
+                            .build();
+
+            Map<String, Float> drift =
+                    WeightQuantizer.quantize(block, dataset, manager, Loss.l2Loss());
+            Assert.assertTrue(drift.get("L2Loss") >= 0);
+            Assert.assertTrue(drift.get("L2Loss") < 1e-3);
+        }
+    }
+
+    private static NDArray forward(Block block, NDManager manager, NDList input) {
+        ParameterStore parameterStore = new ParameterStore(manager, false);
+        return block.forward(parameterStore, input, false).singletonOrThrow();
+    }
+
+    private static Block newBlock() {
+        return new SequentialBlock()
+                .add(Conv2d.builder().setKernelShape(new Shape(3, 3)).setFilters(4).build())
+                .add(Activation.reluBlock())
+                .add(Blocks.batchFlattenBlock())
+                .add(Linear.builder().setUnits(5).build());
+    }
+}
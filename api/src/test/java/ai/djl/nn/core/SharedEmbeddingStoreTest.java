@@ -0,0 +1,205 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.nn.core;
+
+import ai.djl.MalformedModelException;
+import ai.djl.modality.nlp.DefaultVocabulary;
+import ai.djl.modality.nlp.embedding.TrainableWordEmbedding;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.training.ParameterStore;
+import ai.djl.util.Utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+public class SharedEmbeddingStoreTest {
+
+    @Test
+    public void testMapped() throws IOException {
+        Path file = newFile(5, 3);
+        try (SharedEmbeddingStore store = SharedEmbeddingStore.open(file)) {
+            Assert.assertFalse(store.isCached());
+            Assert.assertEquals(store.getNumEmbeddings(), 5);
+            Assert.assertEquals(store.getEmbeddingSize(), 3);
+            Assert.assertEquals(store.getDataType(), DataType.FLOAT32);
+            Assert.assertEquals(readRow(store, 4), new float[] {12, 13, 14});
+            Assert.assertEquals(readRow(store, 0), new float[] {0, 1, 2});
+            Assert.assertThrows(IllegalArgumentException.class, () -> readRow(store, 5));
+
+            // the open file is shared, regardless of the cache size
+            try (SharedEmbeddingStore shared = SharedEmbeddingStore.open(file, 2)) {
+                Assert.assertFalse(shared.isCached());
+                Assert.assertEquals(readRow(shared, 1), new float[] {3, 4, 5});
+            }
+            Assert.assertEquals(readRow(store, 1), new float[] {3, 4, 5});
+        } finally {
+            Utils.deleteQuietly(file);
+        }
+    }
+
+    @Test
+    public void testCached() throws IOException {
+        Path file = newFile(5, 3);
+        try (SharedEmbeddingStore store = SharedEmbeddingStore.open(file, 2)) {
+            Assert.assertTrue(store.isCached());
+            Assert.assertEquals(readRow(store, 1), new float[] {3, 4, 5});
+            Assert.assertEquals(readRow(store, 2), new float[] {6, 7, 8});
+            Assert.assertEquals(readRow(store, 1), new float[] {3, 4, 5});
+            Assert.assertEquals(store.getHitCount(), 1);
+            Assert.assertEquals(store.getMissCount(), 2);
+
+            // evicts the least recently used row 2
+            Assert.assertEquals(readRow(store, 3), new float[] {9, 10, 11});
+            Assert.assertEquals(readRow(store, 1), new float[] {3, 4, 5});
+            Assert.assertEquals(store.getHitCount(), 2);
+            Assert.assertEquals(readRow(store, 2), new float[] {6, 7, 8});
+            Assert.assertEquals(store.getMissCount(), 4);
+        } finally {
+            Utils.deleteQuietly(file);
+        }
+
+        // reopened after all the users closed it
+        file = newFile(2, 2);
+        try (SharedEmbeddingStore store = SharedEmbeddingStore.open(file)) {
+            Assert.assertEquals(store.getNumEmbeddings(), 2);
+        } finally {
+            Utils.deleteQuietly(file);
+        }
+    }
+
+    @Test
+    public void testClose() throws IOException {
+        Path file = newFile(2, 2);
+        try (SharedEmbeddingStore store = SharedEmbeddingStore.open(file)) {
+            SharedEmbeddingStore closed = SharedEmbeddingStore.open(file);
+            closed.close();
+            // closing again doesn't close the file of the other store
+            closed.close();
+            Assert.assertEquals(readRow(store, 1), new float[] {2, 3});
+
+            Assert.assertThrows(IllegalStateException.class, () -> readRow(closed, 1));
+            Assert.assertThrows(IllegalStateException.class, closed::getNumEmbeddings);
+        } finally {
+            Utils.deleteQuietly(file);
+        }
+    }
+
+    @Test
+    public void testEmbedding() throws IOException {
+        Path file = Files.createTempFile("embedding", ".bin");
+        try (NDManager manager = NDManager.newBaseManager()) {
+            NDArray matrix = manager.arange(12f).reshape(4, 3);
+            SharedEmbeddingStore.write(file, matrix);
+            try (SharedEmbeddingStore store = SharedEmbeddingStore.open(file)) {
+                TrainableWordEmbedding embedding =
+                        TrainableWordEmbedding.fromPretrained(
+                                store, Arrays.asList("a", "b", "c", "d"));
+                embedding.initialize(manager, DataType.FLOAT32, new Shape(2));
+                Assert.assertTrue(embedding.getParameters().isEmpty());
+
+                NDArray ids = manager.create(new long[] {3, 1});
+                ParameterStore parameterStore = new ParameterStore(manager, false);
+                NDArray rows =
+                        embedding
+                                .forward(parameterStore, new NDList(ids), false)
+                                .singletonOrThrow();
+                Assert.assertEquals(rows, matrix.get(ids));
+            }
+        } finally {
+            Utils.deleteQuietly(file);
+        }
+    }
+
+    @Test
+    public void testSaveLoad() throws IOException, MalformedModelException {
+        Path file = Files.createTempFile("embedding", ".bin");
+        Path other = newFile(3, 3);
+        try (NDManager manager = NDManager.newBaseManager()) {
+            SharedEmbeddingStore.write(file, manager.arange(12f).reshape(4, 3));
+            List<String> items = Arrays.asList("a", "b", "c", "d");
+            try (SharedEmbeddingStore store = SharedEmbeddingStore.open(file);
+                    SharedEmbeddingStore otherStore = SharedEmbeddingStore.open(other)) {
+                TrainableWordEmbedding embedding =
+                        TrainableWordEmbedding.fromPretrained(store, items);
+                embedding.initialize(manager, DataType.FLOAT32, new Shape(2));
+                ByteArrayOutputStream bos = new ByteArrayOutputStream();
+                embedding.saveParameters(new DataOutputStream(bos));
+                byte[] saved = bos.toByteArray();
+
+                TrainableWordEmbedding loaded = TrainableWordEmbedding.fromPretrained(store, items);
+                loaded.loadParameters(manager, newInput(saved));
+                Assert.assertTrue(loaded.getParameters().isEmpty());
+
+                TrainableWordEmbedding mismatch =
+                        TrainableWordEmbedding.fromPretrained(
+                                otherStore, Arrays.asList("a", "b", "c"));
+                Assert.assertThrows(
+                        MalformedModelException.class,
+                        () -> mismatch.loadParameters(manager, newInput(saved)));
+
+                // a regular embedding has no store to read the matrix from
+                TrainableWordEmbedding regular =
+                        TrainableWordEmbedding.builder()
+                                .setVocabulary(new DefaultVocabulary(items))
+                                .setEmbeddingSize(3)
+                                .build();
+                Assert.assertThrows(
+                        MalformedModelException.class,
+                        () -> regular.loadParameters(manager, newInput(saved)));
+            }
+        } finally {
+            Utils.deleteQuietly(file);
+            Utils.deleteQuietly(other);
+        }
+    }
+
+    private static DataInputStream newInput(byte[] buf) {
+        return new DataInputStream(new ByteArrayInputStream(buf));
+    }
+
+    private static float[] readRow(SharedEmbeddingStore store, long index) {
+        ByteBuffer bb = ByteBuffer.allocate(store.getEmbeddingSize() * 4);
+        store.copyRow(index, bb);
+        bb.rewind();
+        float[] row = new float[store.getEmbeddingSize()];
+        bb.order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(row);
+        return row;
+    }
+
+    private static Path newFile(int rows, int columns) throws IOException {
+        Path file = Files.createTempFile("embedding", ".bin");
+        ByteBuffer bb = ByteBuffer.allocate(rows * columns * 4).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < rows * columns; ++i) {
+            bb.putFloat(i);
+        }
+        bb.rewind();
+        SharedEmbeddingStore.write(file, bb, DataType.FLOAT32, new Shape(rows, columns));
+        return file;
+    }
+}
@@ -13,15 +13,31 @@
 package ai.djl.repository;
 
 import ai.djl.MalformedModelException;
+import ai.djl.Model;
+import ai.djl.metric.Metric;
+import ai.djl.metric.Metrics;
 import ai.djl.modality.Input;
 import ai.djl.modality.Output;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.nn.Block;
+import ai.djl.nn.LambdaBlock;
 import ai.djl.repository.zoo.Criteria;
 import ai.djl.repository.zoo.ModelNotFoundException;
+import ai.djl.repository.zoo.ZooModel;
+import ai.djl.translate.NoopTranslator;
+import ai.djl.translate.StackBatchifier;
+import ai.djl.translate.TranslateException;
+import ai.djl.util.Utils;
 
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 
 public class ZooTest {
 
@@ -48,4 +64,61 @@ public class ZooTest {
         Criteria<?, ?> criteria = Criteria.builder().build();
         criteria.loadModel();
     }
+
+    @Test
+    public void testWarmUp() throws TranslateException {
+        Block block = new LambdaBlock(list -> new NDList(list.singletonOrThrow().mul(2)));
+        try (Model model = Model.newInstance("model")) {
+            model.setBlock(block);
+            block.initialize(model.getNDManager(), DataType.FLOAT32, new Shape(-1, 3));
+            ZooModel<NDList, NDList> zooModel =
+                    new ZooModel<>(model, new NoopTranslator(new StackBatchifier()));
+
+            Metrics metrics = zooModel.warmUp(2, 1, 4);
+            List<Metric> warmUp = metrics.getMetric("WarmUp");
+            Assert.assertEquals(warmUp.size(), 4);
+            Assert.assertEquals(warmUp.get(3).getDimensions()[0].getValue(), "4");
+            Assert.assertEquals(metrics.getMetric("Inference").size(), 4);
+
+            NDList sample = new NDList(model.getNDManager().ones(new Shape(3)));
+            metrics = zooModel.warmUp(sample, 3, 2);
+            Assert.assertEquals(metrics.getMetric("WarmUp").size(), 3);
+
+            Assert.assertThrows(IllegalArgumentException.class, () -> zooModel.warmUp(1, 0));
+
+            // the inputs can have another data type than the model
+            DataType[] dataTypes = {DataType.INT64};
+            metrics = zooModel.warmUp(dataTypes, 1, 2);
+            Assert.assertEquals(metrics.getMetric("WarmUp").size(), 1);
+            DataType[] invalid = {DataType.INT64, DataType.INT64};
+            Assert.assertThrows(
+                    IllegalArgumentException.class, () -> zooModel.warmUp(invalid, 1, 2));
+        }
+    }
+
+    @Test
+    public void testInvalidWarmUpOptions() throws IOException {
+        Path modelDir = Files.createTempDirectory("model");
+        try {
+            Criteria<NDList, NDList> criteria =
+                    Criteria.builder()
+                            .setTypes(NDList.class, NDList.class)
+                            .optModelPath(modelDir)
+                            .optArgument("warmupIterations", "2")
+                            .optArgument("warmupBatchSizes", "1, x")
+                            .build();
+            Assert.assertThrows(MalformedModelException.class, criteria::loadModel);
+
+            Criteria<NDList, NDList> dataTypes =
+                    Criteria.builder()
+                            .setTypes(NDList.class, NDList.class)
+                            .optModelPath(modelDir)
+                            .optArgument("warmupIterations", "2")
+                            .optArgument("warmupDataTypes", "int64, x")
+                            .build();
+            Assert.assertThrows(MalformedModelException.class, dataTypes::loadModel);
+        } finally {
+            Utils.deleteQuietly(modelDir);
+        }
+    }
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training.dataset;
+
+import ai.djl.ndarray.NDManager;
+import ai.djl.util.Progress;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LengthBucketSamplerTest {
+
+    @Test
+    public void testSample() {
+        int[] lengths = new int[1000];
+        for (int i = 0; i < lengths.length; ++i) {
+            lengths[i] = 1 + (i * 37) % 100;
+        }
+        AtomicInteger calls = new AtomicInteger();
+        LengthBucketSampler sampler =
+                LengthBucketSampler.builder()
+                        .setLengthFunction(
+                                i -> {
+                                    calls.incrementAndGet();
+                                    return lengths[(int) i];
+                                })
+                        .setMaxTokens(256)
+                        .optWindowSize(200)
+                        .optPadToMultipleOf(8)
+                        .build();
+        RandomAccessDataset dataset = new FixedSizeDataset(lengths.length);
+
+        for (int epoch = 0; epoch < 2; ++epoch) {
+            boolean[] seen = new boolean[lengths.length];
+            Iterator<List<Long>> it = sampler.sample(dataset);
+            while (it.hasNext()) {
+                List<Long> batch = it.next();
+                int max = 0;
+                for (long index : batch) {
+                    Assert.assertFalse(seen[(int) index]);
+                    seen[(int) index] = true;
+                    max = Math.max(max, (lengths[(int) index] + 7) / 8 * 8);
+                }
+                Assert.assertTrue(batch.size() * max <= 256);
+            }
+            for (boolean b : seen) {
+                Assert.assertTrue(b);
+            }
+        }
+        // the lengths are cached across epochs
+        Assert.assertEquals(calls.get(), lengths.length);
+        Assert.assertEquals(sampler.getBatchSize(), -1);
+    }
+
+    private static final class FixedSizeDataset extends RandomAccessDataset {
+
+        private long size;
+
+        FixedSizeDataset(long size) {
+            super(new Builder().setSampling(1, false));
+            this.size = size;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Record get(NDManager manager, long index) {
+            throw new UnsupportedOperationException();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        protected long availableSize() {
+            return size;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void prepare(Progress progress) {}
+
+        private static final class Builder extends BaseBuilder<Builder> {
+
+            /** {@inheritDoc} */
+            @Override
+            protected Builder self() {
+                return this;
+            }
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training.dataset;
+
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.translate.Pipeline;
+import ai.djl.translate.Transform;
+import ai.djl.translate.TranslateException;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.function.Supplier;
+
+public class ProcessWorkerPoolTest {
+
+    @Test
+    public void testProcessWorkers() throws IOException, TranslateException {
+        try (NDManager manager = NDManager.newBaseManager();
+                ProcessWorkerPool pool =
+                        ProcessWorkerPool.builder()
+                                .setDatasetFactory(RangeDatasetFactory.class)
+                                .setNumWorkers(2)
+                                .optSlotSize(4096)
+                                .build()) {
+            ArrayDataset dataset =
+                    RangeDatasetFactory.newBuilder(manager).optWorkerPool(pool).build();
+            for (int epoch = 0; epoch < 2; ++epoch) {
+                float expected = 0;
+                for (Batch batch : dataset.getData(manager)) {
+                    NDArray data = batch.getData().singletonOrThrow();
+                    NDArray labels = batch.getLabels().singletonOrThrow();
+                    for (float value : data.toFloatArray()) {
+                        Assert.assertEquals(value, expected++);
+                    }
+                    Assert.assertEquals(labels.toFloatArray(), data.mul(2).toFloatArray());
+                    batch.close();
+                }
+                Assert.assertEquals(expected, 10f);
+            }
+        }
+    }
+
+    @Test
+    public void testWorkerRestart() throws IOException, TranslateException, InterruptedException {
+        try (NDManager manager = NDManager.newBaseManager();
+                ProcessWorkerPool pool =
+                        ProcessWorkerPool.builder()
+                                .setDatasetFactory(RangeDatasetFactory.class)
+                                .setNumWorkers(2)
+                                .optSlotSize(4096)
+                                .build()) {
+            ArrayDataset dataset =
+                    RangeDatasetFactory.newBuilder(manager).optWorkerPool(pool).build();
+            Process killed = null;
+            float expected = 0;
+            for (Batch batch : dataset.getData(manager)) {
+                if (killed == null) {
+                    // the pending batches of the worker are loaded again by the new process
+                    killed = kill(pool, 0);
+                }
+                for (float value : batch.getData().singletonOrThrow().toFloatArray()) {
+                    Assert.assertEquals(value, expected++);
+                }
+                batch.close();
+            }
+            Assert.assertEquals(expected, 10f);
+            Assert.assertNotSame(pool.getProcess(0), killed);
+        }
+    }
+
+    @Test
+    public void testSeededOrder() throws IOException, TranslateException, InterruptedException {
+        float[] expected = loadNoisy(2, 7, false);
+        // the batches don't depend on the restarts or the number of workers
+        Assert.assertEquals(loadNoisy(2, 7, true), expected);
+        Assert.assertEquals(loadNoisy(3, 7, false), expected);
+        Assert.assertNotEquals(loadNoisy(2, 8, false), expected);
+    }
+
+    @Test
+    public void testRequiredSlots() {
+        // the prefetched batches, the batch being returned and the batch still held
+        Assert.assertEquals(ProcessWorkerPool.getRequiredSlots(2, 2), 2);
+        Assert.assertEquals(ProcessWorkerPool.getRequiredSlots(2, 3), 3);
+        Assert.assertEquals(ProcessWorkerPool.getRequiredSlots(4, 2), 1);
+        Assert.assertEquals(ProcessWorkerPool.getRequiredSlots(1, 0), 2);
+        Assert.assertEquals(ProcessWorkerPool.getRequiredSlots(3, 16), 6);
+    }
+
+    private static float[] loadNoisy(int numWorkers, int seed, boolean restart)
+            throws IOException, TranslateException, InterruptedException {
+        try (NDManager manager = NDManager.newBaseManager();
+                ProcessWorkerPool pool =
+                        ProcessWorkerPool.builder()
+                                .setDatasetFactory(NoisyDatasetFactory.class)
+                                .setNumWorkers(numWorkers)
+                                .optSlotSize(4096)
+                                .optSeed(seed)
+                                .build()) {
+            ArrayDataset dataset =
+                    NoisyDatasetFactory.newBuilder(manager).optWorkerPool(pool).build();
+            float[] values = new float[20];
+            int count = 0;
+            for (int epoch = 0; epoch < 2; ++epoch) {
+                for (Batch batch : dataset.getData(manager)) {
+                    if (restart && count == 0) {
+                        kill(pool, 0);
+                    }
+                    for (float value : batch.getData().singletonOrThrow().toFloatArray()) {
+                        values[count++] = value;
+                    }
+                    batch.close();
+                }
+            }
+            Assert.assertEquals(count, 20);
+            return values;
+        }
+    }
+
+    private static Process kill(ProcessWorkerPool pool, int worker) throws InterruptedException {
+        Process process = pool.getProcess(worker);
+        process.destroyForcibly().waitFor();
+        return process;
+    }
+
+    /** Creates the dataset in the worker processes. */
+    public static final class RangeDatasetFactory implements Supplier<ArrayDataset> {
+
+        static ArrayDataset.Builder newBuilder(NDManager manager) {
+            NDArray data = manager.arange(10f).reshape(10, 1);
+            return new ArrayDataset.Builder()
+                    .setData(data)
+                    .optLabels(data.mul(2))
+                    .setSampling(4, false);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public ArrayDataset get() {
+            return newBuilder(NDManager.newBaseManager()).build();
+        }
+    }
+
+    /** Creates a dataset with a random pipeline in the worker processes. */
+    public static final class NoisyDatasetFactory implements Supplier<ArrayDataset> {
+
+        static ArrayDataset.Builder newBuilder(NDManager manager) {
+            Transform noise = a -> a.add(a.getManager().randomUniform(0f, 1f, a.getShape()));
+            return RangeDatasetFactory.newBuilder(manager).optPipeline(new Pipeline(noise));
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public ArrayDataset get() {
+            return newBuilder(NDManager.newBaseManager()).build();
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training.dataset;
+
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.training.dataset.ShuffleBufferDataset.Shard;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+public class ShuffleBufferDatasetTest {
+
+    @Test
+    public void testShuffle() {
+        ShuffleBufferDataset.Builder builder =
+                ShuffleBufferDataset.builder()
+                        .setBatchSize(4)
+                        .optBufferSize(8)
+                        .optCycleLength(2)
+                        .optSeed(1234);
+        for (int i = 0; i < 5; ++i) {
+            builder.addShard(newShard(i, 10));
+        }
+        ShuffleBufferDataset dataset = builder.build();
+
+        try (NDManager manager = NDManager.newBaseManager()) {
+            List<Float> epoch0 = iterate(dataset, manager);
+            List<Float> epoch1 = iterate(dataset, manager);
+            dataset.setEpoch(0);
+            List<Float> replay = iterate(dataset, manager);
+
+            Assert.assertEquals(replay, epoch0);
+            Assert.assertNotEquals(epoch1, epoch0);
+
+            // each iterator of an epoch returns the same batches
+            dataset.setEpoch(0);
+            Iterable<Batch> iterable = dataset.getData(manager);
+            Assert.assertEquals(iterate(iterable), epoch0);
+            Assert.assertEquals(iterate(iterable), epoch0);
+
+            List<Float> sorted = new ArrayList<>(epoch0);
+            Collections.sort(sorted);
+            for (int i = 0; i < 50; ++i) {
+                Assert.assertEquals(sorted.get(i), (float) i);
+            }
+        }
+    }
+
+    @Test
+    public void testSmallBuffer() {
+        ShuffleBufferDataset.Builder builder =
+                ShuffleBufferDataset.builder()
+                        .setBatchSize(4)
+                        .optBufferSize(2)
+                        .addShard(newShard(0, 10));
+        try (NDManager manager = NDManager.newBaseManager()) {
+            Assert.assertEquals(batchSizes(builder.build(), manager), Arrays.asList(4, 4, 2));
+
+            builder.optDropLast(true);
+            Assert.assertEquals(batchSizes(builder.build(), manager), Arrays.asList(4, 4));
+        }
+    }
+
+    @Test
+    public void testEarlyStop() throws Exception {
+        AtomicInteger closed = new AtomicInteger();
+        ShuffleBufferDataset.Builder builder =
+                ShuffleBufferDataset.builder().setBatchSize(2).optBufferSize(4).optCycleLength(2);
+        for (int i = 0; i < 3; ++i) {
+            Shard shard = newShard(i, 10);
+            builder.addShard(manager -> new ClosableIterator(shard.open(manager), closed));
+        }
+        ShuffleBufferDataset dataset = builder.build();
+
+        try (NDManager manager = NDManager.newBaseManager()) {
+            Iterator<Batch> it = dataset.getData(manager).iterator();
+            it.next().close();
+            Assert.assertEquals(closed.get(), 0);
+            ((AutoCloseable) it).close();
+            Assert.assertEquals(closed.get(), 2);
+            Assert.assertFalse(it.hasNext());
+        }
+    }
+
+    private static List<Integer> batchSizes(ShuffleBufferDataset dataset, NDManager manager) {
+        List<Integer> sizes = new ArrayList<>();
+        for (Batch batch : dataset.getData(manager)) {
+            sizes.add(batch.getSize());
+            batch.close();
+        }
+        return sizes;
+    }
+
+    private static Shard newShard(int shard, int size) {
+        return manager ->
+                IntStream.range(0, size)
+                        .mapToObj(
+                                j -> {
+                                    NDList data =
+                                            new NDList(manager.create((float) shard * size + j));
+                                    return new Record(data, new NDList());
+                                })
+                        .iterator();
+    }
+
+    private static List<Float> iterate(ShuffleBufferDataset dataset, NDManager manager) {
+        return iterate(dataset.getData(manager));
+    }
+
+    private static List<Float> iterate(Iterable<Batch> iterable) {
+        List<Float> values = new ArrayList<>();
+        for (Batch batch : iterable) {
+            Assert.assertTrue(batch.getSize() <= 4);
+            for (float value : batch.getData().head().toFloatArray()) {
+                values.add(value);
+            }
+            batch.close();
+        }
+        return values;
+    }
+
+    private static final class ClosableIterator implements Iterator<Record>, AutoCloseable {
+
+        private Iterator<Record> it;
+        private AtomicInteger closed;
+
+        ClosableIterator(Iterator<Record> it, AtomicInteger closed) {
+            this.it = it;
+            this.closed = closed;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean hasNext() {
+            return it.hasNext();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Record next() {
+            return it.next();
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public void close() {
+            closed.incrementAndGet();
+        }
+    }
+}
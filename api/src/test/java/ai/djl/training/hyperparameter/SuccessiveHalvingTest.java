@@ -0,0 +1,45 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training.hyperparameter;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class SuccessiveHalvingTest {
+
+    @Test
+    public void testShouldStop() {
+        SuccessiveHalving policy = new SuccessiveHalving(1, 3);
+
+        // rung at epoch 1
+        Assert.assertFalse(policy.shouldStop(1, 1.0f));
+        Assert.assertTrue(policy.shouldStop(1, 2.0f));
+        Assert.assertFalse(policy.shouldStop(1, 0.5f));
+
+        // epoch 2 is not a rung
+        Assert.assertFalse(policy.shouldStop(2, 10f));
+
+        // rung at epoch 3 records its own losses
+        Assert.assertFalse(policy.shouldStop(3, 1.0f));
+        Assert.assertTrue(policy.shouldStop(3, 1.5f));
+
+        SuccessiveHalving delayed = new SuccessiveHalving(2, 2);
+        Assert.assertFalse(delayed.shouldStop(1, 1.0f));
+        Assert.assertFalse(delayed.shouldStop(2, 1.0f));
+        Assert.assertTrue(delayed.shouldStop(2, 3.0f));
+        Assert.assertFalse(delayed.shouldStop(6, 10f));
+        Assert.assertFalse(delayed.shouldStop(8, 1.0f));
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> new SuccessiveHalving(0));
+    }
+}
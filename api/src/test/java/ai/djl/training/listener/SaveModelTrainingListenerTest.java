@@ -0,0 +1,168 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.training.listener;
+
+import ai.djl.MalformedModelException;
+import ai.djl.Model;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.Shape;
+import ai.djl.nn.Block;
+import ai.djl.nn.Parameter;
+import ai.djl.nn.core.Linear;
+import ai.djl.training.DefaultTrainingConfig;
+import ai.djl.training.Trainer;
+import ai.djl.training.loss.Loss;
+import ai.djl.training.optimizer.Optimizer;
+import ai.djl.training.tracker.Tracker;
+import ai.djl.util.Utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class SaveModelTrainingListenerTest {
+
+    @Test
+    public void testAsyncCheckpoint() throws IOException, MalformedModelException {
+        testCheckpoints(true);
+    }
+
+    @Test
+    public void testKeepCheckpoints() throws IOException, MalformedModelException {
+        testCheckpoints(false);
+    }
+
+    private void testCheckpoints(boolean async) throws IOException, MalformedModelException {
+        Path dir = Files.createTempDirectory("checkpoints");
+        try (Model model = Model.newInstance("model")) {
+            model.setBlock(newBlock());
+            SaveModelTrainingListener listener =
+                    new SaveModelTrainingListener(dir.toString(), null, 1);
+            listener.setAsyncCheckpoint(async);
+            listener.setKeepCheckpoints(2);
+
+            List<float[]> weights = new ArrayList<>();
+            try (Trainer trainer = model.newTrainer(new DefaultTrainingConfig(Loss.l2Loss()))) {
+                trainer.initialize(new Shape(1, 3));
+                NDArray weight = model.getBlock().getParameters().get("weight").getArray();
+                for (int i = 0; i < 5; ++i) {
+                    weight.addi(1);
+                    weights.add(weight.toFloatArray());
+                    listener.onEpoch(trainer);
+                }
+                listener.onTrainingEnd(trainer);
+            }
+
+            // only the last 2 checkpoints are kept, and no temporary file is left
+            List<String> files;
+            try (Stream<Path> stream = Files.list(dir)) {
+                files = stream.map(p -> p.toFile().getName()).collect(Collectors.toList());
+            }
+            Collections.sort(files);
+            if (async) {
+                // the optimizer state is saved next to the parameters
+                Assert.assertEquals(
+                        files,
+                        Arrays.asList(
+                                "model-0004.optimizer",
+                                "model-0004.params",
+                                "model-0005.optimizer",
+                                "model-0005.params"));
+            } else {
+                Assert.assertEquals(files, Arrays.asList("model-0004.params", "model-0005.params"));
+            }
+
+            for (int epoch = 4; epoch <= 5; ++epoch) {
+                try (Model loaded = Model.newInstance("model")) {
+                    loaded.setBlock(newBlock());
+                    loaded.load(dir, "model", Collections.singletonMap("epoch", epoch));
+                    Assert.assertEquals(loaded.getProperty("Epoch"), String.valueOf(epoch));
+                    NDArray weight = loaded.getBlock().getParameters().get("weight").getArray();
+                    Assert.assertEquals(weight.toFloatArray(), weights.get(epoch - 1));
+                }
+            }
+        } finally {
+            Utils.deleteQuietly(dir);
+        }
+    }
+
+    @Test
+    public void testOptimizerStates() throws IOException, MalformedModelException {
+        Path dir = Files.createTempDirectory("checkpoints");
+        try (Model model = Model.newInstance("model")) {
+            model.setBlock(newBlock());
+            SaveModelTrainingListener listener =
+                    new SaveModelTrainingListener(dir.toString(), null, 1);
+            listener.setAsyncCheckpoint(true);
+
+            float[] momentum;
+            try (Trainer trainer = model.newTrainer(newConfig())) {
+                trainer.initialize(new Shape(1, 3));
+                Parameter parameter = model.getBlock().getParameters().get("weight");
+                NDArray weight = parameter.getArray();
+                Optimizer optimizer = trainer.getOptimizer();
+                optimizer.update(parameter.getId(), weight, weight.onesLike());
+                momentum = getMomentum(trainer, parameter);
+                listener.onEpoch(trainer);
+                // the checkpoint is not affected by the updates after it was taken
+                optimizer.update(parameter.getId(), weight, weight.onesLike());
+                listener.onTrainingEnd(trainer);
+            }
+
+            try (Model loaded = Model.newInstance("model")) {
+                loaded.setBlock(newBlock());
+                loaded.load(dir, "model", Collections.singletonMap("epoch", 1));
+                try (Trainer trainer = loaded.newTrainer(newConfig())) {
+                    trainer.initialize(new Shape(1, 3));
+                    SaveModelTrainingListener.loadOptimizerStates(
+                            trainer, dir.resolve("model-0001.optimizer"));
+                    Parameter parameter = loaded.getBlock().getParameters().get("weight");
+                    Assert.assertEquals(getMomentum(trainer, parameter), momentum);
+                }
+            }
+        } finally {
+            Utils.deleteQuietly(dir);
+        }
+    }
+
+    private static float[] getMomentum(Trainer trainer, Parameter parameter) {
+        try (NDManager manager = trainer.getManager().newSubManager()) {
+            NDList states = trainer.getOptimizer().getStates(manager);
+            return states.get("momentumStates/" + parameter.getId()).toFloatArray();
+        }
+    }
+
+    private static DefaultTrainingConfig newConfig() {
+        return new DefaultTrainingConfig(Loss.l2Loss())
+                .optOptimizer(
+                        Optimizer.sgd()
+                                .setLearningRateTracker(Tracker.fixed(0.1f))
+                                .optMomentum(0.9f)
+                                .build());
+    }
+
+    private static Block newBlock() {
+        return Linear.builder().setUnits(2).build();
+    }
+}
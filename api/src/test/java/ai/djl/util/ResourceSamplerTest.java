@@ -0,0 +1,48 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.util;
+
+import ai.djl.metric.Metrics;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+public class ResourceSamplerTest {
+
+    @Test
+    public void testSample() throws InterruptedException {
+        Metrics metrics = new Metrics();
+        ByteBuffer buf = ByteBuffer.allocateDirect(1024 * 1024);
+        try (ResourceSampler sampler = new ResourceSampler(metrics)) {
+            sampler.sample();
+            Assert.assertTrue(metrics.latestMetric("Heap").getValue() > 0);
+            Assert.assertTrue(metrics.latestMetric("DirectBuffer").getValue() >= buf.capacity());
+            if (ResourceSampler.isProcSupported()) {
+                Assert.assertTrue(metrics.latestMetric("rss").getValue() > 0);
+                Assert.assertTrue(metrics.latestMetric("cpu").getValue() >= 0);
+            }
+
+            sampler.start(10, TimeUnit.MILLISECONDS);
+            Assert.assertThrows(
+                    IllegalStateException.class, () -> sampler.start(10, TimeUnit.MILLISECONDS));
+            long deadline = System.currentTimeMillis() + 5000;
+            while (metrics.getMetric("Heap").size() < 3 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            Assert.assertTrue(metrics.getMetric("Heap").size() >= 3);
+        }
+    }
+}
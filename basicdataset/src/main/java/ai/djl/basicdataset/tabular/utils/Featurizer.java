@@ -38,6 +38,23 @@ public interface Featurizer {
      */
     Object deFeaturize(float[] data);
 
+    /**
+     * A {@link Featurizer} that encodes a numeric value into a single float.
+     *
+     * <p>Datasets with typed numeric columns can featurize the values directly, without formatting
+     * them into strings and parsing them back.
+     */
+    interface ScalarFeaturizer extends Featurizer {
+
+        /**
+         * Returns the encoded value of a numeric input.
+         *
+         * @param value the numeric input
+         * @return the encoded value
+         */
+        float featurize(double value);
+    }
+
     /**
      * A {@link Featurizer} that only supports the data featurize operations, but not the full
      * deFeaturize operations used by labels.
@@ -103,7 +103,7 @@ public final class Featurizers {
         return new EpochDayFeaturizer(datePattern);
     }
 
-    private static final class NumericFeaturizer implements Featurizer {
+    private static final class NumericFeaturizer implements Featurizer.ScalarFeaturizer {
 
         /** {@inheritDoc} */
         @Override
@@ -111,6 +111,12 @@ public final class Featurizers {
             buf.put(Float.parseFloat(input));
         }
 
+        /** {@inheritDoc} */
+        @Override
+        public float featurize(double value) {
+            return (float) value;
+        }
+
         /** {@inheritDoc} */
         @Override
         public int dataRequired() {
@@ -124,7 +130,8 @@ public final class Featurizers {
         }
     }
 
-    private static final class NormalizedNumericFeaturizer implements PreparedFeaturizer {
+    private static final class NormalizedNumericFeaturizer
+            implements PreparedFeaturizer, Featurizer.ScalarFeaturizer {
 
         private float mean;
         private float std;
@@ -136,6 +143,12 @@ public final class Featurizers {
             buf.put(value);
         }
 
+        /** {@inheritDoc} */
+        @Override
+        public float featurize(double value) {
+            return ((float) value - mean) / std;
+        }
+
         /** {@inheritDoc} */
         @Override
         public void prepare(List<String> inputs) {
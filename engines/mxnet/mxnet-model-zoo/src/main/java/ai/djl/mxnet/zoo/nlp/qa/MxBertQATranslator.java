@@ -13,7 +13,7 @@
 package ai.djl.mxnet.zoo.nlp.qa;
 
 import ai.djl.Model;
-import ai.djl.modality.nlp.DefaultVocabulary;
+import ai.djl.modality.nlp.CompactVocabulary;
 import ai.djl.modality.nlp.Vocabulary;
 import ai.djl.modality.nlp.bert.BertToken;
 import ai.djl.modality.nlp.bert.BertTokenizer;
@@ -59,12 +59,8 @@ public class MxBertQATranslator extends QATranslator {
     @Override
     public void prepare(TranslatorContext ctx) throws IOException {
         Model model = ctx.getModel();
-        vocabulary =
-                DefaultVocabulary.builder()
-                        .addFromCustomizedFile(
-                                model.getArtifact("vocab.json"), VocabParser::parseToken)
-                        .optUnknownToken("[UNK]")
-                        .build();
+        List<String> idx2token = VocabParser.parseToken(model.getArtifact("vocab.json"));
+        vocabulary = CompactVocabulary.of(idx2token, "[UNK]");
         tokenizer = new BertTokenizer();
     }
 
@@ -19,6 +19,7 @@ import ai.djl.modality.cv.output.Rectangle;
 import ai.djl.modality.cv.util.NDImageUtils;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.index.NDIndex;
 import ai.djl.ndarray.types.Shape;
 import ai.djl.translate.ArgumentsUtil;
 import ai.djl.translate.NoBatchifyTranslator;
@@ -35,6 +36,8 @@ import java.util.Map;
  */
 public class PpFaceDetectionTranslator implements NoBatchifyTranslator<Image, DetectedObjects> {
 
+    private static final NDIndex FACE_PROBABILITY = NDIndex.compile(":,1");
+
     private float shrink;
     private float threshold;
     private List<String> className;
@@ -70,7 +73,7 @@ public class PpFaceDetectionTranslator implements NoBatchifyTranslator<Image, De
     @Override
     public DetectedObjects processOutput(TranslatorContext ctx, NDList list) {
         NDArray result = list.singletonOrThrow();
-        float[] probabilities = result.get(":,1").toFloatArray();
+        float[] probabilities = result.get(FACE_PROBABILITY).toFloatArray();
         List<String> names = new ArrayList<>();
         List<Double> prob = new ArrayList<>();
         List<BoundingBox> boxes = new ArrayList<>();
@@ -16,12 +16,16 @@ import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.index.NDArrayIndexer;
 import ai.djl.ndarray.index.NDIndex;
 import ai.djl.ndarray.index.dim.NDIndexBooleans;
+import ai.djl.ndarray.index.dim.NDIndexElement;
+import ai.djl.ndarray.index.dim.NDIndexFixed;
+import ai.djl.ndarray.index.dim.NDIndexSlice;
 import ai.djl.ndarray.index.full.NDIndexFullPick;
 import ai.djl.ndarray.index.full.NDIndexFullSlice;
 import ai.djl.ndarray.index.full.NDIndexFullTake;
 import ai.djl.ndarray.types.Shape;
 import ai.djl.pytorch.jni.JniUtils;
 
+import java.util.List;
 import java.util.Stack;
 
 /** The {@link NDArrayIndexer} used by the {@link PtNDArray}. */
@@ -52,8 +56,13 @@ public class PtNDArrayIndexer extends NDArrayIndexer {
         long[] min = fullSlice.getMin();
         long[] max = fullSlice.getMax();
         long[] step = fullSlice.getStep();
-        try (PtNDArray res = JniUtils.index(manager.from(array), min, max, step, manager)) {
-            return res.squeeze(fullSlice.getToSqueeze());
+        int[] toSqueeze = fullSlice.getToSqueeze();
+        PtNDArray res = JniUtils.index(manager.from(array), min, max, step, manager);
+        if (toSqueeze.length == 0) {
+            return res;
+        }
+        try (PtNDArray sliced = res) {
+            return sliced.squeeze(toSqueeze);
         }
     }
 
@@ -67,7 +76,21 @@ public class PtNDArrayIndexer extends NDArrayIndexer {
                         : manager.create(
                                 array.toByteBuffer(), array.getShape(), array.getDataType());
             }
-            index.addAllDim();
+            // don't update the index of the caller, it can be compiled and shared
+            NDIndex all = new NDIndex();
+            if (index.getEllipsisIndex() == 0) {
+                all.addEllipseDim();
+            }
+            index = all.addAllDim();
+        }
+
+        if (array instanceof PtNDArray && isSimpleSlice(index, array.getShape())) {
+            // a single torchIndex call instead of building the index element by element
+            NDIndexFullSlice fullSlice =
+                    NDIndexFullSlice.fromIndex(index, array.getShape()).orElse(null);
+            if (fullSlice != null) {
+                return get(array, fullSlice);
+            }
         }
 
         if (array == null || array instanceof PtNDArray) {
@@ -79,6 +102,39 @@ public class PtNDArrayIndexer extends NDArrayIndexer {
         }
     }
 
+    private static boolean isSimpleSlice(NDIndex index, Shape shape) {
+        // NDIndexFullSlice wraps negative indices only once, every fixed index must be in range
+        // and no slice bound can be below -size, where PyTorch clamps the bound instead.
+        // PyTorch doesn't support negative steps.
+        if (!index.isSliceOnly() || index.getRank() > shape.dimension()) {
+            return false;
+        }
+        int ellipsis = index.getEllipsisIndex();
+        int padding = shape.dimension() - index.getRank();
+        List<NDIndexElement> indices = index.getIndices();
+        for (int i = 0; i < indices.size(); ++i) {
+            long size = shape.get(ellipsis != -1 && i >= ellipsis ? i + padding : i);
+            NDIndexElement element = indices.get(i);
+            if (element instanceof NDIndexFixed) {
+                long value = ((NDIndexFixed) element).getIndex();
+                if (value < -size || value >= size) {
+                    return false;
+                }
+            } else if (element instanceof NDIndexSlice) {
+                NDIndexSlice slice = (NDIndexSlice) element;
+                Long min = slice.getMin();
+                Long max = slice.getMax();
+                Long step = slice.getStep();
+                if ((min != null && min < -size)
+                        || (max != null && max < -size)
+                        || (step != null && step <= 0)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     /** {@inheritDoc} */
     @Override
     public void set(NDArray array, NDIndex index, Object data) {
@@ -20,6 +20,7 @@ import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDArrays;
 import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.index.NDIndex;
 import ai.djl.ndarray.types.DataType;
 import ai.djl.translate.ArgumentsUtil;
 import ai.djl.translate.TranslatorContext;
@@ -36,6 +37,10 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public class PtSsdTranslator extends ObjectDetectionTranslator {
 
+    private static final NDIndex FOREGROUND = NDIndex.compile(":, 1:");
+    private static final NDIndex CENTER = NDIndex.compile(":, :2");
+    private static final NDIndex SIZE = NDIndex.compile(":, 2:");
+
     private NDArray boxRecover;
     private int figSize;
     private int[] featSize;
@@ -72,20 +77,20 @@ public class PtSsdTranslator extends ObjectDetectionTranslator {
         double scaleWH = 0.2;
 
         // kill the 1st prediction as not needed
-        NDArray prob = list.get(1).swapAxes(0, 1).softmax(1).get(":, 1:");
+        NDArray prob = list.get(1).swapAxes(0, 1).softmax(1).get(FOREGROUND);
         prob =
                 NDArrays.stack(
                         new NDList(
                                 prob.argMax(1).toType(DataType.FLOAT32, false),
                                 prob.max(new int[] {1})));
         NDArray boundingBoxes = list.get(0).swapAxes(0, 1);
-        NDArray bbWH = boundingBoxes.get(":, 2:").mul(scaleWH).exp().mul(boxRecover.get(":, 2:"));
+        NDArray bbWH = boundingBoxes.get(SIZE).mul(scaleWH).exp().mul(boxRecover.get(SIZE));
         NDArray bbXY =
                 boundingBoxes
-                        .get(":, :2")
+                        .get(CENTER)
                         .mul(scaleXY)
-                        .mul(boxRecover.get(":, 2:"))
-                        .add(boxRecover.get(":, :2"))
+                        .mul(boxRecover.get(SIZE))
+                        .add(boxRecover.get(CENTER))
                         .sub(bbWH.mul(0.5f));
         boundingBoxes = NDArrays.concat(new NDList(bbXY, bbWH), 1);
         // filter the result below the threshold
@@ -12,7 +12,7 @@
  */
 package ai.djl.pytorch.zoo.nlp.qa;
 
-import ai.djl.modality.nlp.DefaultVocabulary;
+import ai.djl.modality.nlp.CompactVocabulary;
 import ai.djl.modality.nlp.Vocabulary;
 import ai.djl.modality.nlp.bert.BertFullTokenizer;
 import ai.djl.modality.nlp.bert.BertToken;
@@ -42,11 +42,7 @@ public class PtBertQATranslator extends QATranslator {
     /** {@inheritDoc} */
     @Override
     public void prepare(TranslatorContext ctx) throws IOException {
-        vocabulary =
-                DefaultVocabulary.builder()
-                        .addFromTextFile(ctx.getModel().getArtifact(vocab))
-                        .optUnknownToken("[UNK]")
-                        .build();
+        vocabulary = CompactVocabulary.fromTextFile(ctx.getModel().getArtifact(vocab), "[UNK]");
         if (tokenizerName == null) {
             tokenizer = new BertTokenizer();
         } else {
@@ -71,7 +67,7 @@ public class PtBertQATranslator extends QATranslator {
         }
         tokens = token.getTokens();
         NDManager manager = ctx.getNDManager();
-        long[] indices = tokens.stream().mapToLong(vocabulary::getIndex).toArray();
+        long[] indices = vocabulary.getIndices(tokens);
         long[] attentionMask = token.getAttentionMask().stream().mapToLong(i -> i).toArray();
         NDList ndList = new NDList(3);
         ndList.add(manager.create(indices));
@@ -14,7 +14,7 @@ package ai.djl.pytorch.zoo.nlp.sentimentanalysis;
 
 import ai.djl.Model;
 import ai.djl.modality.Classifications;
-import ai.djl.modality.nlp.DefaultVocabulary;
+import ai.djl.modality.nlp.CompactVocabulary;
 import ai.djl.modality.nlp.Vocabulary;
 import ai.djl.modality.nlp.bert.BertTokenizer;
 import ai.djl.ndarray.NDArray;
@@ -39,8 +39,7 @@ public class PtDistilBertTranslator implements Translator<String, Classification
     public void prepare(TranslatorContext ctx) throws IOException {
         Model model = ctx.getModel();
         URL url = model.getArtifact("distilbert-base-uncased-finetuned-sst-2-english-vocab.txt");
-        vocabulary =
-                DefaultVocabulary.builder().addFromTextFile(url).optUnknownToken("[UNK]").build();
+        vocabulary = CompactVocabulary.fromTextFile(url, "[UNK]");
         tokenizer = new BertTokenizer();
     }
 
@@ -56,7 +55,7 @@ public class PtDistilBertTranslator implements Translator<String, Classification
     @Override
     public NDList processInput(TranslatorContext ctx, String input) {
         List<String> tokens = tokenizer.tokenize(input);
-        long[] indices = tokens.stream().mapToLong(vocabulary::getIndex).toArray();
+        long[] indices = vocabulary.getIndices(tokens);
         long[] attentionMask = new long[tokens.size()];
         Arrays.fill(attentionMask, 1);
         NDManager manager = ctx.getNDManager();
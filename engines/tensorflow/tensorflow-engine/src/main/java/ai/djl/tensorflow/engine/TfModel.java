@@ -28,6 +28,7 @@ import org.tensorflow.proto.framework.RunOptions;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -148,6 +149,12 @@ public class TfModel extends BaseModel {
         throw new UnsupportedOperationException("Not supported for TensorFlow Engine");
     }
 
+    /** {@inheritDoc} */
+    @Override
+    public void save(OutputStream os, String newModelName) {
+        throw new UnsupportedOperationException("Not supported for TensorFlow Engine");
+    }
+
     /** {@inheritDoc} */
     @Override
     public Block getBlock() {
@@ -43,23 +43,21 @@ public class TfNDArrayIndexer extends NDArrayIndexer {
     @Override
     public NDArray get(NDArray array, NDIndexFullSlice fullSlice) {
         array = manager.from(array);
-        int[] toSqueeze = fullSlice.getToSqueeze();
+        // drop the fixed axes within StridedSlice instead of a separate Squeeze
+        long shrinkAxisMask = 0;
+        for (int axis : fullSlice.getToSqueeze()) {
+            shrinkAxisMask |= 1L << axis;
+        }
         try (NDArray begin = manager.create(fullSlice.getMin());
                 NDArray end = manager.create(fullSlice.getMax());
                 NDArray step = manager.create(fullSlice.getStep())) {
-            NDArray result =
-                    manager.opExecutor("StridedSlice")
-                            .addInput(array)
-                            .addInput(begin)
-                            .addInput(end)
-                            .addInput(step)
-                            .buildSingletonOrThrow();
-            if (toSqueeze.length > 0) {
-                NDArray oldResult = result;
-                result = result.squeeze(toSqueeze);
-                oldResult.close();
-            }
-            return result;
+            return manager.opExecutor("StridedSlice")
+                    .addInput(array)
+                    .addInput(begin)
+                    .addInput(end)
+                    .addInput(step)
+                    .addParam("shrink_axis_mask", shrinkAxisMask)
+                    .buildSingletonOrThrow();
         }
     }
 
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.examples.inference.nlp;
+
+import ai.djl.modality.nlp.DefaultVocabulary;
+import ai.djl.modality.nlp.Vocabulary;
+import ai.djl.modality.nlp.bert.WordpieceTokenizer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares the trie based {@link WordpieceTokenizer} with looking up the substrings of each word in
+ * the vocabulary.
+ *
+ * <p>Usage: {@code WordpieceTokenizerBenchmark [vocab.txt]}, a synthetic vocabulary is used if no
+ * BERT vocabulary file is given.
+ */
+public final class WordpieceTokenizerBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(WordpieceTokenizerBenchmark.class);
+
+    private WordpieceTokenizerBenchmark() {}
+
+    public static void main(String[] args) throws IOException {
+        Vocabulary vocabulary;
+        if (args.length > 0) {
+            vocabulary =
+                    DefaultVocabulary.builder()
+                            .addFromTextFile(Paths.get(args[0]))
+                            .optUnknownToken("[UNK]")
+                            .build();
+        } else {
+            vocabulary = syntheticVocabulary(30000);
+        }
+        List<String> sentences = syntheticSentences(1000);
+        double[] result = run(vocabulary, sentences, 20);
+        logger.info(
+                "greedy lookup: {} sentences/s, trie: {} sentences/s, speedup: {}x",
+                String.format("%.0f", result[0]),
+                String.format("%.0f", result[1]),
+                String.format("%.2f", result[1] / result[0]));
+    }
+
+    /**
+     * Tokenizes the sentences with both implementations and returns their throughput.
+     *
+     * @param vocabulary the wordpiece vocabulary
+     * @param sentences the sentences to tokenize
+     * @param iterations the number of times to tokenize the sentences
+     * @return the sentences per second of the greedy lookup and of the trie
+     */
+    public static double[] run(Vocabulary vocabulary, List<String> sentences, int iterations) {
+        WordpieceTokenizer greedy = newGreedyTokenizer(vocabulary);
+        WordpieceTokenizer trie = new WordpieceTokenizer(vocabulary, "[UNK]", 200);
+        // warm up
+        time(greedy, sentences, iterations);
+        time(trie, sentences, iterations);
+        double count = (double) sentences.size() * iterations;
+        return new double[] {
+            count / time(greedy, sentences, iterations), count / time(trie, sentences, iterations)
+        };
+    }
+
+    /**
+     * Creates a tokenizer that looks up the substrings of each word in the vocabulary.
+     *
+     * @param vocabulary the wordpiece vocabulary
+     * @return the tokenizer
+     */
+    static WordpieceTokenizer newGreedyTokenizer(Vocabulary vocabulary) {
+        return new WordpieceTokenizer(new LookupVocabulary(vocabulary), "[UNK]", 200);
+    }
+
+    private static double time(WordpieceTokenizer tokenizer, List<String> sentences, int n) {
+        long begin = System.nanoTime();
+        long checksum = 0;
+        for (int i = 0; i < n; ++i) {
+            for (String sentence : sentences) {
+                checksum += tokenizer.encode(sentence, null).length;
+            }
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        logger.debug("tokens: {}", checksum);
+        return seconds;
+    }
+
+    static Vocabulary syntheticVocabulary(int size) {
+        Random random = new Random(0);
+        List<String> tokens = new ArrayList<>(size);
+        for (int i = 0; i < size; ++i) {
+            String word = randomWord(random, 1 + random.nextInt(8));
+            tokens.add(random.nextInt(3) == 0 ? "##" + word : word);
+        }
+        return DefaultVocabulary.builder().add(tokens).optUnknownToken("[UNK]").build();
+    }
+
+    static List<String> syntheticSentences(int count) {
+        Random random = new Random(1);
+        List<String> sentences = new ArrayList<>(count);
+        for (int i = 0; i < count; ++i) {
+            StringBuilder sb = new StringBuilder();
+            for (int j = 0; j < 64; ++j) {
+                sb.append(randomWord(random, 2 + random.nextInt(14))).append(' ');
+            }
+            sentences.add(sb.toString());
+        }
+        return sentences;
+    }
+
+    private static String randomWord(Random random, int length) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < length; ++i) {
+            sb.append((char) ('a' + random.nextInt(8)));
+        }
+        return sb.toString();
+    }
+
+    /** A vocabulary that can't list its tokens, the tokenizer looks up substrings then. */
+    private static final class LookupVocabulary implements Vocabulary {
+
+        private Vocabulary vocabulary;
+
+        LookupVocabulary(Vocabulary vocabulary) {
+            this.vocabulary = vocabulary;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String getToken(long index) {
+            return vocabulary.getToken(index);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean contains(String token) {
+            return vocabulary.contains(token);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public long getIndex(String token) {
+            return vocabulary.getIndex(token);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public long size() {
+            throw new UnsupportedOperationException("Not supported");
+        }
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.examples.inference.nlp;
+
+import ai.djl.modality.nlp.CompactVocabulary;
+import ai.djl.modality.nlp.Vocabulary;
+import ai.djl.modality.nlp.bert.WordpieceTokenizer;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class WordpieceTokenizerBenchmarkTest {
+
+    @Test
+    public void testBenchmark() {
+        Vocabulary vocabulary = WordpieceTokenizerBenchmark.syntheticVocabulary(2000);
+        List<String> sentences = WordpieceTokenizerBenchmark.syntheticSentences(50);
+        double[] result = WordpieceTokenizerBenchmark.run(vocabulary, sentences, 1);
+        Assert.assertTrue(result[0] > 0);
+        Assert.assertTrue(result[1] > 0);
+    }
+
+    @Test
+    public void testSameTokens() {
+        Vocabulary vocabulary = WordpieceTokenizerBenchmark.syntheticVocabulary(2000);
+        List<String> sentences = WordpieceTokenizerBenchmark.syntheticSentences(50);
+        WordpieceTokenizer greedy = WordpieceTokenizerBenchmark.newGreedyTokenizer(vocabulary);
+        WordpieceTokenizer trie = new WordpieceTokenizer(vocabulary, "[UNK]", 200);
+        WordpieceTokenizer compact =
+                new WordpieceTokenizer(CompactVocabulary.of(vocabulary, "[UNK]"), "[UNK]", 200);
+        for (String sentence : sentences) {
+            List<String> expected = new ArrayList<>();
+            long[] expectedIds = greedy.encode(sentence, expected);
+            List<String> tokens = new ArrayList<>();
+            Assert.assertEquals(trie.encode(sentence, tokens), expectedIds);
+            Assert.assertEquals(tokens, expected);
+            tokens.clear();
+            Assert.assertEquals(compact.encode(sentence, tokens), expectedIds);
+            Assert.assertEquals(tokens, expected);
+            Assert.assertEquals(trie.tokenize(sentence), expected);
+        }
+    }
+}
@@ -25,8 +25,7 @@ import java.nio.Buffer;
 import java.nio.IntBuffer;
 import java.nio.ShortBuffer;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * {@code FFmpegAudioFactory} is a high performance implementation of {@link AudioFactory} using
@@ -60,6 +59,55 @@ public class FFmpegAudioFactory extends AudioFactory {
         }
     }
 
+    /**
+     * Returns a {@link FFmpegAudioStream} that decodes the audio file incrementally into fixed-size
+     * chunks.
+     *
+     * @param path the path of the audio file
+     * @param chunkSize the number of samples per chunk
+     * @param overlap the number of samples shared by two consecutive chunks
+     * @return a new {@link FFmpegAudioStream}
+     * @throws IOException if the audio file cannot be opened
+     */
+    public FFmpegAudioStream streamFromFile(Path path, int chunkSize, int overlap)
+            throws IOException {
+        return stream(new FFmpegFrameGrabber(path.toFile()), chunkSize, overlap);
+    }
+
+    /**
+     * Returns a {@link FFmpegAudioStream} that decodes the audio incrementally into fixed-size
+     * chunks.
+     *
+     * <p>The first chunk is available as soon as enough samples have been decoded, so the caller
+     * can start inference before the whole stream is read.
+     *
+     * @param is the input stream of the audio
+     * @param chunkSize the number of samples per chunk
+     * @param overlap the number of samples shared by two consecutive chunks
+     * @return a new {@link FFmpegAudioStream}
+     * @throws IOException if the audio cannot be opened
+     */
+    public FFmpegAudioStream streamFromInputStream(InputStream is, int chunkSize, int overlap)
+            throws IOException {
+        return stream(new FFmpegFrameGrabber(is), chunkSize, overlap);
+    }
+
+    private FFmpegAudioStream stream(FFmpegFrameGrabber grabber, int chunkSize, int overlap)
+            throws IOException {
+        try {
+            applyConfig(grabber);
+            grabber.start();
+            return new FFmpegAudioStream(grabber, chunkSize, overlap, sampleFormat);
+        } catch (FrameGrabber.Exception | RuntimeException e) {
+            try {
+                grabber.close();
+            } catch (FrameGrabber.Exception ignore) {
+                // ignore
+            }
+            throw new IOException("Unsupported Audio file", e);
+        }
+    }
+
     private void applyConfig(FFmpegFrameGrabber grabber) {
         if (channels > 0) {
             grabber.setAudioChannels(channels);
@@ -82,29 +130,30 @@ public class FFmpegAudioFactory extends AudioFactory {
      * @throws FFmpegFrameGrabber.Exception if error occurs
      */
     private float[] grab(FFmpegFrameGrabber grabber) throws FFmpegFrameGrabber.Exception {
-        List<Float> list = new ArrayList<>();
+        float[] ret = new float[8192];
+        int size = 0;
         Frame frame;
         while ((frame = grabber.grabFrame(true, false, true, false, false)) != null) {
             Buffer buf = frame.samples[0];
+            int limit = buf.limit();
+            if (size + limit > ret.length) {
+                ret = Arrays.copyOf(ret, Math.max(size + limit, ret.length * 2));
+            }
             if (buf instanceof ShortBuffer) {
                 ShortBuffer buffer = (ShortBuffer) buf;
-                for (int i = 0; i < buffer.limit(); i++) {
-                    list.add(buffer.get() / (float) Short.MAX_VALUE);
+                for (int i = 0; i < limit; i++) {
+                    ret[size++] = buffer.get() / (float) Short.MAX_VALUE;
                 }
             } else if (buf instanceof IntBuffer) {
                 IntBuffer buffer = (IntBuffer) buf;
-                for (int i = 0; i < buffer.limit(); i++) {
-                    list.add(buffer.get() / (float) Integer.MAX_VALUE);
+                for (int i = 0; i < limit; i++) {
+                    ret[size++] = buffer.get() / (float) Integer.MAX_VALUE;
                 }
             } else {
                 throw new UnsupportedOperationException(
                         "Unsupported sample format: " + sampleFormat);
             }
         }
-        float[] ret = new float[list.size()];
-        for (int i = 0; i < list.size(); i++) {
-            ret[i] = list.get(i);
-        }
-        return ret;
+        return size == ret.length ? ret : Arrays.copyOf(ret, size);
     }
 }
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.audio;
+
+import ai.djl.modality.audio.Audio;
+
+import org.bytedeco.javacv.FFmpegFrameGrabber;
+import org.bytedeco.javacv.Frame;
+import org.bytedeco.javacv.FrameGrabber;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.Buffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * {@code FFmpegAudioStream} decodes an audio incrementally and returns it as fixed-size chunks.
+ *
+ * <p>The decoded samples are kept in a primitive ring buffer that only holds about one chunk, so a
+ * long recording can be processed while it is still being decoded and without holding the whole
+ * audio in memory. Consecutive chunks can share a number of overlapping samples. Every chunk has
+ * exactly {@code chunkSize} samples except the last one, which holds the remaining samples.
+ */
+public class FFmpegAudioStream implements Iterator<Audio>, AutoCloseable {
+
+    private FFmpegFrameGrabber grabber;
+    private int chunkSize;
+    private int overlap;
+    private int sampleFormat;
+
+    private float[] ring;
+    private int head;
+    private int size;
+    private int consumed;
+    private boolean eof;
+
+    /**
+     * Constructs a new {@code FFmpegAudioStream} from a started {@link FFmpegFrameGrabber}.
+     *
+     * @param grabber the started {@link FFmpegFrameGrabber}, closed with the stream
+     * @param chunkSize the number of samples per chunk
+     * @param overlap the number of samples shared by two consecutive chunks
+     * @param sampleFormat the sample format requested from the grabber
+     */
+    FFmpegAudioStream(FFmpegFrameGrabber grabber, int chunkSize, int overlap, int sampleFormat) {
+        if (chunkSize <= 0 || overlap < 0 || overlap >= chunkSize) {
+            throw new IllegalArgumentException(
+                    "Invalid chunk size: " + chunkSize + ", overlap: " + overlap);
+        }
+        this.grabber = grabber;
+        this.chunkSize = chunkSize;
+        this.overlap = overlap;
+        this.sampleFormat = sampleFormat;
+        ring = new float[chunkSize];
+    }
+
+    /**
+     * Returns the sample rate of the audio.
+     *
+     * @return the sample rate of the audio
+     */
+    public int getSampleRate() {
+        return grabber.getSampleRate();
+    }
+
+    /**
+     * Returns the number of channels of the audio.
+     *
+     * @return the number of channels of the audio
+     */
+    public int getChannels() {
+        return grabber.getAudioChannels();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean hasNext() {
+        fill();
+        // the overlap of the previous chunk alone is not a new chunk
+        return size > (consumed > 0 ? overlap : 0);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Audio next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        int length = Math.min(size, chunkSize);
+        float[] data = new float[length];
+        int first = Math.min(length, ring.length - head);
+        System.arraycopy(ring, head, data, 0, first);
+        System.arraycopy(ring, 0, data, first, length - first);
+
+        // keep the overlapping samples for the next chunk
+        int advance = length == chunkSize ? chunkSize - overlap : length;
+        head = (head + advance) % ring.length;
+        size -= advance;
+        consumed += advance;
+        return new Audio(data, grabber.getSampleRate(), grabber.getAudioChannels());
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void close() {
+        try {
+            grabber.close();
+        } catch (FrameGrabber.Exception e) {
+            throw new IllegalStateException("Failed to close the audio grabber", e);
+        }
+    }
+
+    private void fill() {
+        try {
+            while (!eof && size < chunkSize) {
+                Frame frame = grabber.grabFrame(true, false, true, false, false);
+                if (frame == null) {
+                    eof = true;
+                    break;
+                }
+                write(frame.samples[0]);
+            }
+        } catch (FrameGrabber.Exception e) {
+            throw new UncheckedIOException(new IOException("Failed to decode audio", e));
+        }
+    }
+
+    private void write(Buffer buf) {
+        int length = buf.limit();
+        ensureCapacity(size + length);
+        int tail = (head + size) % ring.length;
+        if (buf instanceof ShortBuffer) {
+            ShortBuffer buffer = (ShortBuffer) buf;
+            for (int i = 0; i < length; i++) {
+                ring[tail] = buffer.get() / (float) Short.MAX_VALUE;
+                tail = tail + 1 == ring.length ? 0 : tail + 1;
+            }
+        } else if (buf instanceof IntBuffer) {
+            IntBuffer buffer = (IntBuffer) buf;
+            for (int i = 0; i < length; i++) {
+                ring[tail] = buffer.get() / (float) Integer.MAX_VALUE;
+                tail = tail + 1 == ring.length ? 0 : tail + 1;
+            }
+        } else {
+            throw new UnsupportedOperationException("Unsupported sample format: " + sampleFormat);
+        }
+        size += length;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ring.length) {
+            return;
+        }
+        // a decoded frame can overflow the chunk, grow once and keep reusing the buffer
+        float[] buf = new float[Math.max(capacity, ring.length + ring.length / 2)];
+        int first = Math.min(size, ring.length - head);
+        System.arraycopy(ring, head, buf, 0, first);
+        System.arraycopy(ring, 0, buf, first, size - first);
+        ring = buf;
+        head = 0;
+    }
+}
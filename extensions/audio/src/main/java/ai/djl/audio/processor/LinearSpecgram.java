@@ -16,6 +16,7 @@ import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDArrays;
 import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.index.NDIndex;
 
 import org.jtransforms.fft.FloatFFT_1D;
 
@@ -23,6 +24,9 @@ import org.jtransforms.fft.FloatFFT_1D;
 public class LinearSpecgram implements AudioProcessor {
 
     private static final float EPS = 1e-14f;
+    private static final NDIndex MIDDLE = NDIndex.compile("1:-1,:");
+    private static final NDIndex HEAD = NDIndex.compile("0,:");
+    private static final NDIndex TAIL = NDIndex.compile("-1,:");
 
     private float strideMs;
     private float windowsMs;
@@ -76,10 +80,10 @@ public class LinearSpecgram implements AudioProcessor {
         weighting = weighting.pow(2);
         NDArray scale = weighting.sum().mul(this.sampleRate);
 
-        NDArray middle = fft.get("1:-1,:");
+        NDArray middle = fft.get(MIDDLE);
         middle = middle.mul(2).div(scale);
-        NDArray head = fft.get("0,:").div(scale).reshape(1, fft.getShape().get(1));
-        NDArray tail = fft.get("-1,:").div(scale).reshape(1, fft.getShape().get(1));
+        NDArray head = fft.get(HEAD).div(scale).reshape(1, fft.getShape().get(1));
+        NDArray tail = fft.get(TAIL).div(scale).reshape(1, fft.getShape().get(1));
         NDList list = new NDList(head, middle, tail);
         fft = NDArrays.concat(list, 0);
 
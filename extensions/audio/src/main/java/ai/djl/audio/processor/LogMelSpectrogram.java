@@ -15,6 +15,7 @@ package ai.djl.audio.processor;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.index.NDIndex;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -26,16 +27,22 @@ public class LogMelSpectrogram implements AudioProcessor {
 
     private static final int N_FFT = 400;
     private static final int HOP_LENGTH = 160;
+    private static final NDIndex DROP_LAST_FRAME = NDIndex.compile(":,:-1");
 
     private NDArray melFilters;
+    private NDArray window;
 
     /**
      * Constructs a new instance of {@code LogMelSpectrogram}.
      *
+     * <p>The mel filter and the Hanning window are kept for the lifetime of the filter's {@link
+     * NDManager} and shared by every call to {@link #extractFeatures(NDManager, NDArray)}.
+     *
      * @param melFilter the mel filter
      */
     public LogMelSpectrogram(NDArray melFilter) {
         this.melFilters = melFilter;
+        this.window = melFilter.getManager().hanningWindow(N_FFT);
     }
 
     /**
@@ -74,9 +81,8 @@ public class LogMelSpectrogram implements AudioProcessor {
     /** {@inheritDoc} */
     @Override
     public NDArray extractFeatures(NDManager manager, NDArray samples) {
-        NDArray window = manager.hanningWindow(N_FFT);
         NDArray stft = samples.stft(N_FFT, HOP_LENGTH, true, window, true);
-        NDArray magnitudes = stft.get(":,:-1").abs().pow(2);
+        NDArray magnitudes = stft.get(DROP_LAST_FRAME).abs().pow(2);
         NDArray melSpec = melFilters.matMul(magnitudes);
         melSpec.attach(manager);
         NDArray logSpec = melSpec.clip(1e-10, Float.MAX_VALUE).log10();
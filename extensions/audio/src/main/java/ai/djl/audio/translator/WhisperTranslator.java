@@ -41,9 +41,16 @@ import java.util.Map;
 /**
  * A {@link Translator} that process the {@link Audio} into {@link String} to get a text translation
  * of the audio.
+ *
+ * <p>Whisper transcribes 30 seconds of 16kHz audio at a time, longer audio is trimmed. A long
+ * recording can be fed as fixed-size chunks of {@link #CHUNK_SIZE} samples with {@link
+ * ai.djl.audio.FFmpegAudioStream}, which starts inference before the recording is fully decoded.
  */
 public class WhisperTranslator implements NoBatchifyTranslator<Audio, String> {
 
+    /** The number of samples Whisper transcribes at a time, 30 seconds of 16kHz audio. */
+    public static final int CHUNK_SIZE = 480000;
+
     private List<AudioProcessor> processors;
     private Vocabulary vocabulary;
 
@@ -58,7 +65,7 @@ public class WhisperTranslator implements NoBatchifyTranslator<Audio, String> {
         Path path = ctx.getModel().getModelPath();
         Path melFile = path.resolve("mel_80_filters.npz");
 
-        processors.add(new PadOrTrim(480000));
+        processors.add(new PadOrTrim(CHUNK_SIZE));
         // Use model's NDManager
         NDManager modelManager = ctx.getModel().getNDManager();
         processors.add(LogMelSpectrogram.newInstance(melFile, 80, modelManager));
@@ -23,6 +23,7 @@ import org.testng.annotations.Test;
 
 import java.io.IOException;
 import java.net.URL;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 
 public class FFmpegAudioFactoryTest {
@@ -66,4 +67,29 @@ public class FFmpegAudioFactoryTest {
                             .fromUrl(url);
                 });
     }
+
+    @Test
+    public void testStream() throws IOException {
+        FFmpegAudioFactory factory = new FFmpegAudioFactory();
+        factory.setChannels(1).setSampleRate(16000).setSampleFormat(avutil.AV_SAMPLE_FMT_S16);
+        Path path = Paths.get("build/test/test_01.wav");
+        float[] expected = factory.fromFile(path).getData();
+
+        int chunkSize = 4000;
+        int overlap = 400;
+        float[] actual = new float[expected.length];
+        int pos = 0;
+        try (FFmpegAudioStream stream = factory.streamFromFile(path, chunkSize, overlap)) {
+            Assert.assertEquals(stream.getSampleRate(), 16000);
+            while (stream.hasNext()) {
+                float[] chunk = stream.next().getData();
+                Assert.assertTrue(chunk.length <= chunkSize);
+                int offset = pos == 0 ? 0 : overlap;
+                System.arraycopy(chunk, offset, actual, pos, chunk.length - offset);
+                pos += chunk.length - offset;
+            }
+        }
+        Assert.assertEquals(pos, expected.length);
+        Assert.assertEquals(actual, expected);
+    }
 }
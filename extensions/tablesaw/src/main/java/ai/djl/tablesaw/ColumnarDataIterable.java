@@ -0,0 +1,92 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.tablesaw;
+
+import ai.djl.Device;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.training.dataset.Batch;
+import ai.djl.training.dataset.DataIterable;
+import ai.djl.training.dataset.Sampler;
+import ai.djl.translate.Batchifier;
+import ai.djl.translate.Pipeline;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * A {@link DataIterable} that creates the {@link Batch}es with {@link
+ * TablesawDataset#getByIndices(NDManager, long...)}.
+ */
+class ColumnarDataIterable extends DataIterable {
+
+    ColumnarDataIterable(
+            TablesawDataset dataset,
+            NDManager manager,
+            Sampler sampler,
+            Batchifier dataBatchifier,
+            Batchifier labelBatchifier,
+            Pipeline pipeline,
+            Pipeline targetPipeline,
+            ExecutorService executor,
+            int preFetchNumber,
+            Device device) {
+        super(
+                dataset,
+                manager,
+                sampler,
+                dataBatchifier,
+                labelBatchifier,
+                pipeline,
+                targetPipeline,
+                executor,
+                preFetchNumber,
+                device);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    protected Batch fetch(List<Long> indices, int progress) {
+        NDManager subManager = manager.newSubManager();
+        subManager.setName("dataIter fetch");
+        long[] indicesArr = indices.stream().mapToLong(Long::longValue).toArray();
+        Batch raw = ((TablesawDataset) dataset).getByIndices(subManager, indicesArr);
+
+        NDList batchData = raw.getData();
+        // apply transform
+        if (pipeline != null) {
+            batchData = pipeline.transform(batchData);
+        }
+
+        NDList batchLabels = raw.getLabels();
+        // apply label transform
+        if (targetPipeline != null) {
+            batchLabels = targetPipeline.transform(batchLabels);
+        }
+        // pin to a specific device
+        if (device != null) {
+            batchData = batchData.toDevice(device, false);
+            batchLabels = batchLabels.toDevice(device, false);
+        }
+        return new Batch(
+                subManager,
+                batchData,
+                batchLabels,
+                indices.size(),
+                dataBatchifier,
+                labelBatchifier,
+                progress,
+                dataset.size(),
+                indices);
+    }
+}
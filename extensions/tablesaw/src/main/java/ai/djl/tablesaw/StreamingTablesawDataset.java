@@ -0,0 +1,261 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.tablesaw;
+
+import ai.djl.basicdataset.tabular.utils.Feature;
+import ai.djl.basicdataset.tabular.utils.PreparedFeaturizer;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.training.dataset.Batch;
+import ai.djl.training.dataset.Dataset;
+import ai.djl.translate.Batchifier;
+import ai.djl.util.Progress;
+
+import tech.tablesaw.api.Table;
+import tech.tablesaw.columns.Column;
+import tech.tablesaw.io.ReadOptions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * {@code StreamingTablesawDataset} iterates over a sequence of sources, for example the shards of a
+ * large .csv file, that don't fit in one in-memory {@link Table} together.
+ *
+ * <p>Only one source is read at a time, and the batches are featurized column by column like {@link
+ * TablesawDataset#getByIndices(NDManager, long...)}. The rows are returned in the order of the
+ * sources, and a batch can span two sources. The {@link PreparedFeaturizer}s are prepared with the
+ * first source only, the categorical features of sources with unseen values should use a fixed map.
+ */
+public class StreamingTablesawDataset implements Dataset {
+
+    private List<ReadOptions> sources;
+    private List<Feature> features;
+    private List<Feature> labels;
+    private int batchSize;
+
+    private Table first;
+    private TableBatcher featureBatcher;
+    private TableBatcher labelBatcher;
+
+    StreamingTablesawDataset(Builder builder) {
+        sources = builder.sources;
+        features = builder.features;
+        labels = builder.labels;
+        batchSize = builder.batchSize;
+    }
+
+    /**
+     * Creates a builder to build a {@link StreamingTablesawDataset}.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Iterable<Batch> getData(NDManager manager) {
+        prepare(null);
+        return () -> new BatchIterator(manager);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public synchronized void prepare(Progress progress) {
+        if (featureBatcher != null) {
+            return;
+        }
+        first = Table.read().usingOptions(sources.get(0));
+        List<Feature> featuresToPrepare = new ArrayList<>(features.size() + labels.size());
+        featuresToPrepare.addAll(features);
+        featuresToPrepare.addAll(labels);
+        for (Feature feature : featuresToPrepare) {
+            if (feature.getFeaturizer() instanceof PreparedFeaturizer) {
+                Column<?> column = first.column(feature.getName());
+                List<String> inputs = new ArrayList<>(column.size());
+                for (int i = 0; i < column.size(); ++i) {
+                    inputs.add(column.getString(i));
+                }
+                ((PreparedFeaturizer) feature.getFeaturizer()).prepare(inputs);
+            }
+        }
+        featureBatcher = new TableBatcher(features);
+        labelBatcher = new TableBatcher(labels);
+    }
+
+    private synchronized Table takeFirst() {
+        Table table = first;
+        first = null;
+        return table;
+    }
+
+    private final class BatchIterator implements Iterator<Batch> {
+
+        private NDManager manager;
+        private int source;
+        private Table table;
+        private int position;
+
+        BatchIterator(NDManager manager) {
+            this.manager = manager;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public boolean hasNext() {
+            while (table == null || position >= table.rowCount()) {
+                if (!nextSource()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Batch next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Table batchTable = table;
+            int start = position;
+            int end = Math.min(position + batchSize, table.rowCount());
+            position = end;
+            if (end - start < batchSize) {
+                // copy the remaining rows and fill the batch from the next sources
+                batchTable = table.inRange(start, end);
+                start = 0;
+                while (batchTable.rowCount() < batchSize && nextSource()) {
+                    int count = Math.min(batchSize - batchTable.rowCount(), table.rowCount());
+                    batchTable.append(table.inRange(0, count));
+                    position = count;
+                }
+                end = batchTable.rowCount();
+            }
+
+            int[] rows = new int[end - start];
+            for (int i = 0; i < rows.length; ++i) {
+                rows[i] = start + i;
+            }
+            NDManager subManager = manager.newSubManager();
+            NDList data = new NDList(featureBatcher.batchify(subManager, batchTable, rows));
+            NDList label;
+            if (labels.isEmpty()) {
+                label = new NDList();
+            } else {
+                label = new NDList(labelBatcher.batchify(subManager, batchTable, rows));
+            }
+            return new Batch(
+                    subManager,
+                    data,
+                    label,
+                    rows.length,
+                    Batchifier.STACK,
+                    Batchifier.STACK,
+                    source,
+                    sources.size());
+        }
+
+        private boolean nextSource() {
+            if (source >= sources.size()) {
+                return false;
+            }
+            Table next = source == 0 ? takeFirst() : null;
+            if (next == null) {
+                next = Table.read().usingOptions(sources.get(source));
+            }
+            ++source;
+            table = next;
+            position = 0;
+            return true;
+        }
+    }
+
+    /** A builder to construct a {@link StreamingTablesawDataset}. */
+    public static final class Builder {
+
+        List<ReadOptions> sources = new ArrayList<>();
+        List<Feature> features = new ArrayList<>();
+        List<Feature> labels = new ArrayList<>();
+        int batchSize;
+
+        Builder() {}
+
+        /**
+         * Adds sources to read in order, all the sources must have the same columns.
+         *
+         * @param sources the reading options of the sources
+         * @return this builder
+         */
+        public Builder addSource(ReadOptions... sources) {
+            Collections.addAll(this.sources, sources);
+            return this;
+        }
+
+        /**
+         * Adds the features to the feature set.
+         *
+         * @param features the features
+         * @return this builder
+         */
+        public Builder addFeature(Feature... features) {
+            Collections.addAll(this.features, features);
+            return this;
+        }
+
+        /**
+         * Adds the features to the label set.
+         *
+         * @param labels the labels
+         * @return this builder
+         */
+        public Builder addLabel(Feature... labels) {
+            Collections.addAll(this.labels, labels);
+            return this;
+        }
+
+        /**
+         * Sets the number of rows of a batch.
+         *
+         * @param batchSize the number of rows of a batch
+         * @return this builder
+         */
+        public Builder setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Builds the new {@link StreamingTablesawDataset}.
+         *
+         * @return the new {@link StreamingTablesawDataset}
+         */
+        public StreamingTablesawDataset build() {
+            if (sources.isEmpty()) {
+                throw new IllegalArgumentException("Missing sources.");
+            }
+            if (features.isEmpty()) {
+                throw new IllegalArgumentException("Missing features.");
+            }
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("The batch size must be positive.");
+            }
+            return new StreamingTablesawDataset(this);
+        }
+    }
+}
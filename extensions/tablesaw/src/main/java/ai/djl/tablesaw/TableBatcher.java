@@ -0,0 +1,137 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.tablesaw;
+
+import ai.djl.basicdataset.tabular.utils.DynamicBuffer;
+import ai.djl.basicdataset.tabular.utils.Feature;
+import ai.djl.basicdataset.tabular.utils.Featurizer;
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
+
+import tech.tablesaw.api.NumericColumn;
+import tech.tablesaw.api.Table;
+import tech.tablesaw.columns.Column;
+
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Featurizes a group of features from selected rows of a {@link Table} column by column into a
+ * single direct buffer.
+ *
+ * <p>A feature with a {@link Featurizer.ScalarFeaturizer} on a numeric column is read directly from
+ * the primitive values of the column. Any other feature is featurized once for each distinct value
+ * of the column, and the encoded values are cached in a dictionary of the feature, so the
+ * categorical encodings are copied instead of computed for every row. The featurizers must return
+ * the same encoding for the same value.
+ */
+final class TableBatcher {
+
+    private List<Feature> features;
+    private List<Map<String, float[]>> dictionaries;
+
+    TableBatcher(List<Feature> features) {
+        this.features = features;
+        dictionaries = new ArrayList<>(features.size());
+        for (int i = 0; i < features.size(); ++i) {
+            dictionaries.add(new ConcurrentHashMap<>());
+        }
+    }
+
+    /**
+     * Returns the features of the rows as an array of shape (rows, feature length).
+     *
+     * <p>A missing numeric value is encoded as NaN.
+     *
+     * @param manager the manager to create the array
+     * @param table the table to read from
+     * @param rows the rows to read
+     * @return the features of the rows
+     */
+    NDArray batchify(NDManager manager, Table table, int[] rows) {
+        int count = features.size();
+        int size = rows.length;
+        Column<?>[] columns = new Column<?>[count];
+        float[][][] encoded = new float[count][][];
+        int[] offsets = new int[count];
+        int width = 0;
+        for (int i = 0; i < count; ++i) {
+            Feature feature = features.get(i);
+            columns[i] = table.column(feature.getName());
+            offsets[i] = width;
+            if (isScalar(feature, columns[i])) {
+                ++width;
+            } else {
+                encoded[i] = encode(i, columns[i], rows);
+                width += size == 0 ? 0 : encoded[i][0].length;
+            }
+        }
+
+        ByteBuffer bb = manager.allocateDirect(Math.multiplyExact(size, width) * 4);
+        FloatBuffer buf = bb.asFloatBuffer();
+        for (int i = 0; i < count; ++i) {
+            if (encoded[i] == null) {
+                NumericColumn<?> column = (NumericColumn<?>) columns[i];
+                Featurizer.ScalarFeaturizer featurizer =
+                        (Featurizer.ScalarFeaturizer) features.get(i).getFeaturizer();
+                for (int r = 0; r < size; ++r) {
+                    int row = rows[r];
+                    double value = column.isMissing(row) ? Double.NaN : column.getDouble(row);
+                    buf.put(r * width + offsets[i], featurizer.featurize(value));
+                }
+            } else {
+                for (int r = 0; r < size; ++r) {
+                    buf.position(r * width + offsets[i]);
+                    buf.put(encoded[i][r]);
+                }
+            }
+        }
+        return manager.create(bb, new Shape(size, width), DataType.FLOAT32);
+    }
+
+    private static boolean isScalar(Feature feature, Column<?> column) {
+        return feature.getFeaturizer() instanceof Featurizer.ScalarFeaturizer
+                && column instanceof NumericColumn;
+    }
+
+    private float[][] encode(int index, Column<?> column, int[] rows) {
+        Featurizer featurizer = features.get(index).getFeaturizer();
+        Map<String, float[]> dictionary = dictionaries.get(index);
+        float[][] encoded = new float[rows.length][];
+        for (int r = 0; r < rows.length; ++r) {
+            encoded[r] =
+                    dictionary.computeIfAbsent(
+                            column.getString(rows[r]), value -> featurize(featurizer, value));
+            if (encoded[r].length != encoded[0].length) {
+                throw new IllegalStateException(
+                        "Inconsistent encoding length for feature: "
+                                + features.get(index).getName());
+            }
+        }
+        return encoded;
+    }
+
+    private static float[] featurize(Featurizer featurizer, String value) {
+        DynamicBuffer buf = new DynamicBuffer();
+        featurizer.featurize(buf, value);
+        float[] ret = new float[buf.getLength()];
+        buf.getBuffer().get(ret);
+        return ret;
+    }
+}
@@ -13,21 +13,39 @@
 package ai.djl.tablesaw;
 
 import ai.djl.basicdataset.tabular.TabularDataset;
+import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
+import ai.djl.training.dataset.Batch;
+import ai.djl.training.dataset.Sampler;
+import ai.djl.translate.Batchifier;
+import ai.djl.translate.TranslateException;
 import ai.djl.util.Progress;
 
 import tech.tablesaw.api.Row;
 import tech.tablesaw.api.Table;
 import tech.tablesaw.io.ReadOptions;
 
+import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
-/** {@code TablesawDataset} represents the dataset that stored in a .csv file. */
+/**
+ * {@code TablesawDataset} represents the dataset that stored in a .csv file.
+ *
+ * <p>When both batchifiers are {@link Batchifier#STACK}, the batches are built column by column
+ * from the {@link Table} with {@link #getByIndices(NDManager, long...)} instead of record by
+ * record. See {@link StreamingTablesawDataset} for data that doesn't fit in one {@link Table}.
+ */
 public class TablesawDataset extends TabularDataset {
 
     protected ReadOptions readOptions;
     protected Table table;
 
+    private TableBatcher featureBatcher;
+    private TableBatcher labelBatcher;
+    private boolean prepared;
+
     protected TablesawDataset(TablesawBuilder<?> builder) {
         super(builder);
         readOptions = builder.readOptions;
@@ -49,8 +67,65 @@ public class TablesawDataset extends TabularDataset {
     /** {@inheritDoc} */
     @Override
     public void prepare(Progress progress) {
+        if (prepared) {
+            return;
+        }
         table = Table.read().usingOptions(readOptions);
         prepareFeaturizers();
+        featureBatcher = new TableBatcher(features);
+        labelBatcher = new TableBatcher(labels);
+        prepared = true;
+    }
+
+    /**
+     * Returns the {@link Batch} of the given indices, featurized column by column into one array
+     * for the features and one array for the labels.
+     *
+     * <p>The arrays are the same as stacking the records of {@link #get(NDManager, long)}, except
+     * that a missing numeric value is NaN.
+     *
+     * @param manager the manager used to create the arrays
+     * @param indices indices of the requested data items
+     * @return a {@link Batch} that contains the data and label of the requested data items
+     */
+    public Batch getByIndices(NDManager manager, long... indices) {
+        int[] rows = new int[indices.length];
+        for (int i = 0; i < indices.length; ++i) {
+            rows[i] = Math.toIntExact(indices[i]);
+        }
+        NDList data = new NDList(featureBatcher.batchify(manager, table, rows));
+        NDList label;
+        if (labels.isEmpty()) {
+            label = new NDList();
+        } else {
+            label = new NDList(labelBatcher.batchify(manager, table, rows));
+        }
+        return new Batch(
+                manager, data, label, indices.length, Batchifier.STACK, Batchifier.STACK, -1, -1);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Iterable<Batch> getData(
+            NDManager manager, Sampler sampler, ExecutorService executorService)
+            throws IOException, TranslateException {
+        prepare();
+        if (workerPool == null
+                && dataBatchifier == Batchifier.STACK
+                && labelBatchifier == Batchifier.STACK) {
+            return new ColumnarDataIterable(
+                    this,
+                    manager,
+                    sampler,
+                    dataBatchifier,
+                    labelBatchifier,
+                    pipeline,
+                    targetPipeline,
+                    executorService,
+                    prefetchNumber,
+                    device);
+        }
+        return super.getData(manager, sampler, executorService);
     }
 
     /**
@@ -13,9 +13,12 @@
 package ai.djl.tablesaw;
 
 import ai.djl.Model;
+import ai.djl.basicdataset.tabular.utils.Feature;
+import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDList;
 import ai.djl.ndarray.NDManager;
 import ai.djl.nn.Blocks;
+import ai.djl.training.dataset.Batch;
 import ai.djl.training.dataset.Record;
 import ai.djl.translate.TranslateException;
 
@@ -23,10 +26,14 @@ import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import tech.tablesaw.api.ColumnType;
+import tech.tablesaw.io.ReadOptions;
 import tech.tablesaw.io.csv.CsvReadOptions;
 
 import java.io.IOException;
+import java.io.StringReader;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
 
 public class TablesawDatasetTest {
 
@@ -72,4 +79,65 @@ public class TablesawDatasetTest {
             Assert.assertEquals(labels.head().toFloatArray(), new float[] {70.05f});
         }
     }
+
+    @Test
+    public void testColumnarBatch() throws IOException, TranslateException {
+        String csv = "x,y,color,label\n1,1.5,red,0\n2,2.5,blue,1\n3,3.5,red,0\n4,4.5,green,1\n";
+        try (NDManager manager = NDManager.newBaseManager()) {
+            TablesawDataset dataset =
+                    TablesawDataset.builder()
+                            .setReadOptions(
+                                    CsvReadOptions.builder(new StringReader(csv))
+                                            .header(true)
+                                            .build())
+                            .addNumericFeature("x")
+                            .addNumericFeature("y", true)
+                            .addCategoricalFeature("color", true)
+                            .addCategoricalLabel("label", false)
+                            .setSampling(2, false)
+                            .build();
+            dataset.prepare();
+
+            Batch batch = dataset.getByIndices(manager, 3, 0, 2);
+            NDArray data = batch.getData().singletonOrThrow();
+            NDArray labels = batch.getLabels().singletonOrThrow();
+            Assert.assertEquals(data.getShape().toString(), "(3, 5)");
+            Assert.assertEquals(labels.getShape().toString(), "(3, 1)");
+
+            long[] indices = {3, 0, 2};
+            for (int i = 0; i < indices.length; ++i) {
+                Record record = dataset.get(manager, indices[i]);
+                Assert.assertEquals(
+                        data.get(i).toFloatArray(), record.getData().head().toFloatArray());
+                Assert.assertEquals(
+                        labels.get(i).toFloatArray(), record.getLabels().head().toFloatArray());
+            }
+        }
+    }
+
+    @Test
+    public void testStreamingDataset() throws IOException, TranslateException {
+        ReadOptions shard1 =
+                CsvReadOptions.builder(new StringReader("x,label\n1,0\n2,1\n3,0")).build();
+        ReadOptions shard2 = CsvReadOptions.builder(new StringReader("x,label\n4,1\n5,0")).build();
+        try (NDManager manager = NDManager.newBaseManager()) {
+            StreamingTablesawDataset dataset =
+                    StreamingTablesawDataset.builder()
+                            .addSource(shard1, shard2)
+                            .addFeature(new Feature("x", true))
+                            .addLabel(new Feature("label", true))
+                            .setBatchSize(2)
+                            .build();
+
+            List<float[]> batches = new ArrayList<>();
+            for (Batch batch : dataset.getData(manager)) {
+                batches.add(batch.getData().singletonOrThrow().toFloatArray());
+                batch.close();
+            }
+            Assert.assertEquals(batches.size(), 3);
+            Assert.assertEquals(batches.get(0), new float[] {1f, 2f});
+            Assert.assertEquals(batches.get(1), new float[] {3f, 4f});
+            Assert.assertEquals(batches.get(2), new float[] {5f});
+        }
+    }
 }
@@ -13,6 +13,8 @@
 package ai.djl.timeseries;
 
 import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.types.DataType;
+import ai.djl.ndarray.types.Shape;
 
 import java.time.LocalDateTime;
 
@@ -23,6 +25,7 @@ public class SampleForecast extends Forecast {
 
     private NDArray samples;
     private int numSamples;
+    private double[] values;
 
     /**
      * Constructs a {@code SampleForeCast}.
@@ -56,11 +59,30 @@ public class SampleForecast extends Forecast {
         return numSamples;
     }
 
-    /** {@inheritDoc} */
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The quantile is selected independently for every time step with a linear time selection
+     * algorithm instead of sorting all the samples. The quantile has the data type of the samples.
+     */
     @Override
     public NDArray quantile(float q) {
         int sampleIdx = Math.round((numSamples - 1) * q);
-        return getSortedSamples().get("{}, :", sampleIdx);
+        if (values == null) {
+            // float64 holds float32 and float64 samples exactly
+            values = samples.toType(DataType.FLOAT64, false).toDoubleArray();
+        }
+        int stride = values.length / numSamples;
+        double[] column = new double[numSamples];
+        double[] ret = new double[stride];
+        for (int i = 0; i < stride; ++i) {
+            for (int j = 0; j < numSamples; ++j) {
+                column[j] = values[j * stride + i];
+            }
+            ret[i] = select(column, sampleIdx);
+        }
+        Shape shape = samples.getShape().slice(1);
+        return samples.getManager().create(ret, shape).toType(samples.getDataType(), false);
     }
 
     /**
@@ -92,4 +114,57 @@ public class SampleForecast extends Forecast {
     public NDArray mean() {
         return samples.mean(new int[] {0});
     }
+
+    /**
+     * Returns the {@code k}-th smallest value of the array, partially reordering it in place.
+     *
+     * @param array the values to select from
+     * @param k the zero based rank of the value to select
+     * @return the {@code k}-th smallest value
+     */
+    private static double select(double[] array, int k) {
+        int left = 0;
+        int right = array.length - 1;
+        while (left < right) {
+            // median of three pivot to avoid the quadratic case on sorted samples
+            int mid = (left + right) >>> 1;
+            if (Double.compare(array[mid], array[left]) < 0) {
+                swap(array, left, mid);
+            }
+            if (Double.compare(array[right], array[left]) < 0) {
+                swap(array, left, right);
+            }
+            if (Double.compare(array[right], array[mid]) < 0) {
+                swap(array, mid, right);
+            }
+            double pivot = array[mid];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (Double.compare(array[i], pivot) < 0) {
+                    ++i;
+                }
+                while (Double.compare(array[j], pivot) > 0) {
+                    --j;
+                }
+                if (i <= j) {
+                    swap(array, i++, j--);
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return array[k];
+            }
+        }
+        return array[k];
+    }
+
+    private static void swap(double[] array, int i, int j) {
+        double tmp = array[i];
+        array[i] = array[j];
+        array[j] = tmp;
+    }
 }
@@ -30,7 +30,7 @@ import ai.djl.timeseries.dataset.FieldName;
 import ai.djl.timeseries.distribution.output.DistributionOutput;
 import ai.djl.timeseries.distribution.output.StudentTOutput;
 import ai.djl.timeseries.timefeature.Lag;
-import ai.djl.timeseries.timefeature.TimeFeature;
+import ai.djl.timeseries.timefeature.TimeFeatureTable;
 import ai.djl.timeseries.transform.ExpectedNumInstanceSampler;
 import ai.djl.timeseries.transform.InstanceSampler;
 import ai.djl.timeseries.transform.PredictionSplitSampler;
@@ -96,6 +96,7 @@ public abstract class DeepARNetwork extends AbstractBlock {
     protected List<Integer> embeddingDimension;
     protected List<Integer> lagsSeq;
     protected int numParallelSamples;
+    protected int numSampleChunks;
 
     protected FeatureEmbedder embedder;
     protected Block paramProj;
@@ -114,6 +115,7 @@ public abstract class DeepARNetwork extends AbstractBlock {
         useFeatDynamicReal = builder.useFeatDynamicReal;
         useFeatStaticCat = builder.useFeatStaticCat;
         numParallelSamples = builder.numParallelSamples;
+        numSampleChunks = builder.numSampleChunks;
 
         paramProj = addChildBlock("param_proj", distrOutput.getArgsProj());
         if (builder.embeddingDimension != null || builder.cardinality == null) {
@@ -391,9 +393,8 @@ public abstract class DeepARNetwork extends AbstractBlock {
                         FieldName.START,
                         FieldName.TARGET,
                         FieldName.FEAT_TIME,
-                        TimeFeature.timeFeaturesFromFreqStr(freq),
-                        predictionLength,
-                        freq));
+                        new TimeFeatureTable(freq),
+                        predictionLength));
 
         transformation.add(
                 new AddAgeFeature(FieldName.TARGET, FieldName.FEAT_AGE, predictionLength, true));
@@ -431,6 +432,7 @@ public abstract class DeepARNetwork extends AbstractBlock {
         private int contextLength;
         private int predictionLength;
         private int numParallelSamples = 100;
+        private int numSampleChunks = 1;
         private int numLayers = 2;
         private int hiddenSize = 40;
         private float dropRate = 0.1f;
@@ -511,6 +513,22 @@ public abstract class DeepARNetwork extends AbstractBlock {
             return this;
         }
 
+        /**
+         * Set the optional number of chunks the parallel samples are split into for prediction.
+         *
+         * <p>The context is encoded once, then each chunk draws its share of the sample paths in
+         * turn, and its intermediate arrays are released before the next chunk is drawn. This
+         * bounds the memory used by the sampling to the size of a chunk. The default 1 draws all
+         * the sample paths as a single batch.
+         *
+         * @param numSampleChunks the number of sample chunks
+         * @return this builder
+         */
+        public Builder optNumSampleChunks(int numSampleChunks) {
+            this.numSampleChunks = numSampleChunks;
+            return this;
+        }
+
         /**
          * Set the optional number of rnn layers.
          *
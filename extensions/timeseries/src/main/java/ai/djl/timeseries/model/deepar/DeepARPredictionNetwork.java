@@ -16,6 +16,7 @@ package ai.djl.timeseries.model.deepar;
 import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDArrays;
 import ai.djl.ndarray.NDList;
+import ai.djl.ndarray.NDManager;
 import ai.djl.ndarray.types.Shape;
 import ai.djl.timeseries.distribution.Distribution;
 import ai.djl.training.ParameterStore;
@@ -45,25 +46,60 @@ public class DeepARPredictionNetwork extends DeepARNetwork {
                         inputs.get(5).get(":, :1") // future_time_feat
                         );
         NDList unrollOutput = unrollLaggedRnn(parameterStore, unrollInputs, training);
+
+        int numChunks = Math.min(numSampleChunks, numParallelSamples);
+        if (numChunks <= 1) {
+            NDArray samples =
+                    sampleFuturePaths(
+                            parameterStore, inputs, unrollOutput, numParallelSamples, training);
+            return new NDList(samples.reshape(-1, numParallelSamples, predictionLength));
+        }
+
+        // the context is encoded once, the chunks then draw their sample paths one after the other
+        // so that the intermediate arrays of a chunk are released before the next one is drawn
+        NDManager manager = inputs.head().getManager();
+        NDList chunks = new NDList(numChunks);
+        for (int i = 0; i < numChunks; ++i) {
+            int numSamples =
+                    numParallelSamples / numChunks + (i < numParallelSamples % numChunks ? 1 : 0);
+            try (NDManager scope = manager.newSubManager()) {
+                scope.tempAttachAll(inputs, unrollOutput);
+                NDArray chunk =
+                        sampleFuturePaths(
+                                        parameterStore, inputs, unrollOutput, numSamples, training)
+                                .reshape(-1, numSamples, predictionLength);
+                chunk.attach(manager);
+                chunks.add(chunk);
+            }
+        }
+        return new NDList(NDArrays.concat(chunks, 1));
+    }
+
+    private NDArray sampleFuturePaths(
+            ParameterStore parameterStore,
+            NDList inputs,
+            NDList unrollOutput,
+            int numSamples,
+            boolean training) {
         NDList state = new NDList(unrollOutput.get("hidden_state"), unrollOutput.get("cell_state"));
         String[] argNames = distrOutput.getArgsArray();
 
         NDList repeatedArgs = new NDList(argNames.length);
-        for (String argName : distrOutput.getArgsArray()) {
-            NDArray repeatedArg = unrollOutput.get(argName).repeat(0, numParallelSamples);
+        for (String argName : argNames) {
+            NDArray repeatedArg = unrollOutput.get(argName).repeat(0, numSamples);
             repeatedArg.setName(argName);
             repeatedArgs.add(repeatedArg);
         }
 
-        NDArray repeatedScale = unrollOutput.get("scale").repeat(0, numParallelSamples);
+        NDArray repeatedScale = unrollOutput.get("scale").repeat(0, numSamples);
         NDArray repeatedStaticFeat =
-                unrollOutput.get("static_feat").repeat(0, numParallelSamples).expandDims(1);
-        NDArray repeatedPastTarget = inputs.get(3).repeat(0, numParallelSamples).div(repeatedScale);
-        NDArray repeatedTimeFeat = inputs.get(5).repeat(0, numParallelSamples);
+                unrollOutput.get("static_feat").repeat(0, numSamples).expandDims(1);
+        NDArray repeatedPastTarget = inputs.get(3).repeat(0, numSamples).div(repeatedScale);
+        NDArray repeatedTimeFeat = inputs.get(5).repeat(0, numSamples);
 
         NDList repeatedState = new NDList(state.size());
         for (NDArray s : state) {
-            repeatedState.add(s.repeat(1, numParallelSamples));
+            repeatedState.add(s.repeat(1, numSamples));
         }
 
         Distribution distr = outputDistribution(repeatedArgs, repeatedScale, 1);
@@ -91,8 +127,7 @@ public class DeepARPredictionNetwork extends DeepARNetwork {
             futureSamples.add(nextSample);
         }
 
-        NDArray futureSamplesConcat = NDArrays.concat(futureSamples, 1);
-        return new NDList(futureSamplesConcat.reshape(-1, numParallelSamples, predictionLength));
+        return NDArrays.concat(futureSamples, 1);
     }
 
     /** {@inheritDoc} */
@@ -23,13 +23,13 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
-import java.util.function.Function;
 
 /** this is a class to generate time feature by frequency. */
 public final class TimeFeature {
 
     private static final Map<String, List<BiFunction<NDManager, List<LocalDateTime>, NDArray>>>
             FEATURES_BY_OFFSETS = init();
+    private static final Map<String, List<FeatureFunction>> FUNCTIONS_BY_OFFSETS = initFunctions();
 
     private TimeFeature() {}
 
@@ -41,8 +41,7 @@ public final class TimeFeature {
      * @return the result feature
      */
     public static NDArray secondOfMinute(NDManager manager, List<LocalDateTime> index) {
-        float[] data = getFeature(index, LocalDateTime::getSecond);
-        return manager.create(data).divi(59f).subi(0.5);
+        return manager.create(getFeature(index, TimeFeature::secondOfMinuteValue));
     }
 
     /**
@@ -53,8 +52,7 @@ public final class TimeFeature {
      * @return the result feature
      */
     public static NDArray minuteOfHour(NDManager manager, List<LocalDateTime> index) {
-        float[] data = getFeature(index, LocalDateTime::getMinute);
-        return manager.create(data).divi(59f).subi(0.5);
+        return manager.create(getFeature(index, TimeFeature::minuteOfHourValue));
     }
 
     /**
@@ -65,8 +63,7 @@ public final class TimeFeature {
      * @return the result feature
      */
     public static NDArray hourOfDay(NDManager manager, List<LocalDateTime> index) {
-        float[] data = getFeature(index, LocalDateTime::getHour);
-        return manager.create(data).divi(23f).subi(0.5);
+        return manager.create(getFeature(index, TimeFeature::hourOfDayValue));
     }
 
     /**
@@ -77,8 +74,7 @@ public final class TimeFeature {
      * @return the result feature
      */
     public static NDArray dayOfWeek(NDManager manager, List<LocalDateTime> index) {
-        float[] data = getFeature(index, a -> a.getDayOfWeek().ordinal());
-        return manager.create(data).divi(6f).subi(0.5);
+        return manager.create(getFeature(index, TimeFeature::dayOfWeekValue));
     }
 
     /**
@@ -89,8 +85,7 @@ public final class TimeFeature {
      * @return the result feature
      */
     public static NDArray dayOfMonth(NDManager manager, List<LocalDateTime> index) {
-        float[] data = getFeature(index, LocalDateTime::getDayOfMonth);
-        return manager.create(data).subi(1f).divi(30f).subi(0.5f);
+        return manager.create(getFeature(index, TimeFeature::dayOfMonthValue));
     }
 
     /**
@@ -101,8 +96,7 @@ public final class TimeFeature {
      * @return the result feature
      */
     public static NDArray dayOfYear(NDManager manager, List<LocalDateTime> index) {
-        float[] data = getFeature(index, LocalDateTime::getDayOfYear);
-        return manager.create(data).subi(1f).divi(365f).subi(0.5f);
+        return manager.create(getFeature(index, TimeFeature::dayOfYearValue));
     }
 
     /**
@@ -113,8 +107,7 @@ public final class TimeFeature {
      * @return the result feature
      */
     public static NDArray monthOfYear(NDManager manager, List<LocalDateTime> index) {
-        float[] data = getFeature(index, LocalDateTime::getMonthValue);
-        return manager.create(data).subi(1f).divi(11f).subi(0.5);
+        return manager.create(getFeature(index, TimeFeature::monthOfYearValue));
     }
 
     /**
@@ -125,20 +118,93 @@ public final class TimeFeature {
      * @return the result feature
      */
     public static NDArray weekOfYear(NDManager manager, List<LocalDateTime> index) {
-        float[] data = getFeature(index, a -> a.get(ChronoField.ALIGNED_WEEK_OF_YEAR));
-        return manager.create(data).sub(1f).div(52f).sub(0.5f);
+        return manager.create(getFeature(index, TimeFeature::weekOfYearValue));
     }
 
-    private static float[] getFeature(
-            List<LocalDateTime> index, Function<LocalDateTime, Number> function) {
+    /**
+     * Computes all time features appropriate for the given frequency into one stacked buffer.
+     *
+     * <p>The returned buffer is laid out feature by feature, so the values of the {@code i}-th
+     * feature occupy {@code [i * index.size(), (i + 1) * index.size())}. It matches the result of
+     * stacking the arrays produced by {@link #timeFeaturesFromFreqStr(String)}.
+     *
+     * @param freqStr Frequency string of the form [multiple][granularity] such as "12H", "1D"
+     * @param index time data
+     * @return the stacked time features
+     */
+    public static float[] computeFeatures(String freqStr, List<LocalDateTime> index) {
+        List<FeatureFunction> functions = getFeatureFunctions(freqStr);
+        int size = index.size();
+        float[] data = new float[functions.size() * size];
+        int offset = 0;
+        for (FeatureFunction function : functions) {
+            for (LocalDateTime time : index) {
+                data[offset++] = function.apply(time);
+            }
+        }
+        return data;
+    }
+
+    /**
+     * Returns the number of time features appropriate for the given frequency string.
+     *
+     * @param freqStr Frequency string of the form [multiple][granularity] such as "12H", "1D"
+     * @return the number of time features
+     */
+    public static int getNumFeatures(String freqStr) {
+        return getFeatureFunctions(freqStr).size();
+    }
+
+    private static List<FeatureFunction> getFeatureFunctions(String freqStr) {
+        TimeOffset timeOffset = TimeOffset.toOffset(freqStr);
+        List<FeatureFunction> functions = FUNCTIONS_BY_OFFSETS.get(timeOffset.getName());
+        if (functions == null) {
+            throw new IllegalArgumentException("Unsupported frequency: " + freqStr);
+        }
+        return functions;
+    }
+
+    private static float[] getFeature(List<LocalDateTime> index, FeatureFunction function) {
         float[] data = new float[index.size()];
         int i = 0;
         for (LocalDateTime time : index) {
-            data[i++] = function.apply(time).floatValue();
+            data[i++] = function.apply(time);
         }
         return data;
     }
 
+    private static float secondOfMinuteValue(LocalDateTime time) {
+        return time.getSecond() / 59f - 0.5f;
+    }
+
+    private static float minuteOfHourValue(LocalDateTime time) {
+        return time.getMinute() / 59f - 0.5f;
+    }
+
+    private static float hourOfDayValue(LocalDateTime time) {
+        return time.getHour() / 23f - 0.5f;
+    }
+
+    private static float dayOfWeekValue(LocalDateTime time) {
+        return time.getDayOfWeek().ordinal() / 6f - 0.5f;
+    }
+
+    private static float dayOfMonthValue(LocalDateTime time) {
+        return (time.getDayOfMonth() - 1f) / 30f - 0.5f;
+    }
+
+    private static float dayOfYearValue(LocalDateTime time) {
+        return (time.getDayOfYear() - 1f) / 365f - 0.5f;
+    }
+
+    private static float monthOfYearValue(LocalDateTime time) {
+        return (time.getMonthValue() - 1f) / 11f - 0.5f;
+    }
+
+    private static float weekOfYearValue(LocalDateTime time) {
+        return (time.get(ChronoField.ALIGNED_WEEK_OF_YEAR) - 1f) / 52f - 0.5f;
+    }
+
     /**
      * Returns a list of time features that will be appropriate for the given frequency string.
      *
@@ -188,4 +254,49 @@ public final class TimeFeature {
                         TimeFeature::dayOfYear));
         return map;
     }
+
+    private static Map<String, List<FeatureFunction>> initFunctions() {
+        Map<String, List<FeatureFunction>> map = new ConcurrentHashMap<>();
+        map.put("Y", Collections.emptyList());
+        map.put("Q", Collections.singletonList(TimeFeature::monthOfYearValue));
+        map.put("M", Collections.singletonList(TimeFeature::monthOfYearValue));
+        map.put("W", Arrays.asList(TimeFeature::dayOfMonthValue, TimeFeature::weekOfYearValue));
+        map.put(
+                "D",
+                Arrays.asList(
+                        TimeFeature::dayOfWeekValue,
+                        TimeFeature::dayOfMonthValue,
+                        TimeFeature::dayOfYearValue));
+        map.put(
+                "H",
+                Arrays.asList(
+                        TimeFeature::hourOfDayValue,
+                        TimeFeature::dayOfWeekValue,
+                        TimeFeature::dayOfMonthValue,
+                        TimeFeature::dayOfYearValue));
+        map.put(
+                "T",
+                Arrays.asList(
+                        TimeFeature::minuteOfHourValue,
+                        TimeFeature::hourOfDayValue,
+                        TimeFeature::dayOfWeekValue,
+                        TimeFeature::dayOfMonthValue,
+                        TimeFeature::dayOfYearValue));
+        map.put(
+                "S",
+                Arrays.asList(
+                        TimeFeature::secondOfMinuteValue,
+                        TimeFeature::minuteOfHourValue,
+                        TimeFeature::hourOfDayValue,
+                        TimeFeature::dayOfWeekValue,
+                        TimeFeature::dayOfMonthValue,
+                        TimeFeature::dayOfYearValue));
+        return map;
+    }
+
+    /** A function computes a normalized time feature value for a single time stamp. */
+    private interface FeatureFunction {
+
+        float apply(LocalDateTime time);
+    }
 }
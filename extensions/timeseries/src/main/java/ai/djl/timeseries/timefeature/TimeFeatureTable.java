@@ -0,0 +1,288 @@
+/*
+ * Copyright 2023 Amazon.com, Inc. or its affiliates. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"). You may not use this file except in compliance
+ * with the License. A copy of the License is located at
+ *
+ * http://aws.amazon.com/apache2.0/
+ *
+ * or in the "license" file accompanying this file. This file is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES
+ * OR CONDITIONS OF ANY KIND, either express or implied. See the License for the specific language governing permissions
+ * and limitations under the License.
+ */
+package ai.djl.timeseries.timefeature;
+
+import ai.djl.ndarray.NDArray;
+import ai.djl.ndarray.NDManager;
+import ai.djl.ndarray.types.Shape;
+
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAmount;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A {@code TimeFeatureTable} caches the time features of a frequency over a date range.
+ *
+ * <p>The features of every time stamp in the range are computed only once into a single stacked
+ * buffer. A time series whose time stamps lie on the same grid takes a slice of the table at its
+ * start offset instead of recomputing the features. The table grows on demand when a time series
+ * reaches beyond the cached range, so it can also be created empty and filled by the first series.
+ *
+ * <p>The table holds at most {@code maxSize} time stamps. When a series would grow it beyond that,
+ * the cached range is replaced by a new window starting at the series, and a series longer than
+ * {@code maxSize} is computed directly.
+ *
+ * <p>A {@code TimeFeatureTable} is thread safe and is meant to be shared by all the series of a
+ * dataset across epochs.
+ */
+public class TimeFeatureTable {
+
+    /** The default maximum number of cached time stamps. */
+    public static final int DEFAULT_MAX_SIZE = 65536;
+
+    private String freq;
+    private TemporalAmount step;
+    private int numFeatures;
+    private int maxSize;
+    private volatile Table table;
+
+    /**
+     * Constructs an empty {@code TimeFeatureTable} that grows as series are requested, up to {@link
+     * #DEFAULT_MAX_SIZE} time stamps.
+     *
+     * @param freq Frequency string of the form [multiple][granularity] such as "12H", "1D"
+     */
+    public TimeFeatureTable(String freq) {
+        this(freq, DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Constructs an empty {@code TimeFeatureTable} that grows as series are requested.
+     *
+     * @param freq Frequency string of the form [multiple][granularity] such as "12H", "1D"
+     * @param maxSize the maximum number of cached time stamps
+     */
+    public TimeFeatureTable(String freq, int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("The maximum size must be positive.");
+        }
+        this.freq = freq;
+        this.maxSize = maxSize;
+        step = TimeOffset.toOffset(freq).toTemporalAmount();
+        numFeatures = TimeFeature.getNumFeatures(freq);
+    }
+
+    /**
+     * Constructs a {@code TimeFeatureTable} precomputed over the given date range.
+     *
+     * <p>The table holds at most {@link #DEFAULT_MAX_SIZE} time stamps, or the size of the range if
+     * larger.
+     *
+     * @param freq Frequency string of the form [multiple][granularity] such as "12H", "1D"
+     * @param start the first time stamp of the range
+     * @param end the last time stamp of the range (inclusive)
+     */
+    public TimeFeatureTable(String freq, LocalDateTime start, LocalDateTime end) {
+        this(freq);
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("The end of the range is before its start.");
+        }
+        List<LocalDateTime> index = new ArrayList<>();
+        for (LocalDateTime time = start; !time.isAfter(end); time = time.plus(step)) {
+            index.add(time);
+        }
+        maxSize = Math.max(maxSize, index.size());
+        table = compute(index);
+    }
+
+    /**
+     * Returns the frequency string of the table.
+     *
+     * @return the frequency string of the table
+     */
+    public String getFreq() {
+        return freq;
+    }
+
+    /**
+     * Returns the number of time features per time stamp.
+     *
+     * @return the number of time features per time stamp
+     */
+    public int getNumFeatures() {
+        return numFeatures;
+    }
+
+    /**
+     * Returns the maximum number of cached time stamps.
+     *
+     * @return the maximum number of cached time stamps
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the number of time stamps currently cached.
+     *
+     * @return the number of time stamps currently cached
+     */
+    public int size() {
+        Table current = table;
+        return current == null ? 0 : current.index.length;
+    }
+
+    /**
+     * Returns the time features of a series as an {@link NDArray} of shape (numFeatures, length).
+     *
+     * @param manager the {@link NDManager} to create the array
+     * @param start the start time of the series
+     * @param length the number of time stamps of the series
+     * @return the time features
+     */
+    public NDArray getFeatures(NDManager manager, LocalDateTime start, int length) {
+        return manager.create(getFeatures(start, length), new Shape(numFeatures, length));
+    }
+
+    /**
+     * Returns the time features of a series stacked into a single buffer.
+     *
+     * <p>The values of the {@code i}-th feature occupy {@code [i * length, (i + 1) * length)}.
+     *
+     * @param start the start time of the series
+     * @param length the number of time stamps of the series
+     * @return the stacked time features
+     */
+    public float[] getFeatures(LocalDateTime start, int length) {
+        if (length <= 0) {
+            return new float[0];
+        } else if (length > maxSize) {
+            return TimeFeature.computeFeatures(freq, createIndex(start, length));
+        }
+        Table current = table;
+        int offset = current == null ? -1 : current.indexOf(start);
+        if (offset < 0 || offset + length > current.index.length) {
+            current = grow(start, length);
+            if (current == null) {
+                // not on the grid of this table, compute the features directly
+                return TimeFeature.computeFeatures(freq, createIndex(start, length));
+            }
+            offset = current.indexOf(start);
+        }
+        return current.slice(offset, length);
+    }
+
+    private synchronized Table grow(LocalDateTime start, int length) {
+        Table current = table;
+        if (current == null) {
+            current = compute(createIndex(start, length));
+            table = current;
+            return current;
+        }
+
+        int offset = current.indexOf(start);
+        if (offset < 0) {
+            LocalDateTime first = current.index[0];
+            if (!start.isBefore(first)) {
+                return null;
+            }
+            List<LocalDateTime> prefix = new ArrayList<>();
+            LocalDateTime time = start;
+            while (time.isBefore(first)) {
+                if (prefix.size() + current.index.length >= maxSize) {
+                    return window(start, length);
+                }
+                prefix.add(time);
+                time = time.plus(step);
+            }
+            if (!time.isEqual(first)) {
+                return null;
+            }
+            current = concat(compute(prefix), current);
+            offset = 0;
+        }
+
+        int required = offset + length - current.index.length;
+        if (required > 0) {
+            int available = maxSize - current.index.length;
+            if (required > available) {
+                return window(start, length);
+            }
+            // grow by at least half of the table to amortize the copies
+            int count = Math.min(Math.max(required, current.index.length / 2), available);
+            LocalDateTime time = current.index[current.index.length - 1];
+            List<LocalDateTime> suffix = new ArrayList<>(count);
+            for (int i = 0; i < count; ++i) {
+                time = time.plus(step);
+                suffix.add(time);
+            }
+            current = concat(current, compute(suffix));
+        }
+        table = current;
+        return current;
+    }
+
+    private Table window(LocalDateTime start, int length) {
+        // evicts the cached range, the new window leaves room for the following series
+        Table current = compute(createIndex(start, Math.max(length, maxSize / 2)));
+        table = current;
+        return current;
+    }
+
+    private List<LocalDateTime> createIndex(LocalDateTime start, int length) {
+        List<LocalDateTime> index = new ArrayList<>(length);
+        LocalDateTime time = start;
+        for (int i = 0; i < length; ++i) {
+            index.add(time);
+            time = time.plus(step);
+        }
+        return index;
+    }
+
+    private Table compute(List<LocalDateTime> times) {
+        LocalDateTime[] index = times.toArray(new LocalDateTime[0]);
+        return new Table(index, TimeFeature.computeFeatures(freq, times));
+    }
+
+    private Table concat(Table head, Table tail) {
+        int headSize = head.index.length;
+        int tailSize = tail.index.length;
+        int size = headSize + tailSize;
+        LocalDateTime[] index = Arrays.copyOf(head.index, size);
+        System.arraycopy(tail.index, 0, index, headSize, tailSize);
+        float[] data = new float[numFeatures * size];
+        for (int i = 0; i < numFeatures; ++i) {
+            System.arraycopy(head.data, i * headSize, data, i * size, headSize);
+            System.arraycopy(tail.data, i * tailSize, data, i * size + headSize, tailSize);
+        }
+        return new Table(index, data);
+    }
+
+    /** An immutable snapshot of the cached time stamps and their stacked features. */
+    private final class Table {
+
+        LocalDateTime[] index;
+        float[] data;
+
+        Table(LocalDateTime[] index, float[] data) {
+            this.index = index;
+            this.data = data;
+        }
+
+        int indexOf(LocalDateTime time) {
+            int pos = Arrays.binarySearch(index, time);
+            return pos < 0 ? -1 : pos;
+        }
+
+        float[] slice(int offset, int length) {
+            int size = index.length;
+            float[] ret = new float[numFeatures * length];
+            for (int i = 0; i < numFeatures; ++i) {
+                System.arraycopy(data, i * size + offset, ret, i * length, length);
+            }
+            return ret;
+        }
+    }
+}
@@ -13,6 +13,9 @@
 
 package ai.djl.timeseries.timefeature;
 
+import java.time.Duration;
+import java.time.Period;
+import java.time.temporal.TemporalAmount;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -84,4 +87,32 @@ public class TimeOffset {
     public String toFreqStr() {
         return n + name;
     }
+
+    /**
+     * Return the amount of time between two consecutive time stamps of this {@code TimeOffset}.
+     *
+     * @return the amount of time of one step
+     */
+    public TemporalAmount toTemporalAmount() {
+        switch (name) {
+            case "S":
+                return Duration.ofSeconds(n);
+            case "T":
+                return Duration.ofMinutes(n);
+            case "H":
+                return Duration.ofHours(n);
+            case "D":
+                return Period.ofDays(n);
+            case "W":
+                return Period.ofWeeks(n);
+            case "M":
+                return Period.ofMonths(n);
+            case "Q":
+                return Period.ofMonths(3 * n);
+            case "Y":
+                return Period.ofYears(n);
+            default:
+                throw new IllegalArgumentException("Unsupported frequency: " + toFreqStr());
+        }
+    }
 }
@@ -16,6 +16,7 @@ import ai.djl.ndarray.NDArray;
 import ai.djl.ndarray.NDManager;
 import ai.djl.timeseries.TimeSeriesData;
 import ai.djl.timeseries.dataset.FieldName;
+import ai.djl.timeseries.timefeature.TimeFeatureTable;
 import ai.djl.timeseries.transform.TimeSeriesTransform;
 
 import java.time.LocalDateTime;
@@ -29,6 +30,7 @@ public class AddTimeFeature implements TimeSeriesTransform {
     private FieldName targetField;
     private FieldName outputField;
     private List<BiFunction<NDManager, List<LocalDateTime>, NDArray>> timeFeatures;
+    private TimeFeatureTable timeFeatureTable;
     private int predictionLength;
     String freq;
 
@@ -57,9 +59,44 @@ public class AddTimeFeature implements TimeSeriesTransform {
         this.freq = freq;
     }
 
+    /**
+     * Constructs a {@link AddTimeFeature} that slices the time features from a cached {@link
+     * TimeFeatureTable}.
+     *
+     * @param startField start field name containing start time
+     * @param targetField target field name
+     * @param outputField output value field name
+     * @param timeFeatureTable the table caching the time features of the frequency
+     * @param predictionLength prediction length
+     */
+    public AddTimeFeature(
+            FieldName startField,
+            FieldName targetField,
+            FieldName outputField,
+            TimeFeatureTable timeFeatureTable,
+            int predictionLength) {
+        this.startField = startField;
+        this.targetField = targetField;
+        this.outputField = outputField;
+        this.timeFeatureTable = timeFeatureTable;
+        this.predictionLength = predictionLength;
+        this.freq = timeFeatureTable.getFreq();
+    }
+
     /** {@inheritDoc} */
     @Override
     public TimeSeriesData transform(NDManager manager, TimeSeriesData data, boolean isTrain) {
+        if (timeFeatureTable != null) {
+            Feature.addTimeFeature(
+                    manager,
+                    startField,
+                    targetField,
+                    outputField,
+                    timeFeatureTable,
+                    predictionLength,
+                    data);
+            return data;
+        }
         Feature.addTimeFeature(
                 manager,
                 startField,
@@ -20,10 +20,10 @@ import ai.djl.ndarray.NDManager;
 import ai.djl.ndarray.types.Shape;
 import ai.djl.timeseries.TimeSeriesData;
 import ai.djl.timeseries.dataset.FieldName;
+import ai.djl.timeseries.timefeature.TimeFeatureTable;
+import ai.djl.timeseries.timefeature.TimeOffset;
 
-import java.time.Duration;
 import java.time.LocalDateTime;
-import java.time.Period;
 import java.time.temporal.TemporalAmount;
 import java.util.ArrayList;
 import java.util.List;
@@ -109,26 +109,13 @@ public final class Feature {
             boolean isTrain) {
         if (timeFeatures.isEmpty()) {
             data.setField(outputField, null);
+            return;
         }
 
         LocalDateTime start = data.getStartTime();
         int length = targetTransformationLength(data.get(targetField), predictionLength, isTrain);
 
-        StringBuilder sb = new StringBuilder();
-        sb.append(freq);
-        if (!freq.matches("\\d+.*")) {
-            sb.insert(0, 1);
-        }
-        sb.insert(0, "P");
-        String formattedFreq = sb.toString();
-
-        TemporalAmount timeFreq;
-        if (freq.endsWith("H") || freq.endsWith("T") || freq.endsWith("S")) {
-            timeFreq = Duration.parse(formattedFreq);
-        } else {
-            timeFreq = Period.parse(formattedFreq);
-        }
-
+        TemporalAmount timeFreq = TimeOffset.toOffset(freq).toTemporalAmount();
         List<LocalDateTime> index = new ArrayList<>();
         LocalDateTime temp = start;
         for (int i = 0; i < length; i++) {
@@ -144,6 +131,70 @@ public final class Feature {
         data.setField(outputField, NDArrays.stack(outputs));
     }
 
+    /**
+     * Adds the time features of the frequency of a {@link TimeFeatureTable}.
+     *
+     * @param manager default {@link NDManager}
+     * @param startField Field with the start time stamp of the time series
+     * @param targetField Field with the array containing the time series values
+     * @param outputField Field name for result
+     * @param table the {@link TimeFeatureTable} caching the time features
+     * @param predictionLength Prediction length
+     * @param data the {@link TimeSeriesData} to operate on
+     */
+    public static void addTimeFeature(
+            NDManager manager,
+            FieldName startField,
+            FieldName targetField,
+            FieldName outputField,
+            TimeFeatureTable table,
+            int predictionLength,
+            TimeSeriesData data) {
+        addTimeFeature(
+                manager,
+                startField,
+                targetField,
+                outputField,
+                table,
+                predictionLength,
+                data,
+                false);
+    }
+
+    /**
+     * Adds the time features of the frequency of a {@link TimeFeatureTable}.
+     *
+     * <p>The features are sliced from the cached table instead of being recomputed for every
+     * series.
+     *
+     * @param manager default {@link NDManager}
+     * @param startField Field with the start time stamp of the time series
+     * @param targetField Field with the array containing the time series values
+     * @param outputField Field name for result
+     * @param table the {@link TimeFeatureTable} caching the time features
+     * @param predictionLength Prediction length
+     * @param data the {@link TimeSeriesData} to operate on
+     * @param isTrain Whether it is training
+     */
+    public static void addTimeFeature(
+            NDManager manager,
+            FieldName startField,
+            FieldName targetField,
+            FieldName outputField,
+            TimeFeatureTable table,
+            int predictionLength,
+            TimeSeriesData data,
+            boolean isTrain) {
+        if (table.getNumFeatures() == 0) {
+            data.setField(outputField, null);
+            return;
+        }
+
+        LocalDateTime start = data.getStartTime();
+        int length = targetTransformationLength(data.get(targetField), predictionLength, isTrain);
+        data.setField(outputField, table.getFeatures(manager, start, length));
+    }
+
     /**
      * Adds on 'age' feature to the {@link TimeSeriesData}.
      *
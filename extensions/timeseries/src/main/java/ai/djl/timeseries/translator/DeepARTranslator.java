@@ -22,7 +22,7 @@ import ai.djl.timeseries.SampleForecast;
 import ai.djl.timeseries.TimeSeriesData;
 import ai.djl.timeseries.dataset.FieldName;
 import ai.djl.timeseries.timefeature.Lag;
-import ai.djl.timeseries.timefeature.TimeFeature;
+import ai.djl.timeseries.timefeature.TimeFeatureTable;
 import ai.djl.timeseries.transform.InstanceSampler;
 import ai.djl.timeseries.transform.PredictionSplitSampler;
 import ai.djl.timeseries.transform.convert.Convert;
@@ -33,11 +33,9 @@ import ai.djl.translate.ArgumentsUtil;
 import ai.djl.translate.Translator;
 import ai.djl.translate.TranslatorContext;
 
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.function.BiFunction;
 
 /** The {@link Translator} for DeepAR time series forecasting tasks. */
 public class DeepARTranslator extends BaseTimeSeriesTranslator {
@@ -60,7 +58,7 @@ public class DeepARTranslator extends BaseTimeSeriesTranslator {
         FieldName.FEAT_TIME, FieldName.OBSERVED_VALUES
     };
 
-    private List<BiFunction<NDManager, List<LocalDateTime>, NDArray>> timeFeatures;
+    private TimeFeatureTable timeFeatureTable;
     private InstanceSampler instanceSampler;
     private String[] predictInputFields;
 
@@ -76,7 +74,7 @@ public class DeepARTranslator extends BaseTimeSeriesTranslator {
         this.useFeatStaticCat = builder.useFeatStaticCat;
 
         List<Integer> lagsSeq = Lag.getLagsForFreq(freq);
-        this.timeFeatures = TimeFeature.timeFeaturesFromFreqStr(freq);
+        this.timeFeatureTable = new TimeFeatureTable(freq);
         this.historyLength = contextLength + lagsSeq.get(lagsSeq.size() - 1);
         this.instanceSampler = PredictionSplitSampler.newTestSplitSampler();
         if (builder.useIsPad) {
@@ -134,9 +132,8 @@ public class DeepARTranslator extends BaseTimeSeriesTranslator {
                 FieldName.START,
                 FieldName.TARGET,
                 FieldName.FEAT_TIME,
-                timeFeatures,
+                timeFeatureTable,
                 predictionLength,
-                freq,
                 input);
 
         Feature.addAgeFeature(
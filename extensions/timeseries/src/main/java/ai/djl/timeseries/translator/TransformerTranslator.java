@@ -21,7 +21,7 @@ import ai.djl.timeseries.SampleForecast;
 import ai.djl.timeseries.TimeSeriesData;
 import ai.djl.timeseries.dataset.FieldName;
 import ai.djl.timeseries.timefeature.Lag;
-import ai.djl.timeseries.timefeature.TimeFeature;
+import ai.djl.timeseries.timefeature.TimeFeatureTable;
 import ai.djl.timeseries.transform.InstanceSampler;
 import ai.djl.timeseries.transform.PredictionSplitSampler;
 import ai.djl.timeseries.transform.convert.Convert;
@@ -32,11 +32,9 @@ import ai.djl.translate.ArgumentsUtil;
 import ai.djl.translate.Translator;
 import ai.djl.translate.TranslatorContext;
 
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.function.BiFunction;
 
 /** The {@link Translator} for Transformer time series forecasting tasks. */
 public class TransformerTranslator extends BaseTimeSeriesTranslator {
@@ -56,7 +54,7 @@ public class TransformerTranslator extends BaseTimeSeriesTranslator {
     private static final FieldName[] TIME_SERIES_FIELDS = {
         FieldName.FEAT_TIME, FieldName.OBSERVED_VALUES
     };
-    private final List<BiFunction<NDManager, List<LocalDateTime>, NDArray>> timeFeatures;
+    private final TimeFeatureTable timeFeatureTable;
 
     private final InstanceSampler instanceSampler;
 
@@ -71,7 +69,7 @@ public class TransformerTranslator extends BaseTimeSeriesTranslator {
         this.useFeatStaticCat = builder.useFeatStaticCat;
 
         List<Integer> lagsSeq = Lag.getLagsForFreq(freq);
-        this.timeFeatures = TimeFeature.timeFeaturesFromFreqStr(freq);
+        this.timeFeatureTable = new TimeFeatureTable(freq);
         this.historyLength = contextLength + lagsSeq.get(lagsSeq.size() - 1);
         this.instanceSampler = PredictionSplitSampler.newTestSplitSampler();
     }
@@ -113,9 +111,8 @@ public class TransformerTranslator extends BaseTimeSeriesTranslator {
                 FieldName.START,
                 FieldName.TARGET,
                 FieldName.FEAT_TIME,
-                timeFeatures,
+                timeFeatureTable,
                 predictionLength,
-                freq,
                 input);
 
         Feature.addAgeFeature(
@@ -24,6 +24,7 @@ import ai.djl.ndarray.types.DataType;
 import ai.djl.ndarray.types.Shape;
 import ai.djl.nn.Parameter;
 import ai.djl.testing.TestRequirements;
+import ai.djl.timeseries.SampleForecast;
 import ai.djl.timeseries.dataset.FieldName;
 import ai.djl.timeseries.dataset.M5Forecast;
 import ai.djl.timeseries.dataset.TimeFeaturizers;
@@ -149,6 +150,50 @@ public class DeepARTest {
         }
     }
 
+    @Test
+    public void testChunkedPredictionNetwork() {
+        DeepARNetwork deepAR =
+                DeepARNetwork.builder()
+                        .setCardinality(Arrays.asList(5))
+                        .setFreq(freq)
+                        .setPredictionLength(predictionLength)
+                        .optDistrOutput(new StudentTOutput())
+                        .optNumSampleChunks(3)
+                        .buildPredictionNetwork();
+        try (NDManager manager = NDManager.newBaseManager()) {
+            int batchSize = 2;
+            Shape[] inputShapes = getPredictionInputShapes(batchSize, deepAR.getHistoryLength());
+
+            deepAR.setInitializer(Initializer.ONES, Parameter.Type.WEIGHT);
+            deepAR.initialize(manager, DataType.FLOAT32, inputShapes);
+
+            ParameterStore ps = new ParameterStore(manager, true);
+            NDList inputs =
+                    new NDList(
+                            Stream.of(inputShapes).map(manager::ones).collect(Collectors.toList()));
+            NDArray actOutput = deepAR.forward(ps, inputs, false).singletonOrThrow();
+            Assert.assertEquals(actOutput.getShape(), new Shape(batchSize, 100, predictionLength));
+
+            SampleForecast forecast =
+                    new SampleForecast(actOutput.get(0), LocalDateTime.now(), freq);
+            NDArray median = forecast.median();
+            Assert.assertEquals(median.getShape(), new Shape(predictionLength));
+            Assert.assertEquals(median, forecast.getSortedSamples().get(50));
+        }
+    }
+
+    @Test
+    public void testSampleForecastQuantile() {
+        try (NDManager manager = NDManager.newBaseManager()) {
+            double[] values = {1 + 1e-12, 3 + 1e-12, 2 + 1e-12, 5 + 1e-12, 4 + 1e-12, 0};
+            NDArray samples = manager.create(values, new Shape(3, 2));
+            SampleForecast forecast = new SampleForecast(samples, LocalDateTime.now(), freq);
+            NDArray median = forecast.median();
+            Assert.assertEquals(median.getDataType(), DataType.FLOAT64);
+            Assert.assertEquals(median.toDoubleArray(), new double[] {2 + 1e-12, 3 + 1e-12});
+        }
+    }
+
     @Test
     public void testOutputShapes() {
         DeepARNetwork deepARTraining = getDeepARModel(new NegativeBinomialOutput(), true);
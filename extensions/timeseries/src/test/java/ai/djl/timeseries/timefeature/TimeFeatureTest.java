@@ -15,6 +15,9 @@ package ai.djl.timeseries.timefeature;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -139,4 +142,63 @@ public class TimeFeatureTest {
             Assert.assertEquals(lags, expectedLags.get(freq));
         }
     }
+
+    @Test
+    public void testTimeFeatureTable() {
+        LocalDateTime start = LocalDateTime.parse("2011-01-29T00:00");
+        TimeFeatureTable table =
+                new TimeFeatureTable("D", start, LocalDateTime.parse("2011-03-01T00:00"));
+        Assert.assertEquals(table.getNumFeatures(), 3);
+        Assert.assertEquals(table.size(), 32);
+
+        // slice within the cached range
+        assertFeatures(table, start.plusDays(3), 20);
+        // grow beyond the end of the table
+        assertFeatures(table, start.plusDays(10), 76);
+        Assert.assertTrue(table.size() >= 86);
+        // grow before the start of the table
+        assertFeatures(table, start.minusDays(5), 10);
+        Assert.assertEquals(table.getFeatures(start.minusDays(5), 1)[0], -0.5f, 1e-4f);
+        // time stamps not on the grid of the table
+        assertFeatures(table, start.plusHours(12), 10);
+
+        TimeFeatureTable empty = new TimeFeatureTable("M");
+        Assert.assertEquals(empty.size(), 0);
+        assertFeatures(empty, start, 24);
+        Assert.assertEquals(empty.size(), 24);
+    }
+
+    @Test
+    public void testTimeFeatureTableMaxSize() {
+        LocalDateTime start = LocalDateTime.parse("2011-01-29T00:00");
+        TimeFeatureTable table = new TimeFeatureTable("D", 40);
+        assertFeatures(table, start, 30);
+        Assert.assertEquals(table.size(), 30);
+
+        // growing beyond the maximum size replaces the cached range
+        assertFeatures(table, start.plusDays(20), 25);
+        Assert.assertEquals(table.size(), 25);
+        assertFeatures(table, start.plusDays(22), 20);
+        Assert.assertTrue(table.size() <= 40);
+
+        // far before the cached range
+        assertFeatures(table, start.minusDays(1000), 10);
+        Assert.assertEquals(table.size(), 20);
+
+        // longer than the maximum size, computed directly
+        assertFeatures(table, start, 50);
+        Assert.assertEquals(table.size(), 20);
+    }
+
+    private static void assertFeatures(TimeFeatureTable table, LocalDateTime start, int length) {
+        String freq = table.getFreq();
+        List<LocalDateTime> index = new ArrayList<>();
+        LocalDateTime time = start;
+        for (int i = 0; i < length; ++i) {
+            index.add(time);
+            time = "D".equals(freq) ? time.plus(1, ChronoUnit.DAYS) : time.plusMonths(1);
+        }
+        float[] expected = TimeFeature.computeFeatures(freq, index);
+        Assert.assertEquals(table.getFeatures(start, length), expected);
+    }
 }
@@ -24,9 +24,7 @@ import ai.djl.translate.Translator;
 import ai.djl.translate.TranslatorContext;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
 import java.util.Map;
 
 /** The translator for Huggingface fill mask model. */
@@ -98,15 +96,10 @@ public class FillMaskTranslator implements Translator<String, Classifications> {
     static Classifications toClassifications(
             HuggingFaceTokenizer tokenizer, NDList output, int maskIndex, int topK) {
         NDArray prob = output.get(0).get(maskIndex).softmax(0);
-        NDArray array = prob.argSort(0, false);
-        long[] classIds = new long[topK];
-        List<Double> probabilities = new ArrayList<>(topK);
-        for (int i = 0; i < topK; ++i) {
-            classIds[i] = array.getLong(i);
-            probabilities.add((double) prob.getFloat(classIds[i]));
-        }
-        String[] classes = tokenizer.decode(classIds).trim().split(" ");
-        return new Classifications(Arrays.asList(classes), probabilities);
+        return Classifications.ofTopK(
+                prob,
+                topK,
+                classIds -> Arrays.asList(tokenizer.decode(classIds).trim().split(" ")));
     }
 
     /**
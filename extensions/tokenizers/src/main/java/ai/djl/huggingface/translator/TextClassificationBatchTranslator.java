@@ -32,11 +32,14 @@ public class TextClassificationBatchTranslator
         implements NoBatchifyTranslator<String[], Classifications[]> {
 
     private HuggingFaceTokenizer tokenizer;
+    private int topK;
     private Batchifier batchifier;
     private PretrainedConfig config;
 
-    TextClassificationBatchTranslator(HuggingFaceTokenizer tokenizer, Batchifier batchifier) {
+    TextClassificationBatchTranslator(
+            HuggingFaceTokenizer tokenizer, int topK, Batchifier batchifier) {
         this.tokenizer = tokenizer;
+        this.topK = topK;
         this.batchifier = batchifier;
     }
 
@@ -67,7 +70,7 @@ public class TextClassificationBatchTranslator
         NDList[] batch = batchifier.unbatchify(list);
         Classifications[] ret = new Classifications[batch.length];
         for (int i = 0; i < batch.length; ++i) {
-            ret[i] = TextClassificationTranslator.toClassifications(config, batch[i]);
+            ret[i] = TextClassificationTranslator.toClassifications(config, batch[i], topK);
         }
         return ret;
     }
@@ -35,11 +35,13 @@ import java.util.Map;
 public class TextClassificationTranslator implements Translator<String, Classifications> {
 
     private HuggingFaceTokenizer tokenizer;
+    private int topK;
     private Batchifier batchifier;
     private PretrainedConfig config;
 
-    TextClassificationTranslator(HuggingFaceTokenizer tokenizer, Batchifier batchifier) {
+    TextClassificationTranslator(HuggingFaceTokenizer tokenizer, int topK, Batchifier batchifier) {
         this.tokenizer = tokenizer;
+        this.topK = topK;
         this.batchifier = batchifier;
     }
 
@@ -69,17 +71,17 @@ public class TextClassificationTranslator implements Translator<String, Classifi
     /** {@inheritDoc} */
     @Override
     public Classifications processOutput(TranslatorContext ctx, NDList list) {
-        return toClassifications(config, list);
+        return toClassifications(config, list, topK);
     }
 
     /** {@inheritDoc} */
     @Override
     public TextClassificationBatchTranslator toBatchTranslator(Batchifier batchifier) {
         tokenizer.enableBatch();
-        return new TextClassificationBatchTranslator(tokenizer, batchifier);
+        return new TextClassificationBatchTranslator(tokenizer, topK, batchifier);
     }
 
-    static Classifications toClassifications(PretrainedConfig config, NDList list) {
+    static Classifications toClassifications(PretrainedConfig config, NDList list, int topK) {
         NDArray logits = list.get(0);
         int size = config.id2label.size();
         if ("multi_label_classification".equals(config.problemType) || size == 1) {
@@ -87,16 +89,17 @@ public class TextClassificationTranslator implements Translator<String, Classifi
         } else if ("single_label_classification".equals(config.problemType) || size > 1) {
             logits = logits.softmax(0);
         }
-        long[] indices = logits.argSort(-1, false).toLongArray();
-        float[] buf = logits.toFloatArray();
-        List<String> classes = new ArrayList<>(size);
-        List<Double> probabilities = new ArrayList<>(size);
-        for (long l : indices) {
-            int index = Math.toIntExact(l);
-            classes.add(config.id2label.get(String.valueOf(index)));
-            probabilities.add((double) buf[index]);
-        }
-        return new Classifications(classes, probabilities);
+        // only the best classes are returned, they are selected without sorting all the classes
+        return Classifications.ofTopK(
+                logits,
+                topK,
+                indices -> {
+                    List<String> classes = new ArrayList<>(indices.length);
+                    for (long index : indices) {
+                        classes.add(config.id2label.get(String.valueOf(index)));
+                    }
+                    return classes;
+                });
     }
 
     /**
@@ -127,12 +130,24 @@ public class TextClassificationTranslator implements Translator<String, Classifi
     public static final class Builder {
 
         private HuggingFaceTokenizer tokenizer;
+        private int topK = 5;
         private Batchifier batchifier = Batchifier.STACK;
 
         Builder(HuggingFaceTokenizer tokenizer) {
             this.tokenizer = tokenizer;
         }
 
+        /**
+         * Set the topK number of classes to be returned, defaults to 5.
+         *
+         * @param topK the number of top classes to return
+         * @return this builder
+         */
+        public Builder optTopK(int topK) {
+            this.topK = topK;
+            return this;
+        }
+
         /**
          * Sets the {@link Batchifier} for the {@link Translator}.
          *
@@ -150,6 +165,7 @@ public class TextClassificationTranslator implements Translator<String, Classifi
          * @param arguments the model arguments
          */
         public void configure(Map<String, ?> arguments) {
+            optTopK(ArgumentsUtil.intValue(arguments, "topK", 5));
             String batchifierStr = ArgumentsUtil.stringValue(arguments, "batchifier", "stack");
             optBatchifier(Batchifier.fromString(batchifierStr));
         }
@@ -161,7 +177,7 @@ public class TextClassificationTranslator implements Translator<String, Classifi
          * @throws IOException if I/O error occurs
          */
         public TextClassificationTranslator build() throws IOException {
-            return new TextClassificationTranslator(tokenizer, batchifier);
+            return new TextClassificationTranslator(tokenizer, topK, batchifier);
         }
     }
 }
@@ -41,6 +41,7 @@ import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -100,6 +101,25 @@ public class TextClassificationTranslatorTest {
                 Predictor<String, Classifications> predictor = model.newPredictor()) {
             Classifications res = predictor.predict(text);
             Assert.assertEquals(res.best().getClassName(), "LABEL_2");
+            Assert.assertEquals(res.items().size(), 3);
+        }
+
+        Criteria<String, Classifications> criteria1 =
+                Criteria.builder()
+                        .setTypes(String.class, Classifications.class)
+                        .optModelPath(modelDir)
+                        .optBlock(block)
+                        .optEngine("PyTorch")
+                        .optArgument("tokenizer", "bert-base-uncased")
+                        .optArgument("topK", 1)
+                        .optOption("hasParameter", "false")
+                        .optTranslatorFactory(new TextClassificationTranslatorFactory())
+                        .build();
+
+        try (ZooModel<String, Classifications> model = criteria1.loadModel();
+                Predictor<String, Classifications> predictor = model.newPredictor()) {
+            Classifications res = predictor.predict(text);
+            Assert.assertEquals(res.getClassNames(), Collections.singletonList("LABEL_2"));
         }
 
         Criteria<Input, Output> criteria2 =
@@ -100,6 +100,47 @@ public class PaddingStackBatchifierTest {
         }
     }
 
+    @Test
+    public void testBatchifyWithPadToMultipleOf() {
+        try (NDManager manager = NDManager.newBaseManager(TestUtils.getEngine())) {
+            Batchifier batchifier =
+                    PaddingStackBatchifier.builder()
+                            .optIncludeValidLengths(true)
+                            .optPadToMultipleOf(4)
+                            .addPad(0, 1, (mngr) -> mngr.full(new Shape(2, 1), -1f))
+                            .build();
+
+            // the longest length 3 is rounded up to 4
+            NDList[] input = new NDList[3];
+            for (int i = 0; i < 3; i++) {
+                input[i] = new NDList(manager.ones(new Shape(2, i + 1)));
+            }
+            NDList actual = batchifier.batchify(input);
+            Assert.assertEquals(actual.size(), 2);
+            NDArray padded = actual.get(0);
+            Assert.assertEquals(padded.getShape(), new Shape(3, 2, 4));
+            Assert.assertEquals(actual.get(1), manager.create(new long[] {1, 2, 3}));
+            for (int i = 0; i < 3; i++) {
+                Assert.assertEquals(
+                        padded.get("{}, :, :{}", i, i + 1), manager.ones(new Shape(2, i + 1)));
+                Assert.assertEquals(
+                        padded.get("{}, :, {}:", i, i + 1), manager.full(new Shape(2, 3 - i), -1f));
+            }
+
+            // the longest length 8 is already a multiple of 4
+            input = new NDList[2];
+            input[0] = new NDList(manager.ones(new Shape(2, 5)));
+            input[1] = new NDList(manager.ones(new Shape(2, 8)));
+            actual = batchifier.batchify(input);
+            padded = actual.get(0);
+            Assert.assertEquals(padded.getShape(), new Shape(2, 2, 8));
+            Assert.assertEquals(actual.get(1), manager.create(new long[] {5, 8}));
+            Assert.assertEquals(padded.get("0, :, :5"), manager.ones(new Shape(2, 5)));
+            Assert.assertEquals(padded.get("0, :, 5:"), manager.full(new Shape(2, 3), -1f));
+            Assert.assertEquals(padded.get("1"), manager.ones(new Shape(2, 8)));
+        }
+    }
+
     @Test
     public void testUnbatchify() {
         try (NDManager manager = NDManager.newBaseManager(TestUtils.getEngine())) {